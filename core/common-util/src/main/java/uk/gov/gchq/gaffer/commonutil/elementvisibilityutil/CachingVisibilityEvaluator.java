@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.commonutil.elementvisibilityutil;
+
+import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.exception.VisibilityParseException;
+
+import java.util.Map;
+
+/**
+ * A {@link VisibilityEvaluator} that uses the {@link ElementVisibilityCache} so
+ * each distinct visibility expression is only parsed and evaluated once for a
+ * given set of {@link Authorisations}. Evaluating an expression that has been
+ * seen before is a single hash lookup.
+ */
+public class CachingVisibilityEvaluator extends VisibilityEvaluator {
+    private final Map<String, Boolean> results;
+
+    public CachingVisibilityEvaluator(final Authorisations auths) {
+        super(auths);
+        this.results = ElementVisibilityCache.getResults(auths);
+    }
+
+    /**
+     * Evaluates the visibility expression against the authorisations.
+     *
+     * @param expression the visibility expression
+     * @return true if the authorisations satisfy the expression
+     * @throws VisibilityParseException if the expression cannot be evaluated
+     */
+    public boolean evaluate(final String expression) throws VisibilityParseException {
+        Boolean result = results.get(expression);
+        if (null == result) {
+            result = evaluate(ElementVisibilityCache.getElementVisibility(expression));
+            if (results.size() >= ElementVisibilityCache.MAX_RESULTS_PER_AUTHORISATIONS) {
+                results.clear();
+            }
+            results.put(expression, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.commonutil.elementvisibilityutil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A shared, bounded cache of parsed {@link ElementVisibility} expressions and
+ * of the result of evaluating them against a set of {@link Authorisations}.
+ * Datasets typically only contain a small number of distinct visibility
+ * strings, so caching them avoids re-parsing the same expression for every
+ * element.
+ * <p>
+ * Each cache is cleared once it exceeds its maximum size, so a dataset with
+ * many distinct visibilities is no worse off than parsing each time.
+ * </p>
+ *
+ * @see CachingVisibilityEvaluator
+ */
+public final class ElementVisibilityCache {
+    public static final int MAX_EXPRESSIONS = 10000;
+    public static final int MAX_AUTHORISATIONS = 1000;
+    public static final int MAX_RESULTS_PER_AUTHORISATIONS = 10000;
+
+    private static final Map<String, ElementVisibility> EXPRESSIONS = new ConcurrentHashMap<>();
+    private static final Map<Authorisations, Map<String, Boolean>> RESULTS = new ConcurrentHashMap<>();
+
+    private ElementVisibilityCache() {
+        // private to prevent instantiation
+    }
+
+    /**
+     * Gets the parsed {@link ElementVisibility} for the expression, parsing
+     * and caching it if it has not been seen before.
+     *
+     * @param expression the visibility expression
+     * @return the parsed visibility
+     */
+    public static ElementVisibility getElementVisibility(final String expression) {
+        ElementVisibility visibility = EXPRESSIONS.get(expression);
+        if (null == visibility) {
+            visibility = new ElementVisibility(expression);
+            if (EXPRESSIONS.size() >= MAX_EXPRESSIONS) {
+                EXPRESSIONS.clear();
+            }
+            EXPRESSIONS.put(expression, visibility);
+        }
+        return visibility;
+    }
+
+    /**
+     * Gets the cache of evaluation results, keyed by visibility expression,
+     * for the given authorisations.
+     *
+     * @param authorisations the authorisations the expressions are evaluated against
+     * @return the evaluation results for the authorisations
+     */
+    static Map<String, Boolean> getResults(final Authorisations authorisations) {
+        Map<String, Boolean> results = RESULTS.get(authorisations);
+        if (null == results) {
+            if (RESULTS.size() >= MAX_AUTHORISATIONS) {
+                RESULTS.clear();
+            }
+            results = RESULTS.computeIfAbsent(authorisations, k -> new ConcurrentHashMap<>());
+        }
+        return results;
+    }
+
+    /**
+     * Removes all cached expressions and evaluation results.
+     */
+    public static void clear() {
+        EXPRESSIONS.clear();
+        RESULTS.clear();
+    }
+}
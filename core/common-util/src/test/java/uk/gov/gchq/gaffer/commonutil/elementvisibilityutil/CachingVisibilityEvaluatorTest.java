@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.commonutil.elementvisibilityutil;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CachingVisibilityEvaluatorTest {
+
+    @BeforeEach
+    public void setUp() {
+        ElementVisibilityCache.clear();
+    }
+
+    @Test
+    public void shouldEvaluateTheSameAsVisibilityEvaluator() throws Exception {
+        // Given
+        final Authorisations auths = new Authorisations("one", "two");
+        final VisibilityEvaluator evaluator = new VisibilityEvaluator(auths);
+        final CachingVisibilityEvaluator cachingEvaluator = new CachingVisibilityEvaluator(auths);
+
+        // When / Then
+        for (final String expression : new String[]{"", "one", "three", "one&two", "one&three", "one|three", "(one|three)&two"}) {
+            final boolean expected = evaluator.evaluate(new ElementVisibility(expression));
+            assertThat(cachingEvaluator.evaluate(expression)).isEqualTo(expected);
+            assertThat(cachingEvaluator.evaluate(expression)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void shouldKeepResultsSeparateForDifferentAuthorisations() throws Exception {
+        // Given
+        final CachingVisibilityEvaluator evaluator1 = new CachingVisibilityEvaluator(new Authorisations("one"));
+        final CachingVisibilityEvaluator evaluator2 = new CachingVisibilityEvaluator(new Authorisations("two"));
+
+        // When / Then
+        assertThat(evaluator1.evaluate("one")).isTrue();
+        assertThat(evaluator2.evaluate("one")).isFalse();
+    }
+
+    @Test
+    public void shouldShareResultsForEqualAuthorisations() throws Exception {
+        // Given
+        new CachingVisibilityEvaluator(new Authorisations("one")).evaluate("one&two");
+
+        // When
+        final boolean result = new CachingVisibilityEvaluator(new Authorisations("one")).evaluate("one&two");
+
+        // Then
+        assertThat(result).isFalse();
+        assertThat(ElementVisibilityCache.getResults(new Authorisations("one"))).containsEntry("one&two", false);
+    }
+
+    @Test
+    public void shouldReuseParsedElementVisibility() {
+        // When
+        final ElementVisibility visibility1 = ElementVisibilityCache.getElementVisibility("one&two");
+        final ElementVisibility visibility2 = ElementVisibilityCache.getElementVisibility("one&two");
+
+        // Then
+        assertThat(visibility1).isSameAs(visibility2);
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidExpression() {
+        // Given
+        final CachingVisibilityEvaluator evaluator = new CachingVisibilityEvaluator(new Authorisations("one"));
+
+        // When / Then
+        assertThatExceptionOfType(PatternSyntaxException.class)
+                .isThrownBy(() -> evaluator.evaluate("one&"));
+    }
+}
@@ -32,10 +32,11 @@ import java.util.function.BinaryOperator;
 /**
  * An {@link ElementAggregator} is a {@link BinaryOperator} which aggregates two
  * {@link Element} objects into a single element.
+ * <p>
+ * The aggregator holds no per-call state, so a single instance can be used to
+ * aggregate different elements on multiple threads.
  */
 public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<String> {
-    private final PropertiesTuple stateTuple = new PropertiesTuple();
-    private final PropertiesTuple propertiesTuple = new PropertiesTuple();
     private boolean readOnly;
 
     /**
@@ -60,9 +61,7 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return properties;
         }
 
-        propertiesTuple.setProperties(properties);
-        stateTuple.setProperties(state);
-        apply(stateTuple, propertiesTuple);
+        apply(new PropertiesTuple(state), new PropertiesTuple(properties));
         return state;
     }
 
@@ -92,12 +91,8 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return false;
         }
 
-        final ElementAggregator that = (ElementAggregator) obj;
-
         return new EqualsBuilder()
                 .appendSuper(super.equals(obj))
-                .append(stateTuple, that.stateTuple)
-                .append(propertiesTuple, that.propertiesTuple)
                 .isEquals();
     }
 
@@ -105,16 +100,13 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
     public int hashCode() {
         return new HashCodeBuilder(59, 13)
                 .appendSuper(super.hashCode())
-                .append(stateTuple)
-                .append(propertiesTuple)
                 .toHashCode();
     }
 
     @Override
     public String toString() {
         return new ToStringBuilder(this)
-                .append("stateTuple", stateTuple)
-                .append("propertiesTuple", propertiesTuple)
+                .append("components", getComponents())
                 .toString();
     }
 
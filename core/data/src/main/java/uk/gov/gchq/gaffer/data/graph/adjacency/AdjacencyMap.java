@@ -30,13 +30,18 @@ import static java.util.stream.Collectors.toSet;
 /**
  * An {@code AdjacencyMap} is used to store the contents of a graph in memory in
  * a format which can easily be interrogated.
+ * <p>
+ * Most pairs of vertices are joined by a single edge, so a single edge is
+ * stored directly and a {@link Set} is only created when a second edge is added
+ * between the same pair of vertices.
  */
 public class AdjacencyMap {
 
     /**
-     * Backing object used to store the AdjacencyMap representation.
+     * Backing object used to store the AdjacencyMap representation. The values
+     * are either a single {@link Edge} or a {@link Set} of edges.
      */
-    private final HashBasedTable<Object, Object, Set<Edge>> edgeGraph = HashBasedTable.create();
+    private final HashBasedTable<Object, Object, Object> edgeGraph = HashBasedTable.create();
 
     /**
      * Get the entries in the AdjacencyMap which match the provided source and
@@ -49,8 +54,7 @@ public class AdjacencyMap {
      * vertices
      */
     public Set<Edge> getEdges(final Object source, final Object destination) {
-        final Set<Edge> results = edgeGraph.get(source, destination);
-        return null != results ? results : Collections.emptySet();
+        return asSet(edgeGraph.get(source, destination));
     }
 
     /**
@@ -80,14 +84,25 @@ public class AdjacencyMap {
      * source and destination vertices
      */
     public Set<Edge> putEdge(final Object source, final Object destination, final Edge edge) {
-        final Set<Edge> existing = edgeGraph.get(source, destination);
+        final Object existing = edgeGraph.get(source, destination);
         if (null == existing) {
-            final Set<Edge> set = Sets.newHashSet(edge);
-            return edgeGraph.put(source, destination, set);
-        } else {
-            existing.add(edge);
-            return existing;
+            edgeGraph.put(source, destination, edge);
+            return Collections.singleton(edge);
         }
+
+        if (existing instanceof Set) {
+            final Set<Edge> existingSet = (Set<Edge>) existing;
+            existingSet.add(edge);
+            return existingSet;
+        }
+
+        if (existing.equals(edge)) {
+            return Collections.singleton((Edge) existing);
+        }
+
+        final Set<Edge> set = Sets.newHashSet((Edge) existing, edge);
+        edgeGraph.put(source, destination, set);
+        return set;
     }
 
     /**
@@ -173,6 +188,16 @@ public class AdjacencyMap {
         return edgeGraph.columnKeySet().contains(destination);
     }
 
+    private static Set<Edge> asSet(final Object value) {
+        if (null == value) {
+            return Collections.emptySet();
+        }
+        if (value instanceof Set) {
+            return (Set<Edge>) value;
+        }
+        return Collections.singleton((Edge) value);
+    }
+
     public String toStringFull() {
         return super.toString() + '[' + toString() + ']';
     }
@@ -123,6 +123,33 @@ public class AdjacencyMapTest {
         assertThat(results).contains(makeEdge(1, 2), makeEdge(TestGroups.EDGE_2, 1, 2), makeEdge(TestGroups.EDGE_3, 1, 2));
     }
 
+    @Test
+    public void shouldPutEdgesWhenNotExisting() {
+        // Given
+        final AdjacencyMap adjacencyMap = new AdjacencyMap();
+
+        // When
+        final Set<Edge> added = adjacencyMap.putEdges(1, 2, Sets.newHashSet(makeEdge(1, 2), makeEdge(TestGroups.EDGE_2, 1, 2)));
+
+        // Then
+        assertThat(added).contains(makeEdge(1, 2), makeEdge(TestGroups.EDGE_2, 1, 2));
+        assertThat(adjacencyMap.getEdges(1, 2)).contains(makeEdge(1, 2), makeEdge(TestGroups.EDGE_2, 1, 2));
+    }
+
+    @Test
+    public void shouldNotDuplicateEdgeWhenPutTwice() {
+        // Given
+        final AdjacencyMap adjacencyMap = new AdjacencyMap();
+
+        // When
+        adjacencyMap.putEdge(1, 2, makeEdge(1, 2));
+        final Set<Edge> results = adjacencyMap.putEdge(1, 2, makeEdge(1, 2));
+
+        // Then
+        assertThat(results).containsExactly(makeEdge(1, 2));
+        assertThat(adjacencyMap.getEdges(1, 2)).containsExactly(makeEdge(1, 2));
+    }
+
     @Test
     public void shouldContainDestination() {
         // Given
@@ -55,6 +55,7 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 import uk.gov.gchq.koryphe.util.ReflectionUtil;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -91,12 +92,24 @@ import static org.apache.commons.collections.CollectionUtils.isEmpty;
  * When executing operations on a graph, an operation view would override the
  * graph view.
  * </p>
+ * <p>
+ * A graph should be closed when it is no longer needed, to release the
+ * resources held by its store, such as thread pools.
+ * </p>
  *
  * @see uk.gov.gchq.gaffer.graph.Graph.Builder
  */
-public final class Graph {
+public final class Graph implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Graph.class);
 
+    /**
+     * The {@link Context} config key set to true while the {@link GraphHook}s
+     * are run before an operation chain is executed as a job. The results of
+     * a job are not passed to {@link GraphHook#postExecute(Object, OperationChain, Context)},
+     * so hooks can use this to avoid changes that rely on updating the results.
+     */
+    public static final String JOB_CONFIG_KEY = "gaffer.graph.job";
+
     /**
      * The instance of the store.
      */
@@ -183,7 +196,7 @@ public final class Graph {
      * @throws OperationException if an operation fails
      */
     public <O> GraphResult<O> execute(final GraphRequest<O> request) throws OperationException {
-        return _execute(store::execute, request);
+        return _execute(store::execute, request, false);
     }
 
     /**
@@ -224,7 +237,7 @@ public final class Graph {
      * @throws OperationException thrown if the job fails to run.
      */
     public GraphResult<JobDetail> executeJob(final GraphRequest<?> request) throws OperationException {
-        return _execute(store::executeJob, request);
+        return _execute(store::executeJob, request, true);
     }
 
     /**
@@ -271,9 +284,7 @@ public final class Graph {
         JobDetail result = null;
         try {
             updateOperationChainView(clonedOpChain);
-            for (final GraphHook graphHook : config.getHooks()) {
-                graphHook.preExecute(clonedOpChain, clonedContext);
-            }
+            preExecuteHooks(clonedOpChain, clonedContext, true);
             updateOperationChainView(clonedOpChain);
             job.setOperation(clonedOpChain);
             result = store.executeJob(job, context);
@@ -295,7 +306,7 @@ public final class Graph {
         return result;
     }
 
-    private <O> GraphResult<O> _execute(final StoreExecuter<O> storeExecuter, final GraphRequest<?> request) throws OperationException {
+    private <O> GraphResult<O> _execute(final StoreExecuter<O> storeExecuter, final GraphRequest<?> request, final boolean job) throws OperationException {
         if (null == request) {
             throw new IllegalArgumentException("A request is required");
         }
@@ -311,9 +322,7 @@ public final class Graph {
         O result = null;
         try {
             updateOperationChainView(clonedOpChain);
-            for (final GraphHook graphHook : config.getHooks()) {
-                graphHook.preExecute(clonedOpChain, clonedContext);
-            }
+            preExecuteHooks(clonedOpChain, clonedContext, job);
             // TODO - remove in V2
             // This updates the view, used for empty or null views, for
             // example if there is a NamedOperation that has been resolved
@@ -348,10 +357,34 @@ public final class Graph {
             CloseableUtil.close(clonedOpChain);
             CloseableUtil.close(result);
             throw e;
+        } finally {
+            // Jobs are still running, so the store closes their exporters when they finish
+            if (!job) {
+                clonedContext.closeExporters();
+            }
         }
         return new GraphResult<>(result, clonedContext);
     }
 
+    private void preExecuteHooks(final OperationChain<?> opChain, final Context context, final boolean job) {
+        if (!job) {
+            for (final GraphHook graphHook : config.getHooks()) {
+                graphHook.preExecute(opChain, context);
+            }
+            return;
+        }
+
+        // The config map is shared with the caller's context, so the key is removed again afterwards
+        context.setConfig(JOB_CONFIG_KEY, true);
+        try {
+            for (final GraphHook graphHook : config.getHooks()) {
+                graphHook.preExecute(opChain, context);
+            }
+        } finally {
+            context.setConfig(JOB_CONFIG_KEY, null);
+        }
+    }
+
     private void updateOperationChainView(final Operations<?> operations) {
 
         for (final Operation operation : operations.getOperations()) {
@@ -463,6 +496,16 @@ public final class Graph {
         return store.getTraits();
     }
 
+    /**
+     * Closes the store, releasing any resources it holds such as thread
+     * pools. Operations should not be executed on the graph once it has
+     * been closed.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
     /**
      * @return the graphId for this Graph.
      */
@@ -0,0 +1,638 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.graph.hook;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.Validatable;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.export.Export;
+import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Validate;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Input;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code SeedResultCacheHook} is a {@link GraphHook} that caches the results
+ * of {@link GetElements} and {@link GetAdjacentIds} operations per seed, using
+ * the cache service configured via the {@link CacheServiceLoader}.
+ * <p>
+ * Only operation chains containing a single {@link GetElements} or {@link GetAdjacentIds}
+ * operation with {@link EntityId} seeds are cached. Each seed is cached under a key
+ * made up of the seed, a hash of the canonical JSON of the view, the directed type,
+ * the incoming/outgoing type, the seed matching type, the operation options and the
+ * user's data and operation authorisations. When some of the seeds are in the cache
+ * the operation input is reduced to the cache misses, and the cached results are
+ * returned alongside the results from the store. The results for the missed seeds
+ * are cached once they have been fully iterated.
+ * As the results of {@link GetAdjacentIds} cannot be attributed to individual seeds,
+ * these are only cached for single seed queries, or served from the cache when every
+ * seed is a hit.
+ * <p>
+ * The cache is cleared whenever an operation chain adding elements to the graph
+ * (any {@link Validatable} operation, such as
+ * {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements}) is executed. Elements
+ * added to the underlying store by other means are only picked up once the cached
+ * entries expire.
+ * <p>
+ * The cacheName is required, as graphs sharing a cache service must use
+ * different caches. All other fields are optional:
+ * <ul>
+ * <li>cacheName = the name of the cache to use</li>
+ * <li>maxEntries = the maximum number of seeds to cache before the least recently used seeds are evicted</li>
+ * <li>timeToLive = the number of milliseconds a cached seed is valid for. Set to 0 to never expire seeds</li>
+ * <li>maxResultsPerSeed = seeds with more results than this are not cached</li>
+ * </ul>
+ * The cached results are only added back in {@link #postExecute(Object, OperationChain, Context)},
+ * so operations executed as jobs, or within a chain containing an
+ * {@link Export}, are run against the store for every seed.
+ */
+@JsonPropertyOrder(alphabetic = true)
+public class SeedResultCacheHook implements GraphHook {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeedResultCacheHook.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_TIME_TO_LIVE = 60000L;
+    public static final int DEFAULT_MAX_RESULTS_PER_SEED = 1000;
+
+    private String cacheName;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+    private int maxResultsPerSeed = DEFAULT_MAX_RESULTS_PER_SEED;
+
+    /**
+     * Incremented whenever the graph is updated, so results read before
+     * the update are not cached after it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, Boolean> recentlyUsedKeys = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Request> requests = new ConcurrentHashMap<>();
+
+    @Override
+    public void preExecute(final OperationChain<?> opChain, final Context context) {
+        if (null == cacheName) {
+            throw new IllegalArgumentException("A cacheName is required for the " + getClass().getSimpleName());
+        }
+
+        if (isUpdate(opChain)) {
+            generation.incrementAndGet();
+            return;
+        }
+
+        final ICache<String, CachedResult> cache = getCache();
+        if (null == cache || 1 != opChain.getOperations().size()) {
+            return;
+        }
+
+        final Operation operation = opChain.getOperations().get(0);
+        final Map<Object, Object> seeds = getSeeds(operation);
+        if (null == seeds) {
+            return;
+        }
+
+        final String operationKey = getOperationKey(operation, context.getUser());
+        if (null == operationKey) {
+            return;
+        }
+
+        final long currentGeneration = generation.get();
+        final List<CachedResult> cachedResults = new ArrayList<>();
+        final Map<Object, String> missedKeys = new LinkedHashMap<>();
+        final List<Object> missedSeeds = new ArrayList<>();
+        for (final Map.Entry<Object, Object> seed : seeds.entrySet()) {
+            final String key = getSeedKey(operationKey, seed.getKey());
+            if (null == key) {
+                return;
+            }
+            final CachedResult cachedResult = getCachedResult(cache, key);
+            if (null == cachedResult) {
+                missedKeys.put(seed.getKey(), key);
+                missedSeeds.add(seed.getValue());
+            } else {
+                cachedResults.add(cachedResult);
+            }
+        }
+        final List<Object> hits = getHits(cachedResults, missedKeys.keySet());
+
+        final boolean isAdjacentIds = operation instanceof GetAdjacentIds;
+        if (isAdjacentIds && missedKeys.size() > 1) {
+            // Adjacent ids cannot be attributed to seeds, so only single seeds can be cached
+            return;
+        }
+
+        if (missedSeeds.size() < seeds.size() && !canMergeResults(opChain, context)) {
+            // The cached results could not be added back, so the store must be queried for every seed
+            return;
+        }
+        requests.put(context.getJobId(), new Request(operation, currentGeneration, isAdjacentIds, hits, missedKeys));
+
+        if (missedSeeds.size() < seeds.size()) {
+            ((Input) operation).setInput(missedSeeds);
+        }
+    }
+
+    @Override
+    public <T> T postExecute(final T result, final OperationChain<?> opChain, final Context context) {
+        if (isUpdate(opChain)) {
+            invalidate();
+            return result;
+        }
+
+        final Request request = requests.remove(context.getJobId());
+        if (null == request || !(result instanceof Iterable)) {
+            return result;
+        }
+
+        if (1 != opChain.getOperations().size() || request.getOperation() != opChain.getOperations().get(0)) {
+            // Another hook has added operations, so the result is not the result of the cached operation
+            if (!request.getHits().isEmpty()) {
+                throw new IllegalStateException("The cached results could not be added as the operation chain was changed after the "
+                        + getClass().getSimpleName() + " ran. It must run after any hooks that add operations to the chain.");
+            }
+            return result;
+        }
+
+        final Iterable<?> storeResult = request.getMissedKeys().isEmpty()
+                ? (Iterable<?>) result
+                : new CachingIterable(request, (Iterable<?>) result);
+        if (request.getHits().isEmpty()) {
+            return (T) storeResult;
+        }
+        return (T) new ChainedIterable<>(request.getHits(), storeResult);
+    }
+
+    @Override
+    public <T> T onFailure(final T result, final OperationChain<?> opChain, final Context context, final Exception e) {
+        requests.remove(context.getJobId());
+        if (isUpdate(opChain)) {
+            invalidate();
+        }
+        return result;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(final String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(final long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public int getMaxResultsPerSeed() {
+        return maxResultsPerSeed;
+    }
+
+    public void setMaxResultsPerSeed(final int maxResultsPerSeed) {
+        this.maxResultsPerSeed = maxResultsPerSeed;
+    }
+
+    private ICache<String, CachedResult> getCache() {
+        if (!CacheServiceLoader.isEnabled()) {
+            return null;
+        }
+        return CacheServiceLoader.getService().getCache(cacheName);
+    }
+
+    private boolean isUpdate(final OperationChain<?> opChain) {
+        for (final Operation operation : opChain.flatten()) {
+            if (operation instanceof Validatable && !(operation instanceof Validate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the results of the operation chain will be passed to
+     * {@link #postExecute(Object, OperationChain, Context)}, so cached results
+     * can be added to them. Jobs only return their job details, and the
+     * results of an export are only returned by a later operation chain.
+     *
+     * @param opChain the operation chain
+     * @param context the context
+     * @return true if the cached results can be added to the results
+     */
+    private boolean canMergeResults(final OperationChain<?> opChain, final Context context) {
+        if (Boolean.TRUE.equals(context.getConfig(Graph.JOB_CONFIG_KEY))) {
+            return false;
+        }
+        for (final Operation operation : opChain.flatten()) {
+            if (operation instanceof Export) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        final ICache<String, CachedResult> cache = getCache();
+        if (null == cache) {
+            return;
+        }
+        synchronized (recentlyUsedKeys) {
+            recentlyUsedKeys.clear();
+            try {
+                cache.clear();
+            } catch (final CacheOperationException e) {
+                LOGGER.warn("Unable to clear the seed result cache {}: {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the seeds of the operation, keyed by vertex.
+     *
+     * @param operation the operation
+     * @return the seeds keyed by vertex, or null if the operation cannot be cached
+     */
+    private Map<Object, Object> getSeeds(final Operation operation) {
+        if (!GetElements.class.equals(operation.getClass()) && !GetAdjacentIds.class.equals(operation.getClass())) {
+            return null;
+        }
+
+        // Only collections are used, so lazy inputs are never consumed by this hook
+        final Object input = ((Input) operation).getInput();
+        if (!(input instanceof Collection) || ((Collection) input).isEmpty()) {
+            return null;
+        }
+
+        final Map<Object, Object> seeds = new LinkedHashMap<>();
+        for (final Object seed : (Collection<?>) input) {
+            if (!(seed instanceof EntityId) || null == ((EntityId) seed).getVertex()
+                    || null != seeds.put(((EntityId) seed).getVertex(), seed)) {
+                return null;
+            }
+        }
+        return seeds;
+    }
+
+    @SuppressWarnings("deprecation")
+    private String getOperationKey(final Operation operation, final User user) {
+        final Map<String, Object> parts = new TreeMap<>();
+        parts.put("operation", operation.getClass().getName());
+        parts.put("view", ((SeededGraphFilters) operation).getView());
+        parts.put("directedType", ((SeededGraphFilters) operation).getDirectedType());
+        parts.put("includeIncomingOutGoing", ((SeededGraphFilters) operation).getIncludeIncomingOutGoing());
+        if (operation instanceof GetElements) {
+            parts.put("seedMatching", ((GetElements) operation).getSeedMatching());
+        }
+        if (null != operation.getOptions()) {
+            parts.put("options", new TreeMap<>(operation.getOptions()));
+        }
+        // The view may be updated per user by hooks run after this one, e.g. the UpdateViewHook
+        parts.put("dataAuths", new TreeSet<>(user.getDataAuths()));
+        parts.put("opAuths", new TreeSet<>(user.getOpAuths()));
+
+        try {
+            final byte[] json = JSONSerialiser.getMapper()
+                    .writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(parts);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (final JsonProcessingException | NoSuchAlgorithmException e) {
+            LOGGER.debug("Unable to create the seed result cache key, so the results will not be cached: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String getSeedKey(final String operationKey, final Object vertex) {
+        try {
+            return operationKey + ":" + new String(JSONSerialiser.serialise(new EntitySeed(vertex)), StandardCharsets.UTF_8);
+        } catch (final SerialisationException e) {
+            LOGGER.debug("Unable to serialise seed {}, so the results will not be cached: {}", vertex, e.getMessage());
+            return null;
+        }
+    }
+
+    private CachedResult getCachedResult(final ICache<String, CachedResult> cache, final String key) {
+        final CachedResult cachedResult = cache.get(key);
+        if (null == cachedResult) {
+            return null;
+        }
+
+        synchronized (recentlyUsedKeys) {
+            if (timeToLive > 0 && System.currentTimeMillis() - cachedResult.getTimestamp() > timeToLive) {
+                recentlyUsedKeys.remove(key);
+                cache.remove(key);
+                return null;
+            }
+            recentlyUsedKeys.put(key, Boolean.TRUE);
+        }
+        return cachedResult;
+    }
+
+    /**
+     * Gets the results to return from the cache. Edges without a matched vertex
+     * are cached against both of their seeds, so they are only returned once,
+     * and not at all if the store is being queried for their other seed.
+     *
+     * @param cachedResults the cached results for the seeds that were hits
+     * @param missedSeeds   the seeds the store is being queried for
+     * @return the results to return from the cache
+     */
+    private List<Object> getHits(final List<CachedResult> cachedResults, final Set<Object> missedSeeds) {
+        final List<Object> hits = new ArrayList<>();
+        final Set<Object> unmatchedEdges = new HashSet<>();
+        for (final CachedResult cachedResult : cachedResults) {
+            for (final Object item : cachedResult.getResults()) {
+                if (item instanceof Edge && null == ((Edge) item).getMatchedVertex()) {
+                    final Edge edge = (Edge) item;
+                    if (missedSeeds.contains(edge.getSource()) || missedSeeds.contains(edge.getDestination())
+                            || !unmatchedEdges.add(edge)) {
+                        continue;
+                    }
+                }
+                hits.add(item instanceof Element ? ((Element) item).shallowClone() : item);
+            }
+        }
+        return hits;
+    }
+
+    private void cacheResults(final Request request, final Map<Object, List<Object>> results) {
+        final ICache<String, CachedResult> cache = getCache();
+        if (null == cache) {
+            return;
+        }
+
+        final long timestamp = System.currentTimeMillis();
+        synchronized (recentlyUsedKeys) {
+            // Do not cache results read before the graph was updated
+            if (request.getGeneration() != generation.get()) {
+                return;
+            }
+            try {
+                for (final Map.Entry<Object, List<Object>> entry : results.entrySet()) {
+                    final String key = request.getMissedKeys().get(entry.getKey());
+                    cache.put(key, new CachedResult(timestamp, entry.getValue()));
+                    recentlyUsedKeys.put(key, Boolean.TRUE);
+                }
+                final Iterator<String> keys = recentlyUsedKeys.keySet().iterator();
+                while (recentlyUsedKeys.size() > maxEntries && keys.hasNext()) {
+                    cache.remove(keys.next());
+                    keys.remove();
+                }
+            } catch (final CacheOperationException e) {
+                LOGGER.warn("Unable to add results to the seed result cache {}: {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The state of a cacheable request, held between
+     * {@link #preExecute(OperationChain, Context)} and {@link #postExecute(Object, OperationChain, Context)}.
+     */
+    private static final class Request {
+        private final Operation operation;
+        private final long generation;
+        private final boolean adjacentIds;
+        private final List<Object> hits;
+        private final Map<Object, String> missedKeys;
+
+        private Request(final Operation operation, final long generation, final boolean adjacentIds,
+                        final List<Object> hits, final Map<Object, String> missedKeys) {
+            this.operation = operation;
+            this.generation = generation;
+            this.adjacentIds = adjacentIds;
+            this.hits = hits;
+            this.missedKeys = missedKeys;
+        }
+
+        private Operation getOperation() {
+            return operation;
+        }
+
+        private long getGeneration() {
+            return generation;
+        }
+
+        private boolean isAdjacentIds() {
+            return adjacentIds;
+        }
+
+        private List<Object> getHits() {
+            return hits;
+        }
+
+        private Map<Object, String> getMissedKeys() {
+            return missedKeys;
+        }
+    }
+
+    /**
+     * The cached results for a single seed.
+     */
+    public static final class CachedResult implements Serializable {
+        private static final long serialVersionUID = -4093637390263935640L;
+        private final long timestamp;
+        private final List<Object> results;
+
+        public CachedResult(final long timestamp, final List<Object> results) {
+            this.timestamp = timestamp;
+            this.results = results;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public List<Object> getResults() {
+            return Collections.unmodifiableList(results);
+        }
+    }
+
+    /**
+     * Wraps the store results, grouping them by seed so the results for
+     * each missed seed can be cached once they have all been read.
+     */
+    private final class CachingIterable implements CloseableIterable<Object> {
+        private final Request request;
+        private final Iterable<?> results;
+        private boolean cached;
+
+        private CachingIterable(final Request request, final Iterable<?> results) {
+            this.request = request;
+            this.results = results;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(results);
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator() {
+            return new CachingIterator(results.iterator());
+        }
+
+        private final class CachingIterator implements CloseableIterator<Object> {
+            private final Iterator<?> iterator;
+            private final Map<Object, List<Object>> resultsBySeed = new HashMap<>();
+            private final Set<Object> uncacheableSeeds = new HashSet<>();
+            private boolean cacheable = true;
+
+            private CachingIterator(final Iterator<?> iterator) {
+                this.iterator = iterator;
+                for (final Object vertex : request.getMissedKeys().keySet()) {
+                    resultsBySeed.put(vertex, new ArrayList<>());
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                final boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    cache();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object next() {
+                final Object item = iterator.next();
+                if (cacheable) {
+                    record(item);
+                }
+                return item;
+            }
+
+            @Override
+            public void close() {
+                CloseableUtil.close(iterator);
+            }
+
+            private void record(final Object item) {
+                if (request.isAdjacentIds()) {
+                    add(request.getMissedKeys().keySet().iterator().next(), item);
+                } else if (item instanceof Entity) {
+                    add(((Entity) item).getVertex(), item);
+                } else if (item instanceof Edge) {
+                    final Edge edge = (Edge) item;
+                    if (MatchedVertex.DESTINATION == edge.getMatchedVertex()) {
+                        add(edge.getDestination(), item);
+                    } else if (MatchedVertex.SOURCE == edge.getMatchedVertex()) {
+                        add(edge.getSource(), item);
+                    } else {
+                        // Without a matched vertex the edge is cached against each of its seeds,
+                        // and only returned once when they are read back from the cache
+                        final List<Object> vertices = new ArrayList<>(2);
+                        if (resultsBySeed.containsKey(edge.getSource())) {
+                            vertices.add(edge.getSource());
+                        }
+                        if (!edge.getDestination().equals(edge.getSource()) && resultsBySeed.containsKey(edge.getDestination())) {
+                            vertices.add(edge.getDestination());
+                        }
+                        if (vertices.isEmpty()) {
+                            cacheable = false;
+                        }
+                        for (final Object vertex : vertices) {
+                            add(vertex, item);
+                        }
+                    }
+                } else {
+                    cacheable = false;
+                }
+            }
+
+            private void add(final Object vertex, final Object item) {
+                final List<Object> seedResults = resultsBySeed.get(vertex);
+                if (null == seedResults) {
+                    // The result could not be attributed to a seed
+                    cacheable = false;
+                } else if (!uncacheableSeeds.contains(vertex)) {
+                    if (seedResults.size() < maxResultsPerSeed) {
+                        seedResults.add(item instanceof Element ? ((Element) item).shallowClone() : item);
+                    } else {
+                        uncacheableSeeds.add(vertex);
+                        seedResults.clear();
+                    }
+                }
+            }
+
+            private void cache() {
+                synchronized (CachingIterable.this) {
+                    if (!cacheable || cached) {
+                        return;
+                    }
+                    cached = true;
+                }
+                resultsBySeed.keySet().removeAll(uncacheableSeeds);
+                cacheResults(request, resultsBySeed);
+            }
+        }
+    }
+}
@@ -509,6 +509,103 @@ public class GraphTest {
         verify(context).setOriginalOpChain(opChain);
     }
 
+    @Test
+    public void shouldMarkTheContextAsAJobWhilstGraphHooksAreCalledBeforeJobExecuted() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        final GraphHook hook = mock(GraphHook.class);
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .addHook(hook)
+                        .build())
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(new Schema.Builder().build())
+                .build();
+
+        // When
+        graph.executeJob(opChain, context);
+
+        // Then
+        final InOrder inOrder = inOrder(hook, clonedContext, store);
+        inOrder.verify(clonedContext).setConfig(Graph.JOB_CONFIG_KEY, true);
+        inOrder.verify(hook).preExecute(clonedOpChain, clonedContext);
+        inOrder.verify(clonedContext).setConfig(Graph.JOB_CONFIG_KEY, null);
+        inOrder.verify(store).executeJob(clonedOpChain, clonedContext);
+    }
+
+    @Test
+    public void shouldCloseStoreWhenGraphIsClosed() {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .build())
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(new Schema.Builder().build())
+                .build();
+
+        // When
+        graph.close();
+
+        // Then
+        verify(store).close();
+    }
+
+    @Test
+    public void shouldCloseExportersWhenOperationChainFinishes() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .build())
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(new Schema.Builder().build())
+                .build();
+
+        // When
+        graph.execute(opChain, context);
+
+        // Then
+        final InOrder inOrder = inOrder(store, clonedContext);
+        inOrder.verify(store).execute(clonedOpChain, clonedContext);
+        inOrder.verify(clonedContext).closeExporters();
+    }
+
+    @Test
+    public void shouldNotCloseExportersWhenJobIsSubmitted() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .build())
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(new Schema.Builder().build())
+                .build();
+
+        // When
+        graph.executeJob(opChain, context);
+
+        // Then
+        verify(store).executeJob(clonedOpChain, clonedContext);
+        verify(clonedContext, never()).closeExporters();
+    }
+
     @Test
     public void shouldCallAllGraphHooksAfterOperationExecuted() throws OperationException {
         // Given
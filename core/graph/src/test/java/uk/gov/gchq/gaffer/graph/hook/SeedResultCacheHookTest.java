@@ -0,0 +1,453 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.graph.hook;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import uk.gov.gchq.gaffer.cache.impl.HashMapCacheService;
+import uk.gov.gchq.gaffer.cache.util.CacheProperties;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.export.set.ExportToSet;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToList;
+import uk.gov.gchq.gaffer.operation.io.Input;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class SeedResultCacheHookTest extends GraphHookTest<SeedResultCacheHook> {
+    private static final User USER = new User.Builder()
+            .userId("user")
+            .dataAuths("public")
+            .build();
+    private static final String CACHE_NAME = "seedResultCache";
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .edge(TestGroups.EDGE)
+            .build();
+
+    public SeedResultCacheHookTest() {
+        super(SeedResultCacheHook.class);
+    }
+
+    @BeforeAll
+    public static void setUpCache() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, HashMapCacheService.class.getName());
+        CacheServiceLoader.initialise(properties);
+    }
+
+    @AfterAll
+    public static void tearDownCache() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @BeforeEach
+    public void clearCache() throws CacheOperationException {
+        CacheServiceLoader.getService().clearCache(CACHE_NAME);
+    }
+
+    @Test
+    public void shouldOnlySendCacheMissesToTheStoreAndReturnCachedResults() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A", "B"), USER, Arrays.asList(
+                createEntity("A"), createEdge("A", "B", MatchedVertex.SOURCE),
+                createEntity("B"), createEdge("A", "B", MatchedVertex.DESTINATION)));
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A", "B", "C"));
+        final List<Object> results = execute(hook, opChain, USER, Collections.singletonList(createEntity("C")));
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("C"));
+        assertThat(results).containsExactlyInAnyOrder(
+                createEntity("A"), createEdge("A", "B", MatchedVertex.SOURCE),
+                createEntity("B"), createEdge("A", "B", MatchedVertex.DESTINATION),
+                createEntity("C"));
+    }
+
+    @Test
+    public void shouldReturnTheSameResultsAsTheStoreForEdgesWithoutMatchedVertex() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        final List<Element> graph = Arrays.asList(
+                createEntity("A"), createEntity("B"), createEntity("C"),
+                createEdge("A", "B", null), createEdge("B", "C", null),
+                createEdge("A", "C", null), createEdge("C", "D", null));
+        final List<List<String>> queries = Arrays.asList(
+                Arrays.asList("A", "B"), Arrays.asList("A", "B"), Arrays.asList("B", "C"),
+                Arrays.asList("A", "B", "C"), Collections.singletonList("C"),
+                Arrays.asList("A", "D"), Arrays.asList("D", "B", "A", "C"));
+
+        for (final List<String> query : queries) {
+            // When
+            final OperationChain<?> opChain = new OperationChain<>(getElements(query.toArray(new String[0])));
+            final Context context = new Context(USER);
+            hook.preExecute(opChain, context);
+            final List<Object> results = consume(hook.postExecute(
+                    new WrappedCloseableIterable<>(getStoreResults(graph, getInput(opChain))), opChain, context));
+
+            // Then
+            assertThat(results)
+                    .as("Results for seeds %s", query)
+                    .containsExactlyInAnyOrderElementsOf(getStoreResults(graph, getElements(query.toArray(new String[0])).getInput()));
+        }
+    }
+
+    @Test
+    public void shouldCacheSeedsWithoutResults() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A"), USER, Collections.emptyList());
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        final List<Object> results = execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).isEmpty();
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    public void shouldNotCacheResultsThatAreNotFullyRead() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        final OperationChain<?> firstOpChain = new OperationChain<>(getElements("A"));
+        final Context context = new Context(USER);
+        hook.preExecute(firstOpChain, context);
+        final Iterable<?> firstResults = hook.postExecute(
+                new WrappedCloseableIterable<>(Arrays.asList(createEntity("A"), createEdge("A", "B", MatchedVertex.SOURCE))),
+                firstOpChain, context);
+        firstResults.iterator().next();
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldNotUseCachedResultsForDifferentViewsOrDataAuths() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        final GetElements differentView = new GetElements.Builder()
+                .input(new EntitySeed("A"))
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .build();
+        final User differentUser = new User.Builder()
+                .userId("user")
+                .dataAuths("public", "private")
+                .build();
+
+        // When
+        final OperationChain<?> differentViewChain = new OperationChain<>(differentView);
+        execute(hook, differentViewChain, USER, Collections.emptyList());
+        final OperationChain<?> differentUserChain = new OperationChain<>(getElements("A"));
+        execute(hook, differentUserChain, differentUser, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(differentViewChain)).containsExactly(new EntitySeed("A"));
+        assertThat(getInput(differentUserChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldClearCacheWhenElementsAreAdded() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        final OperationChain<?> addElements = new OperationChain<>(new AddElements.Builder()
+                .input(createEntity("A"))
+                .build());
+        final Context context = new Context(USER);
+        hook.preExecute(addElements, context);
+        hook.postExecute(null, addElements, context);
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldNotCacheResultsReadWhilstElementsWereBeingAdded() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        final OperationChain<?> addElements = new OperationChain<>(new AddElements.Builder()
+                .input(createEntity("A"))
+                .build());
+        final Context addContext = new Context(USER);
+        final OperationChain<?> firstOpChain = new OperationChain<>(getElements("A"));
+        final Context context = new Context(USER);
+        hook.preExecute(firstOpChain, context);
+        hook.preExecute(addElements, addContext);
+        consume(hook.postExecute(new WrappedCloseableIterable<>(Collections.emptyList()), firstOpChain, context));
+        hook.postExecute(null, addElements, addContext);
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSeeds() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        hook.setMaxEntries(2);
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        execute(hook, getElements("B"), USER, Collections.singletonList(createEntity("B")));
+        execute(hook, getElements("A"), USER, Collections.emptyList());
+        execute(hook, getElements("C"), USER, Collections.singletonList(createEntity("C")));
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A", "B", "C"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("B"));
+    }
+
+    @Test
+    public void shouldExpireSeedsAfterTimeToLive() throws InterruptedException {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        hook.setTimeToLive(1);
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        Thread.sleep(10);
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldNotCacheSeedsWithTooManyResults() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        hook.setMaxResultsPerSeed(1);
+        execute(hook, getElements("A", "B"), USER, Arrays.asList(
+                createEntity("A"), createEdge("A", "B", MatchedVertex.SOURCE),
+                createEntity("B")));
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A", "B"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldOnlyCacheAdjacentIdsForSingleSeeds() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getAdjacentIds("A", "B"), USER, Arrays.asList(new EntitySeed("B"), new EntitySeed("C")));
+        execute(hook, getAdjacentIds("A"), USER, Collections.singletonList(new EntitySeed("B")));
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getAdjacentIds("A", "B"));
+        final List<Object> results = execute(hook, opChain, USER, Collections.singletonList(new EntitySeed("A")));
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("B"));
+        assertThat(results).containsExactlyInAnyOrder(new EntitySeed("B"), new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldNotCacheOperationChainsWithMultipleOperations() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        final OperationChain<?> firstOpChain = new OperationChain.Builder()
+                .first(getElements("A"))
+                .then(new ToList<>())
+                .build();
+        execute(hook, firstOpChain, USER, Collections.singletonList(createEntity("A")));
+
+        // When
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A"));
+        execute(hook, opChain, USER, Collections.emptyList());
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"));
+    }
+
+    @Test
+    public void shouldNotReduceTheInputOfJobs() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A", "B"));
+        final Context context = new Context(USER);
+        context.setConfig(Graph.JOB_CONFIG_KEY, true);
+
+        // When
+        hook.preExecute(opChain, context);
+
+        // Then
+        assertThat(getInput(opChain)).containsExactly(new EntitySeed("A"), new EntitySeed("B"));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfOperationsAreAddedAfterTheInputIsReduced() {
+        // Given
+        final SeedResultCacheHook hook = createHook();
+        execute(hook, getElements("A"), USER, Collections.singletonList(createEntity("A")));
+        final OperationChain<?> opChain = new OperationChain<>(getElements("A", "B"));
+        final Context context = new Context(USER);
+        hook.preExecute(opChain, context);
+        opChain.getOperations().add(new ExportToSet<>());
+
+        // When / Then
+        assertThatIllegalStateException()
+                .isThrownBy(() -> hook.postExecute(new WrappedCloseableIterable<>(Collections.emptyList()), opChain, context))
+                .withMessageContaining("could not be added");
+    }
+
+    @Test
+    public void shouldThrowExceptionIfCacheNameIsNotSet() {
+        // Given
+        final SeedResultCacheHook hook = new SeedResultCacheHook();
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> hook.preExecute(new OperationChain<>(getElements("A")), new Context(USER)))
+                .withMessageContaining("cacheName");
+    }
+
+    @Override
+    protected SeedResultCacheHook getTestObject() {
+        final SeedResultCacheHook hook = new SeedResultCacheHook();
+        hook.setCacheName("testCache");
+        hook.setMaxEntries(100);
+        hook.setTimeToLive(1000L);
+        hook.setMaxResultsPerSeed(10);
+        return hook;
+    }
+
+    private SeedResultCacheHook createHook() {
+        final SeedResultCacheHook hook = new SeedResultCacheHook();
+        hook.setCacheName(CACHE_NAME);
+        return hook;
+    }
+
+    private List<Object> execute(final SeedResultCacheHook hook, final Operation operation, final User user, final List<?> storeResults) {
+        return execute(hook, new OperationChain<>(operation), user, storeResults);
+    }
+
+    private List<Object> execute(final SeedResultCacheHook hook, final OperationChain<?> opChain, final User user, final List<?> storeResults) {
+        final Context context = new Context(user);
+        hook.preExecute(opChain, context);
+        return consume(hook.postExecute(new WrappedCloseableIterable<>(storeResults), opChain, context));
+    }
+
+    private Iterable<?> getInput(final OperationChain<?> opChain) {
+        return (Iterable<?>) ((Input<?>) opChain.getOperations().get(0)).getInput();
+    }
+
+    private List<Object> consume(final Iterable<?> results) {
+        final List<Object> list = new ArrayList<>();
+        results.forEach(list::add);
+        return list;
+    }
+
+    private List<Element> getStoreResults(final List<Element> graph, final Iterable<?> seeds) {
+        final Set<Object> vertices = new HashSet<>();
+        seeds.forEach(seed -> vertices.add(((EntitySeed) seed).getVertex()));
+        final List<Element> results = new ArrayList<>();
+        for (final Element element : graph) {
+            if (element instanceof Entity
+                    ? vertices.contains(((Entity) element).getVertex())
+                    : vertices.contains(((Edge) element).getSource()) || vertices.contains(((Edge) element).getDestination())) {
+                results.add(element.shallowClone());
+            }
+        }
+        return results;
+    }
+
+    private GetElements getElements(final String... vertices) {
+        return new GetElements.Builder()
+                .input(Arrays.stream(vertices).map(EntitySeed::new).toArray(EntitySeed[]::new))
+                .view(VIEW)
+                .build();
+    }
+
+    private GetAdjacentIds getAdjacentIds(final String... vertices) {
+        return new GetAdjacentIds.Builder()
+                .input(Arrays.stream(vertices).map(EntitySeed::new).toArray(EntitySeed[]::new))
+                .view(VIEW)
+                .build();
+    }
+
+    private Element createEntity(final String vertex) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .build();
+    }
+
+    private Element createEdge(final String source, final String destination, final MatchedVertex matchedVertex) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .matchedVertex(matchedVertex)
+                .build();
+    }
+}
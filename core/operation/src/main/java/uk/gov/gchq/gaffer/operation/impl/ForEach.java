@@ -55,6 +55,10 @@ import java.util.Map;
  * 2,
  * 1
  * ]
+ * <p>
+ * If a parallelism greater than 1 is set, up to that many inputs will be run
+ * at the same time. The results are still returned in the order of the inputs.
+ * The parallelism may be capped by the store's handler.
  *
  * @param <I> the type of items in the input iterable. This is the same type as the input to the supplied Operation.
  * @param <O> the type of items in the output iterable. This is the same type as the output from the supplied Operation.
@@ -67,6 +71,7 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
         Operations<Operation> {
     private Iterable<? extends I> input;
     private Operation operation;
+    private Integer parallelism;
     private Map<String, String> options;
 
     @Override
@@ -87,6 +92,14 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
         this.operation = operation;
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
     @Override
     public Map<String, String> getOptions() {
         return options;
@@ -102,6 +115,7 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
         return new ForEach.Builder<I, O>()
                 .input(input)
                 .operation(operation)
+                .parallelism(parallelism)
                 .options(options)
                 .build();
     }
@@ -136,6 +150,11 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
             _getOp().setOperation(operation);
             return _self();
         }
+
+        public Builder<I, O> parallelism(final Integer parallelism) {
+            _getOp().setParallelism(parallelism);
+            return _self();
+        }
     }
 }
 
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.impl.export.set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A single export in a {@link SetExporter}. The distinct objects are held in
+ * memory, in the order they were added, until there are more than a
+ * configurable number of them. They are then moved to an append-only local
+ * temporary file, using Java serialisation, and any further objects are
+ * appended to the file.
+ * <p>
+ * Once on disk, only the file offset and hash code of each object are held in
+ * memory, along with an open addressing hash table of object indices used to
+ * find duplicates. An object is only read back from disk when its hash code
+ * matches one that has already been exported. The offsets allow a page of the
+ * export to be read starting from any index, without reading the objects
+ * before it.
+ * <p>
+ * If the objects cannot be serialised, a warning is logged and the export is
+ * kept in memory, reading back any objects that have already been moved to
+ * disk.
+ * <p>
+ * The file is deleted when the export is closed, even if pages are still
+ * being read. A page of an export on disk holds the file open until the page
+ * is closed, so the result of an operation chain can still read a page of an
+ * export that was closed when the chain finished. Once the export has been
+ * closed such a page can only be read once, as it is closed when it has been
+ * fully read. This relies on the file system allowing open files to be
+ * deleted; if it does not, a warning is logged and the file is left behind.
+ */
+final class SetExport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SetExport.class);
+    private static final JavaSerialiser SERIALISER = new JavaSerialiser();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxInMemoryObjects;
+
+    private List<Object> objects = new ArrayList<>();
+    private Set<Object> distinctObjects = new HashSet<>();
+    private boolean canSpill = true;
+    private boolean closed;
+
+    private File file;
+    private DataOutputStream output;
+    private RandomAccessFile reader;
+    private long length;
+    private long[] offsets;
+    private int[] hashes;
+    private int[] table;
+    private int size;
+
+    SetExport(final int maxInMemoryObjects) {
+        this.maxInMemoryObjects = maxInMemoryObjects;
+    }
+
+    synchronized void add(final Object object) throws IOException {
+        if (null != objects) {
+            if (distinctObjects.add(object)) {
+                objects.add(object);
+                size++;
+                if (canSpill && size > maxInMemoryObjects) {
+                    spill();
+                }
+            }
+        } else {
+            final int hash = Objects.hashCode(object);
+            final int slot = findSlot(object, hash);
+            if (0 == table[slot]) {
+                try {
+                    append(object, hash, slot);
+                } catch (final SerialisationException e) {
+                    LOGGER.warn("Unable to add object to export on disk, so the export will be moved back into memory: {}", e.getMessage());
+                    final List<Object> allObjects = readAll();
+                    allObjects.add(object);
+                    keepInMemory(allObjects);
+                }
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the objects in the export between the start and end indices. The
+     * objects are read when the results are iterated, and objects exported
+     * after iteration starts are not included.
+     *
+     * @param start the index of the first object to return
+     * @param end   the index after the last object to return, or null to return all the objects after the start
+     * @return the objects
+     */
+    synchronized CloseableIterable<Object> get(final int start, final Integer end) {
+        final Page page = new Page(start, end);
+        if (null == objects && !closed) {
+            // Open the file now, so the page can be read after the export is closed
+            page.channel = openChannel();
+        }
+        return page;
+    }
+
+    /**
+     * Closes the export and deletes the file. Pages of an export on disk that
+     * were created before it was closed can still be read once.
+     */
+    synchronized void close() {
+        closed = true;
+        deleteFile();
+    }
+
+    private synchronized CloseableIterator<Object> iterator(final Page page) {
+        final int endIndex = null == page.end ? size : Math.min(page.end, size);
+        if (page.start >= endIndex) {
+            return new WrappedCloseableIterable<>().iterator();
+        }
+        if (null != objects) {
+            return new WrappedCloseableIterable<>(new ArrayList<>(objects.subList(page.start, endIndex))).iterator();
+        }
+
+        if (null == page.channel) {
+            if (closed) {
+                throw new IllegalStateException("The export has been closed");
+            }
+            page.channel = openChannel();
+        }
+        try {
+            if (null != output) {
+                output.flush();
+            }
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to read export from disk: " + e.getMessage(), e);
+        }
+        final InputStream input = new ChannelInputStream(page.channel, offsets[page.start]);
+        return new PageIterator(new FileIterator(new DataInputStream(new BufferedInputStream(input)), endIndex - page.start), page);
+    }
+
+    // Once the export is closed a page cannot be reopened, so it is closed when it has been read
+    private synchronized void release(final Page page) {
+        if (closed) {
+            page.close();
+        }
+    }
+
+    private FileChannel openChannel() {
+        try {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to read export from disk: " + e.getMessage(), e);
+        }
+    }
+
+    private void deleteFile() {
+        CloseableUtil.close(output, reader);
+        output = null;
+        reader = null;
+        if (null != file) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete export file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        file = File.createTempFile("gaffer-set-export", ".bin");
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        final int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(size) * 2);
+        offsets = new long[capacity];
+        hashes = new int[capacity];
+        table = new int[capacity * 2];
+        final List<Object> inMemoryObjects = objects;
+        size = 0;
+        objects = null;
+        distinctObjects = null;
+        try {
+            for (final Object object : inMemoryObjects) {
+                final int hash = Objects.hashCode(object);
+                append(object, hash, findEmptySlot(hash));
+            }
+            LOGGER.debug("Moved an export of {} objects to disk", size);
+        } catch (final SerialisationException e) {
+            LOGGER.warn("Unable to move export to disk, so it will be kept in memory: {}", e.getMessage());
+            keepInMemory(inMemoryObjects);
+        }
+    }
+
+    // Reads all the objects that have been moved to disk
+    private List<Object> readAll() throws IOException {
+        final List<Object> allObjects = new ArrayList<>(size);
+        output.flush();
+        try (final FileIterator iterator = new FileIterator(
+                new DataInputStream(new BufferedInputStream(new FileInputStream(file))), size)) {
+            iterator.forEachRemaining(allObjects::add);
+        }
+        return allObjects;
+    }
+
+    // Keeps the objects in memory from now on, deleting any file
+    private void keepInMemory(final List<Object> allObjects) {
+        deleteFile();
+        file = null;
+        offsets = null;
+        hashes = null;
+        table = null;
+        length = 0;
+        objects = allObjects;
+        distinctObjects = new HashSet<>(allObjects);
+        size = allObjects.size();
+        canSpill = false;
+    }
+
+    // Finds the slot in the hash table containing the object, or the empty
+    // slot where it should be added
+    private int findSlot(final Object object, final int hash) throws IOException {
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (0 != table[slot]) {
+            final int index = table[slot] - 1;
+            if (hashes[index] == hash && Objects.equals(object, read(index))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int findEmptySlot(final int hash) {
+        final int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (0 != table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void append(final Object object, final int hash, final int slot) throws IOException {
+        final byte[] bytes = SERIALISER.serialise(object);
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        output.writeInt(bytes.length);
+        output.write(bytes);
+        offsets[size] = length;
+        hashes[size] = hash;
+        table[slot] = size + 1;
+        length += Integer.BYTES + bytes.length;
+        size++;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        for (int index = 0; index < size; index++) {
+            table[findEmptySlot(hashes[index])] = index + 1;
+        }
+    }
+
+    private Object read(final int index) throws IOException {
+        output.flush();
+        if (null == reader) {
+            reader = new RandomAccessFile(file, "r");
+        }
+        reader.seek(offsets[index]);
+        final byte[] bytes = new byte[reader.readInt()];
+        reader.readFully(bytes);
+        return SERIALISER.deserialise(bytes);
+    }
+
+    private static int mix(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringBuilder(this)
+                .append("size", size)
+                .append("objects", objects)
+                .append("file", file)
+                .toString();
+    }
+
+    private final class Page implements CloseableIterable<Object> {
+        private final int start;
+        private final Integer end;
+        private FileChannel channel;
+
+        private Page(final int start, final Integer end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public CloseableIterator<Object> iterator() {
+            return SetExport.this.iterator(this);
+        }
+
+        @Override
+        public void close() {
+            synchronized (SetExport.this) {
+                CloseableUtil.close(channel);
+                channel = null;
+            }
+        }
+    }
+
+    // Releases the page when it has been fully read or closed
+    private final class PageIterator implements CloseableIterator<Object> {
+        private final CloseableIterator<Object> iterator;
+        private final Page page;
+
+        private PageIterator(final CloseableIterator<Object> iterator, final Page page) {
+            this.iterator = iterator;
+            this.page = page;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!iterator.hasNext()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            iterator.close();
+            release(page);
+        }
+    }
+
+    // Reads the file from a position without moving the channel, so a page
+    // can be read by more than one iterator at once
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+
+        private ChannelInputStream(final FileChannel channel, final long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] bytes = new byte[1];
+            return -1 == read(bytes, 0, 1) ? -1 : bytes[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (0 == length) {
+                return 0;
+            }
+            final int read = channel.read(ByteBuffer.wrap(bytes, offset, length), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
+    private static final class FileIterator implements CloseableIterator<Object> {
+        private final DataInputStream input;
+        private int remaining;
+
+        private FileIterator(final DataInputStream input, final int count) {
+            this.input = input;
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (remaining <= 0) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                final byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                remaining--;
+                return SERIALISER.deserialise(bytes);
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Unable to read export from disk: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            remaining = 0;
+            CloseableUtil.close(input);
+        }
+    }
+}
@@ -16,30 +16,56 @@
 
 package uk.gov.gchq.gaffer.operation.impl.export.set;
 
-import com.google.common.collect.Iterables;
-
 import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.operation.export.Exporter;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * A {@code SetExporter} is an in memory temporary {@link Exporter}
- * using a {@link Set}.
- * The values are stored in a {@link LinkedHashSet} in order to ensure there is
- * a predictable iteration order.
+ * A {@code SetExporter} is a temporary {@link Exporter} that stores the
+ * distinct values exported to each key, in a predictable iteration order
+ * matching the order they were first exported.
+ * <p>
+ * Each export is held in memory until it has more than maxInMemoryObjects
+ * values, then it is moved to a local temporary file so large exports do not
+ * exhaust the heap. Pages of an export can be read from any start index
+ * without reading the values before it. The exporter is closed when the
+ * operation chain that created it finishes, and the temporary files are
+ * deleted then. A page that was created before the exporter was closed holds
+ * its file open, so it can still be read once.
  */
-public class SetExporter implements Exporter {
-    private Map<String, Set<Object>> exports = new HashMap<>();
+public class SetExporter implements Exporter, Closeable {
+    public static final int DEFAULT_MAX_IN_MEMORY_OBJECTS = 100000;
+
+    private final Map<String, SetExport> exports = new HashMap<>();
+    private final int maxInMemoryObjects;
+
+    public SetExporter() {
+        this(DEFAULT_MAX_IN_MEMORY_OBJECTS);
+    }
+
+    public SetExporter(final int maxInMemoryObjects) {
+        if (maxInMemoryObjects < 1) {
+            throw new IllegalArgumentException("Max in memory objects must be at least 1");
+        }
+        this.maxInMemoryObjects = maxInMemoryObjects;
+    }
 
     @Override
     public void add(final String key, final Iterable<?> results) {
-        Iterables.addAll(getExport(key), results);
+        final SetExport export = getExport(key);
+        try {
+            for (final Object result : results) {
+                export.add(result);
+            }
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to export results to set: " + e.getMessage(), e);
+        }
     }
 
     @Override
@@ -48,13 +74,22 @@ public class SetExporter implements Exporter {
     }
 
     public CloseableIterable<?> get(final String key, final int start, final Integer end) {
-        return new LimitedCloseableIterable<>(getExport(key), start, end);
+        if (null != end && start > end) {
+            throw new IllegalArgumentException("The start pointer must be less than the end pointer.");
+        }
+        return getExport(key).get(start, end);
     }
 
-    private Set<Object> getExport(final String key) {
-        Set<Object> export = exports.computeIfAbsent(key, k -> new LinkedHashSet<>());
+    @Override
+    public synchronized void close() {
+        for (final SetExport export : exports.values()) {
+            export.close();
+        }
+        exports.clear();
+    }
 
-        return export;
+    private synchronized SetExport getExport(final String key) {
+        return exports.computeIfAbsent(key, k -> new SetExport(maxInMemoryObjects));
     }
 
     public String toString() {
@@ -62,6 +97,4 @@ public class SetExporter implements Exporter {
                 .append("exports", exports)
                 .toString();
     }
-
-
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.operation.impl.join.match;
+
+/**
+ * A {@code KeyedMatch} is a {@link Match} where a test object can only match a
+ * match candidate if the keys extracted from them are equal. Knowing the keys
+ * allows a Join to index the match candidates and to partition both of its
+ * inputs, rather than comparing every pair of objects.
+ */
+public interface KeyedMatch extends Match {
+
+    /**
+     * Extracts the key from an object on the keyed side of the Join.
+     *
+     * @param testObject the object to extract the key from
+     * @return the key
+     */
+    Object testObjectKey(final Object testObject);
+
+    /**
+     * Extracts the key from a match candidate.
+     *
+     * @param matchCandidate the match candidate to extract the key from
+     * @return the key
+     */
+    Object matchCandidateKey(final Object matchCandidate);
+}
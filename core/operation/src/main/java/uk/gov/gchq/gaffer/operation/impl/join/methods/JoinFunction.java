@@ -16,14 +16,16 @@
 
 package uk.gov.gchq.gaffer.operation.impl.join.methods;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
 import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Used by the Join Operation to join two Lists together.
@@ -31,9 +33,26 @@ import java.util.List;
 public abstract class JoinFunction {
 
     public List<MapTuple> join(final Iterable left, final Iterable right, final Match match, final MatchKey matchKey, final Boolean flatten) {
+        return Lists.newArrayList(joinLazily(left, right, match, matchKey, flatten));
+    }
+
+    /**
+     * Joins two Iterables together. The match is initialised with the match
+     * candidates straight away, but the {@code MapTuple}s are only created as
+     * the returned Iterable is consumed, so the results of the join are never
+     * all held in memory at once.
+     *
+     * @param left     the left input
+     * @param right    the right input
+     * @param match    the match method
+     * @param matchKey the side of the join to iterate over
+     * @param flatten  true if a {@code MapTuple} should be created for each match
+     * @return the joined {@code MapTuple}s
+     */
+    public Iterable<MapTuple> joinLazily(final Iterable left, final Iterable right, final Match match, final MatchKey matchKey, final Boolean flatten) {
         final String keyName; // For LEFT keyed Joins it's LEFT and vice versa for RIGHT.
         final String matchingValuesName; // the matching values name (opposite of keyName)
-        final Iterable keys; // The key iterate over
+        final Iterable<Object> keys; // The key iterate over
 
         keyName = matchKey.name();
         if (matchKey.equals(MatchKey.LEFT)) {
@@ -46,27 +65,13 @@ public abstract class JoinFunction {
             match.init(left);
         }
 
-        List<MapTuple> resultList = new ArrayList<>();
-        List matching;
-
         if (flatten) {
-            for (final Object keyObj : keys) {
-                matching = match.matching(keyObj);
-                final List<MapTuple> mapTuples = joinFlattened(keyObj, matching, keyName, matchingValuesName);
-                if (!mapTuples.isEmpty()) {
-                    resultList.addAll(mapTuples);
-                }
-            }
-        } else {
-            for (final Object keyObj : keys) {
-                matching = match.matching(keyObj);
-                final MapTuple mapTuple = joinAggregated(keyObj, matching, keyName, matchingValuesName);
-                if (mapTuple != null) {
-                    resultList.add(mapTuple);
-                }
-            }
+            return Iterables.concat(Iterables.transform(keys,
+                    keyObj -> joinFlattened(keyObj, match.matching(keyObj), keyName, matchingValuesName)));
         }
-        return resultList;
+
+        return Iterables.filter(Iterables.transform(keys,
+                keyObj -> joinAggregated(keyObj, match.matching(keyObj), keyName, matchingValuesName)), Objects::nonNull);
     }
 
     @Deprecated
@@ -24,10 +24,15 @@ import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.operation.impl.export.set.SetExporter;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class SetExporterTest {
 
@@ -83,4 +88,134 @@ public class SetExporterTest {
             assertEquals(values1.subList(start, end), Lists.newArrayList(results));
         }
     }
+
+    @Test
+    public void shouldDeduplicateAndKeepOrderWhenExportIsMovedToDisk() {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(i);
+        }
+        final SetExporter exporter = new SetExporter(10);
+
+        // When
+        exporter.add("key", values.subList(0, 50));
+        exporter.add("key", values);
+        exporter.add("key", values.subList(25, 75));
+
+        // Then
+        try (CloseableIterable<?> export = exporter.get("key")) {
+            assertEquals(values, Lists.newArrayList(export));
+        } finally {
+            exporter.close();
+        }
+    }
+
+    @Test
+    public void shouldGetSubsetOfValuesWhenExportIsMovedToDisk() {
+        // Given
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add("value" + i);
+        }
+        final SetExporter exporter = new SetExporter(10);
+        exporter.add("key", values);
+
+        // When
+        final List<Object> page = Lists.newArrayList(exporter.get("key", 40, 50));
+        final List<Object> lastPage = Lists.newArrayList(exporter.get("key", 95, 200));
+        final List<Object> pageAfterEnd = Lists.newArrayList(exporter.get("key", 100, null));
+
+        // Then
+        assertEquals(values.subList(40, 50), page);
+        assertEquals(values.subList(95, 100), lastPage);
+        assertEquals(Collections.emptyList(), pageAfterEnd);
+        exporter.close();
+    }
+
+    @Test
+    public void shouldKeepExportInMemoryIfValuesCannotBeSerialised() {
+        // Given
+        final List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            values.add(new Object());
+        }
+        final SetExporter exporter = new SetExporter(10);
+
+        // When
+        exporter.add("key", values);
+
+        // Then
+        assertEquals(values, Lists.newArrayList(exporter.get("key")));
+    }
+
+    @Test
+    public void shouldMoveExportBackIntoMemoryIfAValueCannotBeSerialisedAfterMovingToDisk() {
+        // Given
+        final List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            values.add("value" + i);
+        }
+        final SetExporter exporter = new SetExporter(10);
+        exporter.add("key", values);
+        final Object value = new Object();
+
+        // When
+        exporter.add("key", Arrays.asList(value, "value0", "value20"));
+
+        // Then
+        values.add(value);
+        values.add("value20");
+        assertEquals(values, Lists.newArrayList(exporter.get("key")));
+        assertEquals(values.subList(15, 22), Lists.newArrayList(exporter.get("key", 15, 30)));
+    }
+
+    @Test
+    public void shouldDeleteFileWhenExporterIsClosedWhilstPageIsBeingRead() {
+        // Given
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add("value" + i);
+        }
+        final int exportFiles = countExportFiles();
+        final SetExporter exporter = new SetExporter(10);
+        exporter.add("key", values);
+        final CloseableIterable<?> page = exporter.get("key");
+        final Iterator<?> iterator = page.iterator();
+        final List<Object> results = Lists.newArrayList(iterator.next());
+        assertEquals(exportFiles + 1, countExportFiles());
+
+        // When
+        exporter.close();
+
+        // Then
+        assertEquals(exportFiles, countExportFiles());
+        iterator.forEachRemaining(results::add);
+        assertEquals(values, results);
+    }
+
+    @Test
+    public void shouldReadPageOnceAfterExporterIsClosed() {
+        // Given
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add("value" + i);
+        }
+        final SetExporter exporter = new SetExporter(10);
+        exporter.add("key", values);
+        final CloseableIterable<?> page = exporter.get("key", 50, null);
+
+        // When
+        exporter.close();
+
+        // Then
+        assertEquals(values.subList(50, 100), Lists.newArrayList(page));
+        assertThrows(IllegalStateException.class, page::iterator);
+    }
+
+    private int countExportFiles() {
+        final File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("gaffer-set-export"));
+        return null != files ? files.length : 0;
+    }
 }
@@ -43,6 +43,7 @@ public class ForEachTest extends OperationTest<ForEach> {
         final ForEach<Object, Object> forEachOp = new ForEach.Builder<>()
                 .input(inputIterable)
                 .operation(op)
+                .parallelism(2)
                 .build();
 
 
@@ -50,13 +51,18 @@ public class ForEachTest extends OperationTest<ForEach> {
         assertThat(forEachOp.getInput()).isNotNull();
         assertEquals(inputIterable, forEachOp.getInput());
         assertEquals(op, forEachOp.getOperation());
+        assertEquals(2, forEachOp.getParallelism());
     }
 
     @Test
     @Override
     public void shouldShallowCloneOperation() {
         // Given
-        final ForEach forEachOp = getTestObject();
+        final ForEach forEachOp = new ForEach.Builder<>()
+                .input(inputIterable)
+                .operation(op)
+                .parallelism(2)
+                .build();
 
         // When
         final ForEach clone = forEachOp.shallowClone();
@@ -65,6 +71,7 @@ public class ForEachTest extends OperationTest<ForEach> {
         assertNotSame(forEachOp, clone);
         assertEquals(forEachOp.getInput(), clone.getInput());
         assertEquals(forEachOp.getOperation(), clone.getOperation());
+        assertEquals(forEachOp.getParallelism(), clone.getParallelism());
     }
 
     @Test
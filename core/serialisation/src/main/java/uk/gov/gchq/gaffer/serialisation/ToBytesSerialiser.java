@@ -18,6 +18,8 @@ package uk.gov.gchq.gaffer.serialisation;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 
+import java.nio.ByteBuffer;
+
 /**
  * A class that implements this interface is responsible for serialising an
  * object of class T to a byte array, and for deserialising it back again.
@@ -67,6 +69,27 @@ public interface ToBytesSerialiser<T> extends Serialiser<T, byte[]> {
         return deserialise(selection);
     }
 
+    /**
+     * Deserialise the remaining bytes of a {@link ByteBuffer} into the original
+     * object. If the buffer is backed by an array then the bytes are read in
+     * place rather than being copied. The position of the buffer is not changed.
+     *
+     * @param buffer the buffer containing the bytes to deserialise
+     * @return T the deserialised object
+     * @throws SerialisationException if the object fails to deserialise
+     */
+    default T deserialise(final ByteBuffer buffer) throws SerialisationException {
+        if (!buffer.hasRemaining()) {
+            return deserialiseEmpty();
+        }
+        if (buffer.hasArray()) {
+            return deserialise(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return deserialise(bytes);
+    }
+
     /**
      * Deserialise an array of bytes into the original object.
      *
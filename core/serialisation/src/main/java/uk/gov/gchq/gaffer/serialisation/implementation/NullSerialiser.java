@@ -41,6 +41,11 @@ public class NullSerialiser implements ToBytesSerialiser<Object> {
         return null;
     }
 
+    @Override
+    public Object deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return null;
+    }
+
     @Override
     public Object deserialiseEmpty() {
         return null;
@@ -54,25 +54,30 @@ public class OrderedIntegerSerialiser implements ToBytesSerialiser<Integer> {
     }
 
     @Override
-    public Integer deserialise(final byte[] bytes) throws SerialisationException {
-        if (bytes[0] >= 0 && bytes[0] <= 8) {
+    public Integer deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        if (allBytes[offset] >= 0 && allBytes[offset] <= 8) {
             int i = 0;
             int shift = 0;
 
-            for (int idx = bytes.length - 1; idx >= 0 + 1; --idx) {
-                i = (int) ((long) i + (((long) bytes[idx] & 255L) << shift));
+            for (int idx = offset + length - 1; idx >= offset + 1; --idx) {
+                i = (int) ((long) i + (((long) allBytes[idx] & 255L) << shift));
                 shift += 8;
             }
 
-            if (bytes[0] > 4) {
-                i |= -1 << (8 - bytes[0] << 3);
+            if (allBytes[offset] > 4) {
+                i |= -1 << (8 - allBytes[offset] << 3);
             }
             return Integer.valueOf(i) ^ 0x80000000;
         } else {
-            throw new SerialisationException("Unexpected length " + (255 & bytes[0]));
+            throw new SerialisationException("Unexpected length " + (255 & allBytes[offset]));
         }
     }
 
+    @Override
+    public Integer deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
     @Override
     public Integer deserialiseEmpty() {
         return null;
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -52,6 +53,31 @@ public abstract class ToBytesSerialisationTest<T> extends SerialisationTest<T, b
         assertArrayEquals(pair.getSecond(), serialise, Arrays.toString(serialise));
     }
 
+    @Test
+    public void shouldDeserialiseHistoricValuesFromWithinALargerArray() throws SerialisationException {
+        if (null == historicSerialisationPairs) {
+            return;
+        }
+
+        final ToBytesSerialiser<T> toBytesSerialiser = (ToBytesSerialiser<T>) serialiser;
+        for (final Pair<T, byte[]> pair : historicSerialisationPairs) {
+            // Given
+            final byte[] bytes = pair.getSecond();
+            final byte[] allBytes = new byte[bytes.length + 4];
+            Arrays.fill(allBytes, (byte) 1);
+            System.arraycopy(bytes, 0, allBytes, 2, bytes.length);
+            final byte[] expected = toBytesSerialiser.serialise(toBytesSerialiser.deserialise(bytes));
+
+            // When
+            final T fromOffset = toBytesSerialiser.deserialise(allBytes, 2, bytes.length);
+            final T fromBuffer = toBytesSerialiser.deserialise(ByteBuffer.wrap(allBytes, 2, bytes.length));
+
+            // Then
+            assertArrayEquals(expected, toBytesSerialiser.serialise(fromOffset));
+            assertArrayEquals(expected, toBytesSerialiser.serialise(fromBuffer));
+        }
+    }
+
     @Test
     public void shouldHaveValidEqualsMethodForToByteSerialiser() {
         final Serialiser<T, byte[]> serialiser2 = getSerialisation();
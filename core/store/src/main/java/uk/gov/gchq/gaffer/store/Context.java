@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.store;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.export.Exporter;
@@ -27,11 +28,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A {@code Context} contains operation chain execution information, such
  * as the user who executed the operation chain and a map of {@link Exporter}s.
+ * The exporters and variables may be accessed by operations executed in
+ * parallel within the operation chain, so access to them is thread safe.
  */
 public class Context {
     private final User user;
@@ -43,7 +49,13 @@ public class Context {
     /**
      * Map of exporter simple class name to exporter
      */
-    private final Map<Class<? extends Exporter>, Exporter> exporters = new HashMap<>();
+    private final Map<Class<? extends Exporter>, Exporter> exporters = new ConcurrentHashMap<>();
+
+    /**
+     * The exporters added to this context, rather than copied from the
+     * context it was cloned from
+     */
+    private final Queue<Exporter> addedExporters = new ConcurrentLinkedQueue<>();
 
     public Context() {
         this(new User());
@@ -127,19 +139,19 @@ public class Context {
         return jobId;
     }
 
-    public Map<String, Object> getVariables() {
+    public synchronized Map<String, Object> getVariables() {
         return variables;
     }
 
-    public Object getVariable(final String key) {
+    public synchronized Object getVariable(final String key) {
         return variables.get(key);
     }
 
-    public void setVariables(final Map<String, Object> variables) {
+    public synchronized void setVariables(final Map<String, Object> variables) {
         this.variables = variables;
     }
 
-    public void setVariable(final String key, final Object value) {
+    public synchronized void setVariable(final String key, final Object value) {
         if (null != this.variables) {
             this.variables.put(key, value);
         } else {
@@ -149,7 +161,7 @@ public class Context {
         }
     }
 
-    public void addVariables(final Map<String, Object> variables) {
+    public synchronized void addVariables(final Map<String, Object> variables) {
         if (null != this.variables) {
             this.variables.putAll(variables);
         } else {
@@ -163,10 +175,23 @@ public class Context {
     }
 
     public void addExporter(final Exporter exporter) {
-        if (exporters.containsKey(exporter.getClass())) {
+        if (null != exporters.putIfAbsent(exporter.getClass(), exporter)) {
             throw new IllegalArgumentException("Exporter of type " + exporter.getClass() + " has already been registered");
         }
-        exporters.put(exporter.getClass(), exporter);
+        addedExporters.add(exporter);
+    }
+
+    /**
+     * Closes any {@link AutoCloseable} exporters that were added to this context,
+     * so they can release resources such as temporary files. Exporters copied
+     * from another context when this context was cloned are not closed, as
+     * they are still used by that context.
+     */
+    public void closeExporters() {
+        Exporter exporter;
+        while (null != (exporter = addedExporters.poll())) {
+            CloseableUtil.close(exporter);
+        }
     }
 
     public <E> E getExporter(final Class<? extends E> exporterClass) {
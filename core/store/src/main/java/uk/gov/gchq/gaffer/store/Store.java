@@ -178,6 +178,10 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.StreamSupport;
 
 import static java.util.Collections.unmodifiableList;
@@ -226,6 +230,8 @@ public abstract class Store {
 
     private boolean jobsRescheduled;
 
+    private ThreadPoolExecutor parallelExecutorService;
+
     public Store() {
         this(true);
     }
@@ -555,6 +561,8 @@ public abstract class Store {
                 LOGGER.warn("Operation chain job failed to execute", e);
                 addOrUpdateJobDetail(clonedOp, context, e.getMessage(),
                         JobStatus.FAILED);
+            } finally {
+                context.closeExporters();
             }
         });
         return jobDetail;
@@ -569,6 +577,46 @@ public abstract class Store {
                 ExecutorService.getService() : null;
     }
 
+    /**
+     * Gets the executor service used by the operation handlers of this store
+     * to execute work in parallel. It has at most
+     * {@link StoreProperties#getParallelExecutorThreadCount()} threads, shared
+     * by all requests to the store, and does not queue tasks. If all of the
+     * threads are busy, or the store has been closed, a task is run by the
+     * thread that submitted it. So a handler waiting for the tasks it has
+     * submitted, including handlers executed within those tasks, cannot be
+     * blocked by other requests filling the pool.
+     *
+     * @return the executor service for parallel work
+     */
+    public synchronized java.util.concurrent.ExecutorService getParallelExecutorService() {
+        if (null == parallelExecutorService) {
+            final int threads = null != properties
+                    ? properties.getParallelExecutorThreadCount()
+                    : Integer.parseInt(StoreProperties.PARALLEL_EXECUTOR_THREAD_COUNT_DEFAULT);
+            final AtomicInteger threadCount = new AtomicInteger();
+            parallelExecutorService = new ThreadPoolExecutor(0, threads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "gaffer-store-" + graphId + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> runnable.run());
+        }
+        return parallelExecutorService;
+    }
+
+    /**
+     * Releases the resources held by the store, such as the threads of the
+     * {@link #getParallelExecutorService()}. Stores holding other resources
+     * should override this and call {@code super.close()}.
+     */
+    public synchronized void close() {
+        if (null != parallelExecutorService) {
+            parallelExecutorService.shutdown();
+        }
+    }
+
     public JobTracker getJobTracker() {
         return jobTracker;
     }
@@ -71,6 +71,14 @@ public class StoreProperties implements Cloneable {
     public static final String EXECUTOR_SERVICE_THREAD_COUNT = "gaffer.store.job.executor.threads";
     public static final String EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT = "50";
 
+    /**
+     * The maximum number of threads the store's operation handlers may use
+     * to execute work in parallel, across all requests.
+     * e.g gaffer.store.parallel.executor.threads=10
+     */
+    public static final String PARALLEL_EXECUTOR_THREAD_COUNT = "gaffer.store.parallel.executor.threads";
+    public static final String PARALLEL_EXECUTOR_THREAD_COUNT_DEFAULT = "10";
+
     public static final String JSON_SERIALISER_CLASS = JSONSerialiser.JSON_SERIALISER_CLASS_KEY;
     public static final String JSON_SERIALISER_MODULES = JSONSerialiser.JSON_SERIALISER_MODULES;
     public static final String STRICT_JSON = JSONSerialiser.STRICT_JSON;
@@ -408,6 +416,14 @@ public class StoreProperties implements Cloneable {
         return Integer.parseInt(get(EXECUTOR_SERVICE_THREAD_COUNT, EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT));
     }
 
+    public Integer getParallelExecutorThreadCount() {
+        return Integer.parseInt(get(PARALLEL_EXECUTOR_THREAD_COUNT, PARALLEL_EXECUTOR_THREAD_COUNT_DEFAULT));
+    }
+
+    public void setParallelExecutorThreadCount(final Integer threads) {
+        set(PARALLEL_EXECUTOR_THREAD_COUNT, null == threads ? null : String.valueOf(threads));
+    }
+
     public void addOperationDeclarationPaths(final String... newPaths) {
         final String newPathsCsv = StringUtils.join(newPaths, ",");
         String combinedPaths = getOperationDeclarationPaths();
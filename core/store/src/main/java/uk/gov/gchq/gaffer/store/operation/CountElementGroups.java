@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.operation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A {@code CountElementGroups} operation collects counts of the entity and
+ * edge groups of the {@link Element}s that an operation, such as
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} or
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, would return,
+ * without returning them. As with
+ * {@link uk.gov.gchq.gaffer.operation.impl.CountGroups}, a limit can be set to
+ * stop counting once that many elements have been counted.
+ *
+ * @see uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser
+ */
+@JsonPropertyOrder(value = {"class", "operation"}, alphabetic = true)
+@Since("1.22.1")
+@Summary("Counts the element groups an operation would return")
+public class CountElementGroups implements Output<GroupCounts> {
+    private Output<? extends Iterable<? extends Element>> operation;
+    private Integer limit;
+    private Map<String, String> options;
+
+    public Output<? extends Iterable<? extends Element>> getOperation() {
+        return operation;
+    }
+
+    public void setOperation(final Output<? extends Iterable<? extends Element>> operation) {
+        this.operation = operation;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(final Integer limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public TypeReference<GroupCounts> getOutputTypeReference() {
+        return new TypeReferenceImpl.CountGroups();
+    }
+
+    @Override
+    public CountElementGroups shallowClone() {
+        return new CountElementGroups.Builder()
+                .operation(operation)
+                .limit(limit)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        CloseableUtil.close(operation);
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static class Builder extends Operation.BaseBuilder<CountElementGroups, Builder>
+            implements Output.Builder<CountElementGroups, GroupCounts, Builder> {
+        public Builder() {
+            super(new CountElementGroups());
+        }
+
+        public Builder operation(final Output<? extends Iterable<? extends Element>> operation) {
+            _getOp().setOperation(operation);
+            return _self();
+        }
+
+        /**
+         * @param limit the limit of group counts to calculate.
+         * @return this Builder
+         * @see CountElementGroups#setLimit(Integer)
+         */
+        public Builder limit(final Integer limit) {
+            _getOp().setLimit(limit);
+            return _self();
+        }
+    }
+}
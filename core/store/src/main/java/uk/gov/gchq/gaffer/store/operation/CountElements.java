@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.operation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A {@code CountElements} operation counts the {@link Element}s that an
+ * operation, such as {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements}
+ * or {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, would
+ * return, without returning them. Stores that are able to count elements
+ * natively can handle this operation without sending every element back to
+ * Gaffer.
+ *
+ * @see uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser
+ */
+@JsonPropertyOrder(value = {"class", "operation"}, alphabetic = true)
+@Since("1.22.1")
+@Summary("Counts the elements an operation would return")
+public class CountElements implements Output<Long> {
+    private Output<? extends Iterable<? extends Element>> operation;
+    private Map<String, String> options;
+
+    public Output<? extends Iterable<? extends Element>> getOperation() {
+        return operation;
+    }
+
+    public void setOperation(final Output<? extends Iterable<? extends Element>> operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    public TypeReference<Long> getOutputTypeReference() {
+        return new TypeReferenceImpl.Long();
+    }
+
+    @Override
+    public CountElements shallowClone() {
+        return new CountElements.Builder()
+                .operation(operation)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        CloseableUtil.close(operation);
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static class Builder extends Operation.BaseBuilder<CountElements, Builder>
+            implements Output.Builder<CountElements, Long, Builder> {
+        public Builder() {
+            super(new CountElements());
+        }
+
+        public Builder operation(final Output<? extends Iterable<? extends Element>> operation) {
+            _getOp().setOperation(operation);
+            return _self();
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
@@ -26,14 +30,39 @@ import uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An {@code OperationHandler} for the {@link ForEach} Operation.
+ * <p>
+ * By default the operation is run for each input one at a time. If the
+ * {@link ForEach} has a parallelism greater than 1 the operations are run on
+ * the store's {@link Store#getParallelExecutorService() parallel executor}
+ * instead, with any {@link Iterable} results read into memory by the thread
+ * that ran the operation. The results are returned in the order of the inputs
+ * as soon as each one is available, and the first failure cancels all
+ * outstanding operations. The operations share the {@link Context}, so
+ * exports and variables are visible to the rest of the operation chain.
+ * <p>
+ * The handler has a maxParallelism setting, which can be overridden by system
+ * administrators in the operationDeclarations.json, to cap the parallelism
+ * users can request. The parallelism is a field on the operation, so it can
+ * also be limited per user by a graph hook.
  *
  * @param <I> input type
  * @param <O> output type
  */
 public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O>, Iterable<? extends O>> {
+    public static final int DEFAULT_MAX_PARALLELISM = 10;
+
+    private int maxParallelism = DEFAULT_MAX_PARALLELISM;
 
     @Override
     public Iterable<? extends O> doOperation(final ForEach<I, O> forEach, final Context context, final Store store) throws OperationException {
@@ -43,16 +72,41 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
         if (null == forEach.getInput()) {
             throw new OperationException("Inputs cannot be null");
         }
+        if (null != forEach.getParallelism() && forEach.getParallelism() < 1) {
+            throw new OperationException("Parallelism must be at least 1");
+        }
+
+        if (null != forEach.getParallelism() && forEach.getParallelism() > 1 && maxParallelism > 1) {
+            final ExecutorService executor = store.getParallelExecutorService();
+            if (null != executor) {
+                return executeOperationsInParallel(forEach, Math.min(forEach.getParallelism(), maxParallelism), context, store, executor);
+            }
+        }
 
         final List<O> results = new ArrayList<>();
         for (final I input : forEach.getInput()) {
-            final Operation clonedOperation = forEach.getOperation().shallowClone();
-            OperationHandlerUtil.updateOperationInput(clonedOperation, input);
-            results.add(executeOperation(clonedOperation, context, store));
+            results.add(executeOperation(createOperation(forEach, input), context, store));
         }
         return results;
     }
 
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public void setMaxParallelism(final int maxParallelism) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("Max parallelism must be at least 1");
+        }
+        this.maxParallelism = maxParallelism;
+    }
+
+    private Operation createOperation(final ForEach<I, O> forEach, final I input) {
+        final Operation clonedOperation = forEach.getOperation().shallowClone();
+        OperationHandlerUtil.updateOperationInput(clonedOperation, input);
+        return clonedOperation;
+    }
+
     private O executeOperation(final Operation operation, final Context context, final Store store) throws OperationException {
         final O result;
         if (operation instanceof Output) {
@@ -63,4 +117,135 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
         }
         return result;
     }
+
+    private Iterable<? extends O> executeOperationsInParallel(final ForEach<I, O> forEach,
+                                                              final int parallelism,
+                                                              final Context context,
+                                                              final Store store,
+                                                              final ExecutorService executor) {
+        final List<Operation> operations = new ArrayList<>();
+        for (final I input : forEach.getInput()) {
+            operations.add(createOperation(forEach, input));
+        }
+        if (operations.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final ParallelResults results = new ParallelResults(operations, context, store);
+        results.submit(executor, Math.min(parallelism, operations.size()));
+        return results;
+    }
+
+    /**
+     * The results of operations run in parallel, returned in the order the
+     * operations were submitted. Up to parallelism workers on the store's
+     * executor take the next operation until there are none left.
+     */
+    private final class ParallelResults implements CloseableIterable<O> {
+        private final List<Operation> operations;
+        private final Context context;
+        private final Store store;
+        private final List<CompletableFuture<O>> results = new ArrayList<>();
+        private final List<Future<?>> workers = new ArrayList<>();
+        private final AtomicInteger nextOperation = new AtomicInteger();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private volatile boolean closed;
+
+        private ParallelResults(final List<Operation> operations, final Context context, final Store store) {
+            this.operations = operations;
+            this.context = context;
+            this.store = store;
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(new CompletableFuture<>());
+            }
+        }
+
+        private void submit(final ExecutorService executor, final int parallelism) {
+            for (int i = 0; i < parallelism && !closed; i++) {
+                final Future<?> worker = executor.submit(this::executeOperations);
+                synchronized (workers) {
+                    workers.add(worker);
+                }
+            }
+        }
+
+        private void executeOperations() {
+            for (int i = nextOperation.getAndIncrement(); i < operations.size() && !closed; i = nextOperation.getAndIncrement()) {
+                try {
+                    results.get(i).complete(readResult(executeOperation(operations.get(i), context, store)));
+                } catch (final Exception e) {
+                    if (failure.compareAndSet(null, e)) {
+                        close();
+                    }
+                    results.get(i).completeExceptionally(e);
+                    return;
+                }
+            }
+        }
+
+        private O readResult(final O result) {
+            if (!(result instanceof Iterable)) {
+                return result;
+            }
+            try {
+                final List<Object> list = new ArrayList<>();
+                for (final Object item : (Iterable<?>) result) {
+                    list.add(item);
+                }
+                return (O) list;
+            } finally {
+                CloseableUtil.close(result);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (final CompletableFuture<O> result : results) {
+                result.cancel(false);
+            }
+            synchronized (workers) {
+                for (final Future<?> worker : workers) {
+                    worker.cancel(true);
+                }
+            }
+        }
+
+        @Override
+        public CloseableIterator<O> iterator() {
+            return new CloseableIterator<O>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < results.size();
+                }
+
+                @Override
+                public O next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    try {
+                        return results.get(index++).get();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        ParallelResults.this.close();
+                        throw new GafferRuntimeException("Interrupted whilst waiting for ForEach results", e);
+                    } catch (final ExecutionException | CancellationException e) {
+                        final Exception cause = null != failure.get() ? failure.get() : e;
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        throw new GafferRuntimeException("Failed to execute ForEach operation: " + cause.getMessage(), cause);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    ParallelResults.this.close();
+                }
+            };
+        }
+    }
 }
@@ -18,9 +18,11 @@ package uk.gov.gchq.gaffer.store.operation.handler;
 
 import com.google.common.collect.Lists;
 
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -50,13 +52,20 @@ import uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil;
 import uk.gov.gchq.koryphe.impl.function.IterableFunction;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.getResultsOrNull;
@@ -67,35 +76,47 @@ import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUt
  * The handler executes each {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements}
  * operation in the parent GetWalks operation in turn and incrementally creates
  * an in-memory representation of the resulting graph. Once all GetElements
- * operations have been executed, a recursive depth-first search algorithm is
- * used to construct all of the {@link Walk}s that exist in the temporary
- * graph.
+ * operations have been executed, a depth-first search is used to lazily
+ * construct the {@link Walk}s that exist in the temporary graph. Walks are
+ * only created as the results are consumed and the GetWalks conditional is
+ * applied to each walk as it is created. The results limit is applied to the
+ * input seeds and the elements returned by each hop, not to the walks.
  * <p>
- * The default handler has two settings which can be overridden by system
- * administrators: <ul> <li>maxHops - prevent users from executing GetWalks
- * operations that contain more than a set number of hops.</li> <li>prune -
- * toggle pruning for the in-memory graph representation. Enabling pruning
- * instructs the in-memory graph representation to discard any edges from the
- * previous GetElements operation which do not join up with any edges in the
- * current GetElements operation (orphaned edges). This reduces the memory
- * footprint of the in-memory graph representation, but requires some additional
- * processing while constructing the in-memory graph.</li> </ul>
+ * The default handler has the following settings which can be overridden by
+ * system administrators: <ul> <li>maxHops - prevent users from executing
+ * GetWalks operations that contain more than a set number of hops.</li>
+ * <li>prune - toggle pruning for the in-memory graph representation. Enabling
+ * pruning instructs the in-memory graph representation to discard any edges
+ * from the previous GetElements operation which do not join up with any edges
+ * in the current GetElements operation (orphaned edges). This reduces the
+ * memory footprint of the in-memory graph representation, but requires some
+ * additional processing while constructing the in-memory graph.</li>
+ * <li>parallelism - the number of batches of seeds that each hop may execute
+ * against the store at the same time, using the store's
+ * {@link Store#getParallelExecutorService() parallel executor}.</li> <li>seedBatchSize - the number of
+ * seeds in each batch when a hop is executed in parallel.</li> </ul>
  * <p>
  * The maxHops setting is not set by default (i.e. there is no limit to the
  * number of hops that a user can request). The prune flag is enabled by default
  * (for applications where performance is paramount and any issues arising from
- * excessive memory usage can be mitigated, this flag can be disabled).
+ * excessive memory usage can be mitigated, this flag can be disabled). The
+ * parallelism defaults to 1, so each hop is executed as a single operation.
  * <p>
  * This operation handler can be modified by supplying an
  * operationDeclarations.json file in order to limit the maximum number of hops
- * permitted or to enable/disable the pruning feature.
+ * permitted, to enable/disable the pruning feature or to execute hops in
+ * parallel.
  * <p>
  * Currently the handler only supports creating {@link Walk}s which contain
  * {@link Edge}s.
  */
 public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterable<Walk>> {
+    public static final int DEFAULT_SEED_BATCH_SIZE = 1000;
+
     private Integer maxHops = null;
     private boolean prune = true;
+    private int parallelism = 1;
+    private int seedBatchSize = DEFAULT_SEED_BATCH_SIZE;
 
     @Override
     public Iterable<Walk> doOperation(final GetWalks getWalks, final Context context, final Store store) throws OperationException {
@@ -151,11 +172,10 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
 
         final GraphWindow graphWindow = new GraphWindow(adjacencyMaps, entityMaps);
 
-        // Track/recombine the edge objects and convert to return type
-        final Stream<Walk> walks = Streams.toStream(originalInput)
-                .flatMap(seed -> walk(seed.getVertex(), null, graphWindow, new LinkedList<>(), new LinkedList<>(), hops, getWalks.isIncludePartial()).stream());
-
-        return applyConditionalFiltering(walks, getWalks, context, store);
+        // Lazily track/recombine the edge objects and convert to return type
+        final Predicate<Walk> walkPredicate = createWalkPredicate(getWalks, context, store);
+        final Iterable<Walk> walks = () -> new WalkIterator(originalInput.iterator(), graphWindow, hops, getWalks.isIncludePartial(), walkPredicate);
+        return new WrappedCloseableIterable<>(walks);
     }
 
     public Integer getMaxHops() {
@@ -174,6 +194,28 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         this.prune = prune;
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final Integer parallelism) {
+        if (null == parallelism || parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public Integer getSeedBatchSize() {
+        return seedBatchSize;
+    }
+
+    public void setSeedBatchSize(final Integer seedBatchSize) {
+        if (null == seedBatchSize || seedBatchSize < 1) {
+            throw new IllegalArgumentException("Seed batch size must be at least 1");
+        }
+        this.seedBatchSize = seedBatchSize;
+    }
+
     private boolean isWhileOperation(final OperationChain<Iterable<Element>> operation) {
         return 1 == operation.getOperations().size()
                 && operation.getOperations().get(0) instanceof While;
@@ -242,17 +284,22 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         final AdjacencyMap adjacencyMap = new AdjacencyMap();
         final EntityMap entityMap = new EntityMap();
 
-        final List<Object> nextSeeds = new ArrayList<>();
-        for (final Element e : results) {
-            if (e instanceof Edge) {
-                final Edge edge = (Edge) e;
-                final Object nextSeed = edge.getAdjacentMatchedVertexValue();
-                nextSeeds.add(nextSeed);
-                adjacencyMap.putEdge(edge.getMatchedVertexValue(), nextSeed, edge);
-            } else {
-                final Entity entity = (Entity) e;
-                entityMap.putEntity(entity.getVertex(), entity);
+        // Many edges can lead to the same vertex, so only query each vertex once in the next hop
+        final Set<Object> nextSeeds = new LinkedHashSet<>();
+        try {
+            for (final Element e : results) {
+                if (e instanceof Edge) {
+                    final Edge edge = (Edge) e;
+                    final Object nextSeed = edge.getAdjacentMatchedVertexValue();
+                    nextSeeds.add(nextSeed);
+                    adjacencyMap.putEdge(edge.getMatchedVertexValue(), nextSeed, edge);
+                } else {
+                    final Entity entity = (Entity) e;
+                    entityMap.putEntity(entity.getVertex(), entity);
+                }
             }
+        } finally {
+            CloseableUtil.close(results);
         }
 
         if (hops > adjacencyMaps.size()) {
@@ -260,7 +307,7 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         }
         entityMaps.add(entityMap);
 
-        return nextSeeds;
+        return new ArrayList<>(nextSeeds);
     }
 
     private Iterable<Element> executeOperation(final Output<Iterable<Element>> operation,
@@ -268,57 +315,99 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                                                final Integer resultLimit,
                                                final Context context,
                                                final Store store) throws OperationException {
-
-        final Output<Iterable<Element>> convertedOp = new OperationChain.Builder()
-                .first(new ToEntitySeeds.Builder()
-                        .input(seeds)
-                        .build())
-                .then(OperationChain.wrap(operation))
-                .build();
+        if (parallelism > 1 && seeds.size() > seedBatchSize) {
+            return executeOperationInParallel(operation, seeds, resultLimit, context, store);
+        }
 
         // Execute an the operation chain on the supplied store and cache
         // the seeds in memory using an ArrayList.
-        return new LimitedCloseableIterable<>(store.execute(convertedOp, context), 0, resultLimit, false);
+        return new LimitedCloseableIterable<>(store.execute(createHopOperation(operation, seeds), context), 0, resultLimit, false);
     }
 
-    private List<Walk> walk(final Object curr, final Object prev, final GraphWindow graphWindow, final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue, final int hops, final boolean includePartial) {
-        final List<Walk> walks = new ArrayList<>();
-
-        if (null != prev && hops != edgeQueue.size()) {
-            edgeQueue.offer(graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getEdges(prev, curr));
-        }
-
-        entityQueue.offer(graphWindow.getEntityMaps().get(entityQueue.size()).get(curr));
-
-        if (hops == edgeQueue.size()) {
-            final Walk walk = buildWalk(edgeQueue, entityQueue);
-            walks.add(walk);
-        } else {
-            final Set<Object> dests = graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getDestinations(curr);
-            if (dests.isEmpty()) {
-                if (includePartial) {
-                    final Walk walk = buildWalk(edgeQueue, entityQueue);
-                    walks.add(walk);
+    // Executes the operation for batches of seeds in parallel, on the store's
+    // parallel executor. Up to parallelism workers take the next batch until
+    // there are none left. The results of each batch are returned in the order
+    // of the batches, so the results are the same as executing the operation
+    // for all of the seeds at once.
+    private List<Element> executeOperationInParallel(final Output<Iterable<Element>> operation,
+                                                     final List<?> seeds,
+                                                     final Integer resultLimit,
+                                                     final Context context,
+                                                     final Store store) throws OperationException {
+        final List<? extends List<?>> batches = Lists.partition(seeds, seedBatchSize);
+        final ExecutorService executor = store.getParallelExecutorService();
+        final List<List<Element>> batchResults = new ArrayList<>(Collections.nCopies(batches.size(), null));
+        final AtomicInteger nextBatch = new AtomicInteger();
+        final AtomicLong resultCount = new AtomicLong();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Callable<Void> worker = () -> {
+            for (int i = nextBatch.getAndIncrement(); i < batches.size() && !failed.get(); i = nextBatch.getAndIncrement()) {
+                final Output<Iterable<Element>> hopOperation = createHopOperation((Output<Iterable<Element>>) operation.shallowClone(), batches.get(i));
+                final List<Element> results = new ArrayList<>();
+                Iterable<Element> hopResults = null;
+                try {
+                    hopResults = store.execute(hopOperation, context.shallowClone());
+                    for (final Element element : hopResults) {
+                        if (null != resultLimit && resultCount.incrementAndGet() > resultLimit) {
+                            throw new LimitExceededException("Limit of " + resultLimit + " exceeded.");
+                        }
+                        results.add(element);
+                    }
+                } catch (final Exception e) {
+                    failed.set(true);
+                    throw e;
+                } finally {
+                    CloseableUtil.close(hopResults);
                 }
+                batchResults.set(i, results);
+            }
+            return null;
+        };
+
+        final List<Future<Void>> futures = new ArrayList<>(parallelism);
+        try {
+            if (null == executor) {
+                worker.call();
             } else {
-                for (final Object obj : dests) {
-                    walks.addAll(walk(obj, curr, graphWindow, edgeQueue, entityQueue, hops, includePartial));
+                for (int i = 0; i < Math.min(parallelism, batches.size()); i++) {
+                    futures.add(executor.submit(worker));
+                }
+                for (final Future<Void> future : futures) {
+                    future.get();
                 }
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst executing GetWalks hop", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OperationException("Failed to execute GetWalks hop: " + e.getCause().getMessage(), e.getCause());
+        } catch (final OperationException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new OperationException("Failed to execute GetWalks hop: " + e.getMessage(), e);
+        } finally {
+            failed.set(true);
+            futures.forEach(future -> future.cancel(true));
         }
 
-        if (!edgeQueue.isEmpty()) {
-            edgeQueue.pollLast();
-        }
-
-        if (!entityQueue.isEmpty()) {
-            entityQueue.pollLast();
-        }
+        final List<Element> results = new ArrayList<>();
+        batchResults.forEach(results::addAll);
+        return results;
+    }
 
-        return walks;
+    private Output<Iterable<Element>> createHopOperation(final Output<Iterable<Element>> operation, final List<?> seeds) {
+        return new OperationChain.Builder()
+                .first(new ToEntitySeeds.Builder()
+                        .input(seeds)
+                        .build())
+                .then(OperationChain.wrap(operation))
+                .build();
     }
 
-    private Walk buildWalk(final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue) {
+    private static Walk buildWalk(final List<Set<Edge>> edgeQueue, final List<Set<Entity>> entityQueue) {
         final Walk.Builder builder = new Walk.Builder();
 
         final Iterator<Set<Edge>> edgeIterator = edgeQueue.iterator();
@@ -346,23 +435,132 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         }
     }
 
-    private List<Walk> applyConditionalFiltering(
-            final Stream<Walk> walks,
-            final GetWalks getWalks,
-            final Context context,
-            final Store store) {
+    private Predicate<Walk> createWalkPredicate(final GetWalks getWalks, final Context context, final Store store) {
         if (null == getWalks.getConditional() || null == getWalks.getConditional().getPredicate()) {
-            return walks.collect(Collectors.toList());
+            return null;
         }
 
         final Operation transformOperation = getWalks.getConditional().getTransform();
         final Predicate conditionalPredicate = getWalks.getConditional().getPredicate();
-        final WalkPredicate walkPredicate = new WalkPredicate(transformOperation, conditionalPredicate, context, store);
+        return new WalkPredicate(transformOperation, conditionalPredicate, context, store);
+    }
+
+    /**
+     * An iterator that walks the graph window depth first from each seed in
+     * turn, returning the walks in the same order as a recursive depth first
+     * search. Only the current path is held in memory.
+     */
+    private static final class WalkIterator implements Iterator<Walk> {
+        private final Iterator<? extends EntityId> seeds;
+        private final AdjacencyMaps adjacencyMaps;
+        private final EntityMaps entityMaps;
+        private final int hops;
+        private final boolean includePartial;
+        private final Predicate<Walk> walkPredicate;
+
+        private final List<Set<Edge>> edgeQueue = new ArrayList<>();
+        private final List<Set<Entity>> entityQueue = new ArrayList<>();
+        private final List<Object> vertices = new ArrayList<>();
+        private final List<Iterator<Object>> destinations = new ArrayList<>();
+        private Walk next;
+
+        private WalkIterator(final Iterator<? extends EntityId> seeds, final GraphWindow graphWindow, final int hops,
+                             final boolean includePartial, final Predicate<Walk> walkPredicate) {
+            this.seeds = seeds;
+            this.adjacencyMaps = graphWindow.getAdjacencyMaps();
+            this.entityMaps = graphWindow.getEntityMaps();
+            this.hops = hops;
+            this.includePartial = includePartial;
+            this.walkPredicate = walkPredicate;
+        }
 
-        return walks.filter(walkPredicate::test).collect(Collectors.toList());
+        @Override
+        public boolean hasNext() {
+            if (null == next) {
+                next = computeNext();
+            }
+            return null != next;
+        }
+
+        @Override
+        public Walk next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Walk walk = next;
+            next = null;
+            return walk;
+        }
+
+        private Walk computeNext() {
+            while (true) {
+                final Walk walk;
+                if (destinations.isEmpty()) {
+                    if (!seeds.hasNext()) {
+                        return null;
+                    }
+                    walk = visit(seeds.next().getVertex(), null);
+                } else {
+                    final int depth = destinations.size() - 1;
+                    final Iterator<Object> dests = destinations.get(depth);
+                    if (dests.hasNext()) {
+                        walk = visit(dests.next(), vertices.get(depth));
+                    } else {
+                        destinations.remove(depth);
+                        vertices.remove(depth);
+                        leave();
+                        walk = null;
+                    }
+                }
+
+                if (null != walk && (null == walkPredicate || walkPredicate.test(walk))) {
+                    return walk;
+                }
+            }
+        }
+
+        // Adds a vertex to the current path. If the path is complete, or cannot
+        // be continued, then the vertex is removed again and the walk along the
+        // path is returned if it should be included in the results. Otherwise
+        // the destinations from the vertex are added to be visited next.
+        private Walk visit(final Object curr, final Object prev) {
+            if (null != prev && hops != edgeQueue.size()) {
+                edgeQueue.add(adjacencyMaps.get(edgeQueue.size()).getEdges(prev, curr));
+            }
+
+            entityQueue.add(entityMaps.get(entityQueue.size()).get(curr));
+
+            Walk walk = null;
+            if (hops == edgeQueue.size()) {
+                walk = buildWalk(edgeQueue, entityQueue);
+            } else {
+                final Set<Object> dests = adjacencyMaps.get(edgeQueue.size()).getDestinations(curr);
+                if (!dests.isEmpty()) {
+                    vertices.add(curr);
+                    destinations.add(dests.iterator());
+                    return null;
+                }
+                if (includePartial) {
+                    walk = buildWalk(edgeQueue, entityQueue);
+                }
+            }
+
+            leave();
+            return walk;
+        }
+
+        private void leave() {
+            if (!edgeQueue.isEmpty()) {
+                edgeQueue.remove(edgeQueue.size() - 1);
+            }
+
+            if (!entityQueue.isEmpty()) {
+                entityQueue.remove(entityQueue.size() - 1);
+            }
+        }
     }
 
-    private class WalkPredicate implements Predicate<Walk> {
+    private static class WalkPredicate implements Predicate<Walk> {
         private final Operation transformOperation;
         private final Predicate predicate;
         private final Context context;
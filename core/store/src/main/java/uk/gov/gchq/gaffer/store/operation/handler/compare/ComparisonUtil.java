@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.operation.handler.compare;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Utility methods shared by the {@link MaxHandler}, {@link MinHandler} and
+ * {@link SortHandler} for comparing elements.
+ */
+final class ComparisonUtil {
+    private ComparisonUtil() {
+    }
+
+    /**
+     * Combines the comparators into a single comparator that tries each one
+     * in turn until the elements are not equal. Unlike chaining comparators
+     * with {@link Comparator#thenComparing(Comparator)}, this does not add a
+     * level of nested calls for each comparator.
+     *
+     * @param comparators the comparators to combine, null comparators are ignored
+     * @return the combined comparator, or null if there are no comparators
+     */
+    static Comparator<Element> combine(final List<Comparator<Element>> comparators) {
+        if (null == comparators) {
+            return null;
+        }
+        final List<Comparator<Element>> nonNullComparators = new ArrayList<>(comparators.size());
+        for (final Comparator<Element> comparator : comparators) {
+            if (null != comparator) {
+                nonNullComparators.add(comparator);
+            }
+        }
+        if (nonNullComparators.isEmpty()) {
+            return null;
+        }
+        if (1 == nonNullComparators.size()) {
+            return nonNullComparators.get(0);
+        }
+
+        final Comparator<Element>[] comparatorArray = nonNullComparators.toArray(new Comparator[0]);
+        return (e1, e2) -> {
+            for (final Comparator<Element> comparator : comparatorArray) {
+                final int result = comparator.compare(e1, e2);
+                if (0 != result) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Finds the largest or smallest element. If there is a single
+     * {@link ElementPropertyComparator} the property of the current best
+     * element is kept, rather than being looked up for every comparison, and
+     * elements that are not in the comparator groups, or do not have the
+     * property, are ignored. Null elements are always ignored. If elements
+     * are equal the first one is returned.
+     *
+     * @param elements    the elements to compare
+     * @param comparators the comparators to use
+     * @param largest     true to find the largest element, false to find the smallest
+     * @return the largest or smallest element, or null if there are no elements to compare
+     */
+    static Element select(final Iterable<? extends Element> elements,
+                          final List<Comparator<Element>> comparators,
+                          final boolean largest) {
+        Element selected = null;
+        if (1 == comparators.size() && comparators.get(0) instanceof ElementPropertyComparator) {
+            final ElementPropertyComparator propertyComparator = (ElementPropertyComparator) comparators.get(0);
+            Object selectedProperty = null;
+            for (final Element element : elements) {
+                if (null == element || !propertyComparator.getGroups().contains(element.getGroup())) {
+                    continue;
+                }
+                final Object property = element.getProperty(propertyComparator.getProperty());
+                if (null == property) {
+                    continue;
+                }
+                if (null == selected || isBetter(propertyComparator._compare(property, selectedProperty), largest)) {
+                    selected = element;
+                    selectedProperty = property;
+                }
+            }
+        } else {
+            final Comparator<Element> combinedComparator = combine(comparators);
+            if (null != combinedComparator) {
+                for (final Element element : elements) {
+                    if (null == element) {
+                        continue;
+                    }
+                    if (null == selected || isBetter(combinedComparator.compare(element, selected), largest)) {
+                        selected = element;
+                    }
+                }
+            }
+        }
+
+        return selected;
+    }
+
+    private static boolean isBetter(final int comparison, final boolean largest) {
+        return largest ? comparison > 0 : comparison < 0;
+    }
+}
@@ -17,20 +17,16 @@ package uk.gov.gchq.gaffer.store.operation.handler.compare;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.data.element.Element;
-import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.compare.Min;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
-import java.util.Comparator;
-import java.util.List;
-
 /**
  * A {@code MinHandler} handles the {@link Min} operation.
  *
- * It uses the {@link Comparator}s instances on the operation to determine the
+ * It uses the {@link java.util.Comparator}s instances on the operation to determine the
  * object with the minimum value.
  */
 public class MinHandler implements OutputOperationHandler<Min, Element> {
@@ -44,49 +40,9 @@ public class MinHandler implements OutputOperationHandler<Min, Element> {
         }
 
         try {
-            return getMin(operation.getInput(), operation);
+            return ComparisonUtil.select(operation.getInput(), operation.getComparators(), false);
         } finally {
             CloseableUtil.close(operation);
         }
     }
-
-    private Element getMin(final Iterable<? extends Element> elements, final Min operation) {
-        Element minElement = null;
-
-        final List<Comparator<Element>> comparators = operation.getComparators();
-        if (1 == comparators.size() && comparators.get(0) instanceof ElementPropertyComparator) {
-            final ElementPropertyComparator propertyComparator = (ElementPropertyComparator) comparators.get(0);
-            Object minProperty = null;
-            for (final Element element : elements) {
-                if (null == element || !propertyComparator.getGroups().contains(element.getGroup())) {
-                    continue;
-                }
-                final Object property = element.getProperty(propertyComparator.getProperty());
-                if (null == property) {
-                    continue;
-                }
-                if (null == minElement || propertyComparator._compare(property, minProperty) < 0) {
-                    minElement = element;
-                    minProperty = property;
-                }
-            }
-        } else {
-            final Comparator<Element> combinedComparator = operation.getCombinedComparator();
-            if (null != combinedComparator) {
-                for (final Element element : elements) {
-                    if (null == element) {
-                        continue;
-                    }
-                    if (null == minElement) {
-                        minElement = element;
-                    }
-                    if (combinedComparator.compare(element, minElement) < 0) {
-                        minElement = element;
-                    }
-                }
-            }
-        }
-
-        return minElement;
-    }
 }
@@ -16,8 +16,6 @@
 package uk.gov.gchq.gaffer.store.operation.handler.compare;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
-import uk.gov.gchq.gaffer.commonutil.stream.GafferCollectors;
-import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.compare.Max;
@@ -25,20 +23,25 @@ import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.util.ExternalSorter;
 
 import java.util.Collections;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 /**
  * A {@code SortHandler} handles the {@link Sort} operation. It does that
- * in memory using the {@link uk.gov.gchq.gaffer.commonutil.iterable.LimitedInMemorySortedIterable}.
+ * using an {@link ExternalSorter}, which keeps the top elements in a bounded
+ * heap if there is a resultLimit, otherwise it spills sorted runs of elements
+ * to disk once there are more than maxInMemoryElements and merges them as the
+ * results are read. The maxInMemoryElements can be overridden by system
+ * administrators in the operationDeclarations.json.
  * If the resultLimit is set to one that it just deletes the operation to the
  * {@link MaxHandler}.
  */
 public class SortHandler implements OutputOperationHandler<Sort, Iterable<? extends Element>> {
     private static final MaxHandler MAX_HANDLER = new MaxHandler();
 
+    private int maxInMemoryElements = ExternalSorter.DEFAULT_MAX_IN_MEMORY_ELEMENTS;
+
     @Override
     public Iterable<? extends Element> doOperation(final Sort operation, final Context context, final Store store) throws OperationException {
         // If there is no input or there are no comparators, we return null
@@ -60,18 +63,26 @@ public class SortHandler implements OutputOperationHandler<Sort, Iterable<? exte
             return Collections.singletonList(max);
         }
 
-        try (final Stream<? extends Element> stream =
-                     Streams.toStream(operation.getInput())
-                             .filter(Objects::nonNull)) {
-            return stream.collect(
-                    GafferCollectors.toLimitedInMemorySortedIterable(
-                            operation.getCombinedComparator(),
-                            operation.getResultLimit(),
-                            operation.isDeduplicate()
-                    )
-            );
+        try {
+            return new ExternalSorter(null != store ? store.getSchema() : null,
+                    ComparisonUtil.combine(operation.getComparators()),
+                    operation.getResultLimit(),
+                    operation.isDeduplicate(),
+                    maxInMemoryElements)
+                    .sort(operation.getInput());
         } finally {
             CloseableUtil.close(operation);
         }
     }
+
+    public int getMaxInMemoryElements() {
+        return maxInMemoryElements;
+    }
+
+    public void setMaxInMemoryElements(final int maxInMemoryElements) {
+        if (maxInMemoryElements < 1) {
+            throw new IllegalArgumentException("Max in memory elements must be at least 1");
+        }
+        this.maxInMemoryElements = maxInMemoryElements;
+    }
 }
@@ -25,8 +25,14 @@ import uk.gov.gchq.gaffer.store.operation.handler.export.ExportToHandler;
 /**
  * Implementation of the {@link ExportToHandler} abstract class to export objects
  * to a {@link java.util.Set} via a {@link SetExporter}.
+ * <p>
+ * The handler has a maxInMemoryObjects setting, which can be overridden by
+ * system administrators in the operationDeclarations.json, to control how
+ * many objects each export holds in memory before it is moved to disk.
  */
 public class ExportToSetHandler extends ExportToHandler<ExportToSet, SetExporter> {
+    private int maxInMemoryObjects = SetExporter.DEFAULT_MAX_IN_MEMORY_OBJECTS;
+
     @Override
     protected Class<SetExporter> getExporterClass() {
         return SetExporter.class;
@@ -34,6 +40,17 @@ public class ExportToSetHandler extends ExportToHandler<ExportToSet, SetExporter
 
     @Override
     protected SetExporter createExporter(final ExportToSet export, final Context context, final Store store) {
-        return new SetExporter();
+        return new SetExporter(maxInMemoryObjects);
+    }
+
+    public int getMaxInMemoryObjects() {
+        return maxInMemoryObjects;
+    }
+
+    public void setMaxInMemoryObjects(final int maxInMemoryObjects) {
+        if (maxInMemoryObjects < 1) {
+            throw new IllegalArgumentException("Max in memory objects must be at least 1");
+        }
+        this.maxInMemoryObjects = maxInMemoryObjects;
     }
 }
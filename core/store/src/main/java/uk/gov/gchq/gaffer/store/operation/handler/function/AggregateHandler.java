@@ -28,13 +28,22 @@ import uk.gov.gchq.gaffer.store.operation.validator.function.AggregateValidator;
 import uk.gov.gchq.gaffer.store.operation.validator.function.FunctionValidator;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+import uk.gov.gchq.gaffer.store.util.ExternalAggregator;
 import uk.gov.gchq.koryphe.ValidationResult;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * An {@code AggregateHandler} handles the {@link Aggregate} operation.
+ * <p>
+ * The handler has a maxInMemoryElements setting, which can be overridden by
+ * system administrators in the operationDeclarations.json, to control how
+ * many elements are aggregated in memory before they are spilled to disk.
+ */
 public class AggregateHandler implements OutputOperationHandler<Aggregate, Iterable<? extends Element>> {
     private final FunctionValidator<Aggregate> validator = new AggregateValidator();
+    private int maxInMemoryElements = ExternalAggregator.DEFAULT_MAX_IN_MEMORY_ELEMENTS;
 
     @Override
     public Iterable<? extends Element> doOperation(final Aggregate operation, final Context context, final Store store) throws OperationException {
@@ -63,7 +72,18 @@ public class AggregateHandler implements OutputOperationHandler<Aggregate, Itera
             throw new OperationException("Aggregate operation is invalid. " + result.getErrorString());
         }
 
-        return AggregatorUtil.queryAggregate(operation.getInput(), schema, buildView(operation));
+        return AggregatorUtil.queryAggregate(operation.getInput(), schema, buildView(operation), false, maxInMemoryElements);
+    }
+
+    public int getMaxInMemoryElements() {
+        return maxInMemoryElements;
+    }
+
+    public void setMaxInMemoryElements(final int maxInMemoryElements) {
+        if (maxInMemoryElements < 1) {
+            throw new IllegalArgumentException("Max in memory elements must be at least 1");
+        }
+        this.maxInMemoryElements = maxInMemoryElements;
     }
 
     private View buildView(final Aggregate operation) {
@@ -17,10 +17,15 @@
 package uk.gov.gchq.gaffer.store.operation.handler.join;
 
 
+import com.google.common.collect.Iterators;
+
 import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
+import uk.gov.gchq.gaffer.operation.impl.join.match.KeyedMatch;
+import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinFunction;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
@@ -29,12 +34,44 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.getResultsOrNull;
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.updateOperationInput;
 
+/**
+ * A {@code JoinHandler} handles {@link Join} operations.
+ * <p>
+ * Both inputs are read once, up to the collectionLimit, and the match method
+ * indexes the match candidates when it is initialised. The joined
+ * {@link MapTuple}s are created lazily as the results are consumed.
+ * <p>
+ * The handler has the following settings which can be overridden by system
+ * administrators in an operationDeclarations.json file: <ul>
+ * <li>spillThreshold - the number of objects from each input which may be
+ * held in memory. If either input is larger than this then both inputs are
+ * partitioned by key and spilled to local disk, and the partitions are joined
+ * one at a time. Spilling requires the match method to be a
+ * {@link KeyedMatch} and the inputs to be {@link java.io.Serializable}. The
+ * results of a spilled join are returned partition by partition, so their
+ * order differs from an in-memory join, and they can only be iterated once.
+ * Closing the results deletes the spilled partitions. By default the inputs
+ * are never spilled.</li>
+ * <li>spillPartitions - the number of partitions to spill the inputs to.</li>
+ * <li>spillDirectory - the local directory to spill the inputs to. Defaults
+ * to the system temporary directory.</li> </ul>
+ */
 public class JoinHandler<I> implements OutputOperationHandler<Join<I>, Iterable<? extends MapTuple>> {
+    public static final int DEFAULT_SPILL_PARTITIONS = 16;
+
+    private Integer spillThreshold;
+    private int spillPartitions = DEFAULT_SPILL_PARTITIONS;
+    private String spillDirectory;
+
     @Override
     public Iterable<? extends MapTuple> doOperation(final Join<I> operation, final Context context, final Store store) throws OperationException {
         final int limit = operation.getCollectionLimit() != null ? operation.getCollectionLimit() : 100000;
@@ -70,16 +107,78 @@ public class JoinHandler<I> implements OutputOperationHandler<Join<I>, Iterable<
                         context,
                         store);
 
-        final Iterable limitedLeftIterable;
-        final Iterable limitedRightIterable;
+        final LimitedCloseableIterable<Object> limitedLeftIterable;
+        final LimitedCloseableIterable<Object> limitedRightIterable;
 
         try {
-            limitedLeftIterable = new LimitedCloseableIterable(operation.getInput(), 0, limit, false);
-            limitedRightIterable = new LimitedCloseableIterable(rightIterable, 0, limit, false);
-            return joinFunction.join(limitedLeftIterable, limitedRightIterable, operation.getMatchMethod(), matchKey, operation.isFlatten());
+            limitedLeftIterable = new LimitedCloseableIterable<>((Iterable) operation.getInput(), 0, limit, false);
+            limitedRightIterable = new LimitedCloseableIterable<>((Iterable) rightIterable, 0, limit, false);
+            return join(limitedLeftIterable, limitedRightIterable, joinFunction, operation.getMatchMethod(), matchKey, operation.isFlatten());
         } catch (final LimitExceededException e) {
             throw new OperationException("Join exceeded the collectionLimit, a solution is to increasing collectionLimit value in the join operation.", e);
         }
 
     }
+
+    public Integer getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    public void setSpillThreshold(final Integer spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    public Integer getSpillPartitions() {
+        return spillPartitions;
+    }
+
+    public void setSpillPartitions(final Integer spillPartitions) {
+        if (null == spillPartitions || spillPartitions < 1) {
+            throw new IllegalArgumentException("The number of spill partitions must be at least 1");
+        }
+        this.spillPartitions = spillPartitions;
+    }
+
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public void setSpillDirectory(final String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    private Iterable<MapTuple> join(final LimitedCloseableIterable<Object> left,
+                                    final LimitedCloseableIterable<Object> right,
+                                    final JoinFunction joinFunction,
+                                    final Match match,
+                                    final MatchKey matchKey,
+                                    final Boolean flatten) throws OperationException {
+        final int maxInMemory = null != spillThreshold && match instanceof KeyedMatch ? spillThreshold : Integer.MAX_VALUE;
+
+        try (final CloseableIterator<Object> leftItr = left.iterator();
+             final CloseableIterator<Object> rightItr = right.iterator()) {
+            final List<Object> leftBuffer = buffer(leftItr, maxInMemory);
+            final List<Object> rightBuffer = buffer(rightItr, maxInMemory);
+            if (!leftItr.hasNext() && !rightItr.hasNext()) {
+                return joinFunction.joinLazily(leftBuffer, rightBuffer, match, matchKey, flatten);
+            }
+
+            final JoinPartitions partitions = new JoinPartitions(null != spillDirectory ? Paths.get(spillDirectory) : null, spillPartitions);
+            partitions.write(
+                    () -> Iterators.concat(leftBuffer.iterator(), leftItr),
+                    () -> Iterators.concat(rightBuffer.iterator(), rightItr),
+                    (KeyedMatch) match, matchKey);
+            return partitions.join(joinFunction, (KeyedMatch) match, matchKey, flatten);
+        } catch (final IOException e) {
+            throw new OperationException("Unable to spill the join inputs to local disk: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Object> buffer(final Iterator<Object> itr, final int maxSize) {
+        final List<Object> buffer = new ArrayList<>();
+        while (buffer.size() < maxSize && itr.hasNext()) {
+            buffer.add(itr.next());
+        }
+        return buffer;
+    }
 }
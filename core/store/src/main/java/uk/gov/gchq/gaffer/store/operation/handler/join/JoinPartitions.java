@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.operation.handler.join;
+
+import com.google.common.collect.Iterables;
+import org.apache.commons.io.FileUtils;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.operation.impl.join.match.KeyedMatch;
+import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
+import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinFunction;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * {@code JoinPartitions} spills the inputs of a Join to local disk, split
+ * into partitions by the hash of their {@link KeyedMatch} keys. Objects can
+ * only match objects in the same partition, so the partitions can be joined
+ * one at a time with only a single partition held in memory.
+ * <p>
+ * The objects are written using Java serialisation, so they must be
+ * {@link java.io.Serializable}. Each partition is deleted once it has been
+ * read back, and any remaining partitions are deleted when the joined results
+ * are closed. The joined results can therefore only be iterated once.
+ * <p>
+ * The results are returned partition by partition, so they are not in the
+ * same order as the results of an in-memory join. Within a partition the
+ * order of the keyed side of the Join is kept.
+ */
+final class JoinPartitions {
+    private static final String LEFT_PREFIX = "left-";
+    private static final String RIGHT_PREFIX = "right-";
+    private static final String SUFFIX = ".bin";
+    private static final int RESET_INTERVAL = 1000;
+
+    private final Path directory;
+    private final int numPartitions;
+
+    JoinPartitions(final Path parentDirectory, final int numPartitions) throws IOException {
+        if (numPartitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be at least 1");
+        }
+        this.directory = null == parentDirectory
+                ? Files.createTempDirectory("gaffer-join-")
+                : Files.createTempDirectory(Files.createDirectories(parentDirectory), "gaffer-join-");
+        this.numPartitions = numPartitions;
+    }
+
+    /**
+     * Writes both inputs of the Join to their partitions.
+     *
+     * @param left     the left input
+     * @param right    the right input
+     * @param match    the match used to extract the keys
+     * @param matchKey the keyed side of the Join
+     * @throws IOException if the partitions could not be written
+     */
+    void write(final Iterable<?> left, final Iterable<?> right, final KeyedMatch match, final MatchKey matchKey) throws IOException {
+        final boolean leftKeyed = MatchKey.LEFT.equals(matchKey);
+        try {
+            write(LEFT_PREFIX, left, leftKeyed ? match::testObjectKey : match::matchCandidateKey);
+            write(RIGHT_PREFIX, right, leftKeyed ? match::matchCandidateKey : match::testObjectKey);
+        } catch (final IOException | RuntimeException e) {
+            delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Lazily joins each partition in turn. Closing the results, or their
+     * iterator, deletes any partitions that have not been read.
+     *
+     * @param joinFunction the join function
+     * @param match        the match method
+     * @param matchKey     the keyed side of the Join
+     * @param flatten      true if the results should be flattened
+     * @return the joined {@code MapTuple}s, which can only be iterated once
+     */
+    CloseableIterable<MapTuple> join(final JoinFunction joinFunction, final KeyedMatch match, final MatchKey matchKey, final boolean flatten) {
+        return new JoinedPartitions(joinFunction, match, matchKey, flatten);
+    }
+
+    void delete() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    private void write(final String prefix, final Iterable<?> input, final Function<Object, Object> keyFunction) throws IOException {
+        final ObjectOutputStream[] outputs = new ObjectOutputStream[numPartitions];
+        final int[] counts = new int[numPartitions];
+        try {
+            for (int i = 0; i < numPartitions; i++) {
+                final Path file = getFile(prefix, i);
+                outputs[i] = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            }
+            for (final Object obj : input) {
+                final int partition = Math.floorMod(Objects.hashCode(keyFunction.apply(obj)), numPartitions);
+                outputs[partition].writeObject(obj);
+                // Stop the stream holding a reference to every object written
+                if (++counts[partition] % RESET_INTERVAL == 0) {
+                    outputs[partition].reset();
+                }
+            }
+        } finally {
+            for (final ObjectOutputStream output : outputs) {
+                if (null != output) {
+                    output.close();
+                }
+            }
+        }
+    }
+
+    private List<Object> read(final String prefix, final int partition) {
+        final Path file = getFile(prefix, partition);
+        final List<Object> objects = new ArrayList<>();
+        try (final ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                objects.add(input.readObject());
+            }
+        } catch (final EOFException e) {
+            // End of the partition
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to read join partition " + file, e);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to read join partition " + file, e);
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to delete join partition " + file, e);
+        }
+        return objects;
+    }
+
+    private Path getFile(final String prefix, final int partition) {
+        return directory.resolve(prefix + partition + SUFFIX);
+    }
+
+    private final class JoinedPartitions implements CloseableIterable<MapTuple> {
+        private final JoinFunction joinFunction;
+        private final KeyedMatch match;
+        private final MatchKey matchKey;
+        private final boolean flatten;
+        private boolean iterated;
+
+        private JoinedPartitions(final JoinFunction joinFunction, final KeyedMatch match, final MatchKey matchKey, final boolean flatten) {
+            this.joinFunction = joinFunction;
+            this.match = match;
+            this.matchKey = matchKey;
+            this.flatten = flatten;
+        }
+
+        @Override
+        public void close() {
+            delete();
+        }
+
+        @Override
+        public synchronized CloseableIterator<MapTuple> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("The results of a Join spilled to disk can only be iterated once");
+            }
+            iterated = true;
+
+            final Iterator<MapTuple> results = Iterables.concat(Iterables.transform(
+                    () -> IntStream.range(0, numPartitions).iterator(),
+                    partition -> {
+                        final List<Object> left = read(LEFT_PREFIX, partition);
+                        final List<Object> right = read(RIGHT_PREFIX, partition);
+                        if (partition == numPartitions - 1) {
+                            delete();
+                        }
+                        return joinFunction.joinLazily(left, right, match, matchKey, flatten);
+                    })).iterator();
+            return new CloseableIterator<MapTuple>() {
+                @Override
+                public boolean hasNext() {
+                    return results.hasNext();
+                }
+
+                @Override
+                public MapTuple next() {
+                    return results.next();
+                }
+
+                @Override
+                public void close() {
+                    delete();
+                }
+            };
+        }
+    }
+}
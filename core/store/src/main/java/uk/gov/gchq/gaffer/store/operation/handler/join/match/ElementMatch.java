@@ -16,20 +16,27 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler.join.match;
 
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.comparison.ElementJoinComparator;
-import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
+import uk.gov.gchq.gaffer.operation.impl.join.match.KeyedMatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Tests for matches for Elements within a Join Operation, groupBy properties can be optionally specified.
+ * The match candidates are indexed by their identifiers and groupBy properties when the match is initialised,
+ * so each test only looks up the candidates which are equal to it.
  */
-public class ElementMatch implements Match {
+public class ElementMatch implements KeyedMatch {
     private ElementJoinComparator elementJoinComparator;
-    private Iterable matchCandidates;
+    private Map<Object, List<Element>> matchCandidates;
 
     private static final String NULL_MATCH_CANDIDATES_ERROR_MESSAGE = "ElementMatch must be initialised with non-null match candidates";
 
@@ -54,7 +61,12 @@ public class ElementMatch implements Match {
         if (matchCandidates == null) {
             throw new IllegalArgumentException(NULL_MATCH_CANDIDATES_ERROR_MESSAGE);
         }
-        this.matchCandidates = matchCandidates;
+
+        final Map<Object, List<Element>> index = new HashMap<>();
+        for (final Object entry : matchCandidates) {
+            index.computeIfAbsent(matchCandidateKey(entry), k -> new ArrayList<>()).add((Element) entry);
+        }
+        this.matchCandidates = index;
     }
 
     @Override
@@ -63,14 +75,41 @@ public class ElementMatch implements Match {
             throw new IllegalArgumentException(NULL_MATCH_CANDIDATES_ERROR_MESSAGE);
         }
 
-        List matches = new ArrayList<>();
+        final List<Element> entries = matchCandidates.getOrDefault(testObjectKey(testObject), Collections.emptyList());
+        final List matches = new ArrayList<>(entries.size());
+        for (final Element entry : entries) {
+            matches.add(entry.shallowClone());
+        }
+        return matches;
+    }
+
+    @Override
+    public Object testObjectKey(final Object testObject) {
+        return getKey((Element) testObject);
+    }
 
+    @Override
+    public Object matchCandidateKey(final Object matchCandidate) {
+        return getKey((Element) matchCandidate);
+    }
 
-        for (final Object entry : matchCandidates) {
-            if (elementJoinComparator.test((Element) entry, (Element) testObject)) {
-                matches.add(((Element) entry).shallowClone());
-            }
+    // The key is equal for two elements exactly when the ElementJoinComparator considers them to be equal
+    private List<Object> getKey(final Element element) {
+        final Set<String> groupByProperties = elementJoinComparator.getGroupByProperties();
+        final List<Object> key = new ArrayList<>(5 + groupByProperties.size());
+        key.add(element.getClass());
+        key.add(element.getGroup());
+        if (element instanceof Entity) {
+            key.add(((Entity) element).getVertex());
+        } else {
+            final Edge edge = (Edge) element;
+            key.add(edge.getSource());
+            key.add(edge.getDestination());
+            key.add(edge.getDirectedType());
         }
-        return matches;
+        for (final String property : groupByProperties) {
+            key.add(element.getProperty(property));
+        }
+        return key;
     }
 }
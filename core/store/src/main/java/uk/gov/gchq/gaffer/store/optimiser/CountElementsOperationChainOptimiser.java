@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.optimiser;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * A {@code CountElementsOperationChainOptimiser} replaces a {@link GetElements}
+ * or {@link GetAllElements} that is followed by a {@link Count} or
+ * {@link CountGroups} with a single {@link CountElements} or
+ * {@link CountElementGroups} operation. This should only be added to stores
+ * that have handlers for these operations which count the elements natively,
+ * so the elements no longer have to be returned just to be counted.
+ * <p>
+ * As post transform filters are applied after the elements have been
+ * retrieved from the store, operations with a view containing post transform
+ * filters are not optimised.
+ * </p>
+ */
+public class CountElementsOperationChainOptimiser extends AbstractOperationChainOptimiser {
+    @Override
+    protected List<Operation> addPreOperations(final Operation previousOp, final Operation currentOp) {
+        return emptyList();
+    }
+
+    @Override
+    protected List<Operation> optimiseCurrentOperation(final Operation previousOp, final Operation currentOp, final Operation nextOp) {
+        if (isCountableOperation(previousOp) && isCountOperation(currentOp)) {
+            final Output<? extends Iterable<? extends Element>> getOp = (Output<? extends Iterable<? extends Element>>) previousOp;
+            if (currentOp instanceof CountGroups) {
+                return singletonList(new CountElementGroups.Builder()
+                        .operation(getOp)
+                        .limit(((CountGroups) currentOp).getLimit())
+                        .options(currentOp.getOptions())
+                        .build());
+            }
+            return singletonList(new CountElements.Builder()
+                    .operation(getOp)
+                    .options(currentOp.getOptions())
+                    .build());
+        }
+        if (isCountableOperation(currentOp) && isCountOperation(nextOp)) {
+            return emptyList();
+        }
+        return singletonList(currentOp);
+    }
+
+    @Override
+    protected List<Operation> addPostOperations(final Operation currentOp, final Operation nextOp) {
+        return emptyList();
+    }
+
+    @Override
+    protected List<Operation> optimiseAll(final List<Operation> ops) {
+        return ops;
+    }
+
+    private boolean isCountableOperation(final Operation operation) {
+        if (null != operation && GetAllElements.class.equals(operation.getClass())) {
+            return hasNoPostTransformFilters(((GetAllElements) operation).getView());
+        }
+        if (null != operation && GetElements.class.equals(operation.getClass())) {
+            // A GetElements without an input takes its seeds from the previous operation
+            return null != ((GetElements) operation).getInput()
+                    && hasNoPostTransformFilters(((GetElements) operation).getView());
+        }
+        return false;
+    }
+
+    private boolean hasNoPostTransformFilters(final View view) {
+        return null == view || !view.hasPostTransformFilters();
+    }
+
+    private boolean isCountOperation(final Operation operation) {
+        if (null != operation && Count.class.equals(operation.getClass())) {
+            return null == ((Count) operation).getInput();
+        }
+        if (null != operation && CountGroups.class.equals(operation.getClass())) {
+            return null == ((CountGroups) operation).getInput();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        return null != o && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
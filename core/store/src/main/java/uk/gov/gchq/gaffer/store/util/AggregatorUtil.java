@@ -16,9 +16,7 @@
 package uk.gov.gchq.gaffer.store.util;
 
 
-import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.GroupedProperties;
@@ -33,14 +31,11 @@ import uk.gov.gchq.koryphe.binaryoperator.KorypheBinaryOperator;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
 import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Utility methods to help with doing aggregation of elements. Aggregation differs
@@ -57,33 +52,35 @@ public final class AggregatorUtil {
      * This uses the groupBy properties in the provided {@link Schema} to group
      * the elements prior to aggregating them.
      * <p>
-     * NOTE - this is done in memory so the size of the iterable should be limited.
+     * Up to {@link ExternalAggregator#DEFAULT_MAX_IN_MEMORY_ELEMENTS} elements are held
+     * in memory before the partially aggregated elements are spilled to disk.
      *
      * @param elements the elements to be aggregated
      * @param schema   the schema containing the aggregators and groupBy properties to use
      * @return the aggregated elements.
      */
     public static CloseableIterable<Element> ingestAggregate(final Iterable<? extends Element> elements, final Schema schema) {
+        return ingestAggregate(elements, schema, ExternalAggregator.DEFAULT_MAX_IN_MEMORY_ELEMENTS);
+    }
+
+    /**
+     * Applies ingest aggregation to the provided iterable of {@link Element}s.
+     * This uses the groupBy properties in the provided {@link Schema} to group
+     * the elements prior to aggregating them.
+     *
+     * @param elements            the elements to be aggregated
+     * @param schema              the schema containing the aggregators and groupBy properties to use
+     * @param maxInMemoryElements the number of elements to hold in memory before spilling to disk
+     * @return the aggregated elements.
+     * @see ExternalAggregator
+     */
+    public static CloseableIterable<Element> ingestAggregate(final Iterable<? extends Element> elements, final Schema schema, final int maxInMemoryElements) {
         if (null == schema) {
             throw new IllegalArgumentException("Schema is required");
         }
-        final Collection<String> aggregatedGroups = schema.getAggregatedGroups();
-        final List<Element> aggregatableElements = new ArrayList<>();
-        final List<Element> nonAggregatedElements = new ArrayList<>();
-        for (final Element element : elements) {
-            if (null != element) {
-                if (aggregatedGroups.contains(element.getGroup())) {
-                    aggregatableElements.add(element);
-                } else {
-                    nonAggregatedElements.add(element);
-                }
-            }
-        }
-
-        final Iterable<Element> aggregatedElements = Streams.toStream(aggregatableElements)
-                .collect(Collectors.groupingBy(new ToIngestElementKey(schema), Collectors.reducing(null, new IngestElementBinaryOperator(schema))))
-                .values();
-        return new ChainedIterable<>(aggregatedElements, nonAggregatedElements);
+        return new ExternalAggregator(schema, new ToIngestElementKey(schema), new IngestElementBinaryOperator(schema),
+                maxInMemoryElements, ExternalAggregator.DEFAULT_PARTITIONS)
+                .aggregate(elements);
     }
 
     /**
@@ -92,7 +89,8 @@ public final class AggregatorUtil {
      * the elements prior to aggregating them. The Matched Vertex field is ignored during
      * aggregation.
      * <p>
-     * NOTE - this is done in memory so the size of the iterable should be limited.
+     * Up to {@link ExternalAggregator#DEFAULT_MAX_IN_MEMORY_ELEMENTS} elements are held
+     * in memory before the partially aggregated elements are spilled to disk.
      *
      * @param elements the elements to be aggregated
      * @param schema   the schema containing the aggregators and groupBy properties to use
@@ -109,7 +107,8 @@ public final class AggregatorUtil {
      * the elements prior to aggregating them. Aggregation of Edges can optionally be
      * configured to include the Matched Vertex field.
      * <p>
-     * NOTE - this is done in memory so the size of the iterable should be limited.
+     * Up to {@link ExternalAggregator#DEFAULT_MAX_IN_MEMORY_ELEMENTS} elements are held
+     * in memory before the partially aggregated elements are spilled to disk.
      *
      * @param elements             the elements to be aggregated
      * @param schema               the schema containing the aggregators and groupBy properties to use
@@ -118,28 +117,33 @@ public final class AggregatorUtil {
      * @return the aggregated elements.
      */
     public static CloseableIterable<Element> queryAggregate(final Iterable<? extends Element> elements, final Schema schema, final View view, final boolean includeMatchedVertex) {
+        return queryAggregate(elements, schema, view, includeMatchedVertex, ExternalAggregator.DEFAULT_MAX_IN_MEMORY_ELEMENTS);
+    }
+
+    /**
+     * Applies query time aggregation to the provided iterable of {@link Element}s.
+     * This uses the groupBy properties in the provided {@link View} or {@link Schema} to group
+     * the elements prior to aggregating them. Aggregation of Edges can optionally be
+     * configured to include the Matched Vertex field.
+     *
+     * @param elements             the elements to be aggregated
+     * @param schema               the schema containing the aggregators and groupBy properties to use
+     * @param view                 the view containing the aggregators and groupBy properties to use
+     * @param includeMatchedVertex whether aggregation groups should include the Edge Matched Vertex
+     * @param maxInMemoryElements  the number of elements to hold in memory before spilling to disk
+     * @return the aggregated elements.
+     * @see ExternalAggregator
+     */
+    public static CloseableIterable<Element> queryAggregate(final Iterable<? extends Element> elements, final Schema schema, final View view, final boolean includeMatchedVertex, final int maxInMemoryElements) {
         if (null == schema) {
             throw new IllegalArgumentException("Schema is required");
         }
         if (null == view) {
             throw new IllegalArgumentException("View is required");
         }
-        final Collection<String> aggregatedGroups = schema.getAggregatedGroups();
-        final List<Element> aggregatableElements = new ArrayList<>();
-        final List<Element> nonAggregatedElements = new ArrayList<>();
-        for (final Element element : elements) {
-            if (null != element) {
-                if (aggregatedGroups.contains(element.getGroup())) {
-                    aggregatableElements.add(element);
-                } else {
-                    nonAggregatedElements.add(element);
-                }
-            }
-        }
-        final Iterable<Element> aggregatedElements = Streams.toStream(aggregatableElements)
-                .collect(Collectors.groupingBy(new ToQueryElementKey(schema, view, includeMatchedVertex), Collectors.reducing(null, new QueryElementBinaryOperator(schema, view))))
-                .values();
-        return new ChainedIterable<>(aggregatedElements, nonAggregatedElements);
+        return new ExternalAggregator(schema, new ToQueryElementKey(schema, view, includeMatchedVertex), new QueryElementBinaryOperator(schema, view),
+                maxInMemoryElements, ExternalAggregator.DEFAULT_PARTITIONS)
+                .aggregate(elements);
     }
 
     /**
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyCloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes {@link Element}s to, and reads them back from, local temporary files
+ * using the serialisers in a {@link Schema}. This is used to spill elements to
+ * disk when there are too many to hold in memory.
+ * <p>
+ * Only the properties in the schema and the matched vertex of edges are
+ * written, so {@link #canWrite(Element)} should be checked before writing an
+ * element that may have other properties, such as transient properties.
+ */
+final class ElementSpillSerialiser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElementSpillSerialiser.class);
+
+    private final Schema schema;
+    private final ElementSerialiser serialiser;
+
+    private ElementSpillSerialiser(final Schema schema) {
+        validateSerialisers(schema);
+        this.schema = schema;
+        this.serialiser = new ElementSerialiser(schema);
+    }
+
+    /**
+     * Creates an {@code ElementSpillSerialiser} for the provided schema.
+     *
+     * @param schema the schema containing the serialisers to use
+     * @return the serialiser, or null if the schema does not have the
+     * serialisers required to spill elements to disk
+     */
+    static ElementSpillSerialiser create(final Schema schema) {
+        if (null == schema) {
+            return null;
+        }
+        try {
+            return new ElementSpillSerialiser(schema);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.warn("Unable to spill elements to disk, so all elements will be held in memory: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    DataOutputStream createOutput(final File file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    /**
+     * Checks whether an element can be written without losing any of its
+     * properties.
+     *
+     * @param element the element to check
+     * @return true if the group and all the properties of the element are in the schema
+     */
+    boolean canWrite(final Element element) {
+        final SchemaElementDefinition elementDef = schema.getElement(element.getGroup());
+        return null != elementDef && elementDef.getProperties().containsAll(element.getProperties().keySet());
+    }
+
+    void write(final Element element, final DataOutputStream output) throws IOException {
+        if (!canWrite(element)) {
+            throw new GafferRuntimeException("Unable to spill element to disk, "
+                    + "as it contains properties that are not in the schema: " + element);
+        }
+        final byte[] bytes = serialiser.serialise(element);
+        output.writeInt(bytes.length);
+        output.writeByte(element instanceof Edge && null != ((Edge) element).getMatchedVertex()
+                ? ((Edge) element).getMatchedVertex().ordinal() + 1
+                : 0);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads the elements written to a file. If the file does not exist no
+     * elements are returned.
+     *
+     * @param file the file to read
+     * @return the elements in the file
+     */
+    CloseableIterable<Element> read(final File file) {
+        return new CloseableIterable<Element>() {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public CloseableIterator<Element> iterator() {
+                if (!file.exists()) {
+                    return new EmptyCloseableIterator<>();
+                }
+                try {
+                    return new SpillFileIterator(new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to read spilled elements from disk: " + e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    private static void validateSerialisers(final Schema schema) {
+        if (!(schema.getVertexSerialiser() instanceof ToBytesSerialiser)) {
+            throw new IllegalArgumentException("The vertex serialiser must be a " + ToBytesSerialiser.class.getSimpleName());
+        }
+        final ToBytesSerialiser vertexSerialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+        for (final String group : schema.getGroups()) {
+            final SchemaElementDefinition elementDef = schema.getElement(group);
+            for (final IdentifierType identifier : elementDef.getIdentifiers()) {
+                final Class<?> clazz = IdentifierType.DIRECTED != identifier ? elementDef.getIdentifierClass(identifier) : null;
+                if (null != clazz && !vertexSerialiser.canHandle(clazz)) {
+                    throw new IllegalArgumentException("The vertex serialiser " + vertexSerialiser.getClass().getSimpleName()
+                            + " cannot serialise the " + identifier + " of group " + group + ": " + clazz.getName());
+                }
+            }
+            for (final String property : elementDef.getProperties()) {
+                final TypeDefinition typeDef = elementDef.getPropertyTypeDef(property);
+                if (null == typeDef || !(typeDef.getSerialiser() instanceof ToBytesSerialiser)) {
+                    throw new IllegalArgumentException("Property " + property + " in group " + group
+                            + " requires a " + ToBytesSerialiser.class.getSimpleName());
+                }
+            }
+        }
+    }
+
+    private final class SpillFileIterator implements CloseableIterator<Element> {
+        private final DataInputStream input;
+        private Element next;
+
+        private SpillFileIterator(final DataInputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == next) {
+                next = readElement();
+            }
+            return null != next;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Element element = next;
+            next = null;
+            return element;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(input);
+        }
+
+        private Element readElement() {
+            try {
+                final int length;
+                try {
+                    length = input.readInt();
+                } catch (final EOFException e) {
+                    close();
+                    return null;
+                }
+                final int matchedVertex = input.readByte();
+                final byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                final Element element = serialiser.deserialise(bytes);
+                if (matchedVertex > 0 && element instanceof Edge) {
+                    final Edge edge = (Edge) element;
+                    edge.setIdentifiers(edge.getSource(), edge.getDestination(), edge.isDirected(), MatchedVertex.values()[matchedVertex - 1]);
+                }
+                return element;
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Unable to read spilled elements from disk: " + e.getMessage(), e);
+            }
+        }
+    }
+}
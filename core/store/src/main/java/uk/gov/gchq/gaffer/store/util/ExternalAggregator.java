@@ -0,0 +1,382 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * An {@code ExternalAggregator} aggregates elements that share the same key,
+ * spilling to local temporary files when the number of elements held in memory
+ * exceeds a configurable limit.
+ * <p>
+ * Elements are aggregated in memory until the limit is reached. The partially
+ * aggregated elements are then serialised, using the serialisers in the
+ * {@link Schema}, into one of a number of partition files chosen by the hash of
+ * the element key, and the in memory aggregation starts again. Once all the
+ * elements have been read each partition is aggregated in memory in turn and
+ * streamed out. A partition that is still too large is partitioned again.
+ * Elements in groups that are not aggregated are spilled to a separate file
+ * and returned unchanged.
+ * <p>
+ * If nothing is spilled the elements are returned from memory. Once spilled,
+ * the results can only be iterated once, and calling {@code iterator()} again
+ * throws an {@link IllegalStateException}. The temporary files are deleted
+ * when the iterator has been fully read or closed, or the results are closed,
+ * so spilled results should always be closed.
+ * Only the properties in the schema and the matched vertex of edges are kept
+ * when elements are spilled. If an element has other properties, such as
+ * transient properties, or the schema does not have the serialisers needed to
+ * spill, a warning is logged and the elements are aggregated in memory.
+ */
+public class ExternalAggregator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalAggregator.class);
+
+    public static final int DEFAULT_MAX_IN_MEMORY_ELEMENTS = 1000000;
+    public static final int DEFAULT_PARTITIONS = 32;
+    private static final int MAX_DEPTH = 3;
+
+    private final Schema schema;
+    private final Collection<String> aggregatedGroups;
+    private final Function<Element, Element> toKey;
+    private final BinaryOperator<Element> aggregator;
+    private final int maxInMemoryElements;
+    private final int partitions;
+    private final int depth;
+
+    public ExternalAggregator(final Schema schema,
+                              final Function<Element, Element> toKey,
+                              final BinaryOperator<Element> aggregator) {
+        this(schema, toKey, aggregator, DEFAULT_MAX_IN_MEMORY_ELEMENTS, DEFAULT_PARTITIONS);
+    }
+
+    public ExternalAggregator(final Schema schema,
+                              final Function<Element, Element> toKey,
+                              final BinaryOperator<Element> aggregator,
+                              final int maxInMemoryElements,
+                              final int partitions) {
+        this(schema, toKey, aggregator, maxInMemoryElements, partitions, 0);
+    }
+
+    private ExternalAggregator(final Schema schema,
+                               final Function<Element, Element> toKey,
+                               final BinaryOperator<Element> aggregator,
+                               final int maxInMemoryElements,
+                               final int partitions,
+                               final int depth) {
+        if (null == schema) {
+            throw new IllegalArgumentException("Schema is required");
+        }
+        if (null == toKey) {
+            throw new IllegalArgumentException("A key function is required");
+        }
+        if (null == aggregator) {
+            throw new IllegalArgumentException("An aggregator is required");
+        }
+        if (maxInMemoryElements < 1) {
+            throw new IllegalArgumentException("Max in memory elements must be at least 1");
+        }
+        if (partitions < 2) {
+            throw new IllegalArgumentException("Partitions must be at least 2");
+        }
+        this.schema = schema;
+        this.aggregatedGroups = schema.getAggregatedGroups();
+        this.toKey = toKey;
+        this.aggregator = aggregator;
+        this.maxInMemoryElements = maxInMemoryElements;
+        this.partitions = partitions;
+        this.depth = depth;
+    }
+
+    /**
+     * Aggregates the provided elements. The elements are all read before this
+     * method returns. If the elements were spilled to disk the returned
+     * iterable can only be iterated once, and must be closed to delete the
+     * temporary files.
+     *
+     * @param elements the elements to aggregate
+     * @return the aggregated elements, followed by the elements in groups that are not aggregated
+     */
+    public CloseableIterable<Element> aggregate(final Iterable<? extends Element> elements) {
+        final Map<Element, Element> aggregatedElements = new HashMap<>();
+        final List<Element> nonAggregatedElements = new ArrayList<>();
+        ElementSpillSerialiser serialiser = null;
+        Spill spill = null;
+        boolean canSpill = true;
+        try {
+            for (final Element element : elements) {
+                if (null == element) {
+                    continue;
+                }
+                if (aggregatedGroups.contains(element.getGroup())) {
+                    aggregatedElements.merge(toKey.apply(element), element, aggregator);
+                } else {
+                    nonAggregatedElements.add(element);
+                }
+
+                if (canSpill && aggregatedElements.size() + nonAggregatedElements.size() > maxInMemoryElements) {
+                    if (null == serialiser) {
+                        serialiser = ElementSpillSerialiser.create(schema);
+                    }
+                    canSpill = null != serialiser && canWrite(serialiser, aggregatedElements.values(), nonAggregatedElements);
+                    if (canSpill) {
+                        if (null == spill) {
+                            LOGGER.debug("Spilling elements to disk after aggregating {} elements in memory", maxInMemoryElements);
+                            spill = new Spill(serialiser);
+                        }
+                        spill.write(aggregatedElements.entrySet(), nonAggregatedElements);
+                        aggregatedElements.clear();
+                        nonAggregatedElements.clear();
+                    } else if (null != spill) {
+                        spill.readInto(aggregatedElements, nonAggregatedElements);
+                        spill = null;
+                    }
+                }
+            }
+
+            if (null != spill && !canWrite(serialiser, aggregatedElements.values(), nonAggregatedElements)) {
+                spill.readInto(aggregatedElements, nonAggregatedElements);
+                spill = null;
+            }
+            if (null == spill) {
+                return new ChainedIterable<>(aggregatedElements.values(), nonAggregatedElements);
+            }
+            spill.write(aggregatedElements.entrySet(), nonAggregatedElements);
+            spill.finishWriting();
+            return spill;
+        } catch (final IOException | RuntimeException e) {
+            CloseableUtil.close(spill);
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new GafferRuntimeException("Unable to spill elements to disk during aggregation: " + e.getMessage(), e);
+        }
+    }
+
+    // Checks that the elements can be spilled without losing properties, such
+    // as transient properties. If not, a warning is logged and the elements
+    // are aggregated in memory.
+    private boolean canWrite(final ElementSpillSerialiser serialiser,
+                             final Collection<Element> aggregatedElements,
+                             final List<Element> nonAggregatedElements) {
+        for (final Element element : new ChainedIterable<Element>(aggregatedElements, nonAggregatedElements)) {
+            if (!serialiser.canWrite(element)) {
+                LOGGER.warn("Unable to spill elements to disk, so all elements will be aggregated in memory. "
+                        + "The element has properties that are not in the schema: {}", element);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getPartition(final Element key) {
+        // Mix the hash differently at each depth so a partition that is
+        // partitioned again is spread across all the new partitions
+        final int hash = Integer.rotateLeft(key.hashCode() * 0x9E3779B9, depth * 7);
+        return (hash & Integer.MAX_VALUE) % partitions;
+    }
+
+    /**
+     * The partition files that elements have been spilled to.
+     */
+    private final class Spill implements CloseableIterable<Element> {
+        private final ElementSpillSerialiser serialiser;
+        private final File directory;
+        private final File[] partitionFiles;
+        private final DataOutputStream[] partitionOutputs;
+        private final File nonAggregatedFile;
+        private DataOutputStream nonAggregatedOutput;
+        private boolean iterated;
+        private boolean deleted;
+
+        private Spill(final ElementSpillSerialiser serialiser) throws IOException {
+            this.serialiser = serialiser;
+            directory = Files.createTempDirectory("gaffer-aggregation").toFile();
+            partitionFiles = new File[partitions];
+            partitionOutputs = new DataOutputStream[partitions];
+            for (int i = 0; i < partitions; i++) {
+                partitionFiles[i] = new File(directory, "partition-" + i);
+            }
+            nonAggregatedFile = new File(directory, "non-aggregated");
+        }
+
+        private void write(final Collection<Map.Entry<Element, Element>> aggregatedElements, final List<Element> nonAggregatedElements) throws IOException {
+            for (final Map.Entry<Element, Element> entry : aggregatedElements) {
+                final int partition = getPartition(entry.getKey());
+                if (null == partitionOutputs[partition]) {
+                    partitionOutputs[partition] = serialiser.createOutput(partitionFiles[partition]);
+                }
+                serialiser.write(entry.getValue(), partitionOutputs[partition]);
+            }
+            if (!nonAggregatedElements.isEmpty()) {
+                if (null == nonAggregatedOutput) {
+                    nonAggregatedOutput = serialiser.createOutput(nonAggregatedFile);
+                }
+                for (final Element element : nonAggregatedElements) {
+                    serialiser.write(element, nonAggregatedOutput);
+                }
+            }
+        }
+
+        // Reads the spilled elements back into memory, before the elements
+        // that have not been spilled, and deletes the spill files
+        private void readInto(final Map<Element, Element> aggregatedElements, final List<Element> nonAggregatedElements) throws IOException {
+            finishWriting();
+            final Map<Element, Element> allAggregatedElements = new HashMap<>();
+            final List<Element> allNonAggregatedElements = new ArrayList<>();
+            try {
+                for (final File partitionFile : partitionFiles) {
+                    try (final CloseableIterator<Element> itr = serialiser.read(partitionFile).iterator()) {
+                        itr.forEachRemaining(element -> allAggregatedElements.merge(toKey.apply(element), element, aggregator));
+                    }
+                }
+                try (final CloseableIterator<Element> itr = serialiser.read(nonAggregatedFile).iterator()) {
+                    itr.forEachRemaining(allNonAggregatedElements::add);
+                }
+            } finally {
+                close();
+            }
+            for (final Map.Entry<Element, Element> entry : aggregatedElements.entrySet()) {
+                allAggregatedElements.merge(entry.getKey(), entry.getValue(), aggregator);
+            }
+            aggregatedElements.clear();
+            aggregatedElements.putAll(allAggregatedElements);
+            allNonAggregatedElements.addAll(nonAggregatedElements);
+            nonAggregatedElements.clear();
+            nonAggregatedElements.addAll(allNonAggregatedElements);
+        }
+
+        private void finishWriting() throws IOException {
+            for (final DataOutputStream output : partitionOutputs) {
+                if (null != output) {
+                    output.close();
+                }
+            }
+            if (null != nonAggregatedOutput) {
+                nonAggregatedOutput.close();
+            }
+        }
+
+        @Override
+        public CloseableIterator<Element> iterator() {
+            if (deleted || iterated) {
+                throw new IllegalStateException("The aggregated elements were spilled to disk, so can only be iterated once");
+            }
+            iterated = true;
+            return new SpillIterator();
+        }
+
+        @Override
+        public void close() {
+            if (!deleted) {
+                deleted = true;
+                try {
+                    finishWriting();
+                } catch (final IOException e) {
+                    LOGGER.debug("Unable to close spill file: {}", e.getMessage());
+                }
+                for (final File partitionFile : partitionFiles) {
+                    delete(partitionFile);
+                }
+                delete(nonAggregatedFile);
+                delete(directory);
+            }
+        }
+
+        private void delete(final File file) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete spill file {}: {}", file, e.getMessage());
+            }
+        }
+
+        /**
+         * Aggregates and returns each partition in turn, followed by the
+         * elements in groups that are not aggregated.
+         */
+        private final class SpillIterator implements CloseableIterator<Element> {
+            private int partition = 0;
+            private Iterator<Element> current = Collections.emptyIterator();
+            private CloseableIterable<Element> currentIterable;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    CloseableUtil.close(current, currentIterable);
+                    currentIterable = null;
+                    if (partition > partitions) {
+                        Spill.this.close();
+                        return false;
+                    }
+                    if (partition < partitions) {
+                        currentIterable = aggregatePartition(partitionFiles[partition]);
+                    } else {
+                        currentIterable = serialiser.read(nonAggregatedFile);
+                    }
+                    partition++;
+                    current = currentIterable.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Element next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+            @Override
+            public void close() {
+                CloseableUtil.close(current, currentIterable);
+                Spill.this.close();
+            }
+
+            private CloseableIterable<Element> aggregatePartition(final File file) {
+                final ExternalAggregator partitionAggregator = depth < MAX_DEPTH
+                        ? new ExternalAggregator(schema, toKey, aggregator, maxInMemoryElements, partitions, depth + 1)
+                        : new ExternalAggregator(schema, toKey, aggregator, Integer.MAX_VALUE, partitions, depth + 1);
+                return partitionAggregator.aggregate(serialiser.read(file));
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An {@code ExternalSorter} sorts elements using a {@link Comparator}, spilling
+ * sorted runs of elements to local temporary files when there are more
+ * elements than a configurable limit.
+ * <p>
+ * If there is a result limit that is within the in memory limit, only the top
+ * elements are kept, in a bounded binary heap. Otherwise elements are read
+ * into memory until the in memory limit is reached, then sorted and written to
+ * a run file using the serialisers in the {@link Schema}. Once all the
+ * elements have been read the runs are merged lazily as the results are
+ * iterated. Elements that are equal according to the comparator are returned
+ * in the order they were provided.
+ * <p>
+ * If nothing is spilled the results are held in memory and can be iterated
+ * more than once. Once spilled, the results can only be iterated once, and
+ * calling {@code iterator()} again throws an {@link IllegalStateException}.
+ * The temporary files are deleted when the iterator has been fully read or
+ * closed, or the results are closed, so spilled results should always be
+ * closed. Only the properties in the schema and the matched vertex of edges
+ * are kept when elements are spilled. If an element has other properties,
+ * such as transient properties, or there is no schema, or it does not have
+ * the serialisers needed to spill, a warning is logged and all the elements
+ * are sorted in memory.
+ */
+public class ExternalSorter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSorter.class);
+
+    public static final int DEFAULT_MAX_IN_MEMORY_ELEMENTS = 1000000;
+    private static final int MAX_MERGE_WIDTH = 64;
+    private static final int INITIAL_HEAP_SIZE = 16;
+
+    private final Schema schema;
+    private final Comparator<Element> comparator;
+    private final Integer limit;
+    private final boolean deduplicate;
+    private final int maxInMemoryElements;
+
+    public ExternalSorter(final Schema schema,
+                          final Comparator<Element> comparator,
+                          final Integer limit,
+                          final boolean deduplicate) {
+        this(schema, comparator, limit, deduplicate, DEFAULT_MAX_IN_MEMORY_ELEMENTS);
+    }
+
+    public ExternalSorter(final Schema schema,
+                          final Comparator<Element> comparator,
+                          final Integer limit,
+                          final boolean deduplicate,
+                          final int maxInMemoryElements) {
+        if (null == comparator) {
+            throw new IllegalArgumentException("Comparator is required");
+        }
+        if (null != limit && 1 > limit) {
+            throw new IllegalArgumentException("Limit cannot be less than or equal to 0");
+        }
+        if (maxInMemoryElements < 1) {
+            throw new IllegalArgumentException("Max in memory elements must be at least 1");
+        }
+        this.schema = schema;
+        this.comparator = comparator;
+        this.limit = limit;
+        this.deduplicate = deduplicate;
+        this.maxInMemoryElements = maxInMemoryElements;
+    }
+
+    /**
+     * Sorts the provided elements. The elements are all read before this
+     * method returns. Null elements are ignored. If the elements were spilled
+     * to disk the returned iterable can only be iterated once, and must be
+     * closed to delete the temporary files.
+     *
+     * @param elements the elements to sort
+     * @return the sorted elements
+     */
+    public CloseableIterable<Element> sort(final Iterable<? extends Element> elements) {
+        if (null != limit && limit <= maxInMemoryElements) {
+            final TopElements topElements = new TopElements();
+            for (final Element element : elements) {
+                if (null != element) {
+                    topElements.offer(element);
+                }
+            }
+            return new WrappedCloseableIterable<>(topElements.toSortedList());
+        }
+
+        List<Element> buffer = new ArrayList<>();
+        ElementSpillSerialiser serialiser = null;
+        Runs runs = null;
+        boolean canSpill = null != schema;
+        try {
+            for (final Element element : elements) {
+                if (null == element) {
+                    continue;
+                }
+                buffer.add(element);
+                if (canSpill && buffer.size() >= maxInMemoryElements) {
+                    if (null == serialiser) {
+                        serialiser = ElementSpillSerialiser.create(schema);
+                    }
+                    canSpill = null != serialiser && canWrite(serialiser, buffer);
+                    if (canSpill) {
+                        if (null == runs) {
+                            LOGGER.debug("Spilling sorted runs of {} elements to disk", maxInMemoryElements);
+                            runs = new Runs(serialiser);
+                        }
+                        runs.write(sortBuffer(buffer));
+                        buffer = new ArrayList<>();
+                    } else if (null != runs) {
+                        buffer = runs.readInto(buffer);
+                        runs = null;
+                    }
+                }
+            }
+
+            if (null == runs) {
+                return new WrappedCloseableIterable<>(sortBuffer(buffer));
+            }
+            runs.finishWriting(sortBuffer(buffer));
+            return runs;
+        } catch (final IOException | RuntimeException e) {
+            CloseableUtil.close(runs);
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new GafferRuntimeException("Unable to spill elements to disk during sort: " + e.getMessage(), e);
+        }
+    }
+
+    // Checks that the elements can be spilled without losing properties, such
+    // as transient properties. If not, a warning is logged and the elements
+    // are sorted in memory.
+    private boolean canWrite(final ElementSpillSerialiser serialiser, final List<Element> buffer) {
+        for (final Element element : buffer) {
+            if (!serialiser.canWrite(element)) {
+                LOGGER.warn("Unable to spill elements to disk, so all elements will be sorted in memory. "
+                        + "The element has properties that are not in the schema: {}", element);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the buffer, then removes any duplicates and the elements after
+     * the limit.
+     *
+     * @param buffer the elements to sort
+     * @return the sorted elements
+     */
+    private List<Element> sortBuffer(final List<Element> buffer) {
+        buffer.sort(comparator);
+        final Deduplicator deduplicator = new Deduplicator();
+        int size = 0;
+        for (final Element element : buffer) {
+            if (null != limit && size >= limit) {
+                break;
+            }
+            if (!deduplicator.isDuplicate(element)) {
+                buffer.set(size++, element);
+            }
+        }
+        return size < buffer.size() ? buffer.subList(0, size) : buffer;
+    }
+
+    /**
+     * Tracks the elements that are equal according to the comparator, so that
+     * any elements that are also equal according to their equals method can
+     * be skipped. The elements must be provided in sorted order.
+     */
+    private final class Deduplicator {
+        private Element first;
+        private Set<Element> equalElements;
+
+        private boolean isDuplicate(final Element element) {
+            if (!deduplicate) {
+                return false;
+            }
+            if (null == first || 0 != comparator.compare(first, element)) {
+                first = element;
+                equalElements = null;
+                return false;
+            }
+            if (null == equalElements) {
+                equalElements = new HashSet<>();
+                equalElements.add(first);
+            }
+            return !equalElements.add(element);
+        }
+    }
+
+    /**
+     * A bounded binary heap holding the top elements, with the largest of them
+     * at the root so it can be replaced cheaply. Elements are also ordered by
+     * the order they were offered, so that the earliest of any equal elements
+     * are kept.
+     */
+    private final class TopElements {
+        private final Set<Element> contents = deduplicate ? new HashSet<>() : null;
+        private Element[] heap = new Element[Math.min(limit, INITIAL_HEAP_SIZE)];
+        private long[] order = new long[heap.length];
+        private long count;
+        private int size;
+
+        private void offer(final Element element) {
+            if (deduplicate && contents.contains(element)) {
+                return;
+            }
+            if (size < limit) {
+                if (size == heap.length) {
+                    final int newLength = (int) Math.min(limit, 2L * heap.length);
+                    heap = Arrays.copyOf(heap, newLength);
+                    order = Arrays.copyOf(order, newLength);
+                }
+                heap[size] = element;
+                order[size] = count++;
+                siftUp(size++);
+            } else if (comparator.compare(element, heap[0]) < 0) {
+                if (deduplicate) {
+                    contents.remove(heap[0]);
+                }
+                heap[0] = element;
+                order[0] = count++;
+                siftDown(0);
+            } else {
+                return;
+            }
+            if (deduplicate) {
+                contents.add(element);
+            }
+        }
+
+        private List<Element> toSortedList() {
+            final Element[] sorted = new Element[size];
+            while (size > 0) {
+                sorted[size - 1] = heap[0];
+                size--;
+                heap[0] = heap[size];
+                order[0] = order[size];
+                heap[size] = null;
+                siftDown(0);
+            }
+            return Arrays.asList(sorted);
+        }
+
+        private int compare(final int i, final int j) {
+            final int result = comparator.compare(heap[i], heap[j]);
+            return 0 != result ? result : Long.compare(order[i], order[j]);
+        }
+
+        private void siftUp(final int index) {
+            int child = index;
+            while (child > 0) {
+                final int parent = (child - 1) >>> 1;
+                if (compare(child, parent) <= 0) {
+                    break;
+                }
+                swap(child, parent);
+                child = parent;
+            }
+        }
+
+        private void siftDown(final int index) {
+            int parent = index;
+            while (true) {
+                final int left = 2 * parent + 1;
+                if (left >= size) {
+                    break;
+                }
+                final int right = left + 1;
+                final int largest = right < size && compare(right, left) > 0 ? right : left;
+                if (compare(largest, parent) <= 0) {
+                    break;
+                }
+                swap(parent, largest);
+                parent = largest;
+            }
+        }
+
+        private void swap(final int i, final int j) {
+            final Element element = heap[i];
+            heap[i] = heap[j];
+            heap[j] = element;
+            final long elementOrder = order[i];
+            order[i] = order[j];
+            order[j] = elementOrder;
+        }
+    }
+
+    /**
+     * The sorted runs of elements that have been spilled to disk, along with
+     * the final run that is still in memory.
+     */
+    private final class Runs implements CloseableIterable<Element> {
+        private final ElementSpillSerialiser serialiser;
+        private final File directory;
+        private List<File> runFiles = new ArrayList<>();
+        private List<Element> lastRun;
+        private int fileCount;
+        private boolean iterated;
+        private boolean deleted;
+
+        private Runs(final ElementSpillSerialiser serialiser) throws IOException {
+            this.serialiser = serialiser;
+            directory = Files.createTempDirectory("gaffer-sort").toFile();
+        }
+
+        private void write(final Iterable<Element> run) throws IOException {
+            runFiles.add(writeRun(run));
+        }
+
+        private File writeRun(final Iterable<Element> run) throws IOException {
+            final File file = new File(directory, "run-" + fileCount++);
+            try (final DataOutputStream output = serialiser.createOutput(file)) {
+                for (final Element element : run) {
+                    serialiser.write(element, output);
+                }
+            }
+            return file;
+        }
+
+        /**
+         * Reads the spilled runs back into memory, before the provided
+         * elements, and deletes the run files.
+         *
+         * @param buffer the elements that have not been spilled
+         * @return all the elements
+         * @throws IOException if the runs cannot be read
+         */
+        private List<Element> readInto(final List<Element> buffer) throws IOException {
+            final List<Element> allElements = new ArrayList<>();
+            try {
+                for (final File file : runFiles) {
+                    try (final CloseableIterator<Element> itr = serialiser.read(file).iterator()) {
+                        itr.forEachRemaining(allElements::add);
+                    }
+                }
+            } finally {
+                close();
+            }
+            allElements.addAll(buffer);
+            return allElements;
+        }
+
+        /**
+         * Keeps the last run in memory and, if there are too many runs to
+         * merge at once, merges groups of runs into larger runs.
+         *
+         * @param run the final sorted run of elements
+         * @throws IOException if the runs cannot be merged
+         */
+        private void finishWriting(final List<Element> run) throws IOException {
+            lastRun = run;
+            while (runFiles.size() > MAX_MERGE_WIDTH) {
+                final List<File> mergedRunFiles = new ArrayList<>();
+                for (int start = 0; start < runFiles.size(); start += MAX_MERGE_WIDTH) {
+                    final List<File> group = runFiles.subList(start, Math.min(start + MAX_MERGE_WIDTH, runFiles.size()));
+                    final List<Iterator<Element>> iterators = new ArrayList<>(group.size());
+                    for (final File file : group) {
+                        iterators.add(serialiser.read(file).iterator());
+                    }
+                    try (final MergeIterator merged = new MergeIterator(iterators, null)) {
+                        mergedRunFiles.add(writeRun(() -> merged));
+                    }
+                    for (final File file : group) {
+                        delete(file);
+                    }
+                }
+                runFiles = mergedRunFiles;
+            }
+        }
+
+        @Override
+        public CloseableIterator<Element> iterator() {
+            if (deleted || iterated) {
+                throw new IllegalStateException("The sorted elements were spilled to disk, so can only be iterated once");
+            }
+            iterated = true;
+            final List<Iterator<Element>> iterators = new ArrayList<>(runFiles.size() + 1);
+            for (final File file : runFiles) {
+                iterators.add(serialiser.read(file).iterator());
+            }
+            iterators.add(lastRun.iterator());
+            return new MergeIterator(iterators, this);
+        }
+
+        @Override
+        public void close() {
+            if (!deleted) {
+                deleted = true;
+                lastRun = null;
+                // Includes any run that failed part way through being written
+                final File[] files = directory.listFiles();
+                if (null != files) {
+                    for (final File file : files) {
+                        delete(file);
+                    }
+                }
+                delete(directory);
+            }
+        }
+
+        private void delete(final File file) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete sort run file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Merges sorted iterators of elements, removing any duplicates and the
+     * elements after the limit. Equal elements are taken from the earliest
+     * iterator first. If the iterators are reading the final runs, the runs
+     * are deleted once the merge is closed.
+     */
+    private final class MergeIterator implements CloseableIterator<Element> {
+        private final List<Iterator<Element>> iterators;
+        private final Runs runs;
+        private final PriorityQueue<RunHead> heads;
+        private final Deduplicator deduplicator = new Deduplicator();
+        private Element next;
+        private int returned;
+
+        private MergeIterator(final List<Iterator<Element>> iterators, final Runs runs) {
+            this.iterators = iterators;
+            this.runs = runs;
+            this.heads = new PriorityQueue<>(Math.max(1, iterators.size()), (head1, head2) -> {
+                final int result = comparator.compare(head1.element, head2.element);
+                return 0 != result ? result : Integer.compare(head1.index, head2.index);
+            });
+            for (int i = 0; i < iterators.size(); i++) {
+                final RunHead head = new RunHead(iterators.get(i), i);
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == next) {
+                if (heads.isEmpty() || (null != limit && returned >= limit)) {
+                    close();
+                    return false;
+                }
+                final RunHead head = heads.poll();
+                final Element element = head.element;
+                if (head.advance()) {
+                    heads.add(head);
+                }
+                if (!deduplicator.isDuplicate(element)) {
+                    next = element;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Element element = next;
+            next = null;
+            returned++;
+            return element;
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (final Iterator<Element> iterator : iterators) {
+                CloseableUtil.close(iterator);
+            }
+            CloseableUtil.close(runs);
+        }
+    }
+
+    private static final class RunHead {
+        private final Iterator<Element> iterator;
+        private final int index;
+        private Element element;
+
+        private RunHead(final Iterator<Element> iterator, final int index) {
+            this.iterator = iterator;
+            this.index = index;
+        }
+
+        private boolean advance() {
+            element = iterator.hasNext() ? iterator.next() : null;
+            return null != element;
+        }
+    }
+}
@@ -20,8 +20,11 @@ import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.export.Exporter;
+import uk.gov.gchq.gaffer.operation.impl.export.set.SetExporter;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -33,6 +36,8 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class ContextTest {
     @Test
@@ -127,6 +132,24 @@ public class ContextTest {
         assertSame(exporter, context.getExporter(Exporter.class));
     }
 
+    @Test
+    public void shouldOnlyCloseExportersAddedToTheContext() throws IOException {
+        // Given
+        final SetExporter inheritedExporter = mock(SetExporter.class);
+        final CloseableExporter addedExporter = mock(CloseableExporter.class);
+        final Context context = new Context();
+        context.addExporter(inheritedExporter);
+        final Context clone = context.shallowClone();
+        clone.addExporter(addedExporter);
+
+        // When
+        clone.closeExporters();
+
+        // Then
+        verify(addedExporter).close();
+        verify(inheritedExporter, never()).close();
+    }
+
     @Test
     public void shouldSetAndGetOriginalOpChain() {
         // Given
@@ -200,4 +223,7 @@ public class ContextTest {
         assertEquals(context.getVariable("testVar"), "testVarVal");
         assertEquals(context.getVariable("testVar2"), "testVarVal2");
     }
+
+    private interface CloseableExporter extends Exporter, Closeable {
+    }
 }
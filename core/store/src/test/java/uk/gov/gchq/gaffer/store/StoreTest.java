@@ -140,6 +140,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -328,6 +329,22 @@ public class StoreTest {
         verify(addElementsHandler).doOperation(addElements, context, store);
     }
 
+    @Test
+    public void shouldTerminateParallelExecutorServiceWhenClosed() throws Exception {
+        // Given
+        final StoreImpl store = new StoreImpl();
+        final java.util.concurrent.ExecutorService executor = store.getParallelExecutorService();
+        final CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+        // When
+        store.close();
+
+        // Then
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
     @Test
     public void shouldCloseOperationIfResultIsNotCloseable() throws Exception {
         // Given
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.operation;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountElementGroupsTest extends OperationTest<CountElementGroups> {
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+
+        // When
+        final CountElementGroups countElementGroups = new CountElementGroups.Builder()
+                .operation(getAllElements)
+                .limit(1)
+                .build();
+
+        // Then
+        assertThat(countElementGroups.getOperation()).isSameAs(getAllElements);
+        assertThat(countElementGroups.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+        final CountElementGroups countElementGroups = new CountElementGroups.Builder()
+                .operation(getAllElements)
+                .limit(3)
+                .build();
+
+        // When
+        final CountElementGroups clone = countElementGroups.shallowClone();
+
+        // Then
+        assertThat(clone).isNotSameAs(countElementGroups);
+        assertThat(clone.getOperation()).isSameAs(getAllElements);
+        assertThat(clone.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        assertThat(getTestObject().getOutputClass()).isEqualTo(GroupCounts.class);
+    }
+
+    @Override
+    protected CountElementGroups getTestObject() {
+        return new CountElementGroups();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.operation;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountElementsTest extends OperationTest<CountElements> {
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+
+        // When
+        final CountElements countElements = new CountElements.Builder()
+                .operation(getAllElements)
+                .option("key", "value")
+                .build();
+
+        // Then
+        assertThat(countElements.getOperation()).isSameAs(getAllElements);
+        assertThat(countElements.getOption("key")).isEqualTo("value");
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+        final CountElements countElements = new CountElements.Builder()
+                .operation(getAllElements)
+                .option("key", "value")
+                .build();
+
+        // When
+        final CountElements clone = countElements.shallowClone();
+
+        // Then
+        assertThat(clone).isNotSameAs(countElements);
+        assertThat(clone.getOperation()).isSameAs(getAllElements);
+        assertThat(clone.getOption("key")).isEqualTo("value");
+    }
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseWrappedOperation() {
+        // Given
+        final CountElements countElements = new CountElements.Builder()
+                .operation(new GetElements.Builder()
+                        .input(new EntitySeed("A"))
+                        .view(new View.Builder()
+                                .entity(TestGroups.ENTITY)
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final CountElements deserialised = fromJson(toJson(countElements));
+
+        // Then
+        assertThat(deserialised.getOperation()).isInstanceOf(GetElements.class);
+        final GetElements getElements = (GetElements) deserialised.getOperation();
+        assertThat(getElements.getInput()).containsExactly(new EntitySeed("A"));
+        assertThat(getElements.getView().getEntityGroups()).containsExactly(TestGroups.ENTITY);
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        assertThat(getTestObject().getOutputClass()).isEqualTo(Long.class);
+    }
+
+    @Override
+    protected CountElements getTestObject() {
+        return new CountElements();
+    }
+}
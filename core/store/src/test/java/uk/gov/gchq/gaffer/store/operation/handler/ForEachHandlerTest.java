@@ -16,27 +16,59 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.export.Export;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
+import uk.gov.gchq.gaffer.operation.impl.export.set.ExportToSet;
+import uk.gov.gchq.gaffer.operation.impl.export.set.SetExporter;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSingletonList;
 import uk.gov.gchq.gaffer.operation.io.InputOutput;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.export.set.ExportToSetHandler;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 public class ForEachHandlerTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolExecutor(0, 10, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
 
     @Test
     public void shouldThrowExceptionWithNullOperation() {
@@ -97,4 +129,201 @@ public class ForEachHandlerTest {
         assertThat(result).hasSize(1);
         assertSame(output, result.get(0));
     }
+
+    @Test
+    public void shouldThrowExceptionWithInvalidParallelism() {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final ForEach op = new ForEach.Builder<>()
+                .operation(new GetElements())
+                .input(Arrays.asList("1", "2"))
+                .parallelism(0)
+                .build();
+        final ForEachHandler handler = new ForEachHandler();
+
+        // When / Then
+        assertThatExceptionOfType(OperationException.class).isThrownBy(() -> handler.doOperation(op, context, store)).withMessage("Parallelism must be at least 1");
+    }
+
+    @Test
+    public void shouldExecuteInParallelAndReturnResultsInInputOrder() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final Context context = new Context(new User());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final int input = ((ToSingletonList<Integer>) invocation.getArgument(0)).getInput();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            // Later inputs finish first
+            Thread.sleep(10L * (10 - input));
+            running.decrementAndGet();
+            return Collections.singletonList(input * 10);
+        });
+        final ForEach<Integer, List<Integer>> forEach = new ForEach.Builder<Integer, List<Integer>>()
+                .input(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)
+                .operation(new ToSingletonList<>())
+                .parallelism(4)
+                .build();
+
+        // When
+        final List<Object> results = new ArrayList<>();
+        new ForEachHandler<Integer, List<Integer>>().doOperation(forEach, context, store).forEach(results::add);
+
+        // Then
+        assertThat(results).containsExactly(
+                Collections.singletonList(0), Collections.singletonList(10), Collections.singletonList(20),
+                Collections.singletonList(30), Collections.singletonList(40), Collections.singletonList(50),
+                Collections.singletonList(60), Collections.singletonList(70), Collections.singletonList(80),
+                Collections.singletonList(90));
+        assertThat(maxRunning.get()).isBetween(2, 4);
+    }
+
+    @Test
+    public void shouldCapParallelismAtMaxParallelism() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final Context context = new Context(new User());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return null;
+        });
+        final ForEach<Integer, List<Integer>> forEach = new ForEach.Builder<Integer, List<Integer>>()
+                .input(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)
+                .operation(new ToSingletonList<>())
+                .parallelism(10)
+                .build();
+        final ForEachHandler<Integer, List<Integer>> handler = new ForEachHandler<>();
+        handler.setMaxParallelism(2);
+
+        // When
+        final List<Object> results = new ArrayList<>();
+        handler.doOperation(forEach, context, store).forEach(results::add);
+
+        // Then
+        assertThat(results).hasSize(10);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void shouldCancelOutstandingOperationsOnFirstFailure() throws OperationException, InterruptedException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final Context context = new Context(new User());
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final int input = ((ToSingletonList<Integer>) invocation.getArgument(0)).getInput();
+            if (1 == input) {
+                throw new OperationException("Failed on input 1");
+            }
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+        final ForEach<Integer, List<Integer>> forEach = new ForEach.Builder<Integer, List<Integer>>()
+                .input(0, 1, 2)
+                .operation(new ToSingletonList<>())
+                .parallelism(3)
+                .build();
+
+        // When
+        final Iterable<? extends List<Integer>> results = new ForEachHandler<Integer, List<Integer>>().doOperation(forEach, context, store);
+
+        // Then
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> results.forEach(result -> {
+                }))
+                .withMessageContaining("Failed on input 1");
+    }
+
+    @Test
+    public void shouldPassContextToOperationsExecutedInParallel() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final Context context = new Context(new User("user01"));
+        final List<Context> contexts = Collections.synchronizedList(new ArrayList<>());
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            contexts.add(invocation.getArgument(1));
+            return null;
+        });
+        final ForEach<Integer, List<Integer>> forEach = new ForEach.Builder<Integer, List<Integer>>()
+                .input(0, 1, 2)
+                .operation(new ToSingletonList<>())
+                .parallelism(2)
+                .build();
+
+        // When
+        new ForEachHandler<Integer, List<Integer>>().doOperation(forEach, context, store).forEach(result -> {
+        });
+
+        // Then
+        assertEquals(3, contexts.size());
+        assertThat(contexts).allMatch(c -> c == context);
+    }
+
+    @Test
+    public void shouldExecuteSequentiallyIfTheStoreHasNoParallelExecutor() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return Collections.singletonList(((ToSingletonList<Integer>) invocation.getArgument(0)).getInput());
+        });
+        final ForEach<Integer, List<Integer>> forEach = new ForEach.Builder<Integer, List<Integer>>()
+                .input(0, 1, 2)
+                .operation(new ToSingletonList<>())
+                .parallelism(2)
+                .build();
+
+        // When
+        final List<Object> results = new ArrayList<>();
+        new ForEachHandler<Integer, List<Integer>>().doOperation(forEach, context, store).forEach(results::add);
+
+        // Then
+        assertThat(results).containsExactly(
+                Collections.singletonList(0), Collections.singletonList(1), Collections.singletonList(2));
+        assertThat(threads).containsOnly(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void shouldShareExportersBetweenOperationsExecutedInParallel() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final Context context = new Context(new User());
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation ->
+                new ExportToSetHandler().doOperation(invocation.getArgument(0), invocation.getArgument(1), store));
+        final List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        final ForEach<Iterable<Integer>, Iterable<Integer>> forEach = new ForEach.Builder<Iterable<Integer>, Iterable<Integer>>()
+                .input(inputs.stream().map(Collections::singletonList).collect(Collectors.toList()))
+                .operation(new ExportToSet<>())
+                .parallelism(10)
+                .build();
+
+        // When
+        new ForEachHandler<Iterable<Integer>, Iterable<Integer>>().doOperation(forEach, context, store).forEach(result -> {
+        });
+
+        // Then
+        assertThat(context.getExporters()).hasSize(1);
+        final List<Object> exported = new ArrayList<>();
+        context.getExporter(SetExporter.class).get(Export.DEFAULT_KEY).forEach(exported::add);
+        assertThat(exported).containsExactlyInAnyOrderElementsOf(inputs);
+    }
 }
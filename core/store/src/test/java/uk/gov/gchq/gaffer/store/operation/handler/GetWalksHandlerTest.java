@@ -20,15 +20,37 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.graph.Walk;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.GetWalks;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 public class GetWalksHandlerTest {
     @Test
@@ -65,4 +87,163 @@ public class GetWalksHandlerTest {
         // Then
         assertNotNull(deserialisedObj);
     }
+
+    @Test
+    public void shouldSerialiseDeserialiseParallelSettings() throws SerialisationException {
+        // Given
+        final GetWalksHandler obj = new GetWalksHandler();
+        obj.setParallelism(4);
+        obj.setSeedBatchSize(10);
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(obj, true);
+        final GetWalksHandler deserialisedObj = JSONSerialiser.deserialise(json, GetWalksHandler.class);
+
+        // Then
+        assertThat(deserialisedObj.getParallelism()).isEqualTo(4);
+        assertThat(deserialisedObj.getSeedBatchSize()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldRejectInvalidParallelSettings() {
+        // Given
+        final GetWalksHandler handler = new GetWalksHandler();
+
+        // When / Then
+        assertThatIllegalArgumentException().isThrownBy(() -> handler.setParallelism(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> handler.setSeedBatchSize(0));
+    }
+
+    @Test
+    public void shouldReturnSameWalksInSameOrderWhenHopsExecutedInParallel() throws Exception {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final OperationChain<?> chain = invocation.getArgument(0);
+            final ToEntitySeeds toEntitySeeds = (ToEntitySeeds) chain.getOperations().get(0);
+            final List<Element> edges = new ArrayList<>();
+            for (final Object seed : toEntitySeeds.getInput()) {
+                final int vertex = (Integer) (seed instanceof EntityId ? ((EntityId) seed).getVertex() : seed);
+                edges.add(makeEdge(vertex, vertex + 10));
+                edges.add(makeEdge(vertex, vertex + 20));
+            }
+            return edges;
+        });
+
+        final GetWalksHandler handler = new GetWalksHandler();
+        final List<Walk> expected = getWalks(handler, store);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        handler.setParallelism(3);
+        handler.setSeedBatchSize(2);
+
+        // When
+        final List<Walk> result;
+        try {
+            result = getWalks(handler, store);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(expected).hasSize(20);
+        assertThat(result).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void shouldNotTruncateWalksAtResultsLimit() throws Exception {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final OperationChain<?> chain = invocation.getArgument(0);
+            final ToEntitySeeds toEntitySeeds = (ToEntitySeeds) chain.getOperations().get(0);
+            final List<Element> edges = new ArrayList<>();
+            for (final Object seed : toEntitySeeds.getInput()) {
+                final int vertex = (Integer) (seed instanceof EntityId ? ((EntityId) seed).getVertex() : seed);
+                // Every seed joins to the same few vertices, so there are more walks than edges
+                edges.add(makeEdge(vertex, vertex % 2 + 100));
+                edges.add(makeEdge(vertex, vertex % 2 + 200));
+            }
+            return edges;
+        });
+        final GetWalksHandler handler = new GetWalksHandler();
+
+        // When
+        final List<Walk> result = getWalks(handler, store, 12);
+
+        // Then
+        assertThat(result).hasSize(20);
+    }
+
+    @Test
+    public void shouldCloseHopResultsWhenLimitExceededInParallel() throws Exception {
+        // Given
+        final Store store = mock(Store.class);
+        final AtomicInteger executed = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            executed.incrementAndGet();
+            final OperationChain<?> chain = invocation.getArgument(0);
+            final ToEntitySeeds toEntitySeeds = (ToEntitySeeds) chain.getOperations().get(0);
+            final List<Element> edges = new ArrayList<>();
+            for (final Object seed : toEntitySeeds.getInput()) {
+                final int vertex = (Integer) (seed instanceof EntityId ? ((EntityId) seed).getVertex() : seed);
+                edges.add(makeEdge(vertex, vertex + 10));
+                edges.add(makeEdge(vertex, vertex + 20));
+            }
+            return new WrappedCloseableIterable<Element>(edges) {
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        given(store.getParallelExecutorService()).willReturn(executor);
+        final GetWalksHandler handler = new GetWalksHandler();
+        handler.setParallelism(3);
+        handler.setSeedBatchSize(2);
+
+        try {
+            // When / Then
+            assertThatExceptionOfType(LimitExceededException.class)
+                    .isThrownBy(() -> getWalks(handler, store, 5));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executed.get()).isPositive();
+        assertThat(closed.get()).isEqualTo(executed.get());
+    }
+
+    private List<Walk> getWalks(final GetWalksHandler handler, final Store store) throws Exception {
+        return getWalks(handler, store, GetWalks.DEFAULT_RESULTS_LIMIT);
+    }
+
+    private List<Walk> getWalks(final GetWalksHandler handler, final Store store, final Integer resultsLimit) throws Exception {
+        final GetElements getElements = new GetElements.Builder()
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+        final GetWalks operation = new GetWalks.Builder()
+                .input(new EntitySeed(1), new EntitySeed(2), new EntitySeed(3), new EntitySeed(4), new EntitySeed(5))
+                .operations(getElements, getElements)
+                .resultsLimit(resultsLimit)
+                .build();
+
+        final List<Walk> walks = new ArrayList<>();
+        handler.doOperation(operation, new Context(), store).forEach(walks::add);
+        return walks;
+    }
+
+    private Edge makeEdge(final int source, final int destination) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .build();
+    }
 }
@@ -17,24 +17,45 @@
 package uk.gov.gchq.gaffer.store.operation.handler;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
+import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.join.JoinHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.ElementMatch;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.KeyFunctionMatch;
 import uk.gov.gchq.gaffer.user.User;
-
+import uk.gov.gchq.koryphe.function.FunctionComposite;
+import uk.gov.gchq.koryphe.impl.function.DivideBy;
+import uk.gov.gchq.koryphe.impl.function.FirstItem;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 public class JoinHandlerTest {
@@ -95,4 +116,115 @@ public class JoinHandlerTest {
         // When / Then
         assertThatExceptionOfType(OperationException.class).isThrownBy(() -> handler.doOperation(joinOp, context, store)).withMessage("A match method must be supplied");
     }
+
+    @Test
+    public void shouldSpillToDiskAndReturnSameResultsAsInMemoryJoin(@TempDir final Path tempDir) throws Exception {
+        // Given
+        final List<Integer> leftInput = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        final List<Integer> rightInput = IntStream.range(100, 300).flatMap(i -> IntStream.of(i, i)).boxed().collect(Collectors.toList());
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(rightInput);
+
+        final JoinHandler<Integer> inMemoryHandler = new JoinHandler<>();
+        final JoinHandler<Integer> spillingHandler = new JoinHandler<>();
+        spillingHandler.setSpillThreshold(10);
+        spillingHandler.setSpillPartitions(4);
+        spillingHandler.setSpillDirectory(tempDir.toString());
+
+        // When
+        final List<Map> inMemoryResults = getJoinResults(inMemoryHandler, leftInput);
+        final List<Map> spilledResults = getJoinResults(spillingHandler, leftInput);
+
+        // Then
+        assertThat(inMemoryResults).hasSize(500);
+        assertThat(spilledResults).containsExactlyInAnyOrderElementsOf(inMemoryResults);
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldDeleteSpilledPartitionsWhenResultsAreClosedBeforeBeingRead(@TempDir final Path tempDir) throws Exception {
+        // Given
+        final List<Integer> leftInput = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(leftInput);
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        handler.setSpillThreshold(10);
+        handler.setSpillDirectory(tempDir.toString());
+        final Iterable<? extends MapTuple> results = handler.doOperation(createJoin(leftInput), context, store);
+        final CloseableIterator<? extends MapTuple> iterator = ((CloseableIterable<? extends MapTuple>) results).iterator();
+        iterator.next();
+
+        // When
+        iterator.close();
+
+        // Then
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+        assertThatIllegalStateException()
+                .isThrownBy(results::iterator)
+                .withMessageContaining("only be iterated once");
+    }
+
+    @Test
+    public void shouldNotSpillToDiskWhenMatchMethodHasNoKeys(@TempDir final Path tempDir) throws IOException, OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        handler.setSpillThreshold(1);
+        handler.setSpillDirectory(tempDir.toString());
+
+        final Join<Integer> joinOp = new Join.Builder<Integer>()
+                .input(Arrays.asList(1, 2, 3))
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new CustomMatch())
+                .build();
+
+        // When
+        final List<MapTuple> results = new ArrayList<>();
+        handler.doOperation(joinOp, context, store).forEach(results::add);
+
+        // Then
+        assertThat(results).hasSize(3);
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private List<Map> getJoinResults(final JoinHandler<Integer> handler, final List<Integer> leftInput) throws OperationException {
+        final List<Map> results = new ArrayList<>();
+        for (final MapTuple tuple : handler.doOperation(createJoin(leftInput), context, store)) {
+            results.add(tuple.getValues());
+        }
+        return results;
+    }
+
+    private Join<Integer> createJoin(final List<Integer> leftInput) {
+        return new Join.Builder<Integer>()
+                .input(leftInput)
+                .operation(new GetAllElements())
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .flatten(true)
+                .matchMethod(new KeyFunctionMatch.Builder()
+                        .firstKeyFunction(new FunctionComposite(Arrays.asList(new DivideBy(2), new FirstItem<>())))
+                        .secondKeyFunction(new FunctionComposite(Arrays.asList(new DivideBy(2), new FirstItem<>())))
+                        .build())
+                .build();
+    }
+
+    private static class CustomMatch implements Match {
+        private List candidates;
+
+        @Override
+        public void init(final Iterable matchCandidates) {
+            candidates = new ArrayList();
+            matchCandidates.forEach(candidates::add);
+        }
+
+        @Override
+        public List matching(final Object testObject) {
+            return candidates;
+        }
+    }
 }
@@ -234,6 +234,20 @@ public class KeyFunctionMatchTest {
 
     }
 
+    @Test
+    public void shouldOnlyMatchLatestCandidatesWhenInitialisedAgain() {
+        // given
+        KeyFunctionMatch match = new KeyFunctionMatch();
+        match.init(Lists.newArrayList(1, 2));
+
+        // when
+        match.init(Lists.newArrayList(3));
+
+        // then
+        assertEquals(new ArrayList<>(), match.matching(1));
+        assertEquals(Lists.newArrayList(3), match.matching(3));
+    }
+
     @Test
     public void shouldOutputEmptyListWhenNoMatchesAreFound() {
         // given
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.store.optimiser;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSingletonList;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountElementsOperationChainOptimiserTest {
+
+    @Test
+    public void shouldReplaceGetAllElementsAndCountWithCountElements() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+        final OperationChain<Long> opChain = new OperationChain.Builder()
+                .first(getAllElements)
+                .then(new Count<>())
+                .build();
+
+        // When
+        final List<Operation> ops = new CountElementsOperationChainOptimiser().optimise(opChain).getOperations();
+
+        // Then
+        assertThat(ops).hasSize(1);
+        assertThat(ops.get(0)).isInstanceOf(CountElements.class);
+        assertThat(((CountElements) ops.get(0)).getOperation()).isSameAs(getAllElements);
+    }
+
+    @Test
+    public void shouldReplaceGetElementsAndCountGroupsWithCountElementGroups() {
+        // Given
+        final GetElements getElements = new GetElements.Builder()
+                .input(new EntitySeed("A"))
+                .build();
+        final ToSingletonList<GroupCounts> toSingletonList = new ToSingletonList<>();
+        final OperationChain<?> opChain = new OperationChain.Builder()
+                .first(getElements)
+                .then(new CountGroups(5))
+                .then(toSingletonList)
+                .build();
+
+        // When
+        final List<Operation> ops = new CountElementsOperationChainOptimiser().optimise(opChain).getOperations();
+
+        // Then
+        assertThat(ops).hasSize(2);
+        assertThat(ops.get(0)).isInstanceOf(CountElementGroups.class);
+        final CountElementGroups countElementGroups = (CountElementGroups) ops.get(0);
+        assertThat(countElementGroups.getOperation()).isSameAs(getElements);
+        assertThat(countElementGroups.getLimit()).isEqualTo(5);
+        assertThat(ops.get(1)).isSameAs(toSingletonList);
+    }
+
+    @Test
+    public void shouldNotOptimiseChainsThatCannotBeCountedNatively() {
+        // Given
+        final View postTransformFilterView = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select("count")
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .build();
+        final List<OperationChain<?>> opChains = Arrays.asList(
+                // GetElements takes its seeds from the previous operation
+                new OperationChain.Builder()
+                        .first(new GetAdjacentIds.Builder().input(new EntitySeed("A")).build())
+                        .then(new GetElements())
+                        .then(new Count<>())
+                        .build(),
+                new OperationChain.Builder()
+                        .first(new GetAllElements.Builder().view(postTransformFilterView).build())
+                        .then(new Count<>())
+                        .build(),
+                new OperationChain.Builder()
+                        .first(new GetAllElements())
+                        .then(new Limit<>(10))
+                        .then(new Count<>())
+                        .build());
+
+        for (final OperationChain<?> opChain : opChains) {
+            // When
+            final List<Operation> ops = new CountElementsOperationChainOptimiser().optimise(opChain).getOperations();
+
+            // Then
+            assertThat(ops).isEqualTo(opChain.getOperations());
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil.IngestElementBinaryOperator;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil.ToIngestElementKey;
+import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class ExternalAggregatorTest {
+    private static final String COUNT = "count";
+    private static final String PROPERTY = "property";
+    private static final String TRANSIENT_PROPERTY = "transientProperty";
+
+    @Test
+    public void shouldAggregateElementsInMemoryWhenUnderTheLimit() {
+        // Given
+        final Schema schema = createSchema(true);
+        final List<Element> elements = createElements(10, 3);
+
+        // When
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 100).aggregate(elements);
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(createExpectedElements(10, 3));
+    }
+
+    @Test
+    public void shouldSpillAndAggregateElementsWhenOverTheLimit() {
+        // Given
+        final Schema schema = createSchema(true);
+        final List<Element> elements = createElements(100, 5);
+
+        // When
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 10).aggregate(elements);
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(createExpectedElements(100, 5));
+    }
+
+    @Test
+    public void shouldAggregateElementsInMemoryWhenSchemaHasNoSerialisers() {
+        // Given
+        final Schema schema = createSchema(false);
+        final List<Element> elements = createElements(100, 5);
+
+        // When
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 10).aggregate(elements);
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(createExpectedElements(100, 5));
+    }
+
+    @Test
+    public void shouldReturnNonAggregatedElementsUnchangedWhenSpilling() {
+        // Given
+        final Schema schema = createSchema(true);
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(createEntity(TestGroups.ENTITY_2, "vertex", 1L, "a"));
+        }
+        elements.addAll(createElements(10, 2));
+
+        // When
+        final List<Element> results = Lists.newArrayList(createIngestAggregator(schema, 5).aggregate(elements));
+
+        // Then
+        assertThat(results).filteredOn(e -> TestGroups.ENTITY_2.equals(e.getGroup()))
+                .hasSize(20)
+                .containsOnly(createEntity(TestGroups.ENTITY_2, "vertex", 1L, "a"));
+        assertThat(results).filteredOn(e -> TestGroups.ENTITY.equals(e.getGroup()))
+                .containsExactlyInAnyOrderElementsOf(createExpectedElements(10, 2));
+    }
+
+    @Test
+    public void shouldKeepMatchedVertexWhenSpilling() {
+        // Given
+        final Schema schema = createSchema(true);
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .build();
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(createEdge(MatchedVertex.SOURCE, 1L, "a"));
+            elements.add(createEdge(MatchedVertex.DESTINATION, 2L, "a"));
+        }
+
+        // When
+        final List<Element> results = Lists.newArrayList(AggregatorUtil.queryAggregate(elements, schema, view, true, 1));
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrder(
+                createEdge(MatchedVertex.SOURCE, 10L, String.join(",", Collections.nCopies(10, "a"))),
+                createEdge(MatchedVertex.DESTINATION, 20L, String.join(",", Collections.nCopies(10, "a"))));
+        assertThat(results).extracting(e -> ((Edge) e).getMatchedVertex())
+                .containsExactlyInAnyOrder(MatchedVertex.SOURCE, MatchedVertex.DESTINATION);
+    }
+
+    @Test
+    public void shouldAggregateElementsInMemoryWhenAnElementHasAPropertyNotInTheSchema() {
+        // Given
+        final Schema schema = createSchema(true);
+        final List<Element> elements = createElements(10, 1);
+        elements.get(0).putProperty(TRANSIENT_PROPERTY, "value");
+
+        // When
+        final List<Element> results = Lists.newArrayList(createIngestAggregator(schema, 1).aggregate(elements));
+
+        // Then
+        final List<Element> expected = createExpectedElements(10, 1);
+        expected.get(0).putProperty(TRANSIENT_PROPERTY, "value");
+        assertThat(results).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldReadSpilledElementsBackIntoMemoryWhenALaterElementHasAPropertyNotInTheSchema() {
+        // Given
+        final Schema schema = createSchema(true);
+        final List<Element> expected = Lists.newArrayList(
+                createIngestAggregator(schema, Integer.MAX_VALUE).aggregate(createElementsWithTransientProperty()));
+
+        // When
+        final List<Element> results = Lists.newArrayList(
+                createIngestAggregator(schema, 5).aggregate(createElementsWithTransientProperty()));
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldAggregateElementsInMemoryWhenTheVertexSerialiserCannotSerialiseTheVertices() {
+        // Given
+        final Schema schema = createSchema(true, new OrderedLongSerialiser());
+        final List<Element> elements = createElements(100, 5);
+
+        // When
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 10).aggregate(elements);
+
+        // Then
+        assertThat(ElementSpillSerialiser.create(schema)).isNull();
+        assertThat(results).containsExactlyInAnyOrderElementsOf(createExpectedElements(100, 5));
+    }
+
+    @Test
+    public void shouldDeleteSpilledElementsWhenTheIteratorIsClosed() {
+        // Given
+        final Schema schema = createSchema(true);
+        final int spillDirectories = countSpillDirectories();
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 2).aggregate(createElements(10, 2));
+        final CloseableIterator<Element> iterator = results.iterator();
+        iterator.next();
+        assertThat(countSpillDirectories()).isGreaterThan(spillDirectories);
+
+        // When
+        iterator.close();
+
+        // Then
+        assertThat(countSpillDirectories()).isEqualTo(spillDirectories);
+    }
+
+    @Test
+    public void shouldDeleteSpilledElementsWhenTheIteratorIsExhausted() {
+        // Given
+        final Schema schema = createSchema(true);
+        final int spillDirectories = countSpillDirectories();
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 2).aggregate(createElements(10, 2));
+
+        // When
+        final List<Element> elements = new ArrayList<>();
+        results.iterator().forEachRemaining(elements::add);
+
+        // Then
+        assertThat(elements).containsExactlyInAnyOrderElementsOf(createExpectedElements(10, 2));
+        assertThat(countSpillDirectories()).isEqualTo(spillDirectories);
+        assertThatIllegalStateException().isThrownBy(results::iterator);
+    }
+
+    @Test
+    public void shouldNotAllowSpilledElementsToBeIteratedTwice() {
+        // Given
+        final Schema schema = createSchema(true);
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 2).aggregate(createElements(10, 2));
+
+        // When
+        try (final CloseableIterator<Element> iterator = results.iterator()) {
+            iterator.next();
+
+            // Then
+            assertThatIllegalStateException()
+                    .isThrownBy(results::iterator)
+                    .withMessageContaining("only be iterated once");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowSpilledElementsToBeReadAfterTheyHaveBeenClosed() {
+        // Given
+        final Schema schema = createSchema(true);
+        final CloseableIterable<Element> results = createIngestAggregator(schema, 2).aggregate(createElements(10, 2));
+
+        // When
+        results.close();
+
+        // Then
+        assertThatIllegalStateException().isThrownBy(results::iterator);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMaxInMemoryElementsIsLessThanOne() {
+        // Given
+        final Schema schema = createSchema(true);
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> createIngestAggregator(schema, 0))
+                .withMessageContaining("Max in memory elements");
+    }
+
+    private List<Element> createElementsWithTransientProperty() {
+        final List<Element> elements = createElements(10, 3);
+        elements.get(elements.size() - 1).putProperty(TRANSIENT_PROPERTY, "value");
+        return elements;
+    }
+
+    private int countSpillDirectories() {
+        final File[] directories = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("gaffer-aggregation"));
+        return null != directories ? directories.length : 0;
+    }
+
+    private ExternalAggregator createIngestAggregator(final Schema schema, final int maxInMemoryElements) {
+        return new ExternalAggregator(schema, new ToIngestElementKey(schema), new IngestElementBinaryOperator(schema), maxInMemoryElements, 4);
+    }
+
+    private List<Element> createElements(final int vertices, final int duplicates) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < duplicates; i++) {
+            for (int vertex = 0; vertex < vertices; vertex++) {
+                elements.add(createEntity(TestGroups.ENTITY, "vertex" + vertex, (long) vertex, "a"));
+            }
+        }
+        return elements;
+    }
+
+    private List<Element> createExpectedElements(final int vertices, final int duplicates) {
+        final String property = String.join(",", Collections.nCopies(duplicates, "a"));
+        final List<Element> elements = new ArrayList<>();
+        for (int vertex = 0; vertex < vertices; vertex++) {
+            elements.add(createEntity(TestGroups.ENTITY, "vertex" + vertex, (long) vertex * duplicates, property));
+        }
+        return elements;
+    }
+
+    private Entity createEntity(final String group, final String vertex, final long count, final String property) {
+        return new Entity.Builder()
+                .group(group)
+                .vertex(vertex)
+                .property(COUNT, count)
+                .property(PROPERTY, property)
+                .build();
+    }
+
+    private Edge createEdge(final MatchedVertex matchedVertex, final long count, final String property) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("source")
+                .dest("destination")
+                .directed(true)
+                .matchedVertex(matchedVertex)
+                .property(COUNT, count)
+                .property(PROPERTY, property)
+                .build();
+    }
+
+    private Schema createSchema(final boolean withSerialisers) {
+        return createSchema(withSerialisers, new StringSerialiser());
+    }
+
+    private Schema createSchema(final boolean withSerialisers, final ToBytesSerialiser vertexSerialiser) {
+        final Schema.Builder builder = new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(COUNT, "long")
+                        .property(PROPERTY, "string")
+                        .build())
+                .entity(TestGroups.ENTITY_2, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(COUNT, "long")
+                        .property(PROPERTY, "string")
+                        .aggregate(false)
+                        .build())
+                .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(COUNT, "long")
+                        .property(PROPERTY, "string")
+                        .build())
+                .type("true", Boolean.class);
+        if (withSerialisers) {
+            builder.vertexSerialiser(vertexSerialiser)
+                    .type("string", new TypeDefinition.Builder()
+                            .clazz(String.class)
+                            .aggregateFunction(new StringConcat())
+                            .serialiser(new StringSerialiser())
+                            .build())
+                    .type("long", new TypeDefinition.Builder()
+                            .clazz(Long.class)
+                            .aggregateFunction(new Sum())
+                            .serialiser(new OrderedLongSerialiser())
+                            .build());
+        } else {
+            builder.type("string", new TypeDefinition.Builder()
+                            .clazz(String.class)
+                            .aggregateFunction(new StringConcat())
+                            .build())
+                    .type("long", new TypeDefinition.Builder()
+                            .clazz(Long.class)
+                            .aggregateFunction(new Sum())
+                            .build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class ExternalSorterTest {
+    private static final String COUNT = "count";
+    private static final String VALUE = "value";
+    private static final String TRANSIENT_PROPERTY = "transientProperty";
+    private static final Comparator<Element> COMPARATOR = new ElementPropertyComparator.Builder()
+            .groups(TestGroups.ENTITY)
+            .property(COUNT)
+            .build();
+
+    @Test
+    public void shouldSortElementsInMemoryWhenUnderTheLimit() {
+        // Given
+        final List<Element> elements = createElements(100, 1);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 1000)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldSpillAndMergeSortedRunsWhenOverTheLimit() {
+        // Given
+        final List<Element> elements = createElements(1000, 1);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldSortElementsInMemoryWhenThereIsNoSchema() {
+        // Given
+        final List<Element> elements = createElements(1000, 1);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(null, COMPARATOR, null, false, 10)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldSortElementsInMemoryWhenAnElementHasAPropertyNotInTheSchema() {
+        // Given
+        final List<Element> elements = createElements(1000, 1);
+        elements.get(0).putProperty(TRANSIENT_PROPERTY, "transientValue");
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+        assertThat(results).filteredOn(e -> null != e.getProperty(TRANSIENT_PROPERTY)).hasSize(1);
+    }
+
+    @Test
+    public void shouldReadSpilledRunsBackIntoMemoryWhenALaterElementHasAPropertyNotInTheSchema() {
+        // Given
+        final List<Element> elements = createElements(1000, 1);
+        elements.get(elements.size() - 1).putProperty(TRANSIENT_PROPERTY, "transientValue");
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+        assertThat(results).filteredOn(e -> null != e.getProperty(TRANSIENT_PROPERTY)).hasSize(1);
+    }
+
+    @Test
+    public void shouldDeduplicateAndLimitSpilledElements() {
+        // Given
+        final List<Element> elements = createElements(500, 3);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, 200, true, 10)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements).stream()
+                .distinct()
+                .limit(200)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldKeepTopElementsInHeapWhenLimitIsWithinTheInMemoryLimit() {
+        // Given
+        final List<Element> elements = createElements(500, 3);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, 50, true, 100)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements).stream()
+                .distinct()
+                .limit(50)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldKeepDuplicatesWhenNotDeduplicating() {
+        // Given
+        final List<Element> elements = createElements(20, 3);
+
+        // When
+        final CloseableIterable<Element> heapResults = new ExternalSorter(createSchema(), COMPARATOR, 30, false, 100)
+                .sort(elements);
+        final CloseableIterable<Element> spilledResults = new ExternalSorter(createSchema(), COMPARATOR, null, false, 7)
+                .sort(elements);
+
+        // Then
+        assertThat(heapResults).containsExactlyElementsOf(sort(elements).subList(0, 30));
+        assertThat(spilledResults).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldReturnEqualElementsInTheOrderTheyWereProvided() {
+        // Given
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            elements.add(createEntity("vertex" + i, i % 3, "value" + i));
+        }
+
+        // When
+        final List<Element> heapResults = Lists.newArrayList(new ExternalSorter(createSchema(), COMPARATOR, 90, true, 100)
+                .sort(elements));
+        final List<Element> spilledResults = Lists.newArrayList(new ExternalSorter(createSchema(), COMPARATOR, null, true, 7)
+                .sort(elements));
+
+        // Then
+        assertThat(heapResults).containsExactlyElementsOf(sort(elements).subList(0, 90));
+        assertThat(spilledResults).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldMergeManySortedRuns() {
+        // Given
+        final List<Element> elements = createElements(1000, 1);
+
+        // When
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 3)
+                .sort(elements);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(sort(elements));
+    }
+
+    @Test
+    public void shouldNotAllowSpilledElementsToBeIteratedTwice() {
+        // Given
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(createElements(100, 1));
+
+        // When
+        try (final CloseableIterator<Element> iterator = results.iterator()) {
+            iterator.next();
+
+            // Then
+            assertThatIllegalStateException()
+                    .isThrownBy(results::iterator)
+                    .withMessageContaining("only be iterated once");
+        }
+    }
+
+    @Test
+    public void shouldDeleteSpilledRunsWhenTheResultsAreClosed() {
+        // Given
+        final int spillDirectories = countSpillDirectories();
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(createElements(100, 1));
+        assertThat(countSpillDirectories()).isGreaterThan(spillDirectories);
+
+        // When
+        results.close();
+
+        // Then
+        assertThat(countSpillDirectories()).isEqualTo(spillDirectories);
+    }
+
+    @Test
+    public void shouldNotAllowSpilledElementsToBeReadAfterTheyHaveBeenClosed() {
+        // Given
+        final CloseableIterable<Element> results = new ExternalSorter(createSchema(), COMPARATOR, null, false, 10)
+                .sort(createElements(100, 1));
+
+        // When
+        results.close();
+
+        // Then
+        assertThatIllegalStateException().isThrownBy(results::iterator);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfLimitIsLessThanOne() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ExternalSorter(createSchema(), COMPARATOR, 0, false))
+                .withMessageContaining("Limit");
+    }
+
+    private int countSpillDirectories() {
+        final File[] directories = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("gaffer-sort"));
+        return null != directories ? directories.length : 0;
+    }
+
+    private List<Element> sort(final List<Element> elements) {
+        final List<Element> sorted = new ArrayList<>(elements);
+        sorted.sort(COMPARATOR);
+        return sorted;
+    }
+
+    private List<Element> createElements(final int size, final int duplicates) {
+        final Random random = new Random(size);
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final Element element = createEntity("vertex" + i, random.nextInt(size), "value" + i);
+            for (int j = 0; j < duplicates; j++) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private Entity createEntity(final String vertex, final long count, final String value) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .property(COUNT, count)
+                .property(VALUE, value)
+                .build();
+    }
+
+    private Schema createSchema() {
+        return new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(COUNT, "long")
+                        .property(VALUE, "string")
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("long", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new OrderedLongSerialiser())
+                        .build())
+                .build();
+    }
+}
@@ -20,6 +20,8 @@ import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 
 /**
@@ -45,8 +47,13 @@ public class HyperLogLogPlusSerialiser implements ToBytesSerialiser<HyperLogLogP
 
     @Override
     public HyperLogLogPlus deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public HyperLogLogPlus deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
         try {
-            return HyperLogLogPlus.Builder.build(bytes);
+            return HyperLogLogPlus.Builder.build(new DataInputStream(new ByteArrayInputStream(allBytes, offset, length)));
         } catch (final IOException e) {
             throw new RuntimeException("Failed to create HyperLogLogPlus sketch from given bytes", e);
         }
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.serialisation;
 
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.hll.HllSketch;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -39,7 +40,12 @@ public class HllSketchSerialiser implements ToBytesSerialiser<HllSketch> {
 
     @Override
     public HllSketch deserialise(final byte[] bytes) throws SerialisationException {
-        return HllSketch.heapify(bytes);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public HllSketch deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return HllSketch.heapify(Memory.wrap(allBytes).region(offset, length));
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.serialisation;
 
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.hll.Union;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -39,7 +40,12 @@ public class HllUnionSerialiser implements ToBytesSerialiser<Union> {
 
     @Override
     public Union deserialise(final byte[] bytes) throws SerialisationException {
-        return Union.heapify(bytes);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Union deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return Union.heapify(Memory.wrap(allBytes).region(offset, length));
     }
 
     @Override
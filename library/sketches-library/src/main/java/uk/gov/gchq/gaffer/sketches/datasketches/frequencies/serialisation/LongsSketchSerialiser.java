@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.frequencies.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.frequencies.LongsSketch;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -40,7 +40,12 @@ public class LongsSketchSerialiser implements ToBytesSerialiser<LongsSketch> {
 
     @Override
     public LongsSketch deserialise(final byte[] bytes) throws SerialisationException {
-        return LongsSketch.getInstance(WritableMemory.wrap(bytes));
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public LongsSketch deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return LongsSketch.getInstance(Memory.wrap(allBytes).region(offset, length));
     }
 
     @Override
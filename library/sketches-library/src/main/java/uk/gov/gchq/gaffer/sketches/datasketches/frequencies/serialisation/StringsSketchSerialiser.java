@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.frequencies.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.frequencies.ItemsSketch;
 
@@ -42,7 +42,12 @@ public class StringsSketchSerialiser implements ToBytesSerialiser<ItemsSketch<St
 
     @Override
     public ItemsSketch<String> deserialise(final byte[] bytes) throws SerialisationException {
-        return ItemsSketch.getInstance(WritableMemory.wrap(bytes), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ItemsSketch<String> deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return ItemsSketch.getInstance(Memory.wrap(allBytes).region(offset, length), SERIALISER);
     }
 
     @Override
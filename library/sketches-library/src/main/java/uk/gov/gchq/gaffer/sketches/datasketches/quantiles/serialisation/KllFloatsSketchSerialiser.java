@@ -40,7 +40,12 @@ public class KllFloatsSketchSerialiser implements ToBytesSerialiser<KllFloatsSke
 
     @Override
     public KllFloatsSketch deserialise(final byte[] bytes) throws SerialisationException {
-        return KllFloatsSketch.heapify(Memory.wrap(bytes));
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public KllFloatsSketch deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return KllFloatsSketch.heapify(Memory.wrap(allBytes).region(offset, length));
     }
 
     @Override
@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.quantiles.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.quantiles.ItemsUnion;
 
@@ -44,7 +44,12 @@ public class StringsUnionSerialiser implements ToBytesSerialiser<ItemsUnion<Stri
 
     @Override
     public ItemsUnion<String> deserialise(final byte[] bytes) throws SerialisationException {
-       return ItemsUnion.getInstance(WritableMemory.wrap(bytes), Comparator.naturalOrder(), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ItemsUnion<String> deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+       return ItemsUnion.getInstance(Memory.wrap(allBytes).region(offset, length), Comparator.naturalOrder(), SERIALISER);
     }
 
     @Override
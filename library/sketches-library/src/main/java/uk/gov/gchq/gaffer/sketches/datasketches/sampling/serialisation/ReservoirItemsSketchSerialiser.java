@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.ArrayOfItemsSerDe;
 import com.yahoo.sketches.sampling.ReservoirItemsSketch;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -47,7 +47,12 @@ public class ReservoirItemsSketchSerialiser<T> implements ToBytesSerialiser<Rese
 
     @Override
     public ReservoirItemsSketch<T> deserialise(final byte[] bytes) throws SerialisationException {
-        return ReservoirItemsSketch.heapify(WritableMemory.wrap(bytes), arrayOfItemsSerDe);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ReservoirItemsSketch<T> deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return ReservoirItemsSketch.heapify(Memory.wrap(allBytes).region(offset, length), arrayOfItemsSerDe);
     }
 
     @Override
@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.sampling.ReservoirLongsUnion;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -40,7 +40,12 @@ public class ReservoirLongsUnionSerialiser implements ToBytesSerialiser<Reservoi
 
     @Override
     public ReservoirLongsUnion deserialise(final byte[] bytes) throws SerialisationException {
-        return ReservoirLongsUnion.heapify(WritableMemory.wrap(bytes));
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ReservoirLongsUnion deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return ReservoirLongsUnion.heapify(Memory.wrap(allBytes).region(offset, length));
     }
 
     @Override
@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.sampling.ReservoirItemsUnion;
 
@@ -42,7 +42,12 @@ public class ReservoirStringsUnionSerialiser implements ToBytesSerialiser<Reserv
 
     @Override
     public ReservoirItemsUnion<String> deserialise(final byte[] bytes) throws SerialisationException {
-        return ReservoirItemsUnion.heapify(WritableMemory.wrap(bytes), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ReservoirItemsUnion<String> deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return ReservoirItemsUnion.heapify(Memory.wrap(allBytes).region(offset, length), SERIALISER);
     }
 
     @Override
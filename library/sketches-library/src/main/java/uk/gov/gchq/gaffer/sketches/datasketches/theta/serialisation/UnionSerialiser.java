@@ -15,7 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.theta.serialisation;
 
-import com.yahoo.memory.WritableMemory;
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.theta.Sketches;
 import com.yahoo.sketches.theta.Union;
 
@@ -41,8 +41,13 @@ public class UnionSerialiser implements ToBytesSerialiser<Union> {
 
     @Override
     public Union deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Union deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
         final Union union = Sketches.setOperationBuilder().buildUnion();
-        union.update(WritableMemory.wrap(bytes));
+        union.update(Memory.wrap(allBytes).region(offset, length));
         return union;
     }
 
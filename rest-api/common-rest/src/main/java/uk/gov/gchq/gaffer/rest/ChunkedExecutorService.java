@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A shared, bounded pool of threads used to write chunked REST responses.
+ * <p>
+ * The number of threads and the number of responses that can wait for a
+ * thread are set using the {@link SystemProperty#CHUNKED_THREADS} and
+ * {@link SystemProperty#CHUNKED_QUEUE_SIZE} system properties, when the pool
+ * is first used. If all the threads are busy and the queue is full, further
+ * responses are rejected with a {@link Status#SERVICE_UNAVAILABLE} error
+ * rather than starting more threads. The number of responses in each state
+ * is available from {@link #getStatus()}.
+ */
+public final class ChunkedExecutorService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedExecutorService.class);
+    private static final AtomicLong REJECTED_COUNT = new AtomicLong();
+    private static volatile ThreadPoolExecutor service;
+
+    private ChunkedExecutorService() {
+        // private constructor to prevent instantiation
+    }
+
+    /**
+     * Runs the task on the shared pool, creating the pool if required.
+     *
+     * @param task the task to run
+     * @throws GafferRuntimeException if the pool is busy and its queue is full
+     */
+    public static void execute(final Runnable task) {
+        final ThreadPoolExecutor executor = getService();
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            REJECTED_COUNT.incrementAndGet();
+            LOGGER.warn("Rejected chunked response: {} active, {} queued", executor.getActiveCount(), executor.getQueue().size());
+            throw new GafferRuntimeException("Too many chunked requests are in progress, please try again later", e, Status.SERVICE_UNAVAILABLE);
+        }
+        LOGGER.debug("Submitted chunked response: {} active, {} queued", executor.getActiveCount(), executor.getQueue().size());
+    }
+
+    /**
+     * Gets the number of responses being written, waiting for a thread,
+     * written and rejected since the pool was created.
+     *
+     * @return the status of the pool
+     */
+    public static ChunkedStatus getStatus() {
+        final ThreadPoolExecutor executor = service;
+        if (null == executor) {
+            return new ChunkedStatus(0, 0, 0, REJECTED_COUNT.get());
+        }
+        return new ChunkedStatus(executor.getActiveCount(), executor.getQueue().size(),
+                executor.getCompletedTaskCount(), REJECTED_COUNT.get());
+    }
+
+    public static synchronized void shutdown() {
+        if (null != service) {
+            service.shutdown();
+        }
+        service = null;
+        REJECTED_COUNT.set(0);
+    }
+
+    private static synchronized ThreadPoolExecutor getService() {
+        if (null == service) {
+            final int threads = getIntProperty(SystemProperty.CHUNKED_THREADS, SystemProperty.CHUNKED_THREADS_DEFAULT);
+            final int queueSize = getIntProperty(SystemProperty.CHUNKED_QUEUE_SIZE, SystemProperty.CHUNKED_QUEUE_SIZE_DEFAULT);
+            LOGGER.debug("Initialising ChunkedExecutorService with {} threads and a queue size of {}", threads, queueSize);
+            final AtomicInteger threadCount = new AtomicInteger();
+            service = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+                final Thread thread = new Thread(runnable, "gaffer-chunked-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            service.allowCoreThreadTimeOut(true);
+        }
+        return service;
+    }
+
+    private static int getIntProperty(final String key, final String defaultValue) {
+        final int value = Integer.parseInt(System.getProperty(key, defaultValue));
+        if (value < 1) {
+            throw new IllegalArgumentException(key + " must be at least 1 but was " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * POJO representing the status of the pool of threads writing chunked
+ * responses, see {@link ChunkedExecutorService}.
+ */
+public class ChunkedStatus {
+    private final int activeCount;
+    private final int queuedCount;
+    private final long completedCount;
+    private final long rejectedCount;
+
+    @JsonCreator
+    public ChunkedStatus(@JsonProperty("activeCount") final int activeCount,
+                         @JsonProperty("queuedCount") final int queuedCount,
+                         @JsonProperty("completedCount") final long completedCount,
+                         @JsonProperty("rejectedCount") final long rejectedCount) {
+        this.activeCount = activeCount;
+        this.queuedCount = queuedCount;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getQueuedCount() {
+        return queuedCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final ChunkedStatus that = (ChunkedStatus) obj;
+
+        return new EqualsBuilder()
+                .append(activeCount, that.activeCount)
+                .append(queuedCount, that.queuedCount)
+                .append(completedCount, that.completedCount)
+                .append(rejectedCount, that.rejectedCount)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(activeCount)
+                .append(queuedCount)
+                .append(completedCount)
+                .append(rejectedCount)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("activeCount", activeCount)
+                .append("queuedCount", queuedCount)
+                .append("completedCount", completedCount)
+                .append("rejectedCount", rejectedCount)
+                .toString();
+    }
+}
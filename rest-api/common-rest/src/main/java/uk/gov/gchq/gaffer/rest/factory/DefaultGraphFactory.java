@@ -21,6 +21,8 @@ import uk.gov.gchq.gaffer.rest.SystemProperty;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.library.GraphLibrary;
 
+import javax.annotation.PreDestroy;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -77,8 +79,28 @@ public class DefaultGraphFactory implements GraphFactory {
         return createGraph();
     }
 
-    public static void setGraph(final Graph graph) {
+    /**
+     * Sets the singleton graph. Any previous graph is closed, as it will no
+     * longer be used.
+     *
+     * @param graph the graph
+     */
+    public static synchronized void setGraph(final Graph graph) {
+        final Graph previousGraph = DefaultGraphFactory.graph;
         DefaultGraphFactory.graph = graph;
+        if (null != previousGraph && previousGraph != graph) {
+            previousGraph.close();
+        }
+    }
+
+    /**
+     * Closes the singleton graph. Graphs created when the graph is not a
+     * singleton should be closed by the caller.
+     */
+    @Override
+    @PreDestroy
+    public void close() {
+        setGraph(null);
     }
 
     public boolean isSingletonGraph() {
@@ -61,4 +61,11 @@ public interface GraphFactory {
      * @return the graph
      */
     Graph getGraph();
+
+    /**
+     * Closes any {@link Graph} held by this factory, releasing the resources
+     * held by its store. This is called when the REST API shuts down.
+     */
+    default void close() {
+    }
 }
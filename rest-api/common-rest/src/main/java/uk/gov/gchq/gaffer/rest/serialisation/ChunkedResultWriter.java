@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.gov.gchq.gaffer.rest.SystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serialises the results of a chunked request to JSON, batching several
+ * results into each chunk.
+ * <p>
+ * All the results are written with a single {@link JsonGenerator} into a
+ * reusable buffer, rather than creating a String for each result. Once the
+ * buffer holds the configured number of results, or reaches a maximum size,
+ * it is passed to a {@link ChunkConsumer} and reused for the next chunk. The
+ * results within a chunk are separated by the chunk delimiter, so a client
+ * splitting the response on the delimiter reads each result separately.
+ * <p>
+ * The consumer is expected to block while the client is reading slowly, so
+ * results are only serialised as quickly as the client can read them.
+ */
+public class ChunkedResultWriter implements Closeable {
+    public static final String DELIMITER = "\r\n";
+    private static final byte[] DELIMITER_BYTES = DELIMITER.getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_CHUNK_BYTES = 64 * 1024;
+
+    private final ChunkBuffer buffer = new ChunkBuffer();
+    private final ObjectMapper mapper;
+    private final ChunkConsumer consumer;
+    private final int flushSize;
+    private final JsonGenerator generator;
+    private int count;
+
+    /**
+     * Creates a writer using the {@link SystemProperty#CHUNKED_FLUSH_SIZE}
+     * system property as the number of results in each chunk.
+     *
+     * @param mapper   the mapper used to serialise the results
+     * @param consumer the consumer to pass each chunk to
+     * @throws IOException if the json generator could not be created
+     */
+    public ChunkedResultWriter(final ObjectMapper mapper, final ChunkConsumer consumer) throws IOException {
+        this(mapper, consumer, Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_FLUSH_SIZE, SystemProperty.CHUNKED_FLUSH_SIZE_DEFAULT)));
+    }
+
+    public ChunkedResultWriter(final ObjectMapper mapper, final ChunkConsumer consumer, final int flushSize) throws IOException {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("Flush size must be at least 1 but was " + flushSize);
+        }
+        this.mapper = mapper;
+        this.consumer = consumer;
+        this.flushSize = flushSize;
+        this.generator = mapper.getFactory().createGenerator(buffer);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Serialises a result into the current chunk, passing the chunk to the
+     * consumer if it is full.
+     *
+     * @param result the result to write
+     * @throws IOException if the result could not be serialised or the chunk could not be written
+     */
+    public void write(final Object result) throws IOException {
+        if (count > 0) {
+            generator.writeRaw(DELIMITER);
+        }
+        mapper.writeValue(generator, result);
+        count++;
+        if (count >= flushSize || buffer.size() >= MAX_CHUNK_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Passes any results in the current chunk to the consumer.
+     *
+     * @throws IOException if the chunk could not be written
+     */
+    public void flush() throws IOException {
+        generator.flush();
+        if (count > 0) {
+            consumer.accept(buffer.getBytes(), buffer.size());
+            buffer.reset();
+            count = 0;
+        }
+    }
+
+    /**
+     * Flushes any remaining results and closes the json generator. The
+     * consumer is not closed.
+     *
+     * @throws IOException if the chunk could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Creates a consumer that writes each chunk, followed by the delimiter,
+     * straight to a response stream and then flushes it. Writing blocks
+     * while the client is reading slowly, so no chunks are queued.
+     *
+     * @param output the response stream
+     * @return the consumer
+     */
+    public static ChunkConsumer streamTo(final OutputStream output) {
+        return (bytes, length) -> {
+            output.write(bytes, 0, length);
+            output.write(DELIMITER_BYTES);
+            output.flush();
+        };
+    }
+
+    /**
+     * Writes a chunk of serialised results to the response.
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        /**
+         * Writes a chunk. The bytes are reused once this method returns, so
+         * must be copied if they are kept.
+         *
+         * @param bytes  the buffer containing the chunk
+         * @param length the number of bytes in the chunk
+         * @throws IOException if the chunk could not be written
+         */
+        void accept(final byte[] bytes, final int length) throws IOException;
+    }
+
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        private ChunkBuffer() {
+            super(8 * 1024);
+        }
+
+        private byte[] getBytes() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ChunkedExecutorServiceTest {
+    @BeforeEach
+    @AfterEach
+    public void resetService() {
+        ChunkedExecutorService.shutdown();
+        System.clearProperty(SystemProperty.CHUNKED_THREADS);
+        System.clearProperty(SystemProperty.CHUNKED_QUEUE_SIZE);
+    }
+
+    @Test
+    public void shouldReportNoResponsesBeforeThePoolIsUsed() {
+        assertThat(ChunkedExecutorService.getStatus()).isEqualTo(new ChunkedStatus(0, 0, 0, 0));
+    }
+
+    @Test
+    public void shouldReportCompletedResponses() throws InterruptedException {
+        // Given
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        // When
+        ChunkedExecutorService.execute(finished::countDown);
+
+        // Then
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (ChunkedExecutorService.getStatus().getCompletedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertThat(ChunkedExecutorService.getStatus()).isEqualTo(new ChunkedStatus(0, 0, 1, 0));
+    }
+
+    @Test
+    public void shouldRejectAndReportResponsesWhenThePoolAndQueueAreFull() throws InterruptedException {
+        // Given
+        System.setProperty(SystemProperty.CHUNKED_THREADS, "1");
+        System.setProperty(SystemProperty.CHUNKED_QUEUE_SIZE, "1");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable task = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            ChunkedExecutorService.execute(task);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            ChunkedExecutorService.execute(task);
+
+            // When / Then
+            assertThatExceptionOfType(GafferRuntimeException.class)
+                    .isThrownBy(() -> ChunkedExecutorService.execute(task))
+                    .satisfies(e -> assertThat(e.getStatus()).isEqualTo(Status.SERVICE_UNAVAILABLE));
+            assertThat(ChunkedExecutorService.getStatus()).isEqualTo(new ChunkedStatus(1, 1, 0, 1));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -20,9 +20,18 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
 import uk.gov.gchq.gaffer.rest.SystemProperty;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class DefaultGraphFactoryTest {
 
@@ -55,4 +64,37 @@ public class DefaultGraphFactoryTest {
                 .isThrownBy(graphFactory::getGraph)
                 .withMessage("Error creating GraphLibrary class");
     }
+
+    @Test
+    public void shouldCloseThePreviousGraphWhenTheGraphIsReplacedAndTheGraphWhenClosed() {
+        // Given
+        final Store store1 = mock(Store.class);
+        final Store store2 = mock(Store.class);
+        final GraphFactory graphFactory = new DefaultGraphFactory();
+        DefaultGraphFactory.setGraph(createGraph(store1));
+
+        // When
+        DefaultGraphFactory.setGraph(createGraph(store2));
+
+        // Then
+        verify(store1).close();
+        verify(store2, never()).close();
+
+        // When
+        graphFactory.close();
+
+        // Then
+        verify(store2).close();
+    }
+
+    private Graph createGraph(final Store store) {
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("graphId")
+                        .build())
+                .store(store)
+                .build();
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.data.element.Entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
+
+public class ChunkedResultWriterTest {
+    private final ObjectMapper mapper = createDefaultMapper();
+
+    @Test
+    public void shouldBatchResultsIntoChunks() throws IOException {
+        // Given
+        final List<String> chunks = new ArrayList<>();
+
+        // When
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper,
+                (bytes, length) -> chunks.add(new String(bytes, 0, length, StandardCharsets.UTF_8)), 2)) {
+            for (int i = 1; i <= 5; i++) {
+                writer.write(i);
+            }
+        }
+
+        // Then
+        assertThat(chunks).containsExactly("1\r\n2", "3\r\n4", "5");
+    }
+
+    @Test
+    public void shouldStreamEachChunkFollowedByTheDelimiter() throws IOException {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper, ChunkedResultWriter.streamTo(output), 2)) {
+            for (int i = 1; i <= 3; i++) {
+                writer.write(i);
+            }
+        }
+
+        // Then
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("1\r\n2\r\n3\r\n");
+    }
+
+    @Test
+    public void shouldSerialiseResultsTheSameAsTheMapper() throws IOException {
+        // Given
+        final Entity entity = new Entity.Builder()
+                .group("group")
+                .vertex("vertex")
+                .property("count", 1L)
+                .build();
+        final List<String> chunks = new ArrayList<>();
+
+        // When
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper,
+                (bytes, length) -> chunks.add(new String(bytes, 0, length, StandardCharsets.UTF_8)), 10)) {
+            writer.write(entity);
+            writer.write("a string");
+            writer.write(null);
+        }
+
+        // Then
+        assertThat(chunks).containsExactly(mapper.writeValueAsString(entity)
+                + "\r\n" + mapper.writeValueAsString("a string")
+                + "\r\nnull");
+    }
+
+    @Test
+    public void shouldNotWriteEmptyChunks() throws IOException {
+        // Given
+        final List<String> chunks = new ArrayList<>();
+
+        // When
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper,
+                (bytes, length) -> chunks.add(new String(bytes, 0, length, StandardCharsets.UTF_8)), 1)) {
+            writer.write(1);
+            writer.flush();
+        }
+
+        // Then
+        assertThat(chunks).containsExactly("1");
+    }
+
+    @Test
+    public void shouldThrowExceptionIfFlushSizeIsLessThanOne() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ChunkedResultWriter(mapper, (bytes, length) -> { }, 0))
+                .withMessageContaining("Flush size");
+    }
+}
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
 import uk.gov.gchq.gaffer.commonutil.ExecutorService;
+import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
@@ -65,7 +66,9 @@ public class ServletLifecycleListener implements ServletContextListener {
     @Override
     public void contextDestroyed(final ServletContextEvent servletContextEvent) {
         LOGGER.info("Server shutting down - releasing resources");
+        GraphFactory.createGraphFactory().close();
         CacheServiceLoader.shutdown();
         ExecutorService.shutdown();
+        ChunkedExecutorService.shutdown();
     }
 }
@@ -18,7 +18,6 @@ package uk.gov.gchq.gaffer.rest.service.v1;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
-import org.glassfish.jersey.server.ChunkedOutput;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -37,6 +36,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -62,12 +63,12 @@ public interface IOperationService {
     @POST
     @Path("/chunked/operation")
     @ApiOperation(value = "Performs the given operation on the graph, returned chunked output. NOTE - does not work in Swagger.", response = Object.class)
-    ChunkedOutput<String> executeChunked(final Operation operation);
+    void executeChunked(final Operation operation, @Suspended final AsyncResponse asyncResponse);
 
     @POST
     @Path("/chunked")
     @ApiOperation(value = "Performs the given operation chain on the graph, returned chunked output. NOTE - does not work in Swagger.", response = Object.class)
-    ChunkedOutput<String> executeChunkedChain(final OperationChainDAO<CloseableIterable<Element>> opChain);
+    void executeChunkedChain(final OperationChainDAO<CloseableIterable<Element>> opChain, @Suspended final AsyncResponse asyncResponse);
 
     @POST
     @Path("/generate/objects")
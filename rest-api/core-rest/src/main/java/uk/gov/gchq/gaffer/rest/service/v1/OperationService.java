@@ -18,7 +18,6 @@ package uk.gov.gchq.gaffer.rest.service.v1;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,13 +35,19 @@ import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.rest.ChunkedExecutorService;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
+import uk.gov.gchq.gaffer.rest.serialisation.ChunkedResultWriter;
 import uk.gov.gchq.gaffer.store.Context;
 
 import javax.inject.Inject;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 
@@ -75,34 +80,35 @@ public class OperationService implements IOperationService {
 
     @SuppressFBWarnings
     @Override
-    public ChunkedOutput<String> executeChunkedChain(final OperationChainDAO opChain) {
-        // Create chunked output instance
-        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
-
-        // write chunks to the chunked output object
-        new Thread(() -> {
-            try {
-                final Object result = _execute(opChain);
-                chunkResult(result, output);
-            } finally {
-                CloseableUtil.close(output);
-                CloseableUtil.close(opChain);
-            }
-        }).start();
-
-        return output;
+    public void executeChunkedChain(final OperationChainDAO opChain, final AsyncResponse asyncResponse) {
+        // execute the chain and write the chunks using the shared chunked executor
+        try {
+            ChunkedExecutorService.execute(() -> {
+                try {
+                    final Object result = _execute(opChain);
+                    asyncResponse.resume(Response.ok((StreamingOutput) output -> chunkResult(result, output)).build());
+                } catch (final RuntimeException e) {
+                    asyncResponse.resume(e);
+                } finally {
+                    CloseableUtil.close(opChain);
+                }
+            });
+        } catch (final RuntimeException e) {
+            CloseableUtil.close(opChain);
+            throw e;
+        }
     }
 
     @SuppressFBWarnings
     @Override
-    public ChunkedOutput<String> executeChunked(final Operation operation) {
+    public void executeChunked(final Operation operation, final AsyncResponse asyncResponse) {
         if (operation instanceof OperationChainDAO) {
-            return executeChunkedChain((OperationChainDAO) operation);
-        }
-        if (operation instanceof OperationChain) {
-            return executeChunkedChain(new OperationChainDAO(((OperationChain) operation).getOperations()));
+            executeChunkedChain((OperationChainDAO) operation, asyncResponse);
+        } else if (operation instanceof OperationChain) {
+            executeChunkedChain(new OperationChainDAO(((OperationChain) operation).getOperations()), asyncResponse);
+        } else {
+            executeChunkedChain(new OperationChainDAO(operation), asyncResponse);
         }
-        return executeChunkedChain(new OperationChainDAO(operation));
     }
 
     @Override
@@ -170,24 +176,22 @@ public class OperationService implements IOperationService {
         return result;
     }
 
-    protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
-        if (result instanceof Iterable) {
-            final Iterable itr = (Iterable) result;
-            try {
-                for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
+    protected void chunkResult(final Object result, final OutputStream output) {
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper, ChunkedResultWriter.streamTo(output))) {
+            if (result instanceof Iterable) {
+                final Iterable itr = (Iterable) result;
+                try {
+                    for (final Object item : itr) {
+                        writer.write(item);
+                    }
+                } finally {
+                    CloseableUtil.close(itr);
                 }
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            } finally {
-                CloseableUtil.close(itr);
-            }
-        } else {
-            try {
-                output.write(mapper.writeValueAsString(result));
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
+            } else {
+                writer.write(result);
             }
+        } catch (final IOException ioe) {
+            LOGGER.warn("IOException (chunks)", ioe);
         }
     }
 }
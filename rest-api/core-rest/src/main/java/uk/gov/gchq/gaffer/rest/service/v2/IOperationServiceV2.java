@@ -33,6 +33,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -113,10 +115,12 @@ public interface IOperationServiceV2 {
             @ApiResponse(code = 403, message = FORBIDDEN),
             @ApiResponse(code = 500, message = INTERNAL_SERVER_ERROR),
             @ApiResponse(code = 501, message = OPERATION_NOT_IMPLEMENTED)})
-    Response executeChunked(@ApiParam(value = "The operation to be performed, returning a chunked output") final Operation operation);
+    void executeChunked(@ApiParam(value = "The operation to be performed, returning a chunked output") final Operation operation,
+                        @Suspended final AsyncResponse asyncResponse);
 
     @SuppressFBWarnings
-    Response executeChunkedChain(@ApiParam(value = "The operation chain to be performed, returning a chunked output") final OperationChain opChain);
+    void executeChunkedChain(@ApiParam(value = "The operation chain to be performed, returning a chunked output") final OperationChain opChain,
+                             final AsyncResponse asyncResponse);
 
     @GET
     @Path("/{className}")
@@ -21,6 +21,7 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.ResponseHeader;
 
+import uk.gov.gchq.gaffer.rest.ChunkedStatus;
 import uk.gov.gchq.gaffer.rest.SystemStatus;
 
 import javax.ws.rs.GET;
@@ -54,4 +55,18 @@ public interface IStatusServiceV2 {
             @ApiResponse(code = 500, message = INTERNAL_SERVER_ERROR),
             @ApiResponse(code = 503, message = "The service is not available")})
     Response status();
+
+    @GET
+    @Path("/chunked")
+    @ApiOperation(value = "Returns the status of the chunked responses",
+            notes = "Returns the number of chunked responses being written, waiting for a thread, "
+                    + "written and rejected because too many were in progress.",
+            response = ChunkedStatus.class,
+            produces = APPLICATION_JSON,
+            responseHeaders = {
+                    @ResponseHeader(name = GAFFER_MEDIA_TYPE_HEADER, description = GAFFER_MEDIA_TYPE_HEADER_DESCRIPTION)
+            })
+    @ApiResponses(value = {@ApiResponse(code = 200, message = OK),
+            @ApiResponse(code = 500, message = INTERNAL_SERVER_ERROR)})
+    Response chunkedStatus();
 }
@@ -18,7 +18,6 @@ package uk.gov.gchq.gaffer.rest.service.v2;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,16 +28,21 @@ import uk.gov.gchq.gaffer.core.exception.Error;
 import uk.gov.gchq.gaffer.core.exception.Status;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.rest.ChunkedExecutorService;
 import uk.gov.gchq.gaffer.rest.factory.ExamplesFactory;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.rest.model.OperationDetail;
+import uk.gov.gchq.gaffer.rest.serialisation.ChunkedResultWriter;
 import uk.gov.gchq.gaffer.store.Context;
 
 import javax.inject.Inject;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
@@ -92,77 +96,34 @@ public class OperationServiceV2 extends AbstractOperationService implements IOpe
     }
 
     @Override
-    public Response executeChunked(final Operation operation) {
-        return executeChunkedChain(OperationChain.wrap(operation));
+    public void executeChunked(final Operation operation, final AsyncResponse asyncResponse) {
+        executeChunkedChain(OperationChain.wrap(operation), asyncResponse);
     }
 
     @SuppressFBWarnings
     @Override
-    public Response executeChunkedChain(final OperationChain opChain) {
-        // Create chunked output instance
-        final Throwable[] threadException = new Throwable[1];
-        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
+    public void executeChunkedChain(final OperationChain opChain, final AsyncResponse asyncResponse) {
         final Context context = userFactory.createContext();
 
-        // create thread to write chunks to the chunked output object
-        Thread thread = new Thread(() -> {
-            try {
-                final Object result = _execute(opChain, context).getFirst();
-                chunkResult(result, output);
-            } catch (final Exception e) {
-                throw new RuntimeException(e);
-            } finally {
-                CloseableUtil.close(output);
-                CloseableUtil.close(opChain);
-            }
-        });
-
-        // By default threads throw nothing, so set the ExceptionHandler
-        thread.setUncaughtExceptionHandler((thread1, exception) -> threadException[0] = exception.getCause());
-
-        thread.start();
-
-        // Sleep to check exception will be caught
+        // execute the chain and write the chunks using the shared chunked executor
         try {
-            Thread.sleep(1000);
-        } catch (final InterruptedException e) {
-            return Response.status(INTERNAL_SERVER_ERROR)
-                    .entity(new Error.ErrorBuilder()
-                            .status(Status.INTERNAL_SERVER_ERROR)
-                            .statusCode(500)
-                            .simpleMessage(e.getMessage())
-                            .build())
-                    .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
-                    .build();
-        }
-
-        // If there was an UnauthorisedException thrown return 403, else return a 500
-        if (null != threadException[0]) {
-            if (threadException.getClass().equals(UnauthorisedException.class)) {
-                return Response.status(INTERNAL_SERVER_ERROR)
-                        .entity(new Error.ErrorBuilder()
-                                .status(Status.FORBIDDEN)
-                                .statusCode(403)
-                                .simpleMessage(threadException[0].getMessage())
-                                .build())
-                        .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
-                        .build();
-            } else {
-                return Response.status(INTERNAL_SERVER_ERROR)
-                        .entity(new Error.ErrorBuilder()
-                                .status(Status.INTERNAL_SERVER_ERROR)
-                                .statusCode(500)
-                                .simpleMessage(threadException[0].getMessage())
-                                .build())
-                        .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
-                        .build();
-            }
+            ChunkedExecutorService.execute(() -> {
+                try {
+                    final Object result = _execute(opChain, context).getFirst();
+                    asyncResponse.resume(Response.ok((StreamingOutput) output -> chunkResult(result, output))
+                            .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
+                            .build());
+                } catch (final Exception e) {
+                    LOGGER.debug("Failed to execute chunked operation chain", e);
+                    asyncResponse.resume(createErrorResponse(e));
+                } finally {
+                    CloseableUtil.close(opChain);
+                }
+            });
+        } catch (final RuntimeException e) {
+            CloseableUtil.close(opChain);
+            throw e;
         }
-
-        // Return ok output
-        return Response.ok(output)
-                .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
-                .build();
     }
 
     @Override
@@ -256,24 +217,35 @@ public class OperationServiceV2 extends AbstractOperationService implements IOpe
         // no action by default
     }
 
-    protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
-        if (result instanceof Iterable) {
-            final Iterable itr = (Iterable) result;
-            try {
-                for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
+    // If there was an UnauthorisedException return a 403 error, else return a 500 error
+    private Response createErrorResponse(final Exception exception) {
+        final Status status = exception instanceof UnauthorisedException ? Status.FORBIDDEN : Status.INTERNAL_SERVER_ERROR;
+        return Response.status(INTERNAL_SERVER_ERROR)
+                .entity(new Error.ErrorBuilder()
+                        .status(status)
+                        .statusCode(status.getStatusCode())
+                        .simpleMessage(exception.getMessage())
+                        .build())
+                .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
+                .build();
+    }
+
+    protected void chunkResult(final Object result, final OutputStream output) {
+        try (final ChunkedResultWriter writer = new ChunkedResultWriter(mapper, ChunkedResultWriter.streamTo(output))) {
+            if (result instanceof Iterable) {
+                final Iterable itr = (Iterable) result;
+                try {
+                    for (final Object item : itr) {
+                        writer.write(item);
+                    }
+                } finally {
+                    CloseableUtil.close(itr);
                 }
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            } finally {
-                CloseableUtil.close(itr);
-            }
-        } else {
-            try {
-                output.write(mapper.writeValueAsString(result));
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
+            } else {
+                writer.write(result);
             }
+        } catch (final IOException ioe) {
+            LOGGER.warn("IOException (chunks)", ioe);
         }
     }
 }
@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.rest.service.v2;
 
 import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.rest.ChunkedExecutorService;
 import uk.gov.gchq.gaffer.rest.SystemStatus;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
@@ -66,4 +67,11 @@ public class StatusServiceV2 implements IStatusServiceV2 {
                        .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
                        .build();
     }
+
+    @Override
+    public Response chunkedStatus() {
+        return Response.ok(ChunkedExecutorService.getStatus())
+                       .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
+                       .build();
+    }
 }
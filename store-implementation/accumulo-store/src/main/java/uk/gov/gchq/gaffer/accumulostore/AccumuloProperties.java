@@ -45,19 +45,35 @@ public class AccumuloProperties extends StoreProperties {
     public static final String NAMESPACE = "accumulo.namespace";
     public static final String THREADS_FOR_BATCH_SCANNER = "accumulo.batchScannerThreads";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "accumulo.entriesForBatchScanner";
+    public static final String PREFETCH_DEPTH_FOR_BATCH_SCANNER = "accumulo.prefetchDepthForBatchScanner";
+    public static final String MAX_PREFETCHED_ENTRIES_FOR_BATCH_SCANNER = "accumulo.maxPrefetchedEntriesForBatchScanner";
+    public static final String NUM_THREADS_FOR_PREFETCH = "accumulo.numThreadsForPrefetch";
+    public static final String MAX_TIME_OUT_FOR_PREFETCH = "accumulo.maxTimeOutForPrefetchInMilliseconds";
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
+    public static final String NUM_THREADS_FOR_INGEST = "accumulo.numThreadsForIngest";
+    public static final String INGEST_BATCH_SIZE = "accumulo.ingestBatchSize";
+    public static final String BULK_IMPORT_DIRECTORY = "accumulo.bulkImportDirectory";
+    public static final String BULK_IMPORT_MAX_ENTRIES_IN_MEMORY = "accumulo.bulkImportMaxEntriesInMemory";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
     public static final String HDFS_SKIP_PERMISSIONS = "accumulostore.operation.hdfs.skip_permissions";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
+    private static final String NUM_THREADS_FOR_INGEST_DEFAULT = "1";
+    private static final String INGEST_BATCH_SIZE_DEFAULT = "1000";
+    private static final String BULK_IMPORT_DIRECTORY_DEFAULT = "/tmp/gaffer-bulk-import";
+    private static final String BULK_IMPORT_MAX_ENTRIES_IN_MEMORY_DEFAULT = "1000000";
     private static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    private static final String PREFETCH_DEPTH_FOR_BATCH_SCANNER_DEFAULT = "0";
+    private static final String MAX_PREFETCHED_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "100000";
+    private static final String NUM_THREADS_FOR_PREFETCH_DEFAULT = "10";
+    private static final String MAX_TIME_OUT_FOR_PREFETCH_DEFAULT = "600000";
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
@@ -151,6 +167,91 @@ public class AccumuloProperties extends StoreProperties {
         return Long.parseLong(get(MAX_BUFFER_SIZE_FOR_BATCH_WRITER, MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT));
     }
 
+    /**
+     * Gets the number of threads that should be used to convert elements into
+     * Accumulo mutations when adding elements. A value of 1 converts the
+     * elements on the calling thread.
+     *
+     * @return The number of threads to use to convert elements.
+     */
+    public int getNumThreadsForIngest() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST, NUM_THREADS_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Sets the number of threads that should be used to convert elements into
+     * Accumulo mutations when adding elements.
+     *
+     * @param numThreadsForIngest The number of threads to use to convert elements.
+     */
+    public void setNumThreadsForIngest(final String numThreadsForIngest) {
+        set(NUM_THREADS_FOR_INGEST, numThreadsForIngest);
+    }
+
+    /**
+     * Gets the number of elements each ingest thread converts at a time when
+     * more than one ingest thread is used.
+     *
+     * @return The number of elements in each batch.
+     */
+    public int getIngestBatchSize() {
+        return Integer.parseInt(get(INGEST_BATCH_SIZE, INGEST_BATCH_SIZE_DEFAULT));
+    }
+
+    /**
+     * Sets the number of elements each ingest thread converts at a time when
+     * more than one ingest thread is used.
+     *
+     * @param ingestBatchSize The number of elements in each batch.
+     */
+    public void setIngestBatchSize(final String ingestBatchSize) {
+        set(INGEST_BATCH_SIZE, ingestBatchSize);
+    }
+
+    /**
+     * Gets the directory, on the default Hadoop file system, in which files
+     * are written before being bulk imported when adding elements with the
+     * bulk import option.
+     *
+     * @return The bulk import working directory.
+     */
+    public String getBulkImportDirectory() {
+        return get(BULK_IMPORT_DIRECTORY, BULK_IMPORT_DIRECTORY_DEFAULT);
+    }
+
+    /**
+     * Sets the directory, on the default Hadoop file system, in which files
+     * are written before being bulk imported when adding elements with the
+     * bulk import option.
+     *
+     * @param bulkImportDirectory The bulk import working directory.
+     */
+    public void setBulkImportDirectory(final String bulkImportDirectory) {
+        set(BULK_IMPORT_DIRECTORY, bulkImportDirectory);
+    }
+
+    /**
+     * Gets the maximum number of key-values held in memory, to be sorted and
+     * aggregated, before they are written to files when adding elements with
+     * the bulk import option.
+     *
+     * @return The maximum number of key-values held in memory.
+     */
+    public int getBulkImportMaxEntriesInMemory() {
+        return Integer.parseInt(get(BULK_IMPORT_MAX_ENTRIES_IN_MEMORY, BULK_IMPORT_MAX_ENTRIES_IN_MEMORY_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of key-values held in memory, to be sorted and
+     * aggregated, before they are written to files when adding elements with
+     * the bulk import option.
+     *
+     * @param bulkImportMaxEntriesInMemory The maximum number of key-values held in memory.
+     */
+    public void setBulkImportMaxEntriesInMemory(final String bulkImportMaxEntriesInMemory) {
+        set(BULK_IMPORT_MAX_ENTRIES_IN_MEMORY, bulkImportMaxEntriesInMemory);
+    }
+
     /**
      * Gets the list of Zookeeper servers.
      *
@@ -303,6 +404,89 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Gets the number of batch scanners that should be opened ahead of the one
+     * currently being read when retrieving elements for a large number of seeds.
+     * A value of 0 disables prefetching, so each batch scanner is only opened
+     * once the previous one has been fully read.
+     *
+     * @return An integer representing the number of batch scanners to open ahead.
+     */
+    public int getPrefetchDepthForBatchScanner() {
+        return Integer.parseInt(get(PREFETCH_DEPTH_FOR_BATCH_SCANNER, PREFETCH_DEPTH_FOR_BATCH_SCANNER_DEFAULT));
+    }
+
+    /**
+     * Sets the number of batch scanners that should be opened ahead of the one
+     * currently being read when retrieving elements for a large number of seeds.
+     *
+     * @param prefetchDepthForBatchScanner the number of batch scanners to open ahead, 0 disables prefetching.
+     */
+    public void setPrefetchDepthForBatchScanner(final String prefetchDepthForBatchScanner) {
+        set(PREFETCH_DEPTH_FOR_BATCH_SCANNER, prefetchDepthForBatchScanner);
+    }
+
+    /**
+     * Gets the max number of entries that can be read from prefetching batch
+     * scanners but not yet returned.
+     *
+     * @return An integer representing the max number of prefetched entries.
+     */
+    public int getMaxPrefetchedEntriesForBatchScanner() {
+        return Integer.parseInt(get(MAX_PREFETCHED_ENTRIES_FOR_BATCH_SCANNER, MAX_PREFETCHED_ENTRIES_FOR_BATCH_SCANNER_DEFAULT));
+    }
+
+    /**
+     * Sets the max number of entries that can be read from prefetching batch
+     * scanners but not yet returned.
+     *
+     * @param maxPrefetchedEntriesForBatchScanner the max number of prefetched entries.
+     */
+    public void setMaxPrefetchedEntriesForBatchScanner(final String maxPrefetchedEntriesForBatchScanner) {
+        set(MAX_PREFETCHED_ENTRIES_FOR_BATCH_SCANNER, maxPrefetchedEntriesForBatchScanner);
+    }
+
+    /**
+     * Gets the maximum number of threads the store uses to prefetch batch
+     * scanners, across all queries. Queries that start when all the threads
+     * are busy open their batch scanners without prefetching.
+     *
+     * @return An integer representing the number of prefetching threads.
+     */
+    public int getNumThreadsForPrefetch() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_PREFETCH, NUM_THREADS_FOR_PREFETCH_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of threads the store uses to prefetch batch
+     * scanners, across all queries.
+     *
+     * @param numThreadsForPrefetch the number of prefetching threads.
+     */
+    public void setNumThreadsForPrefetch(final String numThreadsForPrefetch) {
+        set(NUM_THREADS_FOR_PREFETCH, numThreadsForPrefetch);
+    }
+
+    /**
+     * Gets the time in milliseconds after which prefetched entries that have
+     * not been read are abandoned, closing the batch scanners.
+     *
+     * @return A long representing the prefetch timeout in milliseconds.
+     */
+    public long getMaxTimeOutForPrefetch() {
+        return Long.parseLong(get(MAX_TIME_OUT_FOR_PREFETCH, MAX_TIME_OUT_FOR_PREFETCH_DEFAULT));
+    }
+
+    /**
+     * Sets the time in milliseconds after which prefetched entries that have
+     * not been read are abandoned, closing the batch scanners.
+     *
+     * @param maxTimeOutForPrefetch the prefetch timeout in milliseconds.
+     */
+    public void setMaxTimeOutForPrefetch(final String maxTimeOutForPrefetch) {
+        set(MAX_TIME_OUT_FOR_PREFETCH, maxTimeOutForPrefetch);
+    }
+
     /**
      * Gets the size that should be used for the creation of bloom filters on the
      * client side.
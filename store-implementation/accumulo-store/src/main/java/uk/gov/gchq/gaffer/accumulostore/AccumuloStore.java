@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.BatchWriter;
@@ -27,11 +28,7 @@ import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
 import org.apache.accumulo.core.client.mapreduce.lib.impl.InputConfigurator;
 import org.apache.accumulo.core.client.security.tokens.PasswordToken;
-import org.apache.accumulo.core.data.Key;
-import org.apache.accumulo.core.data.Mutation;
-import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
-import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Text;
@@ -40,9 +37,10 @@ import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.inputformat.ElementInputFormat;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage;
-import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.CountElementGroupsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.CountElementsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GenerateSplitPointsFromSampleHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAllElementsHandler;
@@ -63,11 +61,11 @@ import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.ElementMutationWriter;
 import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.core.exception.Status;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -93,8 +91,11 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.StoreTrait;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
@@ -109,6 +110,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -153,6 +159,8 @@ public class AccumuloStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloStore.class);
     private AccumuloKeyPackage keyPackage;
     private Connector connection = null;
+    private ExecutorService ingestExecutorService;
+    private ThreadPoolExecutor prefetchExecutorService;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
@@ -190,6 +198,9 @@ public class AccumuloStore extends Store {
             throw new StoreException("Unable to construct an instance of key package: " + keyPackageClass, e);
         }
         this.keyPackage.setSchema(getSchema());
+
+        // Add OperationChainOptimisers
+        addOperationChainOptimisers(Collections.singletonList(new CountElementsOperationChainOptimiser()));
     }
 
     /**
@@ -379,6 +390,8 @@ public class AccumuloStore extends Store {
         addOperationHandler(GenerateSplitPointsFromSample.class, new GenerateSplitPointsFromSampleHandler());
         addOperationHandler(SampleDataForSplitPoints.class, new SampleDataForSplitPointsHandler());
         addOperationHandler(ImportAccumuloKeyValueFiles.class, new ImportAccumuloKeyValueFilesHandler());
+        addOperationHandler(CountElements.class, new CountElementsHandler());
+        addOperationHandler(CountElementGroups.class, new CountElementGroupsHandler());
 
         if (null == getSchema().getVertexSerialiser() || getSchema().getVertexSerialiser().preservesObjectOrdering()) {
             addOperationHandler(SummariseGroupOverRanges.class, new SummariseGroupOverRangesHandler());
@@ -432,45 +445,12 @@ public class AccumuloStore extends Store {
         // The BatchWriter takes care of batching them up, sending them without
         // too high a latency, etc.
         if (null != elements) {
-            for (final Element element : elements) {
-
-                final Pair<Key, Key> keys;
-                try {
-                    keys = keyPackage.getKeyConverter().getKeysFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
-                    continue;
-                }
-                final Value value;
-                try {
-                    value = keyPackage.getKeyConverter().getValueFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
-                    continue;
-                }
-                final Mutation m = new Mutation(keys.getFirst().getRow());
-                m.put(keys.getFirst().getColumnFamily(), keys.getFirst().getColumnQualifier(),
-                        new ColumnVisibility(keys.getFirst().getColumnVisibility()), keys.getFirst().getTimestamp(), value);
-                try {
-                    writer.addMutation(m);
-                } catch (final MutationsRejectedException e) {
-                    LOGGER.error("Failed to create an accumulo key mutation");
-                    continue;
-                }
-                // If the GraphElement is a Vertex then there will only be 1 key,
-                // and the second will be null.
-                // If the GraphElement is an Edge then there will be 2 keys.
-                if (null != keys.getSecond()) {
-                    final Mutation m2 = new Mutation(keys.getSecond().getRow());
-                    m2.put(keys.getSecond().getColumnFamily(), keys.getSecond().getColumnQualifier(),
-                            new ColumnVisibility(keys.getSecond().getColumnVisibility()), keys.getSecond().getTimestamp(),
-                            value);
-                    try {
-                        writer.addMutation(m2);
-                    } catch (final MutationsRejectedException e) {
-                        LOGGER.error("Failed to create an accumulo key mutation");
-                    }
-                }
+            final ElementMutationWriter mutationWriter = new ElementMutationWriter(keyPackage.getKeyConverter(), writer);
+            final int numThreads = getProperties().getNumThreadsForIngest();
+            if (numThreads > 1) {
+                mutationWriter.write(elements, getIngestExecutorService(), numThreads, getProperties().getIngestBatchSize());
+            } else {
+                mutationWriter.write(elements);
             }
         } else {
             throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
@@ -482,6 +462,59 @@ public class AccumuloStore extends Store {
         }
     }
 
+    /**
+     * Gets the executor used to convert elements into mutations when more
+     * than one ingest thread is configured. It is created on first use.
+     *
+     * @return the ingest executor
+     */
+    protected synchronized ExecutorService getIngestExecutorService() {
+        if (null == ingestExecutorService) {
+            ingestExecutorService = Executors.newFixedThreadPool(getProperties().getNumThreadsForIngest(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("accumulo-ingest-%d")
+                            .setDaemon(true)
+                            .build());
+        }
+        return ingestExecutorService;
+    }
+
+    /**
+     * Gets the executor used to prefetch batch scanners. It is created on
+     * first use with up to {@link AccumuloProperties#getNumThreadsForPrefetch()}
+     * threads, and rejects tasks rather than queueing them when all of the
+     * threads are busy.
+     *
+     * @return the prefetch executor
+     */
+    public synchronized ExecutorService getPrefetchExecutorService() {
+        if (null == prefetchExecutorService) {
+            prefetchExecutorService = new ThreadPoolExecutor(0, getProperties().getNumThreadsForPrefetch(),
+                    60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("accumulo-prefetch-%d")
+                            .setDaemon(true)
+                            .build());
+        }
+        return prefetchExecutorService;
+    }
+
+    /**
+     * Shuts down the executors used by this store.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != ingestExecutorService) {
+            ingestExecutorService.shutdown();
+            ingestExecutorService = null;
+        }
+        if (null != prefetchExecutorService) {
+            prefetchExecutorService.shutdownNow();
+            prefetchExecutorService = null;
+        }
+    }
+
     /**
      * Gets the {@link uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage} in use by
      * this AccumuloStore.
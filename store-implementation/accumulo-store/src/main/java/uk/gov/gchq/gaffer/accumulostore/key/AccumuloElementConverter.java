@@ -27,6 +27,8 @@ import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
 
+import java.util.Set;
+
 /**
  * The Accumulo ElementConverter Interface details the methods necessary to
  * convert Gaffer {@link Element}s to Accumulo {@link Key}s and {@link Value}s
@@ -126,6 +128,26 @@ public interface AccumuloElementConverter {
      */
     Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex);
 
+    /**
+     * Returns an {@link Element} populated with the given properties defined
+     * within the {@link Key} and {@link Value}. Other properties are not
+     * deserialised.
+     *
+     * @param key                  the accumulo Key containing serialised parts of the Element
+     * @param value                the accumulo Value containing serialised properties of the Element
+     * @param includeMatchedVertex if true then the matchedVertex field is set on Edges
+     * @param propertyNames        the names of the properties to include, or null to include all properties
+     * @return Returns an {@link Element} populated with the requested properties defined within the {@link Key}
+     * and {@link Value}
+     */
+    default Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex, final Set<String> propertyNames) {
+        final Element element = getFullElement(key, value, includeMatchedVertex);
+        if (null != propertyNames) {
+            element.getProperties().keepOnly(propertyNames);
+        }
+        return element;
+    }
+
     /**
      * Helper Used to create Bloom Filters, method Serialises a given object
      * (from an {@link uk.gov.gchq.gaffer.data.element.id.EntityId} ) with the Identifier
@@ -141,6 +141,16 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getElementPropertyRangeQueryFilter(final GraphFilters operation);
 
+    /**
+     * Returns an Iterator that will count the elements in each group on the
+     * tablet servers, so that only the counts are returned to the client.
+     * This must be applied after all other iterators.
+     *
+     * @param limit the number of elements after which counting can stop, or null to count all elements
+     * @return A new {@link IteratorSetting} for an Iterator that will count the elements in each group
+     */
+    IteratorSetting getGroupCountIteratorSetting(final Integer limit);
+
     /**
      * Returns the iterator settings for a given iterator name. Allowed iterator
      * names are: Aggregator, Validator and Bloom_Filter.
@@ -53,6 +53,13 @@ import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractCoreKeyAccumuloElementConverter implements AccumuloElementConverter {
+    // Streams larger than this are not kept for reuse, so one large element
+    // does not hold on to a large buffer for the life of the thread.
+    private static final int MAX_REUSED_STREAM_SIZE = 64 * 1024;
+    // Shared by all converters on a thread, so a thread holds at most one
+    // buffer however many converters are created.
+    private static final ThreadLocal<ByteArrayOutputStream> REUSABLE_STREAM = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
     protected final Schema schema;
     private final String timestampProperty;
     private final Set<String> aggregatedGroups;
@@ -120,8 +127,8 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @SuppressWarnings("Convert2streamapi")
     @Override
     public Value getValueFromProperties(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
         final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        final ByteArrayOutputStream stream = getReusableStream();
 
         for (final String propertyName : elementDefinition.getProperties()) {
             if (isStoredInValue(propertyName, elementDefinition)) {
@@ -129,7 +136,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             }
         }
 
-        return new Value(stream.toByteArray());
+        return new Value(toByteArray(stream));
     }
 
     @Override
@@ -139,6 +146,10 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public Properties getPropertiesFromValue(final String group, final Value value) {
+        return getPropertiesFromValue(group, value, null);
+    }
+
+    private Properties getPropertiesFromValue(final String group, final Value value, final Set<String> propertiesToKeep) {
         final Properties properties = new Properties();
         if (isNotEmpty(value)) {
             final byte[] bytes = value.get();
@@ -150,7 +161,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
                 final String propertyName = propertyNames.next();
                 try {
                     if (isStoredInValue(propertyName, elementDefinition)) {
-                        delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                        delimiterPosition = addOrSkipProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName, propertiesToKeep);
                     }
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
@@ -177,6 +188,34 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return element;
     }
 
+    @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "If an element id is not an EntityId it must be an EdgeId")
+    @Override
+    public Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex, final Set<String> propertyNames) {
+        if (null == propertyNames) {
+            return getFullElement(key, value, includeMatchedVertex);
+        }
+
+        final String group = getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
+        final ElementId elementId = getElementId(key, includeMatchedVertex);
+        final Element element;
+        if (elementId instanceof EntityId) {
+            element = new Entity(group, ((EntityId) elementId).getVertex());
+        } else {
+            final EdgeId edgeId = (EdgeId) elementId;
+            element = new Edge(group, edgeId.getSource(), edgeId.getDestination(), edgeId.isDirected(), edgeId.getMatchedVertex(), null);
+        }
+
+        element.copyProperties(getPropertiesFromColumnQualifier(group, key.getColumnQualifierData().getBackingArray(), propertyNames));
+        if (null != schema.getVisibilityProperty() && propertyNames.contains(schema.getVisibilityProperty())) {
+            element.copyProperties(getPropertiesFromColumnVisibility(group, key.getColumnVisibilityData().getBackingArray()));
+        }
+        if (null != timestampProperty && propertyNames.contains(timestampProperty)) {
+            element.copyProperties(getPropertiesFromTimestamp(group, key.getTimestamp()));
+        }
+        element.copyProperties(getPropertiesFromValue(group, value, propertyNames));
+        return element;
+    }
+
     @Override
     public Pair<byte[], byte[]> getRowKeysFromElement(final Element element) {
         if (element instanceof Entity) {
@@ -258,14 +297,14 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public byte[] buildColumnQualifier(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
         final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        final ByteArrayOutputStream stream = getReusableStream();
 
         for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
             serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
         }
 
-        return stream.toByteArray();
+        return toByteArray(stream);
     }
 
     private SchemaElementDefinition getSchemaElementDefinition(final String group) {
@@ -296,6 +335,10 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
+        return getPropertiesFromColumnQualifier(group, bytes, null);
+    }
+
+    private Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes, final Set<String> propertiesToKeep) {
         final Properties properties = new Properties();
         if (null != bytes && bytes.length != 0) {
             int delimiterPosition = 0;
@@ -305,7 +348,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
                 final String propertyName = propertyNames.next();
                 try {
-                    delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                    delimiterPosition = addOrSkipProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName, propertiesToKeep);
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
                 }
@@ -314,6 +357,19 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return properties;
     }
 
+    private int addOrSkipProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName, final Set<String> propertiesToKeep) throws SerialisationException {
+        if (null == propertiesToKeep || propertiesToKeep.contains(propertyName)) {
+            return addDeserialisedProperty(bytes, carriage, properties, elementDefinition, propertyName);
+        }
+
+        // Step over the serialised property without deserialising it
+        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+        if (null == typeDefinition || null == typeDefinition.getSerialiser()) {
+            return carriage;
+        }
+        return carriage + CompactRawSerialisationUtils.decodeVIntSize(bytes[carriage]) + getCurrentPropLength(bytes, carriage);
+    }
+
     private int addDeserialisedProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
         int rtn = carriage;
         final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
@@ -505,6 +561,20 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
                 && !propertyName.equals(timestampProperty);
     }
 
+    private ByteArrayOutputStream getReusableStream() {
+        final ByteArrayOutputStream stream = REUSABLE_STREAM.get();
+        stream.reset();
+        return stream;
+    }
+
+    private byte[] toByteArray(final ByteArrayOutputStream stream) {
+        final byte[] bytes = stream.toByteArray();
+        if (bytes.length > MAX_REUSED_STREAM_SIZE) {
+            REUSABLE_STREAM.remove();
+        }
+        return bytes;
+    }
+
     private void writeBytes(final byte[] bytes, final ByteArrayOutputStream out)
             throws IOException {
         CompactRawSerialisationUtils.write(bytes.length, out);
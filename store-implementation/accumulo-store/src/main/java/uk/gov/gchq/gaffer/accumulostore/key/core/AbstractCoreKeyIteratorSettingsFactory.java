@@ -29,6 +29,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.GroupCountIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ValidatorFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
@@ -223,6 +224,19 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         return false;
     }
 
+    @Override
+    public IteratorSetting getGroupCountIteratorSetting(final Integer limit) {
+        final IteratorSettingBuilder builder = new IteratorSettingBuilder(AccumuloStoreConstants.GROUP_COUNT_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.GROUP_COUNT_ITERATOR_NAME, GroupCountIterator.class);
+        if (null != limit) {
+            builder.option(AccumuloStoreConstants.GROUP_COUNT_LIMIT, limit.toString());
+        }
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, limit = {}",
+                GroupCountIterator.class.getName(),
+                AccumuloStoreConstants.GROUP_COUNT_ITERATOR_PRIORITY, limit);
+        return builder.build();
+    }
+
     @Override
     public IteratorSetting getIteratorSetting(final AccumuloStore store, final String iteratorName) throws IteratorSettingException {
         switch (iteratorName) {
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code GroupCountIterator} counts the number of entries in each column
+ * family (i.e. the number of elements in each group) returned by the iterators
+ * below it, so that only the counts are sent back to the client.
+ * <p>
+ * All the entries in the seek range are counted and a single entry is returned,
+ * with the key of the last entry counted and a value containing the counts. If
+ * the scan is interrupted and restarted after this key, counting continues from
+ * the next entry. The counts from all the returned entries should be combined
+ * using {@link #addCounts(Value, Map)}.
+ * </p>
+ * <p>
+ * If the {@link AccumuloStoreConstants#GROUP_COUNT_LIMIT} option is set then
+ * counting stops once the number of entries counted exceeds the limit. The
+ * counts are then kept in the order the entries were read, as a count for each
+ * run of entries in the same column family, so the client can count exactly the
+ * first entries up to its limit using {@link #addCounts(Value, Map, long)}.
+ * </p>
+ */
+public class GroupCountIterator extends WrappingIterator implements OptionDescriber {
+    private Long limit;
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.GROUP_COUNT_ITERATOR_NAME,
+                "Counts the entries in each column family")
+                .addNamedOption(AccumuloStoreConstants.GROUP_COUNT_LIMIT,
+                        "Optional: The number of entries after which counting should stop")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (options.containsKey(AccumuloStoreConstants.GROUP_COUNT_LIMIT)) {
+            try {
+                Long.parseLong(options.get(AccumuloStoreConstants.GROUP_COUNT_LIMIT));
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("The " + AccumuloStoreConstants.GROUP_COUNT_LIMIT + " must be a number", e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options, final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        validateOptions(options);
+        if (options.containsKey(AccumuloStoreConstants.GROUP_COUNT_LIMIT)) {
+            limit = Long.parseLong(options.get(AccumuloStoreConstants.GROUP_COUNT_LIMIT));
+        }
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final GroupCountIterator groupCountIterator = new GroupCountIterator();
+        groupCountIterator.setSource(getSource().deepCopy(env));
+        groupCountIterator.limit = limit;
+        return groupCountIterator;
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        super.seek(range, columnFamilies, inclusive);
+        count();
+    }
+
+    @Override
+    public void next() throws IOException {
+        // All the entries in the range are counted when the iterator is seeked
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    private void count() throws IOException {
+        topKey = null;
+        topValue = null;
+
+        // Without a limit the counts are totalled for each column family,
+        // otherwise they are kept as runs in the order the entries are read
+        final Map<ByteSequence, long[]> totals = new HashMap<>();
+        final List<Map.Entry<ByteSequence, long[]>> runs = new ArrayList<>();
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        Key lastKey = null;
+        long total = 0;
+        while (source.hasTop() && (null == limit || total <= limit)) {
+            final ByteSequence columnFamily = source.getTopKey().getColumnFamilyData();
+            long[] count;
+            if (null == limit) {
+                count = totals.get(columnFamily);
+                if (null == count) {
+                    count = new long[1];
+                    totals.put(new ArrayByteSequence(columnFamily.toArray()), count);
+                }
+            } else if (!runs.isEmpty() && runs.get(runs.size() - 1).getKey().equals(columnFamily)) {
+                count = runs.get(runs.size() - 1).getValue();
+            } else {
+                count = new long[1];
+                runs.add(new SimpleEntry<>(new ArrayByteSequence(columnFamily.toArray()), count));
+            }
+            count[0]++;
+            total++;
+            lastKey = source.getTopKey();
+            source.next();
+        }
+
+        if (null != lastKey) {
+            // The last key needs copying before the source is moved on
+            topKey = new Key(lastKey);
+            topValue = serialiseCounts(null == limit ? totals.entrySet() : runs);
+        }
+    }
+
+    private static Value serialiseCounts(final Collection<Map.Entry<ByteSequence, long[]>> counts) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<ByteSequence, long[]> entry : counts) {
+                output.writeUTF(new String(entry.getKey().toArray(), CommonConstants.UTF_8));
+                output.writeLong(entry.getValue()[0]);
+            }
+        }
+        return new Value(bytes.toByteArray());
+    }
+
+    /**
+     * Adds the counts in a value returned by a {@code GroupCountIterator} to
+     * a map of group counts.
+     *
+     * @param value  the value returned by the iterator
+     * @param counts the map of group to count to add the counts to
+     * @return the total number of entries counted in the value
+     * @throws IOException if the value could not be read
+     */
+    public static long addCounts(final Value value, final Map<String, Long> counts) throws IOException {
+        return addCounts(value, counts, Long.MAX_VALUE);
+    }
+
+    /**
+     * Adds the counts in a value returned by a {@code GroupCountIterator} to
+     * a map of group counts, in the order they were counted, until the
+     * maximum number of entries have been added.
+     *
+     * @param value    the value returned by the iterator
+     * @param counts   the map of group to count to add the counts to
+     * @param maxCount the maximum number of entries to add
+     * @return the total number of entries counted in the value, which may be
+     * more than the number added
+     * @throws IOException if the value could not be read
+     */
+    public static long addCounts(final Value value, final Map<String, Long> counts, final long maxCount) throws IOException {
+        long total = 0;
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final String group = input.readUTF();
+                final long count = input.readLong();
+                final long added = Math.min(count, Math.max(0, maxCount - total));
+                if (added > 0) {
+                    counts.merge(group, added, Long::sum);
+                }
+                total += count;
+            }
+        }
+        return total;
+    }
+}
@@ -17,6 +17,8 @@
 package uk.gov.gchq.gaffer.accumulostore.operation.handler;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.RFileBulkImporter;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
@@ -44,7 +46,11 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             } else {
                 validatedElements = operation.getInput();
             }
-            store.addElements(validatedElements);
+            if (Boolean.parseBoolean(operation.getOption(AccumuloStoreConstants.ADD_ELEMENTS_BULK_IMPORT))) {
+                new RFileBulkImporter(store).importElements(validatedElements);
+            } else {
+                store.addElements(validatedElements);
+            }
         } catch (final StoreException e) {
             throw new OperationException("Failed to add elements", e);
         }
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.GroupCountIterator;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
@@ -40,12 +41,15 @@ import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<? extends Element>> & GraphFilters, I_ITEM>
         extends AccumuloRetriever<OP, Element> {
@@ -71,7 +75,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
     public CloseableIterator<Element> iterator() {
         CloseableUtil.close(iterator);
 
-        final Iterator<? extends I_ITEM> idIterator = null != ids ? ids.iterator() : Collections.emptyIterator();
+        final Iterator<? extends I_ITEM> idIterator = createIdIterator();
         if (!idIterator.hasNext()) {
             return new EmptyCloseableIterator<>();
         }
@@ -86,25 +90,105 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
         return iterator;
     }
 
+    /**
+     * Counts the elements that this retriever would return in each group.
+     * The elements are counted on the tablet servers by a
+     * {@link GroupCountIterator}, so only the counts are sent back to the
+     * client.
+     * <p>
+     * If a limit is given, only the first elements up to the limit are
+     * counted, in the order they are returned by the tablet servers.
+     * </p>
+     *
+     * @param limit  the number of elements to count, or null to count all elements
+     * @param counts the map to add the number of elements in each group to
+     * @return true if there were more elements than the limit
+     * @throws StoreException if the elements could not be counted
+     */
+    public boolean countGroups(final Integer limit, final Map<String, Long> counts) throws StoreException {
+        final IteratorSetting groupCountIteratorSetting = iteratorSettingFactory.getGroupCountIteratorSetting(limit);
+        final Iterator<? extends I_ITEM> idIterator = createIdIterator();
+        long remaining = null != limit ? limit : Long.MAX_VALUE;
+        try {
+            while (idIterator.hasNext()) {
+                final Set<Range> ranges = nextRanges(idIterator);
+                if (ranges.isEmpty()) {
+                    continue;
+                }
+                final BatchScanner scanner = getScanner(ranges);
+                try {
+                    scanner.addScanIterator(groupCountIteratorSetting);
+                    for (final Entry<Key, Value> entry : scanner) {
+                        final long total = GroupCountIterator.addCounts(entry.getValue(), counts, remaining);
+                        if (total > remaining) {
+                            return true;
+                        }
+                        remaining -= total;
+                    }
+                } finally {
+                    scanner.close();
+                }
+            }
+        } catch (final TableNotFoundException | IOException e) {
+            throw new StoreException("Failed to count elements", e);
+        } finally {
+            CloseableUtil.close(idIterator);
+            CloseableUtil.close(ids);
+        }
+        return false;
+    }
+
+    /**
+     * Creates an iterator of the ids to create the ranges to scan from.
+     *
+     * @return an iterator of ids.
+     */
+    protected Iterator<? extends I_ITEM> createIdIterator() {
+        return null != ids ? ids.iterator() : Collections.emptyIterator();
+    }
+
     protected abstract void addToRanges(final I_ITEM seed, final Set<Range> ranges) throws RangeFactoryException;
 
+    private Set<Range> nextRanges(final Iterator<? extends I_ITEM> idIterator) {
+        int count = 0;
+        final Set<Range> ranges = new HashSet<>();
+        while (idIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
+            count++;
+            try {
+                addToRanges(idIterator.next(), ranges);
+            } catch (final RangeFactoryException e) {
+                LOGGER.error("Failed to create a range from given seed", e);
+            }
+        }
+        return ranges;
+    }
+
     protected class ElementIterator implements CloseableIterator<Element> {
         private final Iterator<? extends I_ITEM> idsIterator;
-        private int count;
         private BatchScanner scanner;
+        private PrefetchingBatchScannerIterator prefetchingIterator;
         private Iterator<Entry<Key, Value>> scannerIterator;
         private Element nextElm;
 
         public ElementIterator(final Iterator<? extends I_ITEM> idIterator) throws RetrieverException {
             idsIterator = idIterator;
-            count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                count++;
+            final Set<Range> ranges = nextRanges(idsIterator);
+
+            final int prefetchDepth = store.getProperties().getPrefetchDepthForBatchScanner();
+            if (prefetchDepth > 0 && idsIterator.hasNext()) {
                 try {
-                    addToRanges(idsIterator.next(), ranges);
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed pair", e);
+                    // The remaining ranges are built on the prefetching thread
+                    prefetchingIterator = new PrefetchingBatchScannerIterator(
+                            new RangeBatchIterator(ranges),
+                            AccumuloItemRetriever.this::getScanner,
+                            prefetchDepth,
+                            store.getProperties().getMaxPrefetchedEntriesForBatchScanner(),
+                            store.getPrefetchExecutorService(),
+                            store.getProperties().getMaxTimeOutForPrefetch());
+                    scannerIterator = prefetchingIterator;
+                    return;
+                } catch (final RejectedExecutionException e) {
+                    LOGGER.debug("All prefetching threads are busy, so batch scanners will be opened without prefetching");
                 }
             }
 
@@ -129,7 +213,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
             while (scannerIterator.hasNext()) {
                 final Entry<Key, Value> entry = scannerIterator.next();
                 try {
-                    nextElm = elementConverter.getFullElement(
+                    nextElm = getElement(
                             entry.getKey(),
                             entry.getValue(),
                             includeMatchedVertex);
@@ -150,17 +234,8 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
             // through the provided entities, and see if there are more.
             // If so create the next scanner, if there are no more entities
             // then return false.
-            while (idsIterator.hasNext() && !scannerIterator.hasNext()) {
-                count = 0;
-                final Set<Range> ranges = new HashSet<>();
-                while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                    count++;
-                    try {
-                        addToRanges(idsIterator.next(), ranges);
-                    } catch (final RangeFactoryException e) {
-                        LOGGER.error("Failed to create a range from given seed", e);
-                    }
-                }
+            while (null == prefetchingIterator && idsIterator.hasNext() && !scannerIterator.hasNext()) {
+                final Set<Range> ranges = nextRanges(idsIterator);
                 scanner.close();
                 try {
                     scanner = getScanner(ranges);
@@ -171,7 +246,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
                 scannerIterator = scanner.iterator();
             }
             if (!scannerIterator.hasNext()) {
-                scanner.close();
+                close();
                 return false;
             } else {
                 return hasNext();
@@ -200,6 +275,35 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
             if (null != scanner) {
                 scanner.close();
             }
+            if (null != prefetchingIterator) {
+                prefetchingIterator.close();
+            }
+        }
+
+        private class RangeBatchIterator implements Iterator<Set<Range>> {
+            private Set<Range> firstRanges;
+
+            RangeBatchIterator(final Set<Range> firstRanges) {
+                this.firstRanges = firstRanges;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return null != firstRanges || idsIterator.hasNext();
+            }
+
+            @Override
+            public Set<Range> next() {
+                if (null != firstRanges) {
+                    final Set<Range> ranges = firstRanges;
+                    firstRanges = null;
+                    return ranges;
+                }
+                if (!idsIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return nextRanges(idsIterator);
+            }
         }
     }
 }
@@ -19,7 +19,9 @@ package uk.gov.gchq.gaffer.accumulostore.retriever;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
 import org.slf4j.Logger;
@@ -29,6 +31,7 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.RangeFactory;
+import uk.gov.gchq.gaffer.accumulostore.utils.PropertyProjection;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -54,6 +57,7 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
     protected final OP operation;
     protected final AccumuloElementConverter elementConverter;
     protected final IteratorSetting[] iteratorSettings;
+    protected final PropertyProjection propertyProjection;
 
     protected AccumuloRetriever(final AccumuloStore store, final OP operation,
                                 final User user, final IteratorSetting... iteratorSettings)
@@ -64,6 +68,7 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
         this.elementConverter = store.getKeyPackage().getKeyConverter();
         this.operation = operation;
         this.iteratorSettings = iteratorSettings;
+        this.propertyProjection = new PropertyProjection(operation.getView(), store.getSchema());
         this.user = user;
         if (null != user && null != user.getDataAuths()) {
             this.authorisations = new Authorizations(
@@ -73,6 +78,20 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
         }
     }
 
+    /**
+     * Creates an element from an Accumulo key and value, only deserialising
+     * the properties that are needed for the operation's view.
+     *
+     * @param key                  the Key containing serialised parts of the Element
+     * @param value                the Value containing serialised properties of the Element
+     * @param includeMatchedVertex if true then the matchedVertex field is set on Edges
+     * @return the element
+     */
+    protected Element getElement(final Key key, final Value value, final boolean includeMatchedVertex) {
+        final String group = elementConverter.getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
+        return elementConverter.getFullElement(key, value, includeMatchedVertex, propertyProjection.getProperties(group));
+    }
+
     /**
      * Performs any transformations specified in a view on an element
      *
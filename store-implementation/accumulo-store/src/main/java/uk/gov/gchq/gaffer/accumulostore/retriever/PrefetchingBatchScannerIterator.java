@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CloseableIterator} over the entries of a sequence of
+ * {@link BatchScanner}s, one per batch of ranges. The ranges are built and the
+ * scanners opened and read on a background thread, which keeps up to
+ * prefetchDepth scanners open ahead of the one currently being read, so the
+ * tablet servers are kept busy whilst the entries are consumed.
+ * At most maxEntries entries are held in memory waiting to be returned.
+ * <p>
+ * The entries of each scanner are returned in the order the scanners were
+ * created, as if each scanner was only opened once the previous one was read.
+ * </p>
+ * <p>
+ * The background thread is taken from the executor passed in, which is
+ * expected to be bounded. If the entries are not read within the timeout the
+ * iterator is treated as abandoned: the background thread stops and closes the
+ * scanners, and reading any further entries fails.
+ * </p>
+ */
+public class PrefetchingBatchScannerIterator implements CloseableIterator<Entry<Key, Value>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingBatchScannerIterator.class);
+    private static final Object END = new Object();
+    private static final long OFFER_INTERVAL_MILLIS = 100L;
+
+    private final Iterator<Set<Range>> rangeBatches;
+    private final ScannerFactory scannerFactory;
+    private final int prefetchDepth;
+    private final BlockingQueue<Object> entries;
+    private final long timeoutMillis;
+    private final Future<?> producer;
+    private volatile boolean closed;
+    private volatile boolean abandoned;
+    private boolean finished;
+    private Entry<Key, Value> nextEntry;
+
+    /**
+     * @param rangeBatches   the batches of ranges, one per scanner. This is read on the background thread.
+     * @param scannerFactory creates a scanner for a batch of ranges
+     * @param prefetchDepth  the number of scanners to open ahead of the one being read
+     * @param maxEntries     the maximum number of entries read but not yet returned
+     * @param executor       the executor to run the background thread on
+     * @param timeoutMillis  the time after which unread entries are abandoned
+     * @throws java.util.concurrent.RejectedExecutionException if the executor has no thread available
+     */
+    public PrefetchingBatchScannerIterator(final Iterator<Set<Range>> rangeBatches,
+                                           final ScannerFactory scannerFactory,
+                                           final int prefetchDepth,
+                                           final int maxEntries,
+                                           final ExecutorService executor,
+                                           final long timeoutMillis) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("Prefetch depth must be at least 1 but was " + prefetchDepth);
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max prefetched entries must be at least 1 but was " + maxEntries);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Prefetch timeout must be at least 1 but was " + timeoutMillis);
+        }
+        this.rangeBatches = rangeBatches;
+        this.scannerFactory = scannerFactory;
+        this.prefetchDepth = prefetchDepth;
+        this.entries = new ArrayBlockingQueue<>(maxEntries);
+        this.timeoutMillis = timeoutMillis;
+        this.producer = executor.submit(this::produce);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (null == nextEntry && !finished && !abandoned) {
+            final Object item;
+            try {
+                item = entries.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Interrupted whilst waiting for entries", e);
+            }
+
+            if (END == item) {
+                finished = true;
+            } else if (item instanceof RuntimeException) {
+                close();
+                throw (RuntimeException) item;
+            } else {
+                nextEntry = (Entry<Key, Value>) item;
+            }
+        }
+        if (abandoned) {
+            nextEntry = null;
+            throw new RuntimeException("The prefetched entries were not read within " + timeoutMillis + "ms, so the scanners were closed");
+        }
+        return null != nextEntry;
+    }
+
+    @Override
+    public Entry<Key, Value> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Entry<Key, Value> entry = nextEntry;
+        nextEntry = null;
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            finished = true;
+            producer.cancel(true);
+            entries.clear();
+        }
+    }
+
+    private void produce() {
+        final Deque<OpenScanner> openScanners = new ArrayDeque<>(prefetchDepth + 1);
+        try {
+            openScanners(openScanners);
+            while (!closed && !openScanners.isEmpty()) {
+                final OpenScanner current = openScanners.peek();
+                while (!closed && current.iterator.hasNext()) {
+                    if (!offer(current.iterator.next())) {
+                        return;
+                    }
+                }
+                openScanners.poll().scanner.close();
+                openScanners(openScanners);
+            }
+            offer(END);
+        } catch (final TableNotFoundException | StoreException e) {
+            if (!closed) {
+                offer(new RuntimeException("Unable to create a batch scanner: " + e.getMessage(), e));
+            }
+        } catch (final RuntimeException e) {
+            if (!closed) {
+                offer(e);
+            }
+        } finally {
+            for (final OpenScanner openScanner : openScanners) {
+                openScanner.scanner.close();
+            }
+        }
+    }
+
+    // Opens scanners until prefetchDepth are open ahead of the one being read
+    private void openScanners(final Deque<OpenScanner> openScanners) throws TableNotFoundException, StoreException {
+        while (!closed && openScanners.size() <= prefetchDepth && rangeBatches.hasNext()) {
+            final BatchScanner scanner = scannerFactory.getScanner(rangeBatches.next());
+            // Creating the iterator starts the scanner fetching results
+            openScanners.add(new OpenScanner(scanner, scanner.iterator()));
+        }
+    }
+
+    // Adds an item to the queue, waiting whilst it is full. Returns false if
+    // the iterator is closed, or it is abandoned because the queue stays full
+    // for longer than the timeout.
+    private boolean offer(final Object item) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (!closed) {
+                if (entries.offer(item, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    LOGGER.warn("Closing prefetching batch scanners as their entries were not read within {}ms", timeoutMillis);
+                    abandoned = true;
+                    closed = true;
+                    // Wake up a reader that is waiting for an entry
+                    entries.clear();
+                    entries.offer(END);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Creates a configured {@link BatchScanner} for a set of ranges.
+     */
+    @FunctionalInterface
+    public interface ScannerFactory {
+        BatchScanner getScanner(final Set<Range> ranges) throws TableNotFoundException, StoreException;
+    }
+
+    private static final class OpenScanner {
+        private final BatchScanner scanner;
+        private final Iterator<Entry<Key, Value>> iterator;
+
+        private OpenScanner(final BatchScanner scanner, final Iterator<Entry<Key, Value>> iterator) {
+            this.scanner = scanner;
+            this.iterator = iterator;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static uk.gov.gchq.gaffer.accumulostore.AccumuloStore.FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS;
+
+/**
+ * Converts {@link Element}s into Accumulo {@link Mutation}s and adds them to
+ * a {@link BatchWriter}, either on the calling thread or split into batches
+ * that are converted concurrently.
+ * Failures to convert or write an element are logged and the element is
+ * skipped.
+ * <p>
+ * The {@link ColumnVisibility} for each distinct visibility is only parsed
+ * once per writer.
+ * </p>
+ */
+public class ElementMutationWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElementMutationWriter.class);
+    private static final int MAX_CACHED_VISIBILITIES = 10000;
+
+    private final AccumuloElementConverter converter;
+    private final BatchWriter writer;
+    private final Map<Text, ColumnVisibility> visibilities = new ConcurrentHashMap<>();
+
+    public ElementMutationWriter(final AccumuloElementConverter converter, final BatchWriter writer) {
+        this.converter = converter;
+        this.writer = writer;
+    }
+
+    /**
+     * Converts and writes the elements on the calling thread.
+     *
+     * @param elements the elements to write
+     */
+    public void write(final Iterable<? extends Element> elements) {
+        for (final Element element : elements) {
+            write(element);
+        }
+    }
+
+    /**
+     * Converts and writes the elements using the given executor. The elements
+     * are read on the calling thread and handed to the executor in batches,
+     * with at most twice numThreads batches waiting or in progress at a time.
+     *
+     * @param elements   the elements to write
+     * @param executor   the executor to convert the elements on
+     * @param numThreads the number of threads the executor will use
+     * @param batchSize  the number of elements in each batch
+     * @throws StoreException if the writing is interrupted or fails unexpectedly
+     */
+    public void write(final Iterable<? extends Element> elements, final ExecutorService executor,
+                      final int numThreads, final int batchSize) throws StoreException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Ingest batch size must be at least 1 but was " + batchSize);
+        }
+
+        final int maxBatches = 2 * Math.max(1, numThreads);
+        final Deque<Future<?>> batches = new ArrayDeque<>(maxBatches);
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : elements) {
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    if (batches.size() >= maxBatches) {
+                        waitFor(batches.poll());
+                    }
+                    batches.add(submit(batch, executor));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(submit(batch, executor));
+            }
+            while (!batches.isEmpty()) {
+                waitFor(batches.poll());
+            }
+        } finally {
+            for (final Future<?> remaining : batches) {
+                remaining.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Converts and writes a single element.
+     *
+     * @param element the element to write
+     */
+    public void write(final Element element) {
+        final Pair<Key, Key> keys;
+        try {
+            keys = converter.getKeysFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
+            return;
+        }
+        final Value value;
+        try {
+            value = converter.getValueFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
+            return;
+        }
+        try {
+            writer.addMutation(createMutation(keys.getFirst(), value));
+        } catch (final MutationsRejectedException e) {
+            LOGGER.error("Failed to create an accumulo key mutation");
+            return;
+        }
+        // If the GraphElement is a Vertex then there will only be 1 key,
+        // and the second will be null.
+        // If the GraphElement is an Edge then there will be 2 keys.
+        if (null != keys.getSecond()) {
+            try {
+                writer.addMutation(createMutation(keys.getSecond(), value));
+            } catch (final MutationsRejectedException e) {
+                LOGGER.error("Failed to create an accumulo key mutation");
+            }
+        }
+    }
+
+    private Mutation createMutation(final Key key, final Value value) {
+        final Mutation mutation = new Mutation(key.getRow());
+        mutation.put(key.getColumnFamily(), key.getColumnQualifier(),
+                getColumnVisibility(key.getColumnVisibility()), key.getTimestamp(), value);
+        return mutation;
+    }
+
+    private ColumnVisibility getColumnVisibility(final Text visibility) {
+        ColumnVisibility columnVisibility = visibilities.get(visibility);
+        if (null == columnVisibility) {
+            if (visibilities.size() >= MAX_CACHED_VISIBILITIES) {
+                visibilities.clear();
+            }
+            columnVisibility = new ColumnVisibility(visibility);
+            visibilities.put(visibility, columnVisibility);
+        }
+        return columnVisibility;
+    }
+
+    private Future<?> submit(final List<Element> batch, final ExecutorService executor) {
+        return executor.submit(() -> {
+            for (final Element element : batch) {
+                write(element);
+            }
+        });
+    }
+
+    private void waitFor(final Future<?> batch) throws StoreException {
+        try {
+            batch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst adding elements", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new StoreException("Failed to add elements: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches the schemas, views and element converters created from the options
+ * given to Gaffer's Accumulo iterators, so iterators initialised with the same
+ * options on a tablet server do not have to parse and deserialise the json
+ * again.
+ * <p>
+ * The parsed json trees are only ever read, so they are shared between
+ * threads. Schemas, views and element converters hold filters and aggregators
+ * that reuse tuples between calls, so they are cached for each thread and are
+ * shared by the iterators initialised on that thread, as they already are by
+ * deep copies of an iterator.
+ * </p>
+ */
+public final class IteratorOptionsCache {
+    private static final int MAX_ENTRIES = 100;
+    private static final int MAX_ENTRIES_PER_THREAD = 20;
+
+    private static final ConcurrentMap<String, JsonNode> TREES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadCache> INSTANCES = ThreadLocal.withInitial(ThreadCache::new);
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private IteratorOptionsCache() {
+        // private to prevent this class being instantiated.
+        // All methods are static and should be called directly.
+    }
+
+    /**
+     * Gets the schema for the json, deserialising it if it has not already
+     * been deserialised on this thread.
+     *
+     * @param schemaJson the json schema
+     * @return the schema, which should not be modified or shared with other threads
+     * @throws SchemaException if the json is not a valid schema
+     */
+    public static Schema getSchema(final String schemaJson) {
+        return (Schema) getInstances().computeIfAbsent(new CacheKey(Schema.class, null, schemaJson),
+                key -> new Schema.Builder()
+                        .merge(treeToValue(schemaJson, Schema.class))
+                        .build());
+    }
+
+    /**
+     * Gets the view for the json, deserialising it if it has not already been
+     * deserialised on this thread.
+     *
+     * @param viewJson the json view
+     * @return the view, which should not be modified or shared with other threads
+     * @throws SchemaException if the json is not a valid view
+     */
+    public static View getView(final String viewJson) {
+        return (View) getInstances().computeIfAbsent(new CacheKey(View.class, null, viewJson),
+                key -> new View.Builder()
+                        .merge(treeToValue(viewJson, View.class))
+                        .build());
+    }
+
+    /**
+     * Gets an element converter of the given class for the json schema,
+     * creating it if one has not already been created on this thread. The
+     * converter uses the schema returned by {@link #getSchema(String)}.
+     *
+     * @param converterClass the class name of the element converter
+     * @param schemaJson     the json schema
+     * @return the element converter, which should not be shared with other threads
+     * @throws ReflectiveOperationException if the converter could not be created
+     */
+    public static AccumuloElementConverter getElementConverter(final String converterClass, final String schemaJson)
+            throws ReflectiveOperationException {
+        final CacheKey key = new CacheKey(AccumuloElementConverter.class, converterClass, schemaJson);
+        final ThreadCache instances = getInstances();
+        AccumuloElementConverter converter = (AccumuloElementConverter) instances.get(key);
+        if (null == converter) {
+            converter = Class.forName(converterClass)
+                    .asSubclass(AccumuloElementConverter.class)
+                    .getConstructor(Schema.class)
+                    .newInstance(getSchema(schemaJson));
+            instances.put(key, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Clears the cached json trees and the schemas, views and element
+     * converters cached on every thread.
+     */
+    public static void clear() {
+        GENERATION.incrementAndGet();
+        TREES.clear();
+    }
+
+    private static ThreadCache getInstances() {
+        final ThreadCache instances = INSTANCES.get();
+        final int current = GENERATION.get();
+        if (instances.generation != current) {
+            instances.clear();
+            instances.generation = current;
+        }
+        return instances;
+    }
+
+    // Package-private for testing
+    static JsonNode getTree(final String json) {
+        JsonNode tree = TREES.get(json);
+        if (null == tree) {
+            try {
+                tree = JSONSerialiser.getMapper().readTree(StringUtil.toBytes(json));
+            } catch (final IOException e) {
+                throw new SchemaException("Unable to parse json: " + e.getMessage(), e);
+            }
+            if (TREES.size() >= MAX_ENTRIES) {
+                TREES.clear();
+            }
+            TREES.putIfAbsent(json, tree);
+        }
+        return tree;
+    }
+
+    private static <T> T treeToValue(final String json, final Class<T> clazz) {
+        try {
+            return JSONSerialiser.getMapper().treeToValue(getTree(json), clazz);
+        } catch (final JsonProcessingException e) {
+            throw new SchemaException("Unable to deserialise " + clazz.getSimpleName() + " from json: " + e.getMessage(), e);
+        }
+    }
+
+    // The least recently used instances created on a thread
+    private static final class ThreadCache extends LinkedHashMap<CacheKey, Object> {
+        private static final long serialVersionUID = 2960432207183938727L;
+        private int generation = GENERATION.get();
+
+        private ThreadCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<CacheKey, Object> eldest) {
+            return size() > MAX_ENTRIES_PER_THREAD;
+        }
+    }
+
+    private static final class CacheKey {
+        private final Class<?> type;
+        private final String converterClass;
+        private final String json;
+
+        private CacheKey(final Class<?> type, final String converterClass, final String json) {
+            this.type = type;
+            this.converterClass = converterClass;
+            this.json = json;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (null == obj || getClass() != obj.getClass()) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return type.equals(other.type)
+                    && Objects.equals(converterClass, other.converterClass)
+                    && Objects.equals(json, other.json);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, converterClass, json);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.koryphe.tuple.function.TupleAdaptedFunction;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The properties of each group that are needed to answer a query with a given
+ * {@link View}. These are the properties the view returns, plus any properties
+ * selected by the view's transform functions and post transform filters, which
+ * are applied on the client before the unwanted properties are removed.
+ * Properties outside the projection do not need to be deserialised.
+ */
+public class PropertyProjection {
+    private final Map<String, Set<String>> propertiesByGroup = new HashMap<>();
+
+    public PropertyProjection(final View view, final Schema schema) {
+        if (null != view && null != schema) {
+            for (final String group : view.getGroups()) {
+                final Set<String> properties = createProperties(group, view, schema);
+                if (null != properties) {
+                    propertiesByGroup.put(group, properties);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the names of the properties that are needed for the given group.
+     *
+     * @param group the group
+     * @return the names of the needed properties, or null if all of the
+     * properties are needed
+     */
+    public Set<String> getProperties(final String group) {
+        return propertiesByGroup.get(group);
+    }
+
+    private static Set<String> createProperties(final String group, final View view, final Schema schema) {
+        final ViewElementDefinition viewElementDef = view.getElement(group);
+        final SchemaElementDefinition schemaElementDef = schema.getElement(group);
+        if (null == viewElementDef || null == schemaElementDef || viewElementDef.isAllProperties()) {
+            return null;
+        }
+
+        final Set<String> properties;
+        if (null != viewElementDef.getProperties()) {
+            properties = new HashSet<>(viewElementDef.getProperties());
+        } else {
+            properties = new HashSet<>(schemaElementDef.getProperties());
+            properties.removeAll(viewElementDef.getExcludeProperties());
+        }
+
+        addTransformSelections(viewElementDef.getTransformFunctions(), properties);
+        addFilterSelections(viewElementDef.getPostTransformFilterFunctions(), properties);
+
+        if (properties.containsAll(schemaElementDef.getProperties())) {
+            return null;
+        }
+        return Collections.unmodifiableSet(properties);
+    }
+
+    private static void addTransformSelections(final List<TupleAdaptedFunction<String, ?, ?>> functions, final Set<String> properties) {
+        if (null != functions) {
+            for (final TupleAdaptedFunction<String, ?, ?> function : functions) {
+                if (null != function.getSelection()) {
+                    properties.addAll(Arrays.asList(function.getSelection()));
+                }
+            }
+        }
+    }
+
+    private static void addFilterSelections(final List<TupleAdaptedPredicate<String, ?>> predicates, final Set<String> properties) {
+        if (null != predicates) {
+            for (final TupleAdaptedPredicate<String, ?> predicate : predicates) {
+                if (null != predicate.getSelection()) {
+                    properties.addAll(Arrays.asList(predicate.getSelection()));
+                }
+            }
+        }
+    }
+}
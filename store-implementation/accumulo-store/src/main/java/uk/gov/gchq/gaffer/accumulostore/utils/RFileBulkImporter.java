@@ -0,0 +1,255 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.rfile.RFile;
+import org.apache.accumulo.core.client.rfile.RFileWriter;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static uk.gov.gchq.gaffer.accumulostore.AccumuloStore.FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS;
+
+/**
+ * Bulk imports {@link Element}s into an {@link AccumuloStore} without a
+ * MapReduce job.
+ * The elements are converted into key-values which are sorted in memory,
+ * aggregating key-values with the same key using the schema's ingest
+ * aggregator, as the {@link uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator}
+ * would. Whenever the configured maximum number of key-values is reached they
+ * are written to RFiles, one per tablet, under the store's bulk import
+ * directory. Once all the elements have been read the files are imported into
+ * the table.
+ */
+public class RFileBulkImporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RFileBulkImporter.class);
+
+    private final AccumuloStore store;
+    private final AccumuloElementConverter converter;
+    private final Schema schema;
+    private final Set<String> aggregatedGroups;
+    private final int maxEntriesInMemory;
+
+    public RFileBulkImporter(final AccumuloStore store) {
+        this.store = store;
+        this.converter = store.getKeyPackage().getKeyConverter();
+        this.schema = store.getSchema();
+        this.aggregatedGroups = new HashSet<>(schema.getAggregatedGroups());
+        this.maxEntriesInMemory = store.getProperties().getBulkImportMaxEntriesInMemory();
+        if (maxEntriesInMemory < 1) {
+            throw new IllegalArgumentException("Bulk import max entries in memory must be at least 1 but was " + maxEntriesInMemory);
+        }
+    }
+
+    /**
+     * Converts, sorts and writes the elements to RFiles and then imports
+     * the files into the store's table.
+     *
+     * @param elements the elements to import
+     * @throws StoreException if the files could not be written or imported
+     */
+    public void importElements(final Iterable<? extends Element> elements) throws StoreException {
+        if (null == elements) {
+            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        }
+        TableUtils.ensureTableExists(store);
+
+        final Path workingDir = new Path(store.getProperties().getBulkImportDirectory(), store.getTableName() + "-" + UUID.randomUUID());
+        final Path filesDir = new Path(workingDir, "files");
+        final Path failuresDir = new Path(workingDir, "failures");
+        boolean deleteWorkingDir = true;
+        final FileSystem fs;
+        try {
+            fs = workingDir.getFileSystem(new Configuration());
+        } catch (final IOException e) {
+            throw new StoreException("Failed to get the file system for " + workingDir, e);
+        }
+
+        try {
+            fs.mkdirs(filesDir);
+            fs.mkdirs(failuresDir);
+            IngestUtils.setDirectoryPermsForAccumulo(fs, workingDir);
+
+            final List<Text> splits = new ArrayList<>(store.getConnection().tableOperations().listSplits(store.getTableName()));
+            final int numFiles = writeFiles(elements, fs, filesDir, splits);
+            if (0 == numFiles) {
+                LOGGER.info("No elements to bulk import into table {}", store.getTableName());
+                return;
+            }
+
+            LOGGER.info("Importing {} files in {} to table {}", numFiles, filesDir, store.getTableName());
+            importFiles(fs, filesDir, failuresDir);
+
+            if (0 < fs.listStatus(failuresDir).length) {
+                deleteWorkingDir = false;
+                throw new StoreException("Failed to bulk import some files into table " + store.getTableName() + ", see " + failuresDir);
+            }
+        } catch (final IOException | TableNotFoundException | AccumuloException | AccumuloSecurityException e) {
+            throw new StoreException("Failed to bulk import elements into table " + store.getTableName() + ": " + e.getMessage(), e);
+        } finally {
+            if (deleteWorkingDir) {
+                try {
+                    fs.delete(workingDir, true);
+                } catch (final IOException e) {
+                    LOGGER.warn("Failed to delete bulk import directory {}", workingDir, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Imports the RFiles that have been written into the store's table.
+     *
+     * @param fs          the file system the files were written to
+     * @param filesDir    the directory containing the files
+     * @param failuresDir the directory to move any files that fail to import to
+     * @throws TableNotFoundException    if the table does not exist
+     * @throws IOException               if the files could not be read
+     * @throws AccumuloException         if the import fails
+     * @throws AccumuloSecurityException if the user is not allowed to import
+     * @throws StoreException            if the store could not connect to Accumulo
+     */
+    protected void importFiles(final FileSystem fs, final Path filesDir, final Path failuresDir)
+            throws TableNotFoundException, IOException, AccumuloException, AccumuloSecurityException, StoreException {
+        store.getConnection().tableOperations().importDirectory(store.getTableName(), filesDir.toString(), failuresDir.toString(), false);
+    }
+
+    private int writeFiles(final Iterable<? extends Element> elements, final FileSystem fs, final Path filesDir, final List<Text> splits) throws IOException {
+        int numFiles = 0;
+        int numEntries = 0;
+        final TreeMap<Key, List<Value>> entries = new TreeMap<>();
+        for (final Element element : elements) {
+            final Pair<Key, Key> keys;
+            final Value value;
+            try {
+                keys = converter.getKeysFromElement(element);
+                value = converter.getValueFromElement(element);
+            } catch (final AccumuloElementConversionException e) {
+                LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key or value", element.getGroup());
+                continue;
+            }
+            numEntries += add(entries, element.getGroup(), keys.getFirst(), value);
+            // If the element is an Edge there will be a second key.
+            if (null != keys.getSecond()) {
+                numEntries += add(entries, element.getGroup(), keys.getSecond(), value);
+            }
+
+            if (numEntries >= maxEntriesInMemory) {
+                numFiles = writeFiles(entries, fs, filesDir, splits, numFiles);
+                entries.clear();
+                numEntries = 0;
+            }
+        }
+        return writeFiles(entries, fs, filesDir, splits, numFiles);
+    }
+
+    // Adds the key-value, aggregating it with an existing value for the same
+    // key if the group is aggregated, and returns the number of new entries.
+    private int add(final TreeMap<Key, List<Value>> entries, final String group, final Key key, final Value value) {
+        final List<Value> values = entries.get(key);
+        if (null == values) {
+            final List<Value> newValues = new ArrayList<>(1);
+            newValues.add(value);
+            entries.put(key, newValues);
+            return 1;
+        }
+
+        if (aggregatedGroups.contains(group)) {
+            final ElementAggregator aggregator = schema.getElement(group).getIngestAggregator();
+            final Properties aggregatedProperties = aggregator.apply(
+                    converter.getPropertiesFromValue(group, values.get(0)),
+                    converter.getPropertiesFromValue(group, value));
+            values.set(0, converter.getValueFromProperties(group, aggregatedProperties));
+            return 0;
+        }
+
+        values.add(value);
+        return 1;
+    }
+
+    // Writes the sorted key-values to one file per tablet, returning the total
+    // number of files written so far.
+    private int writeFiles(final TreeMap<Key, List<Value>> entries, final FileSystem fs, final Path filesDir,
+                           final List<Text> splits, final int numFilesWritten) throws IOException {
+        int numFiles = numFilesWritten;
+        int tablet = -1;
+        RFileWriter writer = null;
+        try {
+            for (final Map.Entry<Key, List<Value>> entry : entries.entrySet()) {
+                final int entryTablet = getTablet(entry.getKey(), splits, Math.max(tablet, 0));
+                if (null == writer || entryTablet != tablet) {
+                    if (null != writer) {
+                        writer.close();
+                    }
+                    tablet = entryTablet;
+                    writer = RFile.newWriter()
+                            .to(new Path(filesDir, String.format("part-%05d.rf", numFiles)).toString())
+                            .withFileSystem(fs)
+                            .build();
+                    numFiles++;
+                }
+                for (final Value value : entry.getValue()) {
+                    writer.append(entry.getKey(), value);
+                }
+            }
+        } finally {
+            if (null != writer) {
+                writer.close();
+            }
+        }
+        return numFiles;
+    }
+
+    // The tablets are ordered, so the search can start from the current tablet.
+    private int getTablet(final Key key, final List<Text> splits, final int fromTablet) {
+        int tablet = fromTablet;
+        while (tablet < splits.size() && key.compareRow(splits.get(tablet)) > 0) {
+            tablet++;
+        }
+        return tablet;
+    }
+}
@@ -81,6 +81,7 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
 
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -133,6 +134,21 @@ public class AccumuloStoreTest {
         assertTrue(connector.tableOperations().exists(BYTE_ENTITY_STORE.getTableName()));
     }
 
+    @Test
+    public void shouldShutDownExecutorsWhenClosed() {
+        // Given
+        final ExecutorService ingestExecutor = BYTE_ENTITY_STORE.getIngestExecutorService();
+        final ExecutorService prefetchExecutor = BYTE_ENTITY_STORE.getPrefetchExecutorService();
+
+        // When
+        BYTE_ENTITY_STORE.close();
+
+        // Then
+        assertTrue(ingestExecutor.isShutdown());
+        assertTrue(prefetchExecutor.isShutdown());
+        assertFalse(BYTE_ENTITY_STORE.getIngestExecutorService().isShutdown());
+    }
+
     @Test
     public void shouldCreateAStoreUsingTableName() throws Exception {
         // Given
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.accumulostore.key;
 
+import com.google.common.collect.Sets;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,12 +39,15 @@ import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.serialisation.FreqMapSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
 import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import uk.gov.gchq.gaffer.types.FreqMap;
 import uk.gov.gchq.gaffer.types.function.FreqMapAggregator;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 
 import java.io.IOException;
 
@@ -517,6 +521,65 @@ public abstract class AbstractAccumuloElementConverterTest<T extends AccumuloEle
         assertEquals(entity.getProperties(), properties);
     }
 
+    @Test
+    public void shouldOnlyDeserialiseProjectedProperties() {
+        // Given
+        converter = createConverter(createGroupBySchema());
+        final FreqMap freqMap = new FreqMap();
+        freqMap.upsert("key", 1L);
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("1")
+                .dest("2")
+                .directed(true)
+                .property(TestPropertyNames.PROP_1, 1)
+                .property(TestPropertyNames.PROP_2, 2)
+                .property(TestPropertyNames.PROP_3, new FreqMap())
+                .property(TestPropertyNames.PROP_4, freqMap)
+                .build();
+        final Key key = converter.getKeysFromEdge(edge).getSecond();
+        final Value value = converter.getValueFromElement(edge);
+
+        // When
+        final Edge result = (Edge) converter.getFullElement(key, value, true,
+                Sets.newHashSet(TestPropertyNames.PROP_2, TestPropertyNames.PROP_4));
+
+        // Then
+        final Edge expected = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("1")
+                .dest("2")
+                .directed(true)
+                .matchedVertex(EdgeId.MatchedVertex.DESTINATION)
+                .property(TestPropertyNames.PROP_2, 2)
+                .property(TestPropertyNames.PROP_4, freqMap)
+                .build();
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldDeserialiseAllPropertiesWhenNoProjection() {
+        // Given
+        converter = createConverter(createGroupBySchema());
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("1")
+                .property(TestPropertyNames.PROP_1, 1)
+                .property(TestPropertyNames.PROP_2, 2)
+                .property(TestPropertyNames.PROP_3, new FreqMap())
+                .property(TestPropertyNames.PROP_4, new FreqMap())
+                .build();
+        final Key key = converter.getKeyFromEntity(entity);
+        final Value value = converter.getValueFromElement(entity);
+
+        // When
+        final Entity result = (Entity) converter.getFullElement(key, value, false, null);
+
+        // Then
+        assertThat(result).isEqualTo(entity);
+        assertThat(result).isEqualTo(converter.getFullElement(key, value, false));
+    }
+
     @Test
     public void shouldDeserialiseEntityId() {
         // Given 
@@ -600,4 +663,42 @@ public abstract class AbstractAccumuloElementConverterTest<T extends AccumuloEle
         // Then
         assertEquals(expectedElementId, elementId);
     }
+
+    private Schema createGroupBySchema() {
+        final TypeDefinition mapType = new TypeDefinition.Builder()
+                .clazz(FreqMap.class)
+                .aggregateFunction(new FreqMapAggregator())
+                .serialiser(new FreqMapSerialiser())
+                .build();
+        final TypeDefinition intType = new TypeDefinition.Builder()
+                .clazz(Integer.class)
+                .aggregateFunction(new Sum())
+                .serialiser(new CompactRawIntegerSerialiser())
+                .build();
+        return new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "int")
+                        .property(TestPropertyNames.PROP_2, "int")
+                        .property(TestPropertyNames.PROP_3, "map")
+                        .property(TestPropertyNames.PROP_4, "map")
+                        .groupBy(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                        .build())
+                .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(TestPropertyNames.PROP_1, "int")
+                        .property(TestPropertyNames.PROP_2, "int")
+                        .property(TestPropertyNames.PROP_3, "map")
+                        .property(TestPropertyNames.PROP_4, "map")
+                        .groupBy(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                        .build())
+                .type("string", String.class)
+                .type("true", Boolean.class)
+                .type("int", intType)
+                .type("map", mapType)
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+    }
 }
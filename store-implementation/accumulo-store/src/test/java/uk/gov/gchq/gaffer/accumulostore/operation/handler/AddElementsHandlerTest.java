@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.rfile.RFile;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.RFileBulkImporter;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AddElementsHandlerTest {
+    private static final int NUM_ENTRIES = 100;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AddElementsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AddElementsHandlerTest.class));
+
+    private AccumuloStore store;
+
+    @BeforeEach
+    public void reInitialise() throws Exception {
+        store = new SingleUseMiniAccumuloStore();
+    }
+
+    @Test
+    public void shouldBulkImportAndAggregateElements() throws Exception {
+        // Given
+        store.initialise("bulkImportGraph", SCHEMA, PROPERTIES);
+        addSplits();
+
+        // When
+        bulkImport(createElements());
+        bulkImport(createElements());
+
+        // Then
+        assertAllElementsAggregated();
+    }
+
+    @Test
+    public void shouldBulkImportElementsWhenTheyDoNotAllFitInMemory() throws Exception {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setBulkImportMaxEntriesInMemory("7");
+        store.initialise("bulkImportGraph", SCHEMA, properties);
+        addSplits();
+        final List<Element> elements = createElements();
+        elements.addAll(createElements());
+
+        // When
+        bulkImport(elements);
+
+        // Then
+        assertAllElementsAggregated();
+    }
+
+    @Test
+    public void shouldAggregateKeyValuesBeforeWritingFiles() throws Exception {
+        // Given
+        store.initialise("bulkImportGraph", SCHEMA, PROPERTIES);
+        addSplits();
+        final List<Element> elements = createElements();
+        elements.addAll(createElements());
+        final AccumuloElementConverter converter = store.getKeyPackage().getKeyConverter();
+        final List<Element> writtenElements = new ArrayList<>();
+        final RFileBulkImporter importer = new RFileBulkImporter(store) {
+            @Override
+            protected void importFiles(final FileSystem fs, final Path filesDir, final Path failuresDir)
+                    throws TableNotFoundException, IOException, AccumuloException, AccumuloSecurityException, StoreException {
+                // Read the key-values exactly as they were written, before the table's aggregator sees them
+                for (final FileStatus file : fs.listStatus(filesDir)) {
+                    try (final Scanner scanner = RFile.newScanner().from(file.getPath().toString()).withFileSystem(fs).build()) {
+                        for (final Map.Entry<Key, Value> entry : scanner) {
+                            writtenElements.add(converter.getFullElement(entry.getKey(), entry.getValue(), false));
+                        }
+                    }
+                }
+                super.importFiles(fs, filesDir, failuresDir);
+            }
+        };
+
+        // When
+        importer.importElements(elements);
+
+        // Then
+        // One key-value per entity and two per edge, each already aggregated
+        assertThat(writtenElements)
+                .hasSize(3 * NUM_ENTRIES)
+                .allMatch(element -> Integer.valueOf(2).equals(element.getProperty(AccumuloPropertyNames.COUNT)));
+        assertAllElementsAggregated();
+    }
+
+    private void addSplits() throws Exception {
+        store.getConnection().tableOperations().addSplits(store.getTableName(),
+                new TreeSet<>(Lists.newArrayList(new Text("3"), new Text("6"))));
+    }
+
+    private void bulkImport(final List<Element> elements) throws Exception {
+        final AddElements addElements = new AddElements.Builder()
+                .input(elements)
+                .option(AccumuloStoreConstants.ADD_ELEMENTS_BULK_IMPORT, "true")
+                .build();
+        new AddElementsHandler().doOperation(addElements, new Context(new User()), store);
+    }
+
+    private void assertAllElementsAggregated() throws Exception {
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+        final List<Element> results = Lists.newArrayList(store.execute(getAllElements, new Context(new User())));
+        assertThat(results)
+                .hasSize(2 * NUM_ENTRIES)
+                .allMatch(element -> Integer.valueOf(2).equals(element.getProperty(AccumuloPropertyNames.COUNT)));
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("" + i)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("" + i)
+                    .dest("" + (i + 1))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
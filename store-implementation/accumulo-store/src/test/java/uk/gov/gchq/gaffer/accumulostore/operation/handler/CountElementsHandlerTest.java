@@ -0,0 +1,235 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.id.DirectedType;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
+import uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountElementsHandlerTest {
+    private static final int NUM_VERTICES = 20;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(CountElementsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(CountElementsHandlerTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(CountElementsHandlerTest.class, "/accumuloStoreClassicKeys.properties"));
+    private static final User USER = new User();
+
+    private static AccumuloStore byteEntityStore;
+    private static AccumuloStore gaffer1KeyStore;
+
+    @BeforeAll
+    public static void setup() throws StoreException, OperationException {
+        byteEntityStore = new SingleUseMiniAccumuloStore();
+        byteEntityStore.initialise("byteEntityGraph", SCHEMA, PROPERTIES);
+        gaffer1KeyStore = new SingleUseMiniAccumuloStore();
+        gaffer1KeyStore.initialise("gaffer1Graph", SCHEMA, CLASSIC_PROPERTIES);
+
+        final List<Element> elements = createElements();
+        byteEntityStore.execute(new AddElements.Builder().input(elements).build(), new Context(USER));
+        gaffer1KeyStore.execute(new AddElements.Builder().input(elements).build(), new Context(USER));
+    }
+
+    @Test
+    public void shouldCountAllElementsTheSameAsGetAllElementsByteEntityStore() throws OperationException {
+        shouldCountAllElementsTheSameAsGetAllElements(byteEntityStore);
+    }
+
+    @Test
+    public void shouldCountAllElementsTheSameAsGetAllElementsGaffer1Store() throws OperationException {
+        shouldCountAllElementsTheSameAsGetAllElements(gaffer1KeyStore);
+    }
+
+    private void shouldCountAllElementsTheSameAsGetAllElements(final AccumuloStore store) throws OperationException {
+        for (final View view : createViews()) {
+            for (final DirectedType directedType : DirectedType.values()) {
+                // Given
+                final GetAllElements getAllElements = new GetAllElements.Builder()
+                        .view(view)
+                        .directedType(directedType)
+                        .build();
+
+                // When
+                final Long count = new CountElementsHandler().doOperation(
+                        new CountElements.Builder().operation(getAllElements).build(), USER, store);
+
+                // Then
+                assertThat(count).isEqualTo(countResults(getAllElements, store));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCountSeededElementsTheSameAsGetElementsByteEntityStore() throws OperationException {
+        shouldCountSeededElementsTheSameAsGetElements(byteEntityStore);
+    }
+
+    @Test
+    public void shouldCountSeededElementsTheSameAsGetElementsGaffer1Store() throws OperationException {
+        shouldCountSeededElementsTheSameAsGetElements(gaffer1KeyStore);
+    }
+
+    private void shouldCountSeededElementsTheSameAsGetElements(final AccumuloStore store) throws OperationException {
+        for (final View view : createViews()) {
+            // Given
+            final GetElements getElements = new GetElements.Builder()
+                    .input(new EntitySeed("v1"), new EntitySeed("v2"), new EntitySeed("v5"), new EntitySeed("unknown"))
+                    .view(view)
+                    .build();
+
+            // When
+            final Long count = new CountElementsHandler().doOperation(
+                    new CountElements.Builder().operation(getElements).build(), USER, store);
+
+            // Then
+            assertThat(count).isEqualTo(countResults(getElements, store))
+                    .isGreaterThan(0L);
+        }
+    }
+
+    @Test
+    public void shouldOptimiseGetAllElementsAndCountChain() throws OperationException {
+        // Given
+        final OperationChain<Long> opChain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(createViews().get(0))
+                        .build())
+                .then(new Count<>())
+                .build();
+
+        // When
+        final Long count = byteEntityStore.execute(opChain, new Context(USER));
+
+        // Then
+        assertThat(byteEntityStore.getOperationChainOptimisers()).contains(new CountElementsOperationChainOptimiser());
+        assertThat(count).isEqualTo(countResults(new GetAllElements.Builder()
+                .view(createViews().get(0))
+                .build(), byteEntityStore));
+    }
+
+    private static long countResults(final Output<CloseableIterable<? extends Element>> operation, final AccumuloStore store) throws OperationException {
+        long count = 0;
+        try (final CloseableIterable<? extends Element> elements = store.execute(operation, new Context(USER))) {
+            for (final Element element : elements) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static List<View> createViews() {
+        return Arrays.asList(
+                new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .edge(TestGroups.EDGE_2)
+                        .build(),
+                new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .preAggregationFilter(new ElementFilter.Builder()
+                                        .select(AccumuloPropertyNames.COLUMN_QUALIFIER)
+                                        .execute(new IsMoreThan(1))
+                                        .build())
+                                .build())
+                        .build(),
+                new View.Builder()
+                        .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                                .groupBy()
+                                .build())
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .groupBy()
+                                .postAggregationFilter(new ElementFilter.Builder()
+                                        .select(AccumuloPropertyNames.COUNT)
+                                        .execute(new IsMoreThan(1))
+                                        .build())
+                                .build())
+                        .build());
+    }
+
+    static List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_VERTICES; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("v" + i)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            for (int columnQualifier = 1; columnQualifier <= 2; columnQualifier++) {
+                elements.add(new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("v" + i)
+                        .dest("v" + ((i + 1) % NUM_VERTICES))
+                        .directed(true)
+                        .property(AccumuloPropertyNames.COLUMN_QUALIFIER, columnQualifier)
+                        .property(AccumuloPropertyNames.COUNT, i % 3)
+                        .build());
+            }
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE_2)
+                    .source("v" + i)
+                    .dest("v" + ((i + 2) % NUM_VERTICES))
+                    .directed(false)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            // A self edge is only stored once
+            if (0 == i % 5) {
+                elements.add(new Edge.Builder()
+                        .group(TestGroups.EDGE_2)
+                        .source("v" + i)
+                        .dest("v" + i)
+                        .directed(true)
+                        .property(AccumuloPropertyNames.COUNT, 1)
+                        .build());
+            }
+        }
+        return elements;
+    }
+}
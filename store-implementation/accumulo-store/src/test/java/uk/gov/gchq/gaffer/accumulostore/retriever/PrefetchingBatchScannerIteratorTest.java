@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class PrefetchingBatchScannerIteratorTest {
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnEntriesOfEachScannerInOrder() {
+        // Given
+        final List<BatchScanner> scanners = new ArrayList<>();
+        final PrefetchingBatchScannerIterator iterator = new PrefetchingBatchScannerIterator(
+                IntStream.range(0, 3).mapToObj(i -> Collections.singleton(new Range())).iterator(),
+                ranges -> addScanner(scanners, scanners.size() * 10, 10), 1, 5, executor, 10000L);
+
+        // When
+        final List<Entry<Key, Value>> results = new ArrayList<>();
+        iterator.forEachRemaining(results::add);
+
+        // Then
+        assertThat(results.stream().map(entry -> entry.getKey().getRow().toString()).collect(Collectors.toList()))
+                .isEqualTo(IntStream.range(0, 30).mapToObj(PrefetchingBatchScannerIteratorTest::row).collect(Collectors.toList()));
+        scanners.forEach(scanner -> verify(scanner, timeout(5000L)).close());
+    }
+
+    @Test
+    public void shouldCloseScannersAndStopWhenClosedEarly() {
+        // Given
+        final List<BatchScanner> scanners = new ArrayList<>();
+        final PrefetchingBatchScannerIterator iterator = new PrefetchingBatchScannerIterator(
+                Collections.singleton(Collections.singleton(new Range())).iterator(),
+                ranges -> addScanner(scanners, 0, 1000), 1, 1, executor, 10000L);
+
+        // When
+        iterator.next();
+        iterator.close();
+
+        // Then
+        verify(scanners.get(0), timeout(5000L)).close();
+        assertThat(iterator.hasNext()).isFalse();
+        waitForIdle();
+    }
+
+    @Test
+    public void shouldCloseScannersAndStopWhenAbandoned() {
+        // Given
+        final List<BatchScanner> scanners = new ArrayList<>();
+        final PrefetchingBatchScannerIterator iterator = new PrefetchingBatchScannerIterator(
+                Collections.singleton(Collections.singleton(new Range())).iterator(),
+                ranges -> addScanner(scanners, 0, 1000), 1, 1, executor, 100L);
+
+        // When
+        iterator.next();
+
+        // Then
+        verify(scanners.get(0), timeout(5000L)).close();
+        waitForIdle();
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(iterator::hasNext)
+                .withMessageContaining("not read within 100ms");
+    }
+
+    @Test
+    public void shouldRethrowExceptionWhenScannerCannotBeCreated() {
+        // Given
+        final PrefetchingBatchScannerIterator iterator = new PrefetchingBatchScannerIterator(
+                Collections.singleton(Collections.singleton(new Range())).iterator(),
+                ranges -> {
+                    throw new StoreException("Scanner failure");
+                }, 1, 1, executor, 10000L);
+
+        // When / Then
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(iterator::hasNext)
+                .withMessageContaining("Scanner failure")
+                .withCauseInstanceOf(StoreException.class);
+        waitForIdle();
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNoThreadIsAvailable() throws InterruptedException {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final Set<Range> ranges = Collections.singleton(new Range());
+
+        try {
+            // When / Then
+            assertThatExceptionOfType(RejectedExecutionException.class)
+                    .isThrownBy(() -> new PrefetchingBatchScannerIterator(Collections.singleton(ranges).iterator(),
+                            r -> mock(BatchScanner.class), 1, 1, executor, 10000L));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private void waitForIdle() {
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10L);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(executor.getActiveCount()).isZero();
+    }
+
+    private static BatchScanner addScanner(final List<BatchScanner> scanners, final int start, final int numEntries) {
+        final List<Entry<Key, Value>> entries = IntStream.range(start, start + numEntries)
+                .mapToObj(i -> new SimpleEntry<>(new Key(row(i)), new Value(new byte[0])))
+                .collect(Collectors.toList());
+        final BatchScanner scanner = mock(BatchScanner.class);
+        given(scanner.iterator()).willReturn(entries.iterator());
+        scanners.add(scanner);
+        return scanner;
+    }
+
+    private static String row(final int i) {
+        return String.format("%05d", i);
+    }
+}
@@ -57,10 +57,13 @@ public class AccumuloSingleIDRetrieverTest {
     private static final int NUM_ENTRIES = 1000;
     private static final AccumuloStore BYTE_ENTITY_STORE = new SingleUseMiniAccumuloStore();
     private static final AccumuloStore GAFFER_1_KEY_STORE = new SingleUseMiniAccumuloStore();
+    private static final AccumuloStore PREFETCHING_STORE = new SingleUseMiniAccumuloStore();
     private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AccumuloSingleIDRetrieverTest.class));
     private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AccumuloSingleIDRetrieverTest.class));
     private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(AccumuloSingleIDRetrieverTest.class, "/accumuloStoreClassicKeys.properties"));
 
+    private static final AccumuloProperties PREFETCHING_PROPERTIES = createPrefetchingProperties();
+
     @BeforeEach
     public void reInitialise() throws StoreException {
         BYTE_ENTITY_STORE.initialise("byteEntityGraph", SCHEMA, PROPERTIES);
@@ -100,6 +103,12 @@ public class AccumuloSingleIDRetrieverTest {
         //Should find both i-B and i-C edges and entities i
     }
 
+    @Test
+    public void testEntityIdQueryEdgesAndEntitiesWithPrefetching() throws AccumuloException, StoreException {
+        PREFETCHING_STORE.initialise("prefetchingGraph", SCHEMA, PREFETCHING_PROPERTIES);
+        testEntityIdQueryEdgesAndEntities(PREFETCHING_STORE);
+    }
+
     @Test
     public void testEntityIdQueryEdgesOnly() throws AccumuloException, StoreException {
         testEntityIdQueryEdgesOnly(BYTE_ENTITY_STORE);
@@ -323,4 +332,12 @@ public class AccumuloSingleIDRetrieverTest {
             fail("Couldn't add element: " + e);
         }
     }
+
+    private static AccumuloProperties createPrefetchingProperties() {
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("10");
+        properties.setPrefetchDepthForBatchScanner("2");
+        properties.setMaxPrefetchedEntriesForBatchScanner("5");
+        return properties;
+    }
 }
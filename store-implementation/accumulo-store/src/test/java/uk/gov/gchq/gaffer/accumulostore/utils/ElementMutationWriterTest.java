@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.data.Mutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+public class ElementMutationWriterTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", String.class)
+            .type("true", Boolean.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private final List<Mutation> mutations = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
+    private ElementMutationWriter mutationWriter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        final BatchWriter writer = mock(BatchWriter.class);
+        willAnswer(invocation -> mutations.add(invocation.getArgument(0))).given(writer).addMutation(any(Mutation.class));
+        executor = Executors.newFixedThreadPool(4);
+        mutationWriter = new ElementMutationWriter(new ByteEntityAccumuloElementConverter(SCHEMA), writer);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldWriteOneMutationForAnEntityAndTwoForAnEdge() {
+        // Given
+        final List<Element> elements = Arrays.asList(
+                new Entity.Builder().group(TestGroups.ENTITY).vertex("A").build(),
+                new Edge.Builder().group(TestGroups.EDGE).source("A").dest("B").directed(true).build());
+
+        // When
+        mutationWriter.write(elements);
+
+        // Then
+        assertThat(mutations).hasSize(3);
+    }
+
+    @Test
+    public void shouldWriteTheSameMutationsConcurrently() throws Exception {
+        // Given
+        final List<Element> elements = createEdges(1000);
+        mutationWriter.write(elements);
+        final List<Mutation> expected = new ArrayList<>(mutations);
+        mutations.clear();
+
+        // When
+        mutationWriter.write(elements, executor, 4, 7);
+
+        // Then
+        assertThat(mutations).hasSize(2000).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldSkipElementsThatCannotBeConverted() throws Exception {
+        // Given
+        final List<Element> elements = Arrays.asList(
+                new Entity.Builder().group("unknownGroup").vertex("A").build(),
+                new Entity.Builder().group(TestGroups.ENTITY).vertex("B").build());
+
+        // When
+        mutationWriter.write(elements, executor, 4, 1);
+
+        // Then
+        assertThat(mutations).hasSize(1);
+    }
+
+    @Test
+    public void shouldRejectInvalidBatchSize() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> mutationWriter.write(createEdges(1), executor, 4, 0))
+                .withMessageContaining("batch size");
+    }
+
+    private List<Element> createEdges(final int numEdges) {
+        final List<Element> elements = new ArrayList<>(numEdges);
+        for (int i = 0; i < numEdges; i++) {
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("source" + i)
+                    .dest("dest" + i)
+                    .directed(true)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IteratorOptionsCacheTest {
+    private static final String SCHEMA_JSON = StringUtil.toString(new Schema.Builder()
+            .type("string", String.class)
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build()
+            .toCompactJson());
+    private static final String VIEW_JSON = StringUtil.toString(new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .build()
+            .toCompactJson());
+
+    @AfterEach
+    public void tearDown() {
+        IteratorOptionsCache.clear();
+    }
+
+    @Test
+    public void shouldNotDeserialiseSchemaAndViewAgainOnTheSameThread() {
+        // Given
+        final Schema schema = IteratorOptionsCache.getSchema(SCHEMA_JSON);
+        final View view = IteratorOptionsCache.getView(VIEW_JSON);
+
+        // When
+        final Schema secondSchema = IteratorOptionsCache.getSchema(new String(SCHEMA_JSON));
+        final View secondView = IteratorOptionsCache.getView(new String(VIEW_JSON));
+
+        // Then
+        assertThat(schema.getEntityGroups()).containsExactly(TestGroups.ENTITY);
+        assertThat(view.getEntityGroups()).containsExactly(TestGroups.ENTITY);
+        assertThat(secondSchema).isSameAs(schema);
+        assertThat(secondView).isSameAs(view);
+    }
+
+    @Test
+    public void shouldCreateSchemaEqualToParsingTheJson() {
+        // When
+        final Schema schema = IteratorOptionsCache.getSchema(SCHEMA_JSON);
+
+        // Then
+        assertThat(schema).isEqualTo(Schema.fromJson(StringUtil.toBytes(SCHEMA_JSON)));
+    }
+
+    @Test
+    public void shouldNotCreateElementConverterAgainOnTheSameThread() throws Exception {
+        // When
+        final AccumuloElementConverter converter = IteratorOptionsCache.getElementConverter(
+                ByteEntityAccumuloElementConverter.class.getName(), SCHEMA_JSON);
+
+        // Then
+        assertThat(converter).isInstanceOf(ByteEntityAccumuloElementConverter.class);
+        assertThat(IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), new String(SCHEMA_JSON)))
+                .isSameAs(converter);
+        assertThat(IteratorOptionsCache.getElementConverter(ClassicAccumuloElementConverter.class.getName(), SCHEMA_JSON))
+                .isInstanceOf(ClassicAccumuloElementConverter.class);
+    }
+
+    @Test
+    public void shouldNotShareSchemaViewOrElementConverterBetweenThreads() throws Exception {
+        // Given
+        final Schema schema = IteratorOptionsCache.getSchema(SCHEMA_JSON);
+        final View view = IteratorOptionsCache.getView(VIEW_JSON);
+        final AccumuloElementConverter converter = IteratorOptionsCache.getElementConverter(
+                ByteEntityAccumuloElementConverter.class.getName(), SCHEMA_JSON);
+
+        // When
+        final Schema otherThreadSchema = CompletableFuture.supplyAsync(() -> IteratorOptionsCache.getSchema(SCHEMA_JSON)).get();
+        final View otherThreadView = CompletableFuture.supplyAsync(() -> IteratorOptionsCache.getView(VIEW_JSON)).get();
+        final AccumuloElementConverter otherThreadConverter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), SCHEMA_JSON);
+            } catch (final ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }).get();
+
+        // Then
+        assertThat(otherThreadSchema).isNotSameAs(schema).isEqualTo(schema);
+        assertThat(otherThreadView).isNotSameAs(view).isEqualTo(view);
+        assertThat(otherThreadConverter).isNotSameAs(converter);
+    }
+
+    @Test
+    public void shouldDeserialiseAgainAfterClear() {
+        // Given
+        final Schema schema = IteratorOptionsCache.getSchema(SCHEMA_JSON);
+
+        // When
+        IteratorOptionsCache.clear();
+
+        // Then
+        assertThat(IteratorOptionsCache.getSchema(SCHEMA_JSON)).isNotSameAs(schema).isEqualTo(schema);
+    }
+
+    @Test
+    public void shouldShareParsedTreeBetweenThreads() throws Exception {
+        // Given
+        final JsonNode tree = IteratorOptionsCache.getTree(SCHEMA_JSON);
+
+        // When
+        final JsonNode otherThreadTree = CompletableFuture.supplyAsync(() -> IteratorOptionsCache.getTree(SCHEMA_JSON)).get();
+
+        // Then
+        assertThat(otherThreadTree).isSameAs(tree);
+    }
+
+    @Test
+    public void shouldParseAgainAfterClear() {
+        // Given
+        final JsonNode tree = IteratorOptionsCache.getTree(SCHEMA_JSON);
+
+        // When
+        IteratorOptionsCache.clear();
+
+        // Then
+        assertThat(IteratorOptionsCache.getTree(SCHEMA_JSON)).isNotSameAs(tree).isEqualTo(tree);
+    }
+}
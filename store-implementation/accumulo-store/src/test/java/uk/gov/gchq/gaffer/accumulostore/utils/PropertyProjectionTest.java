@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.koryphe.impl.function.Identity;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertyProjectionTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .property(TestPropertyNames.PROP_1, "string")
+                    .property(TestPropertyNames.PROP_2, "string")
+                    .property(TestPropertyNames.PROP_3, "string")
+                    .property(TestPropertyNames.PROP_4, "string")
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .property(TestPropertyNames.PROP_1, "string")
+                    .property(TestPropertyNames.PROP_2, "string")
+                    .build())
+            .type("string", String.class)
+            .build();
+
+    @Test
+    public void shouldIncludeViewPropertiesAndTransformAndPostFilterSelections() {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .properties(TestPropertyNames.PROP_1)
+                        .transformer(new ElementTransformer.Builder()
+                                .select(TestPropertyNames.PROP_2)
+                                .execute(new Identity())
+                                .project(TestPropertyNames.PROP_1)
+                                .build())
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.PROP_3)
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final PropertyProjection projection = new PropertyProjection(view, SCHEMA);
+
+        // Then
+        assertThat(projection.getProperties(TestGroups.ENTITY))
+                .containsExactlyInAnyOrder(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2, TestPropertyNames.PROP_3);
+    }
+
+    @Test
+    public void shouldRemoveExcludedProperties() {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .excludeProperties(TestPropertyNames.PROP_2, TestPropertyNames.PROP_4)
+                        .build())
+                .build();
+
+        // When
+        final PropertyProjection projection = new PropertyProjection(view, SCHEMA);
+
+        // Then
+        assertThat(projection.getProperties(TestGroups.ENTITY))
+                .containsExactlyInAnyOrder(TestPropertyNames.PROP_1, TestPropertyNames.PROP_3);
+    }
+
+    @Test
+    public void shouldReturnNullWhenAllPropertiesAreNeeded() {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .properties(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                        .build())
+                .build();
+
+        // When
+        final PropertyProjection projection = new PropertyProjection(view, SCHEMA);
+
+        // Then
+        assertThat(projection.getProperties(TestGroups.ENTITY)).isNull();
+        assertThat(projection.getProperties(TestGroups.EDGE)).isNull();
+        assertThat(projection.getProperties(TestGroups.EDGE_2)).isNull();
+    }
+}
@@ -53,7 +53,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -69,10 +72,16 @@ public class FederatedGraphStorage {
     public static final String ACCESS_IS_NULL = "Can not put graph into storage without a FederatedAccess key.";
     public static final String GRAPH_IDS_NOT_VISIBLE = "The following graphIds are not visible or do not exist: %s";
     public static final String UNABLE_TO_MERGE_THE_SCHEMAS_FOR_ALL_OF_YOUR_FEDERATED_GRAPHS = "Unable to merge the schemas for all of your federated graphs: %s. You can limit which graphs to query for using the operation option: %s";
+    private static final String MERGED_SCHEMA = "schema";
+    private static final String MERGED_TRAITS = "traits";
+    private static final String MERGED_CURRENT_TRAITS = "currentTraits";
     private Map<FederatedAccess, Set<Graph>> storage = new HashMap<>();
     private FederatedStoreCache federatedStoreCache = new FederatedStoreCache();
     private Boolean isCacheEnabled = false;
     private GraphLibrary graphLibrary;
+    private final FederatedMergeMemo mergeMemo = new FederatedMergeMemo();
+    private final FederatedGraphVersionCache graphVersionCache = new FederatedGraphVersionCache();
+    private final Map<String, String> graphVersions = new ConcurrentHashMap<>();
 
     protected void startCacheServiceLoader() throws StorageException {
         if (CacheServiceLoader.isEnabled()) {
@@ -132,6 +141,7 @@ public class FederatedGraphStorage {
                 } else {
                     existingGraphs.add(builtGraph);
                 }
+                updateVersion(graphId);
             } catch (final Exception e) {
                 throw new StorageException("Error adding graph " + graphId + " to storage due to: " + e.getMessage(), e);
             }
@@ -223,6 +233,9 @@ public class FederatedGraphStorage {
                         }
                         graphs.removeAll(remove);
                     }
+                    if (isRemoved) {
+                        deleteVersion(graphId);
+                    }
                     return isRemoved;
                 })
                 .collect(Collectors.toSet())
@@ -268,23 +281,24 @@ public class FederatedGraphStorage {
         }
 
         final List<String> graphIds = FederatedStoreUtil.getGraphIds(operation.getOptions());
+        if (!operation.isCompact()) {
+            return getSchema(context.getUser(), graphIds);
+        }
+
+        // Compact schemas are fetched from the graphs each time, so are not memoised
         final Stream<Graph> graphs = getStream(context.getUser(), graphIds);
         final Builder schemaBuilder = new Builder();
         try {
-            if (operation.isCompact()) {
-                final GetSchema getSchema = new GetSchema.Builder()
-                        .compact(true)
-                        .build();
-                graphs.forEach(g -> {
-                    try {
-                        schemaBuilder.merge(g.execute(getSchema, context));
-                    } catch (final OperationException e) {
-                        throw new RuntimeException("Unable to fetch schema from graph " + g.getGraphId(), e);
-                    }
-                });
-            } else {
-                graphs.forEach(g -> schemaBuilder.merge(g.getSchema()));
-            }
+            final GetSchema getSchema = new GetSchema.Builder()
+                    .compact(true)
+                    .build();
+            graphs.forEach(g -> {
+                try {
+                    schemaBuilder.merge(g.execute(getSchema, context));
+                } catch (final OperationException e) {
+                    throw new RuntimeException("Unable to fetch schema from graph " + g.getGraphId(), e);
+                }
+            });
         } catch (final SchemaException e) {
             final List<String> resultGraphIds = getStream(context.getUser(), graphIds).map(Graph::getGraphId).collect(Collectors.toList());
             throw new SchemaException("Unable to merge the schemas for all of your federated graphs: " + resultGraphIds + ". You can limit which graphs to query for using the operation option: " + KEY_OPERATION_OPTIONS_GRAPH_IDS, e);
@@ -312,16 +326,81 @@ public class FederatedGraphStorage {
             return new Schema();
         }
 
-        final List<String> graphIds = FederatedStoreUtil.getGraphIds(config);
-        final Stream<Graph> graphs = getStream(user, graphIds);
-        final Builder schemaBuilder = new Builder();
-        try {
-            graphs.forEach(g -> schemaBuilder.merge(g.getSchema()));
-        } catch (final SchemaException e) {
-            final List<String> resultGraphIds = getStream(user, graphIds).map(Graph::getGraphId).collect(Collectors.toList());
-            throw new SchemaException(String.format(UNABLE_TO_MERGE_THE_SCHEMAS_FOR_ALL_OF_YOUR_FEDERATED_GRAPHS, resultGraphIds, KEY_OPERATION_OPTIONS_GRAPH_IDS), e);
+        return getSchema(user, FederatedStoreUtil.getGraphIds(config));
+    }
+
+    /**
+     * Merges the schemas of the visible graphs. The merged schema is memoised
+     * until one of the graphs changes.
+     *
+     * @param user     the user to match visibility against.
+     * @param graphIds optional graphIds to merge, null merges the graphs enabled by default.
+     * @return merged schema of the visible graphs.
+     */
+    private Schema getSchema(final User user, final List<String> graphIds) {
+        final List<Graph> graphs = getStream(user, graphIds).collect(Collectors.toList());
+        final List<String> resultGraphIds = graphs.stream().map(Graph::getGraphId).collect(Collectors.toList());
+        return mergeMemo.get(MERGED_SCHEMA, () -> getStream(user, graphIds).map(Graph::getGraphId).collect(Collectors.toList()), this::getVersion, () -> {
+            final Builder schemaBuilder = new Builder();
+            try {
+                graphs.forEach(g -> schemaBuilder.merge(g.getSchema()));
+            } catch (final SchemaException e) {
+                throw new SchemaException(String.format(UNABLE_TO_MERGE_THE_SCHEMAS_FOR_ALL_OF_YOUR_FEDERATED_GRAPHS, resultGraphIds, KEY_OPERATION_OPTIONS_GRAPH_IDS), e);
+            }
+            return schemaBuilder.build();
+        });
+    }
+
+    /**
+     * Gets the {@link StoreTrait}s common to the visible graphs. The traits
+     * are memoised until one of the graphs changes, if they are not known
+     * they are merged using the given merger.
+     *
+     * @param user          the user to match visibility against.
+     * @param graphIds      optional graphIds to get the traits of, null uses the graphs enabled by default.
+     * @param currentTraits true if the traits are for the current schemas, false if they are all the store traits.
+     * @param merger        merges the traits of the graphs if they are not already known.
+     * @return the traits common to the visible graphs.
+     */
+    public Set<StoreTrait> getTraits(final User user, final List<String> graphIds, final boolean currentTraits, final Supplier<Set<StoreTrait>> merger) {
+        return mergeMemo.get(currentTraits ? MERGED_CURRENT_TRAITS : MERGED_TRAITS,
+                () -> get(user, graphIds).stream().map(Graph::getGraphId).collect(Collectors.toList()), this::getVersion, merger);
+    }
+
+    // Package-private for testing
+    FederatedMergeMemo getMergeMemo() {
+        return mergeMemo;
+    }
+
+    // The version of a graph is shared through the cache, if it is enabled,
+    // so the memoised results of every store sharing the cache see changes.
+    private Object getVersion(final String graphId) {
+        if (isCacheEnabled()) {
+            final String version = graphVersionCache.getVersion(graphId);
+            if (null != version) {
+                return version;
+            }
+        }
+        return graphVersions.get(graphId);
+    }
+
+    private void updateVersion(final String graphId) {
+        final String version = UUID.randomUUID().toString();
+        graphVersions.put(graphId, version);
+        if (isCacheEnabled()) {
+            try {
+                graphVersionCache.setVersion(graphId, version);
+            } catch (final CacheOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void deleteVersion(final String graphId) {
+        graphVersions.remove(graphId);
+        if (isCacheEnabled()) {
+            graphVersionCache.deleteVersion(graphId);
         }
-        return schemaBuilder.build();
     }
 
     /**
@@ -563,6 +642,7 @@ public class FederatedGraphStorage {
                 entry.getValue().removeIf(graph -> graph.getGraphId().equals(graphId));
                 oldAccess = entry.getKey();
             }
+            updateVersion(graphId);
 
             //add the graph being moved.
             this.put(new GraphSerialisable.Builder().graph(graphToMove).build(), newFederatedAccess);
@@ -608,6 +688,7 @@ public class FederatedGraphStorage {
                     break;
                 }
             }
+            deleteVersion(graphId);
 
             //Update Tables
             String storeClass = graphToMove.getStoreProperties().getStoreClass();
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.federatedstore;
+
+import uk.gov.gchq.gaffer.cache.Cache;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+
+/**
+ * Wrapper around the {@link uk.gov.gchq.gaffer.cache.CacheServiceLoader} to
+ * share the versions of the {@link uk.gov.gchq.gaffer.graph.Graph}s within a
+ * {@link FederatedStore}. A graph is given a new version each time it changes,
+ * so merged results memoised by any store sharing the cache are not used once
+ * one of their graphs has changed.
+ */
+public class FederatedGraphVersionCache extends Cache<String> {
+    public FederatedGraphVersionCache() {
+        super("federatedStoreGraphVersions");
+    }
+
+    /**
+     * Sets the version of the graph in the cache, replacing any previous version.
+     *
+     * @param graphId the ID of the graph
+     * @param version the new version of the graph
+     * @throws CacheOperationException if there was an error trying to add to the cache
+     */
+    public void setVersion(final String graphId, final String version) throws CacheOperationException {
+        addToCache(graphId, version, true);
+    }
+
+    /**
+     * @param graphId the ID of the graph
+     * @return the version of the graph in the cache, or null if it is not known
+     */
+    public String getVersion(final String graphId) {
+        return getFromCache(graphId);
+    }
+
+    public void deleteVersion(final String graphId) {
+        deleteFromCache(graphId);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.federatedstore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, in memory memo of the results of merging the sub-graphs of a
+ * {@link FederatedStore}, such as the merged {@link uk.gov.gchq.gaffer.store.schema.Schema}
+ * and the common {@link uk.gov.gchq.gaffer.store.StoreTrait}s.
+ * <p>
+ * Results are keyed by the type of result and the id and version of each of
+ * the graphs that were merged. A graph is given a new version each time it
+ * changes, e.g. when it is added or has its access changed, so a change to one
+ * graph only stops results merged from that graph from being returned. Results
+ * for old versions are no longer used and are evicted once the memo is full.
+ * </p>
+ */
+public class FederatedMergeMemo {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<List<Object>, Object> memo;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FederatedMergeMemo() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public FederatedMergeMemo(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1 but was " + maxSize);
+        }
+        this.memo = new LinkedHashMap<List<Object>, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 2384713956471045392L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<Object>, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the merged result for the given graphs, merging them with the
+     * given supplier if the result is not already known. A merged result is
+     * not kept if the graphs, or any of their versions, change whilst it is
+     * merged.
+     *
+     * @param type          the type of result, e.g. schema or traits
+     * @param graphIds      gets the ids of the graphs being merged, in merge order
+     * @param graphVersions gets the current version of a graph from its id
+     * @param merger        merges the graphs if the result is not known
+     * @param <T>           the type of the merged result
+     * @return the merged result
+     */
+    public <T> T get(final Object type, final Supplier<? extends Collection<String>> graphIds,
+                     final Function<String, Object> graphVersions, final Supplier<T> merger) {
+        final List<Object> key = createKey(type, graphIds.get(), graphVersions);
+        synchronized (memo) {
+            final T result = (T) memo.get(key);
+            if (null != result) {
+                hits.incrementAndGet();
+                return result;
+            }
+        }
+
+        misses.incrementAndGet();
+        final T result = merger.get();
+        // Do not keep results merged from graphs that have since changed
+        if (null != result && key.equals(createKey(type, graphIds.get(), graphVersions))) {
+            synchronized (memo) {
+                memo.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        synchronized (memo) {
+            return memo.size();
+        }
+    }
+
+    // Package-private for testing
+    long getHits() {
+        return hits.get();
+    }
+
+    // Package-private for testing
+    long getMisses() {
+        return misses.get();
+    }
+
+    private static List<Object> createKey(final Object type, final Collection<String> graphIds,
+                                          final Function<String, Object> graphVersions) {
+        final List<Object> key = new ArrayList<>(graphIds.size() * 2 + 1);
+        key.add(type);
+        for (final String graphId : graphIds) {
+            key.add(graphId);
+            key.add(graphVersions.apply(graphId));
+        }
+        return key;
+    }
+}
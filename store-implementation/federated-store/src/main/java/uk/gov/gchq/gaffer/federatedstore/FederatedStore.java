@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.federatedstore;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,10 +93,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_OPERATION_OPTIONS_GRAPH_IDS;
 import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreProperties.IS_PUBLIC_ACCESS_ALLOWED_DEFAULT;
 import static uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil.getCleanStrings;
 
@@ -120,6 +127,8 @@ public class FederatedStore extends Store {
     private Boolean isPublicAccessAllowed = Boolean.valueOf(IS_PUBLIC_ACCESS_ALLOWED_DEFAULT);
     private static final List<Integer> ALL_IDS = new ArrayList<>();
     private final int id;
+    private ExecutorService executeService;
+    private ExecutorService mergeService;
 
     public FederatedStore() {
         Integer i = null;
@@ -163,6 +172,70 @@ public class FederatedStore extends Store {
         return (FederatedStoreProperties) super.getProperties();
     }
 
+    /**
+     * Get the {@link ExecutorService} used to execute operations against the
+     * sub-graphs concurrently. The service is created on first use with at
+     * most {@link FederatedStoreProperties#getExecuteThreads()} threads and
+     * does not queue tasks. If all of the threads are busy, or the store has
+     * been closed, a sub-graph execution is run by the thread that submitted
+     * it, so nested federated operations cannot be blocked by a full pool.
+     *
+     * @return the executor service for sub-graph executions.
+     */
+    public synchronized ExecutorService getFederatedExecutorService() {
+        if (null == executeService) {
+            executeService = new ThreadPoolExecutor(0, getProperties().getExecuteThreads(),
+                    60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("federated-store-" + getGraphId() + "-%d")
+                            .setDaemon(true)
+                            .build(),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return executeService;
+    }
+
+    /**
+     * Get the {@link ExecutorService} used to read the results of the
+     * sub-graphs whilst they are merged. This is separate to the
+     * {@link #getFederatedExecutorService()}, so reading results can never
+     * prevent operations from being executed. The service is created on first
+     * use with at most {@link FederatedStoreProperties#getMergeThreads()}
+     * threads and rejects tasks rather than queueing them when all of the
+     * threads are busy, in which case the results are read by the thread
+     * consuming the merged results.
+     *
+     * @return the executor service for merging sub-graph results.
+     */
+    public synchronized ExecutorService getFederatedMergeExecutorService() {
+        if (null == mergeService) {
+            mergeService = new ThreadPoolExecutor(0, getProperties().getMergeThreads(),
+                    60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("federated-store-merge-" + getGraphId() + "-%d")
+                            .setDaemon(true)
+                            .build());
+        }
+        return mergeService;
+    }
+
+    /**
+     * Shuts down the executor services used to execute operations against the
+     * sub-graphs and to merge their results.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != executeService) {
+            executeService.shutdownNow();
+            executeService = null;
+        }
+        if (null != mergeService) {
+            mergeService.shutdownNow();
+            mergeService = null;
+        }
+    }
+
     /**
      * <p>
      * Within FederatedStore an {@link Operation} is executed against a
@@ -354,6 +427,19 @@ public class FederatedStore extends Store {
         return graphStorage.getTraits(getTraits, context);
     }
 
+    /**
+     * Gets the {@link StoreTrait}s common to the graphs in scope of the given
+     * GetTraits operation. The traits are memoised until one of the graphs changes.
+     *
+     * @param getTraits GetTrait op with graph scope.
+     * @param context   context of the query
+     * @param merger    merges the traits of the graphs if they are not already known
+     * @return the set of {@link StoreTrait} that are common for all visible graphs
+     */
+    public Set<StoreTrait> getTraits(final GetTraits getTraits, final Context context, final Supplier<Set<StoreTrait>> merger) {
+        return graphStorage.getTraits(context.getUser(), getCleanStrings(getTraits.getOption(KEY_OPERATION_OPTIONS_GRAPH_IDS)), getTraits.isCurrentTraits(), merger);
+    }
+
     /**
      * <p>
      * Gets a collection of graph objects within FederatedStore scope from the
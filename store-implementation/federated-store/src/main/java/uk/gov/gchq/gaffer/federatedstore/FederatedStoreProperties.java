@@ -47,6 +47,41 @@ public class FederatedStoreProperties extends StoreProperties {
     public static final String CACHE_SERVICE_CLASS = CacheProperties.CACHE_SERVICE_CLASS;
     public static final String CACHE_SERVICE_CLASS_DEFAULT = null;
 
+    /**
+     * The maximum number of threads used to execute operations against the sub-graphs
+     * concurrently.
+     * e.g gaffer.federatedstore.execute.threads=10
+     */
+    public static final String EXECUTE_THREADS = "gaffer.federatedstore.execute.threads";
+    public static final String EXECUTE_THREADS_DEFAULT = "10";
+
+    /**
+     * The maximum time in milliseconds to wait for a single sub-graph to
+     * execute an operation, and to wait for the next result whilst merging
+     * the results of the sub-graphs. Merged results that are not read within
+     * this time are closed. Operations against a single sub-graph are only
+     * given a timeout if this property is set.
+     * e.g gaffer.federatedstore.execute.timeout=60000
+     */
+    public static final String EXECUTE_TIMEOUT = "gaffer.federatedstore.execute.timeout";
+    public static final String EXECUTE_TIMEOUT_DEFAULT = "600000";
+
+    /**
+     * The maximum number of threads used to read the results of the sub-graphs
+     * whilst they are merged.
+     * e.g gaffer.federatedstore.merge.threads=10
+     */
+    public static final String MERGE_THREADS = "gaffer.federatedstore.merge.threads";
+    public static final String MERGE_THREADS_DEFAULT = "10";
+
+    /**
+     * The maximum number of results buffered whilst merging the iterable
+     * results of the sub-graphs.
+     * e.g gaffer.federatedstore.merge.buffer.size=1000
+     */
+    public static final String MERGE_BUFFER_SIZE = "gaffer.federatedstore.merge.buffer.size";
+    public static final String MERGE_BUFFER_SIZE_DEFAULT = "1000";
+
     public FederatedStoreProperties() {
         super(FederatedStore.class);
     }
@@ -75,6 +110,43 @@ public class FederatedStoreProperties extends StoreProperties {
         return get(CACHE_SERVICE_CLASS, CACHE_SERVICE_CLASS_DEFAULT);
     }
 
+    public int getExecuteThreads() {
+        return Integer.parseInt(get(EXECUTE_THREADS, EXECUTE_THREADS_DEFAULT));
+    }
+
+    public void setExecuteThreads(final int threads) {
+        set(EXECUTE_THREADS, String.valueOf(threads));
+    }
+
+    public Long getExecuteTimeout() {
+        final String timeout = get(EXECUTE_TIMEOUT, EXECUTE_TIMEOUT_DEFAULT);
+        return null == timeout ? null : Long.parseLong(timeout);
+    }
+
+    public void setExecuteTimeout(final Long timeoutMillis) {
+        set(EXECUTE_TIMEOUT, null == timeoutMillis ? null : String.valueOf(timeoutMillis));
+    }
+
+    public boolean isExecuteTimeoutSet() {
+        return null != get(EXECUTE_TIMEOUT);
+    }
+
+    public int getMergeThreads() {
+        return Integer.parseInt(get(MERGE_THREADS, MERGE_THREADS_DEFAULT));
+    }
+
+    public void setMergeThreads(final int threads) {
+        set(MERGE_THREADS, String.valueOf(threads));
+    }
+
+    public int getMergeBufferSize() {
+        return Integer.parseInt(get(MERGE_BUFFER_SIZE, MERGE_BUFFER_SIZE_DEFAULT));
+    }
+
+    public void setMergeBufferSize(final int mergeBufferSize) {
+        set(MERGE_BUFFER_SIZE, String.valueOf(mergeBufferSize));
+    }
+
     public String getCustomPropsValue() {
         return this.get(CUSTOM_PROPERTIES_AUTHS, CUSTOM_PROPERTIES_AUTHS_DEFAULT);
     }
@@ -17,7 +17,7 @@
 package uk.gov.gchq.gaffer.federatedstore.operation.handler;
 
 import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
-import uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil;
+import uk.gov.gchq.gaffer.federatedstore.util.FederatedGraphExecutor;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -28,10 +28,11 @@ import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import java.util.Collection;
 
 import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_OPERATION_OPTIONS_GRAPH_IDS;
-import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
 
 /**
- * A handler for Operations with no output for FederatedStore
+ * A handler for Operations with no output for FederatedStore.
+ * The operation is executed against the sub-graphs concurrently using a
+ * {@link FederatedGraphExecutor}.
  *
  * @see OperationHandler
  * @see FederatedStore
@@ -39,18 +40,11 @@ import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipF
 public class FederatedOperationHandler implements OperationHandler<Operation> {
     public Object doOperation(final Operation operation, final Context context, final Store store) throws OperationException {
         final Collection<Graph> graphs = ((FederatedStore) store).getGraphs(context.getUser(), operation.getOption(KEY_OPERATION_OPTIONS_GRAPH_IDS), operation);
-        for (final Graph graph : graphs) {
-            final Operation updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
-            if (null != updatedOp) {
-                try {
-                    graph.execute(updatedOp, context);
-                } catch (final Exception e) {
-                    if (!Boolean.valueOf(getSkipFailedFederatedStoreExecute(updatedOp))) {
-                        throw new OperationException(FederatedStoreUtil.createOperationErrorMsg(operation, graph.getGraphId(), e), e);
-                    }
-                }
-            }
-        }
+        FederatedGraphExecutor.execute(operation, graphs, context, (FederatedStore) store,
+                (graph, updatedOp, graphContext) -> {
+                    graph.execute(updatedOp, graphContext);
+                    return null;
+                });
         return null;
     }
 }
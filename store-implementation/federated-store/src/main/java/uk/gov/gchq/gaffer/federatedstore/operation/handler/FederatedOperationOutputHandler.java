@@ -17,7 +17,7 @@
 package uk.gov.gchq.gaffer.federatedstore.operation.handler;
 
 import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
-import uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil;
+import uk.gov.gchq.gaffer.federatedstore.util.FederatedGraphExecutor;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.io.Output;
@@ -25,15 +25,15 @@ import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_OPERATION_OPTIONS_GRAPH_IDS;
-import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
 
 /**
- * A abstract handler for Operations with output for FederatedStore
+ * A abstract handler for Operations with output for FederatedStore.
+ * The operation is executed against the sub-graphs concurrently using a
+ * {@link FederatedGraphExecutor}.
  *
  * @see uk.gov.gchq.gaffer.store.operation.handler.OperationHandler
  * @see uk.gov.gchq.gaffer.federatedstore.FederatedStore
@@ -44,23 +44,8 @@ public abstract class FederatedOperationOutputHandler<OP extends Output<O>, O> i
     @Override
     public O doOperation(final OP operation, final Context context, final Store store) throws OperationException {
         final Collection<Graph> graphs = ((FederatedStore) store).getGraphs(context.getUser(), operation.getOption(KEY_OPERATION_OPTIONS_GRAPH_IDS), operation);
-        final List<O> results = new ArrayList<>(graphs.size());
-        for (final Graph graph : graphs) {
-            final OP updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
-            if (null != updatedOp) {
-                O execute = null;
-                try {
-                    execute = graph.execute(updatedOp, context);
-                } catch (final Exception e) {
-                    if (!Boolean.valueOf(getSkipFailedFederatedStoreExecute(updatedOp))) {
-                        throw new OperationException(FederatedStoreUtil.createOperationErrorMsg(operation, graph.getGraphId(), e), e);
-                    }
-                }
-                if (null != execute) {
-                    results.add(execute);
-                }
-            }
-        }
+        final List<O> results = FederatedGraphExecutor.execute(operation, graphs, context, (FederatedStore) store,
+                (graph, updatedOp, graphContext) -> graph.execute(updatedOp, graphContext));
         try {
             return mergeResults(results, operation, context, store);
         } catch (final Exception e) {
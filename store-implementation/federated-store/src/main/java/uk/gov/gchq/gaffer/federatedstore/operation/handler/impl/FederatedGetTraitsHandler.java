@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.federatedstore.operation.handler.impl;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
 import uk.gov.gchq.gaffer.federatedstore.operation.FederatedOperationChain;
 import uk.gov.gchq.gaffer.operation.OperationChain;
@@ -30,6 +31,7 @@ import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,6 +39,7 @@ import java.util.stream.Collectors;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_OPERATION_OPTIONS_GRAPH_IDS;
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
 
 /**
  * returns a set of {@link StoreTrait} that are common for all visible graphs.
@@ -44,34 +47,50 @@ import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_OPER
  * traits2 = [b,c]
  * traits3 = [a,b]
  * return [b]
+ * The traits are memoised by the {@link FederatedStore} until one of the graphs changes.
  */
 public class FederatedGetTraitsHandler implements OutputOperationHandler<GetTraits, Set<StoreTrait>> {
     @Override
     public Set<StoreTrait> doOperation(final GetTraits operation, final Context context, final Store store) throws OperationException {
         try {
-            FederatedOperationChain<Void, StoreTrait> wrappedFedChain = new FederatedOperationChain.Builder<Void, StoreTrait>()
-                    .operationChain(OperationChain.wrap(operation))
-                    //deep copy options
-                    .options(isNull(operation.getOptions()) ? new HashMap<>() : new HashMap<>(operation.getOptions()))
-                    .build();
-
-            final CloseableIterable<StoreTrait> concatResults = store.execute(wrappedFedChain, context);
-
-            Map<StoreTrait, Integer> rtn;
-            if (nonNull(concatResults) && nonNull(concatResults.iterator()) && concatResults.iterator().hasNext()) {
-                rtn = Streams.toStream(concatResults)
-                        // collect a map of k=trait v=count to covert concat of traits to an intersection of traits.
-                        .collect(Collectors.toMap(t -> t, ignore -> 1, (existing, replacement) -> existing + replacement));
-
-                long graphIdsSize = ((FederatedStore) store).getGraphs(context.getUser(), operation.getOption(KEY_OPERATION_OPTIONS_GRAPH_IDS), operation).stream().count();
-                rtn.values().removeIf(v -> v < graphIdsSize);
-            } else {
-                rtn = Collections.EMPTY_MAP;
+            if (Boolean.valueOf(getSkipFailedFederatedStoreExecute(operation))) {
+                // Traits merged whilst skipping failed graphs may be incomplete, so are not memoised
+                return mergeTraits(operation, context, store);
             }
 
-            return rtn.keySet();
+            return new HashSet<>(((FederatedStore) store).getTraits(operation, context, () -> {
+                try {
+                    return mergeTraits(operation, context, store);
+                } catch (final OperationException e) {
+                    throw new GafferRuntimeException(e.getMessage(), e);
+                }
+            }));
         } catch (final Exception e) {
             throw new OperationException("Error getting federated traits.", e);
         }
     }
+
+    private Set<StoreTrait> mergeTraits(final GetTraits operation, final Context context, final Store store) throws OperationException {
+        FederatedOperationChain<Void, StoreTrait> wrappedFedChain = new FederatedOperationChain.Builder<Void, StoreTrait>()
+                .operationChain(OperationChain.wrap(operation))
+                //deep copy options
+                .options(isNull(operation.getOptions()) ? new HashMap<>() : new HashMap<>(operation.getOptions()))
+                .build();
+
+        final CloseableIterable<StoreTrait> concatResults = store.execute(wrappedFedChain, context);
+
+        Map<StoreTrait, Integer> rtn;
+        if (nonNull(concatResults) && nonNull(concatResults.iterator()) && concatResults.iterator().hasNext()) {
+            rtn = Streams.toStream(concatResults)
+                    // collect a map of k=trait v=count to covert concat of traits to an intersection of traits.
+                    .collect(Collectors.toMap(t -> t, ignore -> 1, (existing, replacement) -> existing + replacement));
+
+            long graphIdsSize = ((FederatedStore) store).getGraphs(context.getUser(), operation.getOption(KEY_OPERATION_OPTIONS_GRAPH_IDS), operation).stream().count();
+            rtn.values().removeIf(v -> v < graphIdsSize);
+        } else {
+            rtn = Collections.EMPTY_MAP;
+        }
+
+        return rtn.keySet();
+    }
 }
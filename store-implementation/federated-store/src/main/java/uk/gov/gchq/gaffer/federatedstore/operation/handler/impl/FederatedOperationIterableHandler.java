@@ -19,17 +19,25 @@ package uk.gov.gchq.gaffer.federatedstore.operation.handler.impl;
 import uk.gov.gchq.gaffer.commonutil.CollectionUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStoreProperties;
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.FederatedOperationOutputHandler;
+import uk.gov.gchq.gaffer.federatedstore.util.InterleavingIterable;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
 
 /**
  * A generic handler for Operations with CloseableIterable of elements for FederatedStore.
- * Simply executes the operation on each delegate graph then chains the results together
- * using a {@link ChainedIterable}.
+ * Executes the operation on each delegate graph concurrently then merges the results
+ * together as they arrive using an {@link InterleavingIterable}, reading them on the
+ * store's merge executor service. If the store has no merge executor service the
+ * results are chained together using a {@link ChainedIterable}.
  *
  * @see FederatedOperationOutputHandler
  */
@@ -40,7 +48,20 @@ public class FederatedOperationIterableHandler<OP extends Output<O>, O extends I
             return (O) new EmptyClosableIterable<>();
         }
 
-        // Concatenate all the results into 1 iterable
-        return (O) new ChainedIterable<>(CollectionUtil.toIterableArray(results));
+        final ExecutorService executorService = ((FederatedStore) store).getFederatedMergeExecutorService();
+        if (1 == results.size() || null == executorService) {
+            // Concatenate all the results into 1 iterable
+            return (O) new ChainedIterable<>(CollectionUtil.toIterableArray(results));
+        }
+
+        final FederatedStoreProperties properties = ((FederatedStore) store).getProperties();
+        final int bufferSize = null == properties
+                ? Integer.parseInt(FederatedStoreProperties.MERGE_BUFFER_SIZE_DEFAULT)
+                : properties.getMergeBufferSize();
+        final Long timeout = null == properties
+                ? Long.valueOf(FederatedStoreProperties.EXECUTE_TIMEOUT_DEFAULT)
+                : properties.getExecuteTimeout();
+        return (O) new InterleavingIterable<>((List) results, executorService, bufferSize,
+                Boolean.valueOf(getSkipFailedFederatedStoreExecute(operation)), timeout);
     }
 }
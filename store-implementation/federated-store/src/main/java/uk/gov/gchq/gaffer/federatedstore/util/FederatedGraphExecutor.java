@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.federatedstore.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStoreProperties;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.Context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
+
+/**
+ * Executes an {@link Operation} against a collection of sub-graphs of a
+ * {@link FederatedStore}. The executions are submitted to the store's
+ * {@link FederatedStore#getFederatedExecutorService()} so they run concurrently,
+ * each sub-graph being allowed up to the configured
+ * {@link FederatedStoreProperties#getExecuteTimeout()}. A sub-graph that fails
+ * or times out is skipped if the operation has the skip failed federated store
+ * execute option set, otherwise the remaining executions are cancelled and an
+ * {@link OperationException} is thrown.
+ * If the store has no executor service, or there is a single graph and the
+ * timeout has not been set, the sub-graphs are executed one after another.
+ * <p>
+ * Concurrent executions are each given a shallow clone of the {@link Context}
+ * with their own copy of the variables, as executing an operation updates the
+ * context. So variables set by a sub-graph are not visible to the caller when
+ * the sub-graphs are executed concurrently.
+ * </p>
+ */
+public final class FederatedGraphExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FederatedGraphExecutor.class);
+
+    private FederatedGraphExecutor() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Executes the operation against each of the graphs.
+     *
+     * @param operation      the operation to execute
+     * @param graphs         the graphs to execute the operation against
+     * @param context        the context of the operation
+     * @param store          the federated store containing the graphs
+     * @param graphOperation executes the operation, updated for a graph, against that graph
+     * @param <OP>           the operation type
+     * @param <O>            the output type
+     * @return the non null results, in the same order as the graphs
+     * @throws OperationException if a graph fails and failures are not skipped
+     */
+    public static <OP extends Operation, O> List<O> execute(final OP operation,
+                                                            final Collection<Graph> graphs,
+                                                            final Context context,
+                                                            final FederatedStore store,
+                                                            final GraphOperation<OP, O> graphOperation) throws OperationException {
+        final ExecutorService executorService = store.getFederatedExecutorService();
+        final FederatedStoreProperties properties = store.getProperties();
+        final Long timeout = null == properties ? null : properties.getExecuteTimeout();
+        final List<O> results = new ArrayList<>(graphs.size());
+        if (null == executorService || (graphs.size() < 2 && (null == properties || !properties.isExecuteTimeoutSet()))) {
+            for (final Graph graph : graphs) {
+                final OP updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
+                if (null != updatedOp) {
+                    try {
+                        addResult(results, graphOperation.execute(graph, updatedOp, context));
+                    } catch (final Exception e) {
+                        handleFailure(operation, updatedOp, graph, e);
+                    }
+                }
+            }
+            return results;
+        }
+
+        final long start = System.currentTimeMillis();
+        final List<GraphExecution<OP, O>> executions = new ArrayList<>(graphs.size());
+        for (final Graph graph : graphs) {
+            final OP updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
+            if (null != updatedOp) {
+                final Context graphContext = createGraphContext(context);
+                executions.add(new GraphExecution<>(graph, updatedOp,
+                        executorService.submit(() -> graphOperation.execute(graph, updatedOp, graphContext))));
+            }
+        }
+
+        try {
+            for (final GraphExecution<OP, O> execution : executions) {
+                try {
+                    if (null == timeout) {
+                        addResult(results, execution.future.get());
+                    } else {
+                        final long remaining = Math.max(0, timeout - (System.currentTimeMillis() - start));
+                        addResult(results, execution.future.get(remaining, TimeUnit.MILLISECONDS));
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OperationException("Interrupted whilst executing " + operation.getClass().getSimpleName() + " on graph " + execution.graph.getGraphId(), e);
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    handleFailure(operation, execution.updatedOp, execution.graph,
+                            cause instanceof Exception ? (Exception) cause : new OperationException(cause.getMessage(), cause));
+                } catch (final TimeoutException e) {
+                    execution.future.cancel(true);
+                    handleFailure(operation, execution.updatedOp, execution.graph,
+                            new TimeoutException("Graph " + execution.graph.getGraphId() + " did not complete within " + timeout + "ms"));
+                }
+            }
+        } catch (final OperationException | RuntimeException e) {
+            for (final GraphExecution<OP, O> execution : executions) {
+                execution.future.cancel(true);
+            }
+            throw e;
+        }
+
+        return results;
+    }
+
+    private static Context createGraphContext(final Context context) {
+        final Context graphContext = context.shallowClone();
+        final Map<String, Object> variables = context.getVariables();
+        graphContext.setVariables(null == variables ? new HashMap<>() : new HashMap<>(variables));
+        return graphContext;
+    }
+
+    private static <O> void addResult(final List<O> results, final O result) {
+        if (null != result) {
+            results.add(result);
+        }
+    }
+
+    private static void handleFailure(final Operation operation, final Operation updatedOp, final Graph graph, final Exception e) throws OperationException {
+        if (!Boolean.valueOf(getSkipFailedFederatedStoreExecute(updatedOp))) {
+            throw new OperationException(FederatedStoreUtil.createOperationErrorMsg(operation, graph.getGraphId(), e), e);
+        }
+        LOGGER.warn("Skipping graph {} as it failed to execute {}: {}", graph.getGraphId(), operation.getClass().getSimpleName(), e.getMessage());
+    }
+
+    /**
+     * Executes an operation, already updated for the given graph, against that
+     * graph using the given context.
+     *
+     * @param <OP> the operation type
+     * @param <O>  the output type
+     */
+    @FunctionalInterface
+    public interface GraphOperation<OP extends Operation, O> {
+        O execute(final Graph graph, final OP updatedOp, final Context context) throws OperationException;
+    }
+
+    private static final class GraphExecution<OP extends Operation, O> {
+        private final Graph graph;
+        private final OP updatedOp;
+        private final Future<O> future;
+
+        private GraphExecution(final Graph graph, final OP updatedOp, final Future<O> future) {
+            this.graph = graph;
+            this.updatedOp = updatedOp;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.federatedstore.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link CloseableIterable} that merges several iterables by consuming each
+ * of them concurrently on an {@link ExecutorService} and returning their items
+ * in the order they arrive. At most bufferSize items are held in memory
+ * waiting to be returned, so a slow consumer holds back the producers rather
+ * than buffering all of the results.
+ * <p>
+ * If the executor service rejects an iterable, because all of its threads are
+ * busy, that iterable is read by the thread consuming the results instead,
+ * whenever no results from the other iterables are waiting. So iterables are
+ * never queued waiting for a thread.
+ * </p>
+ * <p>
+ * If skipFailed is true an iterable that fails part way through is logged and
+ * ignored, otherwise the failure is rethrown by the iterator.
+ * Iterators should be closed if they are not fully consumed, so the producers
+ * are stopped.
+ * </p>
+ * <p>
+ * If a timeout is given, the iterator fails, or ends if skipFailed is true,
+ * when no results arrive within the timeout. The producers give up and close
+ * the iterator if its results are not read within the timeout, so an iterator
+ * that is abandoned without being closed does not hold threads forever.
+ * </p>
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public class InterleavingIterable<T> implements CloseableIterable<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InterleavingIterable.class);
+    private static final Object END = new Object();
+    private static final Object NULL_ITEM = new Object();
+    private static final long OFFER_INTERVAL_MILLIS = 100L;
+
+    private final List<? extends Iterable<? extends T>> iterables;
+    private final ExecutorService executorService;
+    private final int bufferSize;
+    private final boolean skipFailed;
+    private final Long timeoutMillis;
+
+    public InterleavingIterable(final List<? extends Iterable<? extends T>> iterables,
+                                final ExecutorService executorService,
+                                final int bufferSize,
+                                final boolean skipFailed) {
+        this(iterables, executorService, bufferSize, skipFailed, null);
+    }
+
+    public InterleavingIterable(final List<? extends Iterable<? extends T>> iterables,
+                                final ExecutorService executorService,
+                                final int bufferSize,
+                                final boolean skipFailed,
+                                final Long timeoutMillis) {
+        if (null == iterables) {
+            throw new IllegalArgumentException("Iterables are required");
+        }
+        if (null == executorService) {
+            throw new IllegalArgumentException("An executor service is required");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1 but was " + bufferSize);
+        }
+        this.iterables = iterables;
+        this.executorService = executorService;
+        this.bufferSize = bufferSize;
+        if (null != timeoutMillis && timeoutMillis < 1) {
+            throw new IllegalArgumentException("Timeout must be at least 1 but was " + timeoutMillis);
+        }
+        this.skipFailed = skipFailed;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void close() {
+        for (final Iterable<? extends T> iterable : iterables) {
+            CloseableUtil.close(iterable);
+        }
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        return new InterleavingIterator();
+    }
+
+    private class InterleavingIterator implements CloseableIterator<T> {
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final List<Future<?>> producers = new ArrayList<>(iterables.size());
+        private final Deque<Iterable<? extends T>> rejected = new ArrayDeque<>();
+        private Iterator<? extends T> rejectedItr;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean abandoned;
+        private int running;
+        private Object next;
+
+        InterleavingIterator() {
+            for (final Iterable<? extends T> iterable : iterables) {
+                try {
+                    producers.add(executorService.submit(() -> produce(iterable)));
+                    running++;
+                } catch (final RejectedExecutionException e) {
+                    LOGGER.debug("No thread is available to read results, so they will be read by the consumer");
+                    rejected.add(iterable);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == next && (running > 0 || null != rejectedItr || !rejected.isEmpty()) && !closed.get()) {
+                Object item = queue.poll();
+                if (null == item && (null != rejectedItr || !rejected.isEmpty())) {
+                    readRejected();
+                    continue;
+                }
+                if (null == item) {
+                    try {
+                        item = null == timeoutMillis ? queue.take() : queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        close();
+                        throw new GafferRuntimeException("Interrupted whilst waiting for results", e);
+                    }
+                }
+
+                if (null == item) {
+                    close();
+                    if (!skipFailed) {
+                        throw new GafferRuntimeException("No results were received from the graphs within " + timeoutMillis + "ms");
+                    }
+                    LOGGER.warn("Skipping the remaining results as none were received from the graphs within {}ms", timeoutMillis);
+                } else if (END == item) {
+                    running--;
+                } else if (item instanceof Failure) {
+                    close();
+                    final Exception e = ((Failure) item).exception;
+                    throw new GafferRuntimeException("Failed to retrieve results: " + e.getMessage(), e);
+                } else {
+                    next = item;
+                }
+            }
+            if (abandoned) {
+                throw new GafferRuntimeException("The results were not read within " + timeoutMillis + "ms, so the iterator was closed");
+            }
+            return null != next;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Object item = next;
+            next = null;
+            return NULL_ITEM == item ? null : (T) item;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                for (final Future<?> producer : producers) {
+                    producer.cancel(true);
+                }
+                queue.clear();
+                synchronized (this) {
+                    CloseableUtil.close(rejectedItr);
+                    rejectedItr = null;
+                    rejected.clear();
+                }
+                InterleavingIterable.this.close();
+            }
+        }
+
+        // Reads the next item of an iterable that the executor service
+        // rejected, on the consuming thread. It is synchronized with close, as
+        // a producer closes the iterator if it is abandoned.
+        private synchronized void readRejected() {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                if (null == rejectedItr) {
+                    rejectedItr = rejected.poll().iterator();
+                }
+                if (rejectedItr.hasNext()) {
+                    final T item = rejectedItr.next();
+                    next = null == item ? NULL_ITEM : item;
+                } else {
+                    CloseableUtil.close(rejectedItr);
+                    rejectedItr = null;
+                }
+            } catch (final Exception e) {
+                CloseableUtil.close(rejectedItr);
+                rejectedItr = null;
+                if (!skipFailed) {
+                    close();
+                    throw new GafferRuntimeException("Failed to retrieve results: " + e.getMessage(), e);
+                }
+                LOGGER.warn("Skipping the remaining results of a failed graph: {}", e.getMessage());
+            }
+        }
+
+        private void produce(final Iterable<? extends T> iterable) {
+            Iterator<? extends T> itr = null;
+            try {
+                itr = iterable.iterator();
+                while (!closed.get() && itr.hasNext()) {
+                    final T item = itr.next();
+                    if (!offer(null == item ? NULL_ITEM : item)) {
+                        return;
+                    }
+                }
+                offer(END);
+            } catch (final Exception e) {
+                if (closed.get()) {
+                    LOGGER.debug("Results failed after the iterator was closed: {}", e.getMessage());
+                } else if (skipFailed) {
+                    LOGGER.warn("Skipping the remaining results of a failed graph: {}", e.getMessage());
+                    offer(END);
+                } else {
+                    offer(new Failure(e));
+                }
+            } finally {
+                CloseableUtil.close(itr);
+            }
+        }
+
+        // Adds an item to the queue, waiting whilst it is full. Returns false
+        // if the iterator is closed, or it is abandoned because the queue
+        // stays full for longer than the timeout.
+        private boolean offer(final Object item) {
+            final long deadline = null == timeoutMillis ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+            try {
+                while (!closed.get()) {
+                    if (queue.offer(item, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (System.currentTimeMillis() > deadline) {
+                        LOGGER.warn("Closing merged results as they were not read within {}ms", timeoutMillis);
+                        abandoned = true;
+                        close();
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private static final class Failure {
+        private final Exception exception;
+
+        private Failure(final Exception exception) {
+            this.exception = exception;
+        }
+    }
+}
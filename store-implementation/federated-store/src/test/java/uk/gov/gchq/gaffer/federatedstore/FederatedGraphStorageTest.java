@@ -360,6 +360,43 @@ public class FederatedGraphStorageTest {
         assertEquals(e1, schema.getElement("e1"));
     }
 
+    @Test
+    public void shouldMemoiseMergedSchemaForTheSameGraphVersions() throws Exception {
+        // Given
+        graphStorage.put(a, access);
+        final Schema schema = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+
+        // When
+        final Schema memoisedSchema = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+        graphStorage.put(b, access);
+        final Schema schemaAfterAdd = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+        graphStorage.remove(GRAPH_ID_B, testUser);
+        final Schema schemaAfterRemove = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+
+        // Then
+        assertSame(schema, memoisedSchema);
+        assertEquals(2, schemaAfterAdd.getTypes().size());
+        assertSame(schema, schemaAfterRemove);
+        assertEquals(2, graphStorage.getMergeMemo().getHits());
+    }
+
+    @Test
+    public void shouldInvalidateMergedSchemaWhenGraphAccessChanged() throws Exception {
+        // Given
+        graphStorage.put(a, access);
+        graphStorage.put(b, new FederatedAccess(Sets.newHashSet(X), X));
+        final Schema schema = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+
+        // When
+        graphStorage.changeGraphAccess(GRAPH_ID_B, access, new User.Builder().userId(X).build());
+        final Schema schemaAfterAccessChange = graphStorage.getSchema((Map<String, String>) null, testUserContext);
+
+        // Then
+        assertEquals(1, schema.getTypes().size());
+        assertEquals(2, schemaAfterAccessChange.getTypes().size());
+        assertEquals(0, graphStorage.getMergeMemo().getHits());
+    }
+
     @Test
     public void shouldNotGetSchemaForAddingUserWhenBlockingReadAccessPredicateConfigured() throws Exception {
         graphStorage.put(a, blockingReadAccess);
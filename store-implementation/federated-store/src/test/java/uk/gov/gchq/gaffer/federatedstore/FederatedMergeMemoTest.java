@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.federatedstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class FederatedMergeMemoTest {
+    private final Map<String, Object> versions = new HashMap<>();
+
+    @Test
+    public void shouldOnlyMergeOnceForTheSameGraphs() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo();
+        final AtomicInteger merges = new AtomicInteger();
+
+        // When
+        final String result1 = memo.get("type", () -> Arrays.asList("a", "b"), versions::get, () -> "merged" + merges.incrementAndGet());
+        final String result2 = memo.get("type", () -> Arrays.asList("a", "b"), versions::get, () -> "merged" + merges.incrementAndGet());
+
+        // Then
+        assertThat(result1).isEqualTo("merged1");
+        assertThat(result2).isEqualTo("merged1");
+        assertThat(memo.getHits()).isEqualTo(1);
+        assertThat(memo.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldMergeAgainForDifferentGraphsOrType() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo();
+        memo.get("type", () -> Arrays.asList("a", "b"), versions::get, () -> "ab");
+
+        // When
+        final String reordered = memo.get("type", () -> Arrays.asList("b", "a"), versions::get, () -> "ba");
+        final String otherType = memo.get("otherType", () -> Arrays.asList("a", "b"), versions::get, () -> "other");
+
+        // Then
+        assertThat(reordered).isEqualTo("ba");
+        assertThat(otherType).isEqualTo("other");
+        assertThat(memo.getHits()).isZero();
+    }
+
+    @Test
+    public void shouldOnlyMergeAgainForTheGraphsWhoseVersionChanged() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo();
+        versions.put("a", 1);
+        versions.put("b", 1);
+        memo.get("type", () -> Collections.singletonList("a"), versions::get, () -> "a1");
+        memo.get("type", () -> Collections.singletonList("b"), versions::get, () -> "b1");
+
+        // When
+        versions.put("a", 2);
+        final String resultA = memo.get("type", () -> Collections.singletonList("a"), versions::get, () -> "a2");
+        final String resultB = memo.get("type", () -> Collections.singletonList("b"), versions::get, () -> "b2");
+
+        // Then
+        assertThat(resultA).isEqualTo("a2");
+        assertThat(resultB).isEqualTo("b1");
+        assertThat(memo.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotKeepResultMergedWhilstGraphVersionChanged() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo();
+        versions.put("a", 1);
+
+        // When
+        memo.get("type", () -> Collections.singletonList("a"), versions::get, () -> {
+            versions.put("a", 2);
+            return "stale";
+        });
+
+        // Then
+        assertThat(memo.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotKeepResultMergedWhilstGraphsChanged() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo();
+        final List<String> graphIds = new ArrayList<>(Collections.singletonList("a"));
+
+        // When
+        memo.get("type", () -> new ArrayList<>(graphIds), versions::get, () -> {
+            graphIds.add("b");
+            return "stale";
+        });
+
+        // Then
+        assertThat(memo.size()).isZero();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedWhenFull() {
+        // Given
+        final FederatedMergeMemo memo = new FederatedMergeMemo(2);
+        memo.get("type", () -> Collections.singletonList("a"), versions::get, () -> "a");
+        memo.get("type", () -> Collections.singletonList("b"), versions::get, () -> "b");
+        memo.get("type", () -> Collections.singletonList("a"), versions::get, () -> "a");
+
+        // When
+        memo.get("type", () -> Collections.singletonList("c"), versions::get, () -> "c");
+        final String result = memo.get("type", () -> Collections.singletonList("b"), versions::get, () -> "b2");
+
+        // Then
+        assertThat(result).isEqualTo("b2");
+        assertThat(memo.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectInvalidMaxSize() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new FederatedMergeMemo(0))
+                .withMessageContaining("Max size");
+    }
+}
@@ -26,6 +26,7 @@ import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.GlobalViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStoreProperties;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.graph.GraphConfig;
 import uk.gov.gchq.gaffer.operation.Operation;
@@ -43,9 +44,16 @@ import uk.gov.gchq.gaffer.user.User;
 
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -296,4 +304,157 @@ public class FederatedOperationHandlerTest {
 
     }
 
+    @Test
+    public void shouldExecuteGraphsConcurrently() throws Exception {
+        // Given
+        final Operation op = mock(Operation.class);
+        given(op.shallowClone()).willReturn(op);
+
+        final CountDownLatch bothExecuting = new CountDownLatch(2);
+        final Store mockStore1 = getMockStore(new Schema(), new StoreProperties());
+        given(mockStore1.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> awaitOther(bothExecuting));
+        final Store mockStore2 = getMockStore(new Schema(), new StoreProperties());
+        given(mockStore2.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> awaitOther(bothExecuting));
+
+        final LinkedHashSet<Graph> graphs = Sets.newLinkedHashSet();
+        graphs.add(getGraphWithMockStore(mockStore1));
+        graphs.add(getGraphWithMockStore(mockStore2));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final FederatedStore mockStore = getMockFederatedStore(executorService, new FederatedStoreProperties());
+        when(mockStore.getGraphs(user, null, op)).thenReturn(graphs);
+
+        try {
+            // When
+            new FederatedOperationHandler().doOperation(op, context, mockStore);
+
+            // Then
+            assertEquals(0, bothExecuting.getCount());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldGiveEachConcurrentGraphExecutionItsOwnContext() throws Exception {
+        // Given
+        final Operation op = mock(Operation.class);
+        given(op.shallowClone()).willReturn(op);
+        context.setVariable("variable", "value");
+
+        final Store mockStore1 = getMockStore(new Schema(), new StoreProperties());
+        given(mockStore1.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> setVariable(invocation.getArgument(1), "graph1"));
+        final Store mockStore2 = getMockStore(new Schema(), new StoreProperties());
+        given(mockStore2.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> setVariable(invocation.getArgument(1), "graph2"));
+
+        final LinkedHashSet<Graph> graphs = Sets.newLinkedHashSet();
+        graphs.add(getGraphWithMockStore(mockStore1));
+        graphs.add(getGraphWithMockStore(mockStore2));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final FederatedStore mockStore = getMockFederatedStore(executorService, new FederatedStoreProperties());
+        when(mockStore.getGraphs(user, null, op)).thenReturn(graphs);
+
+        try {
+            // When
+            new FederatedOperationHandler().doOperation(op, context, mockStore);
+
+            // Then
+            final ArgumentCaptor<Context> contextCaptor1 = ArgumentCaptor.forClass(Context.class);
+            verify(mockStore1).execute(any(OperationChain.class), contextCaptor1.capture());
+            final ArgumentCaptor<Context> contextCaptor2 = ArgumentCaptor.forClass(Context.class);
+            verify(mockStore2).execute(any(OperationChain.class), contextCaptor2.capture());
+            assertEquals("value", contextCaptor1.getValue().getVariable("variable"));
+            assertEquals("graph1", contextCaptor1.getValue().getVariable("graph"));
+            assertEquals("value", contextCaptor2.getValue().getVariable("variable"));
+            assertEquals("graph2", contextCaptor2.getValue().getVariable("graph"));
+            assertNull(context.getVariable("graph"));
+            assertNull(context.getOriginalOpChain());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldSkipGraphThatTimesOutBecauseSkipFlagSetTrue() throws Exception {
+        // Given
+        final Operation op = mock(Operation.class);
+        when(op.getOption(eq(KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE), any(String.class))).thenReturn(String.valueOf(true));
+        given(op.shallowClone()).willReturn(op);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final Store mockStore1 = getMockStore(new Schema(), new StoreProperties());
+        final Store mockStore2 = getMockStore(new Schema(), new StoreProperties());
+        given(mockStore2.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+
+        final LinkedHashSet<Graph> graphs = Sets.newLinkedHashSet();
+        graphs.add(getGraphWithMockStore(mockStore1));
+        graphs.add(getGraphWithMockStore(mockStore2));
+
+        final FederatedStoreProperties properties = new FederatedStoreProperties();
+        properties.setExecuteTimeout(100L);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final FederatedStore mockStore = getMockFederatedStore(executorService, properties);
+        when(mockStore.getGraphs(user, null, op)).thenReturn(graphs);
+
+        try {
+            // When
+            new FederatedOperationHandler().doOperation(op, context, mockStore);
+
+            // Then
+            verify(mockStore1).execute(any(OperationChain.class), any(Context.class));
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenGraphTimesOut() throws Exception {
+        // Given
+        final Operation op = mock(Operation.class);
+        given(op.shallowClone()).willReturn(op);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final Store mockStoreInner = getMockStore(new Schema(), new StoreProperties());
+        given(mockStoreInner.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+
+        final HashSet<Graph> graphs = Sets.newHashSet(getGraphWithMockStore(mockStoreInner));
+
+        final FederatedStoreProperties properties = new FederatedStoreProperties();
+        properties.setExecuteTimeout(100L);
+        final ExecutorService executorService = Executors.newFixedThreadPool(1);
+        final FederatedStore mockStore = getMockFederatedStore(executorService, properties);
+        when(mockStore.getGraphs(user, null, op)).thenReturn(graphs);
+
+        try {
+            // When / Then
+            assertThatExceptionOfType(OperationException.class)
+                    .isThrownBy(() -> new FederatedOperationHandler().doOperation(op, context, mockStore))
+                    .withCauseInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+        }
+    }
+
+    private FederatedStore getMockFederatedStore(final ExecutorService executorService, final FederatedStoreProperties properties) {
+        final FederatedStore mockStore = mock(FederatedStore.class);
+        given(mockStore.getFederatedExecutorService()).willReturn(executorService);
+        given(mockStore.getProperties()).willReturn(properties);
+        return mockStore;
+    }
+
+    private Object setVariable(final Context graphContext, final String graphId) {
+        graphContext.setVariable("graph", graphId);
+        return null;
+    }
+
+    private Object awaitOther(final CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new RuntimeException("Graphs were not executed concurrently");
+        }
+        return null;
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.federatedstore.util;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class InterleavingIterableTest {
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnAllItemsFromAllIterables() {
+        // Given
+        final List<Integer> itr1 = range(0, 100);
+        final List<Integer> itr2 = range(100, 250);
+        final List<Integer> itr3 = new ArrayList<>();
+
+        // When
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(itr1, itr2, itr3), executorService, 1, false);
+
+        // Then
+        assertThat(iterable).containsExactlyInAnyOrderElementsOf(range(0, 250));
+        assertThat(iterable).hasSize(250);
+    }
+
+    @Test
+    public void shouldPreserveTheOrderOfEachIterable() {
+        // Given
+        final List<Integer> itr1 = range(0, 100);
+        final List<Integer> itr2 = range(100, 200);
+
+        // When
+        final List<Integer> results = Lists.newArrayList(new InterleavingIterable<>(Arrays.asList(itr1, itr2), executorService, 10, false));
+
+        // Then
+        assertThat(results.stream().filter(i -> i < 100).collect(Collectors.toList())).isEqualTo(itr1);
+        assertThat(results.stream().filter(i -> i >= 100).collect(Collectors.toList())).isEqualTo(itr2);
+    }
+
+    @Test
+    public void shouldReadIterablesOnTheConsumingThreadWhenNoThreadIsAvailable() {
+        // Given
+        final ThreadPoolExecutor singleThreadPool = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        final List<Integer> itr1 = range(0, 100);
+        final List<Integer> itr2 = range(100, 200);
+        final List<Integer> itr3 = range(200, 300);
+
+        try {
+            // When
+            final List<Integer> results = Lists.newArrayList(new InterleavingIterable<>(Arrays.asList(itr1, itr2, itr3), singleThreadPool, 5, false));
+
+            // Then
+            assertThat(results).containsExactlyInAnyOrderElementsOf(range(0, 300));
+            assertThat(results.stream().filter(i -> i >= 100 && i < 200).collect(Collectors.toList())).isEqualTo(itr2);
+            assertThat(singleThreadPool.getQueue()).isEmpty();
+        } finally {
+            singleThreadPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReadIterablesOnTheConsumingThreadWhenExecutorIsShutDown() {
+        // Given
+        executorService.shutdown();
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), range(10, 20)), executorService, 1, false);
+
+        // When / Then
+        assertThat(iterable).containsExactlyElementsOf(range(0, 20));
+    }
+
+    @Test
+    public void shouldRethrowFailureFromRejectedIterable() {
+        // Given
+        executorService.shutdown();
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), new FailingIterable()), executorService, 5, false);
+
+        // When / Then
+        assertThatExceptionOfType(GafferRuntimeException.class)
+                .isThrownBy(() -> Lists.newArrayList(iterable))
+                .withMessageContaining("Test Exception");
+    }
+
+    @Test
+    public void shouldRethrowFailureFromIterable() {
+        // Given
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), new FailingIterable()), executorService, 5, false);
+
+        // When / Then
+        assertThatExceptionOfType(GafferRuntimeException.class)
+                .isThrownBy(() -> Lists.newArrayList(iterable))
+                .withMessageContaining("Test Exception");
+    }
+
+    @Test
+    public void shouldSkipFailedIterableWhenSkipFailedIsTrue() {
+        // Given
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), new FailingIterable()), executorService, 5, true);
+
+        // When / Then
+        assertThat(iterable).containsExactlyInAnyOrderElementsOf(range(0, 10));
+    }
+
+    @Test
+    public void shouldStopProducingWhenClosed() {
+        // Given
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 1000), range(1000, 2000)), executorService, 2, false);
+
+        // When
+        final CloseableIterator<Integer> itr = iterable.iterator();
+        itr.next();
+        itr.close();
+
+        // Then
+        assertThat(itr.hasNext()).isFalse();
+    }
+
+    @Test
+    public void shouldStopProducingWhenIteratorIsAbandoned() throws InterruptedException {
+        // Given
+        final ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executorService;
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 1000), range(1000, 2000)), executorService, 2, false, 100L);
+
+        // When
+        final CloseableIterator<Integer> itr = iterable.iterator();
+        itr.next();
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (threadPool.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+
+        // Then
+        assertThat(threadPool.getActiveCount()).isZero();
+        assertThatExceptionOfType(GafferRuntimeException.class)
+                .isThrownBy(itr::hasNext)
+                .withMessageContaining("not read within 100ms");
+    }
+
+    @Test
+    public void shouldFailWhenNoResultsArriveWithinTimeout() {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), new BlockingIterable(release)), executorService, 20, false, 100L);
+
+        try {
+            // When / Then
+            assertThatExceptionOfType(GafferRuntimeException.class)
+                    .isThrownBy(() -> Lists.newArrayList(iterable))
+                    .withMessageContaining("within 100ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldEndWhenNoResultsArriveWithinTimeoutAndSkipFailedIsTrue() {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        final InterleavingIterable<Integer> iterable = new InterleavingIterable<>(Arrays.asList(range(0, 10), new BlockingIterable(release)), executorService, 20, true, 100L);
+
+        try {
+            // When / Then
+            assertThat(iterable).containsExactlyInAnyOrderElementsOf(range(0, 10));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidBufferSize() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new InterleavingIterable<>(Arrays.asList(range(0, 10)), executorService, 0, false))
+                .withMessageContaining("Buffer size");
+    }
+
+    private static List<Integer> range(final int start, final int end) {
+        return IntStream.range(start, end).boxed().collect(Collectors.toList());
+    }
+
+    private static class BlockingIterable implements Iterable<Integer> {
+        private final CountDownLatch release;
+
+        BlockingIterable(final CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.emptyIterator();
+        }
+    }
+
+    private static class FailingIterable implements Iterable<Integer> {
+        @Override
+        public Iterator<Integer> iterator() {
+            throw new RuntimeException("Test Exception");
+        }
+    }
+}
@@ -42,9 +42,24 @@ public class HBaseProperties extends StoreProperties {
     public static final String WRITE_BUFFER_SIZE = "hbase.writeBufferSize";
     public static final String DEPENDENCY_JARS_HDFS_DIR_PATH = "hbase.hdfs.jars.path";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "hbase.entriesForBatchScanner";
+    public static final String MUTATOR_BUFFER_SIZE_IN_BYTES = "hbase.mutatorBufferSizeInBytes";
+    public static final String NUM_THREADS_FOR_INGEST = "hbase.numThreadsForIngest";
+    public static final String INGEST_BATCH_SIZE = "hbase.ingestBatchSize";
+    public static final String MAX_IN_FLIGHT_INGEST_BATCHES = "hbase.maxInFlightIngestBatches";
+    public static final String SCAN_PARALLELISM = "hbase.scanParallelism";
+    public static final String MAX_QUEUED_RESULTS_FOR_PARALLEL_SCAN = "hbase.maxQueuedResultsForParallelScan";
+    public static final String NUM_THREADS_FOR_PARALLEL_SCAN = "hbase.numThreadsForParallelScan";
+    public static final String MAX_TIME_OUT_FOR_PARALLEL_SCAN = "hbase.maxTimeOutForParallelScanInMilliseconds";
 
     public static final int WRITE_BUFFER_SIZE_DEFAULT = 1000000;
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    public static final String MUTATOR_BUFFER_SIZE_IN_BYTES_DEFAULT = "2097152";
+    public static final String NUM_THREADS_FOR_INGEST_DEFAULT = "1";
+    public static final String INGEST_BATCH_SIZE_DEFAULT = "1000";
+    public static final String SCAN_PARALLELISM_DEFAULT = "1";
+    public static final String MAX_QUEUED_RESULTS_FOR_PARALLEL_SCAN_DEFAULT = "1000";
+    public static final String NUM_THREADS_FOR_PARALLEL_SCAN_DEFAULT = "10";
+    public static final String MAX_TIME_OUT_FOR_PARALLEL_SCAN_DEFAULT = "600000";
 
     public HBaseProperties() {
         super(HBaseStore.class);
@@ -164,6 +179,178 @@ public class HBaseProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Get the size in bytes of the client side buffer used by the
+     * {@link org.apache.hadoop.hbase.client.BufferedMutator} when adding
+     * elements. Once the buffer is full its mutations are sent to the region
+     * servers in the background.
+     *
+     * @return the size of the mutator buffer in bytes
+     */
+    public long getMutatorBufferSizeInBytes() {
+        return Long.parseLong(get(MUTATOR_BUFFER_SIZE_IN_BYTES, MUTATOR_BUFFER_SIZE_IN_BYTES_DEFAULT));
+    }
+
+    /**
+     * Set the size in bytes of the client side buffer used by the
+     * {@link org.apache.hadoop.hbase.client.BufferedMutator} when adding
+     * elements.
+     *
+     * @param mutatorBufferSizeInBytes the size of the mutator buffer in bytes
+     */
+    public void setMutatorBufferSizeInBytes(final String mutatorBufferSizeInBytes) {
+        set(MUTATOR_BUFFER_SIZE_IN_BYTES, mutatorBufferSizeInBytes);
+    }
+
+    /**
+     * Get the number of threads used to convert elements into puts when
+     * adding elements. With a single thread the elements are converted on
+     * the thread running the operation.
+     *
+     * @return the number of threads used to convert elements into puts
+     */
+    public int getNumThreadsForIngest() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST, NUM_THREADS_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Set the number of threads used to convert elements into puts when
+     * adding elements.
+     *
+     * @param numThreadsForIngest the number of threads used to convert
+     *                            elements into puts
+     */
+    public void setNumThreadsForIngest(final String numThreadsForIngest) {
+        set(NUM_THREADS_FOR_INGEST, numThreadsForIngest);
+    }
+
+    /**
+     * Get the number of elements handed to each ingest thread at a time.
+     *
+     * @return the number of elements in each ingest batch
+     */
+    public int getIngestBatchSize() {
+        return Integer.parseInt(get(INGEST_BATCH_SIZE, INGEST_BATCH_SIZE_DEFAULT));
+    }
+
+    /**
+     * Set the number of elements handed to each ingest thread at a time.
+     *
+     * @param ingestBatchSize the number of elements in each ingest batch
+     */
+    public void setIngestBatchSize(final String ingestBatchSize) {
+        set(INGEST_BATCH_SIZE, ingestBatchSize);
+    }
+
+    /**
+     * Get the maximum number of ingest batches that can be waiting or being
+     * converted at any one time. This bounds the number of elements held in
+     * memory whilst the ingest threads catch up. Defaults to twice the number
+     * of ingest threads.
+     *
+     * @return the maximum number of ingest batches in flight
+     */
+    public int getMaxInFlightIngestBatches() {
+        final String maxInFlight = get(MAX_IN_FLIGHT_INGEST_BATCHES, null);
+        if (null == maxInFlight) {
+            return 2 * getNumThreadsForIngest();
+        }
+
+        return Integer.parseInt(maxInFlight);
+    }
+
+    /**
+     * Set the maximum number of ingest batches that can be waiting or being
+     * converted at any one time.
+     *
+     * @param maxInFlightIngestBatches the maximum number of ingest batches in
+     *                                 flight
+     */
+    public void setMaxInFlightIngestBatches(final String maxInFlightIngestBatches) {
+        set(MAX_IN_FLIGHT_INGEST_BATCHES, maxInFlightIngestBatches);
+    }
+
+    /**
+     * Get the number of regions that are scanned concurrently when retrieving
+     * elements. With a value of 1 a single scan is used for each batch of seeds.
+     *
+     * @return the number of regions scanned concurrently
+     */
+    public int getScanParallelism() {
+        return Integer.parseInt(get(SCAN_PARALLELISM, SCAN_PARALLELISM_DEFAULT));
+    }
+
+    /**
+     * Set the number of regions that are scanned concurrently when retrieving
+     * elements.
+     *
+     * @param scanParallelism the number of regions scanned concurrently
+     */
+    public void setScanParallelism(final String scanParallelism) {
+        set(SCAN_PARALLELISM, scanParallelism);
+    }
+
+    /**
+     * Get the maximum number of rows held in memory, across all regions,
+     * whilst they wait to be read during a parallel scan.
+     *
+     * @return the maximum number of queued rows
+     */
+    public int getMaxQueuedResultsForParallelScan() {
+        return Integer.parseInt(get(MAX_QUEUED_RESULTS_FOR_PARALLEL_SCAN, MAX_QUEUED_RESULTS_FOR_PARALLEL_SCAN_DEFAULT));
+    }
+
+    /**
+     * Set the maximum number of rows held in memory, across all regions,
+     * whilst they wait to be read during a parallel scan.
+     *
+     * @param maxQueuedResults the maximum number of queued rows
+     */
+    public void setMaxQueuedResultsForParallelScan(final String maxQueuedResults) {
+        set(MAX_QUEUED_RESULTS_FOR_PARALLEL_SCAN, maxQueuedResults);
+    }
+
+    /**
+     * Get the maximum number of threads, shared by all operations on the
+     * store, used to run parallel region scans. Scans that cannot get a
+     * thread are read directly on the thread consuming the results.
+     *
+     * @return the number of threads used for parallel scans
+     */
+    public int getNumThreadsForParallelScan() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_PARALLEL_SCAN, NUM_THREADS_FOR_PARALLEL_SCAN_DEFAULT));
+    }
+
+    /**
+     * Set the maximum number of threads, shared by all operations on the
+     * store, used to run parallel region scans.
+     *
+     * @param numThreadsForParallelScan the number of threads used for parallel scans
+     */
+    public void setNumThreadsForParallelScan(final String numThreadsForParallelScan) {
+        set(NUM_THREADS_FOR_PARALLEL_SCAN, numThreadsForParallelScan);
+    }
+
+    /**
+     * Get the time in milliseconds after which a parallel scan whose results
+     * are not being read is abandoned and its region scans closed.
+     *
+     * @return the parallel scan timeout in milliseconds
+     */
+    public long getMaxTimeOutForParallelScanInMilliseconds() {
+        return Long.parseLong(get(MAX_TIME_OUT_FOR_PARALLEL_SCAN, MAX_TIME_OUT_FOR_PARALLEL_SCAN_DEFAULT));
+    }
+
+    /**
+     * Set the time in milliseconds after which a parallel scan whose results
+     * are not being read is abandoned and its region scans closed.
+     *
+     * @param maxTimeOutForParallelScan the parallel scan timeout in milliseconds
+     */
+    public void setMaxTimeOutForParallelScanInMilliseconds(final String maxTimeOutForParallelScan) {
+        set(MAX_TIME_OUT_FOR_PARALLEL_SCAN, maxTimeOutForParallelScan);
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
@@ -17,10 +17,13 @@
 package uk.gov.gchq.gaffer.hbasestore;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Table;
@@ -31,6 +34,8 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.CountElementGroupsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.CountElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GenerateSplitPointsFromSampleHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetAllElementsHandler;
@@ -39,6 +44,7 @@ import uk.gov.gchq.gaffer.hbasestore.operation.handler.SampleElementsForSplitPoi
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.SplitStoreFromIterableHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.hdfs.handler.AddElementsFromHdfsHandler;
 import uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.hbasestore.utils.TableUtils;
 import uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.HdfsSplitStoreFromFileHandler;
@@ -57,8 +63,11 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.StoreTrait;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
@@ -69,6 +78,11 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static uk.gov.gchq.gaffer.store.StoreTrait.INGEST_AGGREGATION;
 import static uk.gov.gchq.gaffer.store.StoreTrait.MATCHED_VERTEX;
@@ -111,6 +125,9 @@ public class HBaseStore extends Store {
                     MATCHED_VERTEX
             ));
     private Connection connection;
+    private volatile ElementSerialisation serialisation;
+    private ExecutorService ingestExecutorService;
+    private ExecutorService scanExecutorService;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties)
@@ -141,6 +158,9 @@ public class HBaseStore extends Store {
         } else {
             super.initialise(graphId, schema, getProperties());
         }
+
+        // Add OperationChainOptimisers
+        addOperationChainOptimisers(Collections.singletonList(new CountElementsOperationChainOptimiser()));
     }
 
     public Configuration getConfiguration() {
@@ -183,6 +203,96 @@ public class HBaseStore extends Store {
         }
     }
 
+    /**
+     * Gets a {@link BufferedMutator} for the table, using the mutator buffer
+     * size from the store properties. The caller is responsible for closing it.
+     *
+     * @param listener the listener to notify of puts that could not be written
+     * @return the buffered mutator.
+     * @throws StoreException if the buffered mutator could not be created.
+     */
+    public BufferedMutator getBufferedMutator(final BufferedMutator.ExceptionListener listener) throws StoreException {
+        final BufferedMutatorParams params = new BufferedMutatorParams(getTableName())
+                .writeBufferSize(getProperties().getMutatorBufferSizeInBytes())
+                .listener(listener);
+        final Connection connection = getConnection();
+        try {
+            return connection.getBufferedMutator(params);
+        } catch (final IOException e) {
+            CloseableUtil.close(connection);
+            throw new StoreException(e);
+        }
+    }
+
+    /**
+     * Gets the {@link ElementSerialisation} for the current schema. It is
+     * stateless so a single instance is shared between operations.
+     *
+     * @return the element serialisation.
+     */
+    public ElementSerialisation getSerialisation() {
+        final Schema schema = getSchema();
+        ElementSerialisation current = serialisation;
+        if (null == current || current.getSchema() != schema) {
+            current = new ElementSerialisation(schema);
+            serialisation = current;
+        }
+        return current;
+    }
+
+    /**
+     * Gets the executor used to convert elements into puts when more than one
+     * ingest thread is configured. It is created on first use.
+     *
+     * @return the ingest executor service.
+     */
+    public synchronized ExecutorService getIngestExecutorService() {
+        if (null == ingestExecutorService) {
+            ingestExecutorService = Executors.newFixedThreadPool(getProperties().getNumThreadsForIngest(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("hbase-ingest-%d")
+                            .setDaemon(true)
+                            .build());
+        }
+        return ingestExecutorService;
+    }
+
+    /**
+     * Gets the executor used to run parallel region scans. It is created on
+     * first use with up to {@link HBaseProperties#getNumThreadsForParallelScan()}
+     * threads, and rejects tasks rather than queueing them when all of the
+     * threads are busy.
+     *
+     * @return the parallel scan executor service.
+     */
+    public synchronized ExecutorService getScanExecutorService() {
+        if (null == scanExecutorService) {
+            scanExecutorService = new ThreadPoolExecutor(0, getProperties().getNumThreadsForParallelScan(),
+                    60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("hbase-scan-%d")
+                            .setDaemon(true)
+                            .build());
+        }
+        return scanExecutorService;
+    }
+
+    /**
+     * Shuts down the executors used by this store.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != ingestExecutorService) {
+            ingestExecutorService.shutdown();
+            ingestExecutorService = null;
+        }
+        if (null != scanExecutorService) {
+            scanExecutorService.shutdownNow();
+            scanExecutorService = null;
+        }
+    }
+
     public <OP extends Output<CloseableIterable<? extends Element>> & GraphFilters> HBaseRetriever<OP>
     createRetriever(final OP operation,
                     final User user,
@@ -257,5 +367,7 @@ public class HBaseStore extends Store {
         addOperationHandler(AddElementsFromHdfs.class, new AddElementsFromHdfsHandler());
         addOperationHandler(SampleElementsForSplitPoints.class, new SampleElementsForSplitPointsHandler());
         addOperationHandler(GenerateSplitPointsFromSample.class, new GenerateSplitPointsFromSampleHandler());
+        addOperationHandler(CountElements.class, new CountElementsHandler());
+        addOperationHandler(CountElementGroups.class, new CountElementGroupsHandler());
     }
 }
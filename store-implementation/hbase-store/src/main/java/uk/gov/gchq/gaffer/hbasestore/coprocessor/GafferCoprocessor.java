@@ -28,6 +28,7 @@ import org.apache.hadoop.hbase.regionserver.compactions.CompactionRequest;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryProcessorsPool;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.StoreScanner;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
@@ -39,12 +40,14 @@ import java.io.IOException;
 public class GafferCoprocessor extends BaseRegionObserver {
     private Schema schema;
     private ElementSerialisation serialisation;
+    private QueryProcessorsPool processorsPool;
 
     @Override
     public void start(final CoprocessorEnvironment e) throws IOException {
         final String schemaJson = StringUtil.unescapeComma(e.getConfiguration().get(HBaseStoreConstants.SCHEMA));
         schema = Schema.fromJson(Bytes.toBytes(schemaJson));
         serialisation = new ElementSerialisation(schema);
+        processorsPool = new QueryProcessorsPool(schema, serialisation);
     }
 
     @Override
@@ -73,6 +76,6 @@ public class GafferCoprocessor extends BaseRegionObserver {
 
     @Override
     public RegionScanner postScannerOpen(final ObserverContext<RegionCoprocessorEnvironment> e, final Scan scan, final RegionScanner scanner) throws IOException {
-        return new QueryScanner(scanner, scan, schema, serialisation);
+        return new QueryScanner(scanner, scan, serialisation, processorsPool);
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor.processor;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import uk.gov.gchq.gaffer.hbasestore.serialisation.LazyElementCell;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the element cells of each row with a single cell containing the
+ * number of elements in each group, so only the counts are sent back to the
+ * client. It must be the last processor, so the elements have already been
+ * filtered and aggregated.
+ * <p>
+ * The counts are kept in the order the elements were read, as a count for
+ * each run of elements in the same group, so the client can count exactly the
+ * first elements up to a limit using {@link #addCounts(Cell, Map, long)}.
+ * </p>
+ */
+@Since("1.22.1")
+@Summary("Counts the elements in each group")
+public class GroupCountProcessor implements GafferScannerProcessor {
+    private static final byte[] QUALIFIER = Bytes.toBytes("GroupCount");
+
+    @Override
+    public List<LazyElementCell> process(final List<LazyElementCell> elementCells) {
+        final List<String> groups = new ArrayList<>();
+        final List<long[]> counts = new ArrayList<>();
+        Cell firstCell = null;
+        for (final LazyElementCell elementCell : elementCells) {
+            if (elementCell.isDeleted()) {
+                continue;
+            }
+            if (null == firstCell) {
+                firstCell = elementCell.getCell();
+            }
+            final String group = elementCell.getGroup();
+            if (groups.isEmpty() || !groups.get(groups.size() - 1).equals(group)) {
+                groups.add(group);
+                counts.add(new long[1]);
+            }
+            counts.get(counts.size() - 1)[0]++;
+        }
+
+        if (null == firstCell) {
+            return Collections.emptyList();
+        }
+
+        final Cell countCell = new KeyValue(CellUtil.cloneRow(firstCell), HBaseStoreConstants.getColFam(), QUALIFIER,
+                firstCell.getTimestamp(), serialiseCounts(groups, counts));
+        return Collections.singletonList(new LazyElementCell(countCell, elementCells.get(0).getSerialisation(), false));
+    }
+
+    /**
+     * Adds the counts in a cell returned by a {@code GroupCountProcessor} to
+     * a map of group counts, in the order they were counted, until the
+     * maximum number of elements have been added.
+     *
+     * @param cell     the cell returned by the processor
+     * @param counts   the map of group to count to add the counts to
+     * @param maxCount the maximum number of elements to add
+     * @return the total number of elements counted in the cell, which may be
+     * more than the number added
+     * @throws IOException if the cell could not be read
+     */
+    public static long addCounts(final Cell cell, final Map<String, Long> counts, final long maxCount) throws IOException {
+        long total = 0;
+        try (final DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final String group = input.readUTF();
+                final long count = input.readLong();
+                final long added = Math.min(count, Math.max(0, maxCount - total));
+                if (added > 0) {
+                    counts.merge(group, added, Long::sum);
+                }
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    private static byte[] serialiseCounts(final List<String> groups, final List<long[]> counts) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(groups.size());
+            for (int i = 0; i < groups.size(); i++) {
+                output.writeUTF(groups.get(i));
+                output.writeLong(counts.get(i)[0]);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to serialise group counts", e);
+        }
+        return bytes.toByteArray();
+    }
+}
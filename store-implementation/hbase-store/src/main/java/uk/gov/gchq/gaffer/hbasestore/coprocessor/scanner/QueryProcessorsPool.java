@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner;
+
+import org.apache.hadoop.hbase.client.Scan;
+
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pool of the processors created by {@link QueryScanner}s, keyed by the
+ * view, directed type and extra processors attributes of the {@link Scan}.
+ * This avoids parsing the view JSON and creating the processors for every
+ * region scanner when the same query is run repeatedly.
+ * <p>
+ * The processors hold state whilst filtering, so a list of processors is
+ * only ever used by one scanner at a time. It is borrowed when the scanner
+ * is opened and released back to the pool when the scanner is closed.
+ * </p>
+ */
+public class QueryProcessorsPool {
+    private static final int MAX_QUERIES = 100;
+    private static final int MAX_IDLE_PER_QUERY = 32;
+
+    private final Schema schema;
+    private final ElementSerialisation serialisation;
+    private final ConcurrentMap<QueryKey, Queue<List<GafferScannerProcessor>>> idleProcessors = new ConcurrentHashMap<>();
+
+    public QueryProcessorsPool(final Schema schema, final ElementSerialisation serialisation) {
+        this.schema = schema;
+        this.serialisation = serialisation;
+    }
+
+    public List<GafferScannerProcessor> borrow(final Scan scan) {
+        final Queue<List<GafferScannerProcessor>> idle = idleProcessors.get(new QueryKey(scan));
+        final List<GafferScannerProcessor> processors = null != idle ? idle.poll() : null;
+        if (null != processors) {
+            return processors;
+        }
+        return QueryScanner.createProcessors(scan, schema, serialisation);
+    }
+
+    public void release(final Scan scan, final List<GafferScannerProcessor> processors) {
+        final QueryKey key = new QueryKey(scan);
+        Queue<List<GafferScannerProcessor>> idle = idleProcessors.get(key);
+        if (null == idle) {
+            if (idleProcessors.size() >= MAX_QUERIES) {
+                idleProcessors.clear();
+            }
+            idle = idleProcessors.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        }
+        if (idle.size() < MAX_IDLE_PER_QUERY) {
+            idle.offer(processors);
+        }
+    }
+
+    private static final class QueryKey {
+        private final byte[] view;
+        private final byte[] directedType;
+        private final byte[] extraProcessors;
+        private final int hashCode;
+
+        private QueryKey(final Scan scan) {
+            view = scan.getAttribute(HBaseStoreConstants.VIEW);
+            directedType = scan.getAttribute(HBaseStoreConstants.DIRECTED_TYPE);
+            extraProcessors = scan.getAttribute(HBaseStoreConstants.EXTRA_PROCESSORS);
+            hashCode = 31 * (31 * Arrays.hashCode(view) + Arrays.hashCode(directedType)) + Arrays.hashCode(extraProcessors);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (null == obj || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final QueryKey other = (QueryKey) obj;
+            return hashCode == other.hashCode
+                    && Arrays.equals(view, other.view)
+                    && Arrays.equals(directedType, other.directedType)
+                    && Arrays.equals(extraProcessors, other.extraProcessors);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
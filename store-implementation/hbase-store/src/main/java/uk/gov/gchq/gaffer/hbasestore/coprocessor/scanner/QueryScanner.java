@@ -27,6 +27,7 @@ import uk.gov.gchq.gaffer.data.element.id.DirectedType;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.ElementDedupeFilterProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupCountProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupFilterProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.PostAggregationFilterProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.PreAggregationFilterProcessor;
@@ -44,11 +45,43 @@ import java.util.List;
 import java.util.Set;
 
 public class QueryScanner extends GafferScanner implements RegionScanner {
+    private final Scan scan;
+    private final QueryProcessorsPool processorsPool;
+    private final List<GafferScannerProcessor> processors;
+    private boolean closed;
+
     public QueryScanner(final RegionScanner scanner,
                         final Scan scan,
                         final Schema schema,
                         final ElementSerialisation serialisation) {
-        super(scanner, serialisation, createProcessors(scan, schema, serialisation), isIncludeMatchedVertex(scan));
+        this(scanner, scan, serialisation, null, createProcessors(scan, schema, serialisation));
+    }
+
+    /**
+     * Creates a QueryScanner using processors borrowed from the pool. They
+     * are released back to the pool when the scanner is closed.
+     *
+     * @param scanner        the region scanner to wrap
+     * @param scan           the scan
+     * @param serialisation  the element serialisation
+     * @param processorsPool the pool of processors
+     */
+    public QueryScanner(final RegionScanner scanner,
+                        final Scan scan,
+                        final ElementSerialisation serialisation,
+                        final QueryProcessorsPool processorsPool) {
+        this(scanner, scan, serialisation, processorsPool, processorsPool.borrow(scan));
+    }
+
+    private QueryScanner(final RegionScanner scanner,
+                         final Scan scan,
+                         final ElementSerialisation serialisation,
+                         final QueryProcessorsPool processorsPool,
+                         final List<GafferScannerProcessor> processors) {
+        super(scanner, serialisation, processors, isIncludeMatchedVertex(scan));
+        this.scan = scan;
+        this.processorsPool = processorsPool;
+        this.processors = processors;
     }
 
     protected static List<GafferScannerProcessor> createProcessors(
@@ -57,6 +90,7 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
             final ElementSerialisation serialisation) {
         final List<GafferScannerProcessor> processors = new ArrayList<>();
         final Set<Class<? extends GafferScannerProcessor>> extraProcessors = getExtraProcessors(scan);
+        final boolean countGroups = extraProcessors.remove(GroupCountProcessor.class);
 
         // The view will be null if a scan of the table is done in the hbase shell
         final View view = getView(scan);
@@ -81,6 +115,10 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
             processors.add(new PostAggregationFilterProcessor(view));
         }
 
+        if (countGroups) {
+            processors.add(new GroupCountProcessor());
+        }
+
         if (!extraProcessors.isEmpty()) {
             throw new RuntimeException("Unrecognised extra processors: " + extraProcessors);
         }
@@ -121,6 +159,18 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
         return null != attr && Boolean.parseBoolean(Bytes.toString(attr));
     }
 
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (!closed && null != processorsPool) {
+                processorsPool.release(scan, processors);
+            }
+            closed = true;
+        }
+    }
+
     @Override
     protected RegionScanner getScanner() {
         return (RegionScanner) super.getScanner();
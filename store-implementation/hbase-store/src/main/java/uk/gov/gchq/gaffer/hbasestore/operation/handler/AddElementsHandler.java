@@ -16,12 +16,15 @@
 
 package uk.gov.gchq.gaffer.hbasestore.operation.handler;
 
-import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.Put;
-import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
 import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -32,17 +35,32 @@ import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Adds elements to HBase using a {@link BufferedMutator}, so puts are sent to
+ * the region servers in the background whilst further elements are converted.
+ * If hbase.numThreadsForIngest is greater than 1 the elements are converted into
+ * puts on a pool of threads, in batches of hbase.ingestBatchSize elements with
+ * at most hbase.maxInFlightIngestBatches batches in flight.
+ * <p>
  * HBase will skip 'puts' if there are multiple 'puts' with the same rowId and column qualifier.
  * To work around this issue, we need to aggregate elements within each batch before adding them to HBase.
  * Due to this, optimising the batch size could have a big impact on performance.
+ * The mutator is flushed each time this number of puts have been added.
  * Configure the batch size using store property: hbase.writeBufferSize
+ * </p>
  */
 public class AddElementsHandler implements OperationHandler<AddElements> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AddElementsHandler.class);
+
     @Override
     public Void doOperation(final AddElements operation,
                             final Context context, final Store store)
@@ -57,51 +75,134 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             return;
         }
 
-        try {
-            final Table table = store.getTable();
-            final Iterator<? extends Element> elements = addElementsOperation.getInput().iterator();
-            final ElementSerialisation serialisation = new ElementSerialisation(store.getSchema());
-            final int batchSize = store.getProperties().getWriteBufferSize();
-            List<Put> puts = new ArrayList<>(batchSize);
-            while (elements.hasNext()) {
-                for (int i = 0; i < batchSize && elements.hasNext(); i++) {
-                    final Element element = elements.next();
-                    if (null == element) {
-                        i--;
-                        continue;
-                    }
-                    try {
-                        final Pair<Put, Put> putPair = serialisation.getPuts(element);
-                        puts.add(putPair.getFirst());
-                        if (null != putPair.getSecond()) {
-                            i++;
-                            if (i >= batchSize) {
-                                executePuts(table, puts);
-                                puts = new ArrayList<>(batchSize);
-                                i = 0;
-                            }
-                            puts.add(putPair.getSecond());
-                        }
-                    } catch (final Exception e) {
-                        if (addElementsOperation.isValidate() && !addElementsOperation.isSkipInvalidElements()) {
-                            throw e;
-                        }
-                        // otherwise just ignore the error
-                    }
+        final HBaseProperties properties = store.getProperties();
+        final boolean skipInvalidElements = addElementsOperation.isSkipInvalidElements();
+        try (final BufferedMutator mutator = store.getBufferedMutator((e, m) -> onException(e, skipInvalidElements))) {
+            final PutWriter putWriter = new PutWriter(addElementsOperation, store.getSerialisation(), mutator, properties.getWriteBufferSize());
+            final int numThreads = properties.getNumThreadsForIngest();
+            if (numThreads > 1) {
+                putWriter.write(addElementsOperation.getInput(), store.getIngestExecutorService(),
+                        properties.getIngestBatchSize(), properties.getMaxInFlightIngestBatches());
+            } else {
+                for (final Element element : addElementsOperation.getInput()) {
+                    putWriter.write(element);
                 }
-                executePuts(table, puts);
-                puts = new ArrayList<>(batchSize);
             }
+            mutator.flush();
         } catch (final IOException | StoreException e) {
             throw new OperationException("Failed to add elements", e);
         }
     }
 
-    private void executePuts(final Table table, final List<Put> puts) throws IOException {
-        if (!puts.isEmpty()) {
-            table.put(puts);
-            if (table instanceof HTable) {
-                ((HTable) table).flushCommits();
+    private static void onException(final RetriesExhaustedWithDetailsException exception, final boolean skipInvalidElements)
+            throws RetriesExhaustedWithDetailsException {
+        if (!skipInvalidElements) {
+            throw exception;
+        }
+        LOGGER.warn("Skipped {} puts that could not be written to HBase: {}", exception.getNumExceptions(), exception.getMessage());
+    }
+
+    private static final class PutWriter {
+        private final boolean validate;
+        private final boolean skipInvalidElements;
+        private final ElementSerialisation serialisation;
+        private final int flushSize;
+        private final BufferedMutator mutator;
+        private final AtomicLong numPuts = new AtomicLong();
+
+        private PutWriter(final AddElements addElementsOperation, final ElementSerialisation serialisation,
+                          final BufferedMutator mutator, final int flushSize) {
+            this.validate = addElementsOperation.isValidate();
+            this.skipInvalidElements = addElementsOperation.isSkipInvalidElements();
+            this.serialisation = serialisation;
+            this.mutator = mutator;
+            this.flushSize = flushSize;
+        }
+
+        private void write(final Iterable<? extends Element> elements, final ExecutorService executor,
+                           final int batchSize, final int maxInFlight) throws IOException, StoreException {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Ingest batch size must be at least 1 but was " + batchSize);
+            }
+
+            final int maxBatches = Math.max(1, maxInFlight);
+            final Deque<Future<?>> batches = new ArrayDeque<>(maxBatches);
+            try {
+                List<Element> batch = new ArrayList<>(batchSize);
+                for (final Element element : elements) {
+                    batch.add(element);
+                    if (batch.size() >= batchSize) {
+                        if (batches.size() >= maxBatches) {
+                            waitFor(batches.poll());
+                        }
+                        batches.add(submit(batch, executor));
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batches.add(submit(batch, executor));
+                }
+                while (!batches.isEmpty()) {
+                    waitFor(batches.poll());
+                }
+            } finally {
+                for (final Future<?> remaining : batches) {
+                    remaining.cancel(true);
+                }
+            }
+        }
+
+        private void write(final Element element) throws IOException {
+            if (null == element) {
+                return;
+            }
+
+            final Pair<Put, Put> putPair;
+            try {
+                putPair = serialisation.getPuts(element);
+            } catch (final Exception e) {
+                if (validate && !skipInvalidElements) {
+                    throw e;
+                }
+                // otherwise just ignore the error
+                return;
+            }
+            mutate(putPair.getFirst());
+            if (null != putPair.getSecond()) {
+                mutate(putPair.getSecond());
+            }
+        }
+
+        private void mutate(final Put put) throws IOException {
+            mutator.mutate(put);
+            if (0 == numPuts.incrementAndGet() % flushSize) {
+                mutator.flush();
+            }
+        }
+
+        private Future<?> submit(final List<Element> batch, final ExecutorService executor) {
+            return executor.submit(() -> {
+                for (final Element element : batch) {
+                    write(element);
+                }
+                return null;
+            });
+        }
+
+        private void waitFor(final Future<?> batch) throws IOException, StoreException {
+            try {
+                batch.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StoreException("Interrupted whilst adding elements", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new StoreException("Failed to add elements: " + e.getCause().getMessage(), e.getCause());
             }
         }
     }
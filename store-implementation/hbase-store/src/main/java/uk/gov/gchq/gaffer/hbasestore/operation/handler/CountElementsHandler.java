@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.ElementDedupeFilterProcessor;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupCountProcessor;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@code CountElementsHandler} handles {@link CountElements} operations by
+ * counting the elements in the HBase coprocessor.
+ */
+public class CountElementsHandler implements OutputOperationHandler<CountElements, Long> {
+    @Override
+    public Long doOperation(final CountElements operation, final Context context, final Store store)
+            throws OperationException {
+        return doOperation(operation, context.getUser(), (HBaseStore) store);
+    }
+
+    public Long doOperation(final CountElements operation, final User user, final HBaseStore store)
+            throws OperationException {
+        final Map<String, Long> counts = new HashMap<>();
+        countGroups(operation.getOperation(), null, counts, user, store);
+        long count = 0;
+        for (final Long groupCount : counts.values()) {
+            count += groupCount;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the elements in each group that a {@link GetElements} or
+     * {@link GetAllElements} operation would return.
+     * If a limit is given, only the first elements up to the limit are
+     * counted, in the order they are returned.
+     *
+     * @param operation the operation to count the elements of
+     * @param limit     the number of elements to count, or null to count all elements
+     * @param counts    the map to add the number of elements in each group to
+     * @param user      the user executing the operation
+     * @param store     the hbase store
+     * @return true if there were more elements than the limit
+     * @throws OperationException if the elements could not be counted
+     */
+    static boolean countGroups(final Output<?> operation, final Integer limit, final Map<String, Long> counts,
+                               final User user, final HBaseStore store) throws OperationException {
+        try {
+            if (operation instanceof GetElements) {
+                final GetElements getElements = (GetElements) operation;
+                if (null == getElements.getInput()) {
+                    // If null seeds no results are returned
+                    return false;
+                }
+                return store.createRetriever(getElements, user, getElements.getInput(), false, GroupCountProcessor.class)
+                        .countGroups(limit, counts);
+            } else if (operation instanceof GetAllElements) {
+                return store.createRetriever((GetAllElements) operation, user, null, false,
+                        ElementDedupeFilterProcessor.class, GroupCountProcessor.class)
+                        .countGroups(limit, counts);
+            } else {
+                throw new OperationException("Unable to count the elements returned by operation: "
+                        + (null != operation ? operation.getClass().getName() : null));
+            }
+        } catch (final StoreException e) {
+            throw new OperationException("Failed to count elements", e);
+        }
+    }
+}
@@ -17,12 +17,14 @@
 package uk.gov.gchq.gaffer.hbasestore.retriever;
 
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.security.visibility.Authorizations;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
@@ -38,7 +40,9 @@ import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
 import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupCountProcessor;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
@@ -52,6 +56,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Element>> & GraphFilters> implements CloseableIterable<Element> {
@@ -64,6 +69,9 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
     private final OP operation;
     private final byte[] extraProcessors;
     private final boolean includeMatchedVertex;
+    private final byte[] viewJson;
+
+    private Pair<byte[][], byte[][]> regionKeys;
 
     private CloseableIterator<Element> iterator;
     private Iterator<? extends ElementId> idsIterator;
@@ -74,7 +82,7 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
                           final Iterable<? extends ElementId> ids,
                           final boolean includeMatchedVertex,
                           final Class<?>... extraProcessors) throws StoreException {
-        this.serialisation = new ElementSerialisation(store.getSchema());
+        this.serialisation = store.getSerialisation();
         this.rowRangeFactory = new RowRangeFactory(serialisation);
         this.validator = new ElementValidator(operation.getView());
         this.store = store;
@@ -88,6 +96,7 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         }
 
         this.includeMatchedVertex = includeMatchedVertex;
+        this.viewJson = operation.getView().toCompactJson();
 
         if (null != extraProcessors && extraProcessors.length > 0) {
             this.extraProcessors = StringUtil.toCsv(extraProcessors);
@@ -124,6 +133,52 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         }
     }
 
+    /**
+     * Counts the elements that this retriever would return in each group.
+     * The retriever must have been created with the
+     * {@link GroupCountProcessor} extra processor, so the elements are
+     * counted by the coprocessor and only the counts are sent back to the
+     * client.
+     * <p>
+     * If a limit is given, only the first elements up to the limit are
+     * counted, in the order they are returned by the region servers.
+     * </p>
+     *
+     * @param limit  the number of elements to count, or null to count all elements
+     * @param counts the map to add the number of elements in each group to
+     * @return true if there were more elements than the limit
+     * @throws StoreException if the elements could not be counted
+     */
+    public boolean countGroups(final Integer limit, final Map<String, Long> counts) throws StoreException {
+        close();
+        long remaining = null != limit ? limit : Long.MAX_VALUE;
+        final CloseableIterable<Result> results;
+        if (null != ids) {
+            idsIterator = ids.iterator();
+            results = new BatchedResultScanner();
+        } else {
+            results = createScanner();
+        }
+
+        try (final CloseableIterator<Result> resultsItr = results.iterator()) {
+            while (resultsItr.hasNext()) {
+                for (final Cell cell : resultsItr.next().rawCells()) {
+                    final long total = GroupCountProcessor.addCounts(cell, counts, remaining);
+                    if (total > remaining) {
+                        return true;
+                    }
+                    remaining -= total;
+                }
+            }
+        } catch (final IOException e) {
+            throw new StoreException("Failed to count elements", e);
+        } finally {
+            CloseableUtil.close(results);
+            close();
+        }
+        return false;
+    }
+
     private Element deserialiseAndTransform(final Cell cell) {
         try {
             Element element = serialisation.getElement(cell, includeMatchedVertex);
@@ -150,9 +205,10 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
             return null;
         }
 
+        final int parallelism = store.getProperties().getScanParallelism();
         Table table = null;
         try {
-            final Scan scan = new Scan();
+            final Scan scan = createScan();
 
             if (null != idsIterator) {
                 final List<MultiRowRangeFilter.RowRange> rowRanges = new ArrayList<>();
@@ -167,20 +223,15 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
                     return new WrappedCloseableIterable<>(Collections.emptyList());
                 }
 
+                if (parallelism > 1) {
+                    return createRegionScanner(MultiRowRangeFilter.sortAndMerge(rowRanges), parallelism);
+                }
+
                 scan.setFilter(new MultiRowRangeFilter(rowRanges));
+            } else if (parallelism > 1) {
+                return createRegionScanner(null, parallelism);
             }
 
-            scan.setAuthorizations(authorisations);
-            scan.setAttribute(HBaseStoreConstants.SCHEMA, store.getSchema().toCompactJson());
-            scan.setAttribute(HBaseStoreConstants.INCLUDE_MATCHED_VERTEX, Bytes.toBytes(Boolean.toString(includeMatchedVertex)));
-            scan.setAttribute(HBaseStoreConstants.VIEW, operation.getView().toCompactJson());
-            if (null != operation.getDirectedType()) {
-                scan.setAttribute(HBaseStoreConstants.DIRECTED_TYPE, Bytes.toBytes(operation.getDirectedType().name()));
-            }
-            if (null != extraProcessors) {
-                scan.setAttribute(HBaseStoreConstants.EXTRA_PROCESSORS, extraProcessors);
-            }
-            scan.setMaxVersions();
             table = store.getTable();
             return new WrappedCloseableIterable<>(table.getScanner(scan));
         } catch (final IOException | StoreException e) {
@@ -191,6 +242,60 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         }
     }
 
+    private Scan createScan() {
+        // The schema is not added as the coprocessor is configured with it when the table is created
+        final Scan scan = new Scan();
+        scan.setAuthorizations(authorisations);
+        scan.setAttribute(HBaseStoreConstants.INCLUDE_MATCHED_VERTEX, Bytes.toBytes(Boolean.toString(includeMatchedVertex)));
+        scan.setAttribute(HBaseStoreConstants.VIEW, viewJson);
+        if (null != operation.getDirectedType()) {
+            scan.setAttribute(HBaseStoreConstants.DIRECTED_TYPE, Bytes.toBytes(operation.getDirectedType().name()));
+        }
+        if (null != extraProcessors) {
+            scan.setAttribute(HBaseStoreConstants.EXTRA_PROCESSORS, extraProcessors);
+        }
+        scan.setMaxVersions();
+        return scan;
+    }
+
+    // Creates a scan for each region, restricted to the given row ranges if there are any
+    private CloseableIterable<Result> createRegionScanner(final List<MultiRowRangeFilter.RowRange> rowRanges,
+                                                          final int parallelism)
+            throws IOException, StoreException {
+        final byte[][] startKeys = getRegionKeys().getFirst();
+        final byte[][] endKeys = getRegionKeys().getSecond();
+        final List<List<MultiRowRangeFilter.RowRange>> regionRanges = null != rowRanges
+                ? ParallelRegionScanner.groupByRegion(rowRanges, startKeys, endKeys)
+                : null;
+
+        final List<Scan> scans = new ArrayList<>(startKeys.length);
+        for (int i = 0; i < startKeys.length; i++) {
+            if (null != regionRanges && regionRanges.get(i).isEmpty()) {
+                continue;
+            }
+            final Scan scan = createScan();
+            scan.setStartRow(startKeys[i]);
+            scan.setStopRow(endKeys[i]);
+            if (null != regionRanges) {
+                scan.setFilter(new MultiRowRangeFilter(regionRanges.get(i)));
+            }
+            scans.add(scan);
+        }
+
+        final HBaseProperties properties = store.getProperties();
+        return new ParallelRegionScanner(store, scans, parallelism, properties.getMaxQueuedResultsForParallelScan(),
+                store.getScanExecutorService(), properties.getMaxTimeOutForParallelScanInMilliseconds());
+    }
+
+    private Pair<byte[][], byte[][]> getRegionKeys() throws IOException, StoreException {
+        if (null == regionKeys) {
+            try (final RegionLocator locator = store.getConnection().getRegionLocator(store.getTableName())) {
+                regionKeys = locator.getStartEndKeys();
+            }
+        }
+        return regionKeys;
+    }
+
     public class BatchedResultScanner extends BatchedIterable<Result> {
         @Override
         protected Iterable<Result> createBatch() {
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a list of {@link Scan}s, normally one per region, with up to a given
+ * number of them running concurrently. The results of each scan are buffered
+ * in a bounded queue and returned in the order the scans were given, so if the
+ * scans are in region order the results are still returned in row order.
+ * <p>
+ * The scans run on the executor passed in, which is expected to be bounded.
+ * If the executor has no thread available a scan is instead read directly on
+ * the thread consuming the results. If no results are read for longer than the
+ * timeout the iterator is treated as abandoned: the running scans stop and
+ * close their scanners, and reading any further results fails.
+ * </p>
+ */
+public class ParallelRegionScanner implements CloseableIterable<Result> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRegionScanner.class);
+    private static final Object END = new Object();
+    private static final long OFFER_INTERVAL_MILLIS = 100L;
+
+    private final HBaseStore store;
+    private final List<Scan> scans;
+    private final int parallelism;
+    private final int maxQueuedResults;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+    private ResultIterator iterator;
+
+    /**
+     * @param store            the store to scan
+     * @param scans            the scans to run, in the order their results should be returned
+     * @param parallelism      the maximum number of scans to run concurrently
+     * @param maxQueuedResults the maximum number of results read but not yet returned
+     * @param executor         the executor to run the scans on
+     * @param timeoutMillis    the time without any results being read after which the scans are abandoned
+     */
+    public ParallelRegionScanner(final HBaseStore store, final List<Scan> scans,
+                                 final int parallelism, final int maxQueuedResults,
+                                 final ExecutorService executor, final long timeoutMillis) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Scan parallelism must be at least 1 but was " + parallelism);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Parallel scan timeout must be at least 1 but was " + timeoutMillis);
+        }
+        this.store = store;
+        this.scans = scans;
+        this.parallelism = parallelism;
+        this.maxQueuedResults = maxQueuedResults;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Splits the row ranges at the region boundaries and groups them by
+     * region. Ranges that cross a region boundary are split into one range
+     * per region.
+     *
+     * @param rowRanges the row ranges, sorted and non overlapping
+     * @param startKeys the start keys of the regions, in order
+     * @param endKeys   the end keys of the regions, in order
+     * @return the row ranges for each region, in region order
+     */
+    public static List<List<RowRange>> groupByRegion(final List<RowRange> rowRanges,
+                                                     final byte[][] startKeys,
+                                                     final byte[][] endKeys) {
+        final List<List<RowRange>> groups = new ArrayList<>(startKeys.length);
+        for (int i = 0; i < startKeys.length; i++) {
+            groups.add(new ArrayList<>());
+        }
+
+        for (final RowRange range : rowRanges) {
+            byte[] start = range.getStartRow();
+            boolean startInclusive = range.isStartRowInclusive();
+            int region = getRegion(start, startKeys);
+            while (true) {
+                final byte[] regionEnd = endKeys[region];
+                final int compare = 0 == regionEnd.length ? -1 : Bytes.compareTo(range.getStopRow(), regionEnd);
+                if (compare < 0 || (0 == compare && !range.isStopRowInclusive())) {
+                    groups.get(region).add(new RowRange(start, startInclusive, range.getStopRow(), range.isStopRowInclusive()));
+                    break;
+                }
+                groups.get(region).add(new RowRange(start, startInclusive, regionEnd, false));
+                start = regionEnd;
+                startInclusive = true;
+                region++;
+            }
+        }
+
+        return groups;
+    }
+
+    private static int getRegion(final byte[] row, final byte[][] startKeys) {
+        final int index = Arrays.binarySearch(startKeys, row, Bytes.BYTES_COMPARATOR);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    @Override
+    public CloseableIterator<Result> iterator() {
+        close();
+        iterator = new ResultIterator();
+        return iterator;
+    }
+
+    @Override
+    public void close() {
+        if (null != iterator) {
+            iterator.close();
+            iterator = null;
+        }
+    }
+
+    private final class ResultIterator implements CloseableIterator<Result> {
+        private final Iterator<Scan> scansIterator = scans.iterator();
+        private final Deque<RegionScan> regionScans = new ArrayDeque<>(parallelism);
+        private final int queueSize = Math.max(1, maxQueuedResults / parallelism);
+        private volatile boolean closed;
+        private volatile boolean abandoned;
+        private volatile boolean reading;
+        private volatile long lastReadMillis = System.currentTimeMillis();
+        private Result next;
+
+        private ResultIterator() {
+            while (regionScans.size() < parallelism && scansIterator.hasNext()) {
+                startNextScan();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            reading = true;
+            try {
+                while (null == next && !closed && !regionScans.isEmpty()) {
+                    final Object item = regionScans.peek().take();
+                    if (END == item) {
+                        regionScans.poll().cancel();
+                        if (!closed && scansIterator.hasNext()) {
+                            startNextScan();
+                        }
+                    } else if (item instanceof Exception) {
+                        close();
+                        throw new RuntimeException("Failed to scan region: " + ((Exception) item).getMessage(), (Exception) item);
+                    } else {
+                        next = (Result) item;
+                    }
+                }
+            } finally {
+                lastReadMillis = System.currentTimeMillis();
+                reading = false;
+            }
+            if (abandoned) {
+                next = null;
+                throw new RuntimeException("The scanned results were not read within " + timeoutMillis + "ms, so the scans were closed");
+            }
+            return null != next;
+        }
+
+        @Override
+        public Result next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+            final Result result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            next = null;
+            for (final RegionScan regionScan : regionScans) {
+                regionScan.cancel();
+            }
+            regionScans.clear();
+        }
+
+        private void startNextScan() {
+            final RegionScan regionScan = new RegionScan(scansIterator.next(), queueSize);
+            regionScan.start();
+            regionScans.add(regionScan);
+        }
+
+        // Stops all the running scans because their results have not been read
+        private void abandon() {
+            if (!abandoned) {
+                LOGGER.warn("Closing parallel region scans as their results were not read within {}ms", timeoutMillis);
+                abandoned = true;
+            }
+            closed = true;
+        }
+
+        private final class RegionScan implements Runnable {
+            private final Scan scan;
+            private final BlockingQueue<Object> queue;
+            private Future<?> future;
+            private Table table;
+            private ResultScanner scanner;
+
+            private RegionScan(final Scan scan, final int queueSize) {
+                this.scan = scan;
+                this.queue = new ArrayBlockingQueue<>(queueSize);
+            }
+
+            private void start() {
+                try {
+                    future = executor.submit(this);
+                } catch (final RejectedExecutionException e) {
+                    LOGGER.debug("No thread available for a parallel region scan, so the region will be read directly");
+                }
+            }
+
+            private void cancel() {
+                if (null != future) {
+                    future.cancel(true);
+                }
+                closeScanner();
+            }
+
+            private Object take() {
+                if (null == future) {
+                    return readDirectly();
+                }
+                try {
+                    // Wait in intervals, as the iterator may be closed by another scan being abandoned
+                    while (!closed) {
+                        final Object item = queue.poll(OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                        if (null != item) {
+                            return item;
+                        }
+                    }
+                    return END;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new IOException("Interrupted whilst waiting for scan results", e);
+                }
+            }
+
+            // Reads the next result on the calling thread, when the scan could not be run on the executor
+            private Object readDirectly() {
+                try {
+                    if (null == scanner) {
+                        table = store.getTable();
+                        scanner = table.getScanner(scan);
+                    }
+                    final Result result = scanner.next();
+                    if (null == result) {
+                        closeScanner();
+                        return END;
+                    }
+                    return result;
+                } catch (final IOException | StoreException | RuntimeException e) {
+                    LOGGER.debug("Failed to scan region", e);
+                    closeScanner();
+                    return e;
+                }
+            }
+
+            private void closeScanner() {
+                if (null != scanner) {
+                    scanner.close();
+                    scanner = null;
+                }
+                if (null != table) {
+                    try {
+                        table.close();
+                    } catch (final IOException e) {
+                        LOGGER.debug("Failed to close table", e);
+                    }
+                    table = null;
+                }
+            }
+
+            @Override
+            public void run() {
+                Object last = END;
+                try (final Table scanTable = store.getTable();
+                     final ResultScanner resultScanner = scanTable.getScanner(scan)) {
+                    for (final Result result : resultScanner) {
+                        if (!offer(result)) {
+                            return;
+                        }
+                    }
+                } catch (final IOException | StoreException | RuntimeException e) {
+                    if (closed) {
+                        LOGGER.debug("Region scan failed after the iterator was closed", e);
+                        return;
+                    }
+                    LOGGER.debug("Failed to scan region", e);
+                    last = e;
+                }
+                offer(last);
+            }
+
+            // Adds an item to the queue, waiting whilst it is full. Returns false if
+            // the iterator is closed, or it is abandoned because nothing has tried
+            // to read the results for longer than the timeout.
+            private boolean offer(final Object item) {
+                try {
+                    while (!closed) {
+                        if (queue.offer(item, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                        if (!reading && System.currentTimeMillis() - lastReadMillis > timeoutMillis) {
+                            abandon();
+                            queue.clear();
+                        }
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -62,6 +62,10 @@ public class ElementSerialisation {
         this.timestampProperty = null != schema ? schema.getConfig(HBaseStoreConstants.TIMESTAMP_PROPERTY) : null;
     }
 
+    public Schema getSchema() {
+        return schema;
+    }
+
     public byte[] getValue(final Element element) throws SerialisationException {
         return getValue(element.getGroup(), element.getProperties());
     }
@@ -104,12 +108,17 @@ public class ElementSerialisation {
 
     public Properties getPropertiesFromValue(final String group, final byte[] value)
             throws SerialisationException {
+        return null == value ? new Properties() : getPropertiesFromValue(group, value, 0, value.length);
+    }
+
+    public Properties getPropertiesFromValue(final String group, final byte[] value, final int offset, final int length)
+            throws SerialisationException {
         final Properties properties = new Properties();
-        if (null == value || value.length == 0) {
+        if (null == value || length == 0) {
             return properties;
         }
-        int lastDelimiter = 0;
-        final int arrayLength = value.length;
+        int lastDelimiter = offset;
+        final int arrayLength = offset + length;
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
@@ -167,8 +176,8 @@ public class ElementSerialisation {
     }
 
     public Properties getProperties(final String group, final Cell cell) throws SerialisationException {
-        Properties properties = getPropertiesFromColumnQualifier(group, CellUtil.cloneQualifier(cell));
-        properties.putAll(getPropertiesFromValue(group, CellUtil.cloneValue(cell)));
+        Properties properties = getPropertiesFromColumnQualifier(group, cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+        properties.putAll(getPropertiesFromValue(group, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
         properties.putAll(getPropertiesFromTimestamp(group, cell.getTimestamp()));
         return properties;
     }
@@ -248,18 +257,23 @@ public class ElementSerialisation {
 
     public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes)
             throws SerialisationException {
+        return null == bytes ? getPropertiesFromColumnQualifier(group, null, 0, 0) : getPropertiesFromColumnQualifier(group, bytes, 0, bytes.length);
+    }
+
+    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes, final int offset, final int length)
+            throws SerialisationException {
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
         }
 
         final Properties properties = new Properties();
-        if (null == bytes || bytes.length == 0) {
+        if (null == bytes || length == 0) {
             return properties;
         }
 
-        int carriage = CompactRawSerialisationUtils.decodeVIntSize(bytes[0]) + Bytes.toBytes(group).length;
-        final int arrayLength = bytes.length;
+        int carriage = offset + CompactRawSerialisationUtils.decodeVIntSize(bytes[offset]) + Bytes.toBytes(group).length;
+        final int arrayLength = offset + length;
 
         final Iterator<String> propertyNames = elementDefinition.getGroupBy().iterator();
         while (propertyNames.hasNext() && carriage < arrayLength) {
@@ -597,9 +611,9 @@ public class ElementSerialisation {
     private void addPropertiesToElement(final Element element, final Cell cell)
             throws SerialisationException {
         element.copyProperties(
-                getPropertiesFromColumnQualifier(element.getGroup(), CellUtil.cloneQualifier(cell)));
+                getPropertiesFromColumnQualifier(element.getGroup(), cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()));
         element.copyProperties(
-                getPropertiesFromValue(element.getGroup(), CellUtil.cloneValue(cell)));
+                getPropertiesFromValue(element.getGroup(), cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
         element.copyProperties(
                 getPropertiesFromTimestamp(element.getGroup(), cell.getTimestamp()));
     }
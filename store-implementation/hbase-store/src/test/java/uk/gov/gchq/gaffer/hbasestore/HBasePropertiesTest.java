@@ -39,11 +39,18 @@ public class HBasePropertiesTest {
         properties.setDependencyJarsHdfsDirPath("pathTo/jars");
         properties.setWriteBufferSize(10);
         properties.setZookeepers("zookeeper1,zookeeper2");
+        properties.setMutatorBufferSizeInBytes("1024");
+        properties.setNumThreadsForIngest("4");
+        properties.setIngestBatchSize("50");
 
         // Then
         assertEquals(new Path("pathTo/jars"), properties.getDependencyJarsHdfsDirPath());
         assertEquals(10, properties.getWriteBufferSize());
         assertEquals("zookeeper1,zookeeper2", properties.getZookeepers());
+        assertEquals(1024L, properties.getMutatorBufferSizeInBytes());
+        assertEquals(4, properties.getNumThreadsForIngest());
+        assertEquals(50, properties.getIngestBatchSize());
+        assertEquals(8, properties.getMaxInFlightIngestBatches());
     }
 
     @Test
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.AddElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetElementsHandler;
@@ -47,6 +48,7 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -122,6 +124,41 @@ public class HBaseStoreTest {
         }
     }
 
+    @Test
+    public void shouldShutDownExecutorsWhenClosed() {
+        // Given
+        final ExecutorService ingestExecutor = store.getIngestExecutorService();
+        final ExecutorService scanExecutor = store.getScanExecutorService();
+
+        // When
+        store.close();
+
+        // Then
+        assertTrue(ingestExecutor.isShutdown());
+        assertTrue(scanExecutor.isShutdown());
+        assertFalse(store.getIngestExecutorService().isShutdown());
+    }
+
+    @Test
+    public void shouldShutDownExecutorsWhenGraphIsClosed() {
+        // Given
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .build())
+                .store(store)
+                .build();
+        final ExecutorService ingestExecutor = store.getIngestExecutorService();
+        final ExecutorService scanExecutor = store.getScanExecutorService();
+
+        // When
+        graph.close();
+
+        // Then
+        assertTrue(ingestExecutor.isShutdown());
+        assertTrue(scanExecutor.isShutdown());
+    }
+
     @Test
     public void shouldCreateAStoreUsingTableName() throws Exception {
         // Given
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor.processor;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.LazyElementCell;
+import uk.gov.gchq.gaffer.hbasestore.util.CellUtil;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupCountProcessorTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", String.class)
+            .type("type", Boolean.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private final ElementSerialisation serialisation = new ElementSerialisation(SCHEMA);
+
+    @Test
+    public void shouldReplaceCellsWithASingleCountCell() throws SerialisationException, IOException {
+        // Given
+        final List<LazyElementCell> cells = getLazyCells(
+                entity("a"), edge("a", "b"), edge("a", "c"), entity("a"));
+
+        // When
+        final List<LazyElementCell> result = new GroupCountProcessor().process(cells);
+
+        // Then
+        assertThat(result).hasSize(1);
+        final Map<String, Long> counts = new HashMap<>();
+        final long total = GroupCountProcessor.addCounts(result.get(0).getCell(), counts, Long.MAX_VALUE);
+        assertThat(total).isEqualTo(4L);
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put(TestGroups.ENTITY, 2L);
+        expected.put(TestGroups.EDGE, 2L);
+        assertThat(counts).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldOnlyAddCountsUpToTheMaxCountInTheOrderTheElementsWereRead() throws SerialisationException, IOException {
+        // Given
+        final List<LazyElementCell> cells = getLazyCells(
+                entity("a"), edge("a", "b"), edge("a", "c"), entity("a"));
+        final List<LazyElementCell> result = new GroupCountProcessor().process(cells);
+
+        // When
+        final Map<String, Long> counts = new HashMap<>();
+        final long total = GroupCountProcessor.addCounts(result.get(0).getCell(), counts, 2L);
+
+        // Then
+        assertThat(total).isEqualTo(4L);
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put(TestGroups.ENTITY, 1L);
+        expected.put(TestGroups.EDGE, 1L);
+        assertThat(counts).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldReturnNoCellsIfThereAreNoElements() {
+        // When
+        final List<LazyElementCell> result = new GroupCountProcessor().process(Collections.emptyList());
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    private List<LazyElementCell> getLazyCells(final Element... elements) throws SerialisationException {
+        final List<LazyElementCell> cells = new ArrayList<>();
+        for (final Element element : elements) {
+            cells.add(CellUtil.getLazyCell(element, serialisation));
+        }
+        return cells;
+    }
+
+    private static Element entity(final String vertex) {
+        return new Entity(TestGroups.ENTITY, vertex);
+    }
+
+    private static Element edge(final String source, final String dest) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(dest)
+                .directed(true)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryProcessorsPoolTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", String.class)
+            .type("type", Boolean.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .aggregate(false)
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .aggregate(false)
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private final QueryProcessorsPool pool = new QueryProcessorsPool(SCHEMA, new ElementSerialisation(SCHEMA));
+
+    @Test
+    public void shouldReuseReleasedProcessorsForTheSameView() {
+        // Given
+        final List<GafferScannerProcessor> processors = pool.borrow(createScan(TestGroups.ENTITY));
+        pool.release(createScan(TestGroups.ENTITY), processors);
+
+        // When
+        final List<GafferScannerProcessor> reused = pool.borrow(createScan(TestGroups.ENTITY));
+
+        // Then
+        assertThat(reused).isSameAs(processors);
+    }
+
+    @Test
+    public void shouldNotShareProcessorsThatHaveNotBeenReleased() {
+        // Given
+        final List<GafferScannerProcessor> processors = pool.borrow(createScan(TestGroups.ENTITY));
+
+        // When
+        final List<GafferScannerProcessor> other = pool.borrow(createScan(TestGroups.ENTITY));
+
+        // Then
+        assertThat(other).isNotSameAs(processors)
+                .hasSameSizeAs(processors);
+    }
+
+    @Test
+    public void shouldNotReuseProcessorsForADifferentView() {
+        // Given
+        final List<GafferScannerProcessor> processors = pool.borrow(createScan(TestGroups.ENTITY));
+        pool.release(createScan(TestGroups.ENTITY), processors);
+
+        // When
+        final List<GafferScannerProcessor> other = pool.borrow(createScan(TestGroups.EDGE));
+
+        // Then
+        assertThat(other).isNotSameAs(processors);
+    }
+
+    private Scan createScan(final String group) {
+        final View view = new View.Builder()
+                .entity(group)
+                .build();
+        final Scan scan = new Scan();
+        scan.setAttribute(HBaseStoreConstants.VIEW, view.toCompactJson());
+        return scan;
+    }
+}
@@ -17,9 +17,9 @@
 package uk.gov.gchq.gaffer.hbasestore.operation.handler;
 
 import com.google.common.collect.Lists;
-import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
-import org.apache.hadoop.hbase.client.Table;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -48,11 +48,15 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -137,8 +141,9 @@ public class AddElementsHandlerTest {
         final Context context = mock(Context.class);
         final HBaseStore store = mock(HBaseStore.class);
 
-        final HTable table = mock(HTable.class);
-        given(store.getTable()).willReturn(table);
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any())).willReturn(mutator);
+        given(store.getSerialisation()).willReturn(new ElementSerialisation(SCHEMA));
 
         final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
         final int writeBufferSize = 5;
@@ -151,14 +156,86 @@ public class AddElementsHandlerTest {
         handler.doOperation(addElements, context, store);
 
         // Then
-        final ArgumentCaptor<List<Put>> putsCaptor = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
-        verify(table, times(2)).put(putsCaptor.capture());
-        verify(table, times(2)).flushCommits();
-        final List<List<Put>> allPuts = putsCaptor.getAllValues();
-        assertThat(allPuts).hasSize(2);
-        final List<Put> combinedPuts = new ArrayList<>();
-        combinedPuts.addAll(allPuts.get(0));
-        combinedPuts.addAll(allPuts.get(1));
+        final ArgumentCaptor<Mutation> putsCaptor = ArgumentCaptor.forClass(Mutation.class);
+        verify(mutator, times(9)).mutate(putsCaptor.capture());
+        verify(mutator, times(2)).flush();
+        verify(mutator).close();
+        assertPutsContainElements(putsCaptor.getAllValues(), elements);
+    }
+
+    @Test
+    public void shouldAddElementsUsingMultipleThreads() throws OperationException, StoreException, IOException {
+        // Given
+        final AddElementsHandler handler = new AddElementsHandler();
+        final List<Element> elements = createElements();
+        final List<Element> elementsWithNull = new ArrayList<>(elements);
+        elementsWithNull.add(null); // null should be skipped
+
+        final AddElements addElements = new AddElements.Builder()
+                .input(elementsWithNull)
+                .build();
+        final Context context = mock(Context.class);
+        final HBaseStore store = mock(HBaseStore.class);
+
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any())).willReturn(mutator);
+        given(store.getSerialisation()).willReturn(new ElementSerialisation(SCHEMA));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        given(store.getIngestExecutorService()).willReturn(executor);
+
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
+        properties.setNumThreadsForIngest("2");
+        properties.setIngestBatchSize("2");
+        properties.setMaxInFlightIngestBatches("1");
+        given(store.getProperties()).willReturn(properties);
+
+        given(store.getSchema()).willReturn(SCHEMA);
+
+        // When
+        try {
+            handler.doOperation(addElements, context, store);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        final ArgumentCaptor<Mutation> putsCaptor = ArgumentCaptor.forClass(Mutation.class);
+        verify(mutator, times(9)).mutate(putsCaptor.capture());
+        verify(mutator, atLeastOnce()).flush();
+        verify(mutator).close();
+        assertPutsContainElements(putsCaptor.getAllValues(), elements);
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElementWhenValidating() throws StoreException {
+        // Given
+        final AddElements addElements = new AddElements.Builder()
+                .input(new Edge("Unknown group", "source", "dest", true))
+                .build();
+
+        final AddElementsHandler handler = new AddElementsHandler();
+        final Context context = mock(Context.class);
+        final HBaseStore store = mock(HBaseStore.class);
+
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any())).willReturn(mutator);
+        given(store.getSerialisation()).willReturn(new ElementSerialisation(SCHEMA));
+
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
+        given(store.getProperties()).willReturn(properties);
+
+        given(store.getSchema()).willReturn(SCHEMA);
+
+        // When / Then
+        assertThatExceptionOfType(OperationException.class)
+                .isThrownBy(() -> handler.doOperation(addElements, context, store));
+    }
+
+    private void assertPutsContainElements(final List<Mutation> mutations, final List<Element> elements) throws IOException {
+        final List<Put> puts = new ArrayList<>();
+        for (final Mutation mutation : mutations) {
+            puts.add((Put) mutation);
+        }
 
         final List<Element> expectedElements = new ArrayList<>();
         for (final Element element : elements) {
@@ -168,7 +245,7 @@ public class AddElementsHandlerTest {
             }
         }
         final Element[] expectedElementsArr = expectedElements.toArray(new Element[expectedElements.size()]);
-        final List<Element> elementsAdded = CellUtil.getElements(combinedPuts, new ElementSerialisation(SCHEMA), false);
+        final List<Element> elementsAdded = CellUtil.getElements(puts, new ElementSerialisation(SCHEMA), false);
         assertEquals(expectedElements.size(), elementsAdded.size());
         assertThat(elementsAdded).contains(expectedElementsArr);
     }
@@ -181,8 +258,9 @@ public class AddElementsHandlerTest {
         final Context context = mock(Context.class);
         final HBaseStore store = mock(HBaseStore.class);
 
-        final Table table = mock(Table.class);
-        given(store.getTable()).willReturn(table);
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any())).willReturn(mutator);
+        given(store.getSerialisation()).willReturn(new ElementSerialisation(SCHEMA));
 
         final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
         given(store.getProperties()).willReturn(properties);
@@ -193,7 +271,7 @@ public class AddElementsHandlerTest {
         handler.doOperation(addElements, context, store);
 
         // Then
-        verify(table, never()).put(any(Put.class));
+        verify(mutator, never()).mutate(any(Mutation.class));
     }
 
     private List<Element> createElements() {
@@ -264,8 +342,9 @@ public class AddElementsHandlerTest {
         final Context context = mock(Context.class);
         final HBaseStore store = mock(HBaseStore.class);
 
-        final Table table = mock(Table.class);
-        given(store.getTable()).willReturn(table);
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any())).willReturn(mutator);
+        given(store.getSerialisation()).willReturn(new ElementSerialisation(SCHEMA));
 
         final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
         given(store.getProperties()).willReturn(properties);
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountElementGroupsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(CountElementGroupsHandlerTest.class));
+    private static final HBaseProperties PROPERTIES = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(CountElementGroupsHandlerTest.class));
+    private static final User USER = new User();
+
+    private static HBaseStore store;
+
+    @BeforeAll
+    public static void setup() throws StoreException, OperationException {
+        store = new SingleUseMiniHBaseStore();
+        store.initialise("countGroupsGraph", SCHEMA, PROPERTIES);
+        store.execute(new AddElements.Builder()
+                .input(CountElementsHandlerTest.createElements())
+                .build(), new Context(USER));
+    }
+
+    @Test
+    public void shouldCountGroupsTheSameAsCountGroups() throws OperationException {
+        for (final View view : CountElementsHandlerTest.createViews()) {
+            // Given
+            final GetElements getElements = new GetElements.Builder()
+                    .input(new EntitySeed("v1"), new EntitySeed("v2"), new EntitySeed("v5"))
+                    .view(view)
+                    .build();
+            final GetAllElements getAllElements = new GetAllElements.Builder()
+                    .view(view)
+                    .build();
+
+            for (final Output getOperation : new Output[]{getElements, getAllElements}) {
+                // When
+                final GroupCounts groupCounts = new CountElementGroupsHandler().doOperation(new CountElementGroups.Builder()
+                        .operation(getOperation)
+                        .build(), USER, store);
+
+                // Then
+                final GroupCounts expected = countGroups(getOperation, null);
+                assertThat(groupCounts.getEntityGroups()).isEqualTo(expected.getEntityGroups());
+                assertThat(groupCounts.getEdgeGroups()).isEqualTo(expected.getEdgeGroups());
+                assertThat(groupCounts.isLimitHit()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void shouldStopCountingAtLimit() throws OperationException {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(CountElementsHandlerTest.createViews().get(0))
+                .build();
+
+        // When
+        final GroupCounts groupCounts = store.execute(new OperationChain.Builder()
+                .first(getAllElements)
+                .then(new CountGroups(25))
+                .build(), new Context(USER));
+
+        // Then
+        assertThat(groupCounts.isLimitHit()).isTrue();
+        final int total = groupCounts.getEntityGroups().values().stream().mapToInt(Integer::intValue).sum()
+                + groupCounts.getEdgeGroups().values().stream().mapToInt(Integer::intValue).sum();
+        assertThat(total).isEqualTo(25);
+    }
+
+    @Test
+    public void shouldCountTheSameGroupsAsCountGroupsUpToLimit() throws OperationException {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(CountElementsHandlerTest.createViews().get(0))
+                .build();
+
+        // When
+        final GroupCounts groupCounts = new CountElementGroupsHandler().doOperation(new CountElementGroups.Builder()
+                .operation(getAllElements)
+                .limit(25)
+                .build(), USER, store);
+
+        // Then
+        final GroupCounts expected = countGroups(getAllElements, 25);
+        assertThat(groupCounts.getEntityGroups()).isEqualTo(expected.getEntityGroups());
+        assertThat(groupCounts.getEdgeGroups()).isEqualTo(expected.getEdgeGroups());
+        assertThat(groupCounts.isLimitHit()).isTrue();
+    }
+
+    private GroupCounts countGroups(final Output getOperation, final Integer limit) throws OperationException {
+        final CountGroups countGroups = new CountGroups(limit);
+        countGroups.setInput((Iterable) store.execute(getOperation, new Context(USER)));
+        return new CountGroupsHandler().doOperation(countGroups, new Context(USER), store);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HBaseRetrieverTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(HBaseRetrieverTest.class));
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .edge(TestGroups.EDGE)
+            .build();
+    private static final int NUM_VERTICES = 10;
+    private static final String[] SPLITS = {"v3", "v6"};
+
+    private static SingleUseMiniHBaseStore store;
+
+    @BeforeAll
+    public static void setup() throws StoreException, OperationException, IOException, InterruptedException {
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(HBaseRetrieverTest.class));
+        properties.setScanParallelism("2");
+        properties.setMaxQueuedResultsForParallelScan("2");
+        store = new SingleUseMiniHBaseStore();
+        store.initialise("parallelScanGraph", SCHEMA, properties);
+        store.execute(new AddElements.Builder()
+                .input(createElements())
+                .build(), new Context(new User()));
+        split();
+    }
+
+    @Test
+    public void shouldGetAllElementsAcrossRegionsInOrder() throws OperationException {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(VIEW)
+                .build();
+
+        // When
+        final List<Element> results = new ArrayList<>();
+        try (final CloseableIterable<? extends Element> elements = store.execute(getAllElements, new Context(new User()))) {
+            elements.forEach(results::add);
+        }
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(createElements());
+        assertThat(results.get(0)).isEqualTo(createEntity(0));
+        assertThat(results.get(results.size() - 1)).isEqualTo(createEntity(NUM_VERTICES - 1));
+    }
+
+    @Test
+    public void shouldGetElementsForSeedsAcrossRegions() throws OperationException {
+        // Given
+        final GetElements getElements = new GetElements.Builder()
+                .input(new EntitySeed("v2"), new EntitySeed("v5"), new EntitySeed("v8"))
+                .view(VIEW)
+                .build();
+
+        // When
+        final List<Element> results = new ArrayList<>();
+        try (final CloseableIterable<? extends Element> elements = store.execute(getElements, new Context(new User()))) {
+            elements.forEach(results::add);
+        }
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrder(
+                createEntity(2), createEdge(1, MatchedVertex.DESTINATION), createEdge(2, MatchedVertex.SOURCE),
+                createEntity(5), createEdge(4, MatchedVertex.DESTINATION), createEdge(5, MatchedVertex.SOURCE),
+                createEntity(8), createEdge(7, MatchedVertex.DESTINATION), createEdge(8, MatchedVertex.SOURCE));
+    }
+
+    private static void split() throws StoreException, IOException, InterruptedException {
+        try (final Admin admin = store.getConnection().getAdmin();
+             final RegionLocator locator = store.getConnection().getRegionLocator(store.getTableName())) {
+            for (int i = 0; i < SPLITS.length; i++) {
+                // Splits are asynchronous, so retry until the region has been split
+                for (int attempt = 0; attempt < 100 && locator.getStartKeys().length < i + 2; attempt++) {
+                    try {
+                        admin.split(store.getTableName(), Bytes.toBytes(SPLITS[i]));
+                    } catch (final IOException e) {
+                        // The region is still being split or moved
+                    }
+                    Thread.sleep(200);
+                }
+            }
+            assertThat(locator.getStartKeys().length).isEqualTo(SPLITS.length + 1);
+        }
+    }
+
+    private static List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_VERTICES; i++) {
+            elements.add(createEntity(i));
+            if (i < NUM_VERTICES - 1) {
+                elements.add(createEdge(i));
+            }
+        }
+        return elements;
+    }
+
+    private static Entity createEntity(final int i) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("v" + i)
+                .property("count", 1)
+                .property("visibility", "")
+                .build();
+    }
+
+    private static Edge createEdge(final int i) {
+        return createEdge(i, null);
+    }
+
+    private static Edge createEdge(final int i, final MatchedVertex matchedVertex) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("v" + i)
+                .dest("v" + (i + 1))
+                .directed(true)
+                .matchedVertex(matchedVertex)
+                .property("count", 1)
+                .property("visibility", "")
+                .build();
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class ParallelRegionScannerTest {
+    private static final byte[][] START_KEYS = {Bytes.toBytes(""), Bytes.toBytes("d"), Bytes.toBytes("m")};
+    private static final byte[][] END_KEYS = {Bytes.toBytes("d"), Bytes.toBytes("m"), Bytes.toBytes("")};
+
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolExecutor(0, 2, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldGroupRowRangesByRegion() {
+        // Given
+        final List<RowRange> ranges = Arrays.asList(
+                range("a", true, "b", true),
+                range("e", true, "f", false),
+                range("n", true, "z", true));
+
+        // When
+        final List<List<RowRange>> groups = ParallelRegionScanner.groupByRegion(ranges, START_KEYS, END_KEYS);
+
+        // Then
+        assertThat(groups).hasSize(3);
+        assertThat(describe(groups.get(0))).containsExactly("[a, b]");
+        assertThat(describe(groups.get(1))).containsExactly("[e, f)");
+        assertThat(describe(groups.get(2))).containsExactly("[n, z]");
+    }
+
+    @Test
+    public void shouldSplitRowRangesThatCrossRegionBoundaries() {
+        // Given
+        final List<RowRange> ranges = Collections.singletonList(range("c", true, "m", true));
+
+        // When
+        final List<List<RowRange>> groups = ParallelRegionScanner.groupByRegion(ranges, START_KEYS, END_KEYS);
+
+        // Then
+        assertThat(describe(groups.get(0))).containsExactly("[c, d)");
+        assertThat(describe(groups.get(1))).containsExactly("[d, m)");
+        assertThat(describe(groups.get(2))).containsExactly("[m, m]");
+    }
+
+    @Test
+    public void shouldNotSplitRowRangesEndingExclusivelyOnARegionBoundary() {
+        // Given
+        final List<RowRange> ranges = Collections.singletonList(range("a", true, "d", false));
+
+        // When
+        final List<List<RowRange>> groups = ParallelRegionScanner.groupByRegion(ranges, START_KEYS, END_KEYS);
+
+        // Then
+        assertThat(describe(groups.get(0))).containsExactly("[a, d)");
+        assertThat(groups.get(1)).isEmpty();
+        assertThat(groups.get(2)).isEmpty();
+    }
+
+    @Test
+    public void shouldReturnResultsInScanOrder() throws StoreException, IOException {
+        // Given
+        final Scan scan1 = new Scan();
+        final Scan scan2 = new Scan();
+        final Scan scan3 = new Scan();
+        final List<Result> results1 = createResults(5);
+        final List<Result> results2 = createResults(0);
+        final List<Result> results3 = createResults(7);
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        final ResultScanner scanner1 = createScanner(results1);
+        final ResultScanner scanner2 = createScanner(results2);
+        final ResultScanner scanner3 = createScanner(results3);
+        given(table.getScanner(scan1)).willReturn(scanner1);
+        given(table.getScanner(scan2)).willReturn(scanner2);
+        given(table.getScanner(scan3)).willReturn(scanner3);
+
+        final ParallelRegionScanner parallelScanner = new ParallelRegionScanner(store, Arrays.asList(scan1, scan2, scan3), 2, 2, executor, 10000L);
+
+        // When
+        final List<Result> results = new ArrayList<>();
+        try (final CloseableIterator<Result> itr = parallelScanner.iterator()) {
+            itr.forEachRemaining(results::add);
+        }
+
+        // Then
+        final List<Result> expected = new ArrayList<>(results1);
+        expected.addAll(results3);
+        assertThat(results).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfARegionScanFails() throws StoreException, IOException {
+        // Given
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        given(table.getScanner(any(Scan.class))).willThrow(new IOException("Region unavailable"));
+
+        final ParallelRegionScanner parallelScanner = new ParallelRegionScanner(store, Arrays.asList(new Scan(), new Scan()), 2, 10, executor, 10000L);
+
+        // When / Then
+        try (final CloseableIterator<Result> itr = parallelScanner.iterator()) {
+            assertThatExceptionOfType(RuntimeException.class)
+                    .isThrownBy(itr::hasNext)
+                    .withMessageContaining("Region unavailable");
+        }
+    }
+
+    @Test
+    public void shouldReadScansDirectlyWhenNoThreadIsAvailable() throws Exception {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        final Scan scan1 = new Scan();
+        final Scan scan2 = new Scan();
+        final List<Result> results1 = createResults(3);
+        final List<Result> results2 = createResults(4);
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        final ResultScanner scanner1 = createScanner(results1);
+        final ResultScanner scanner2 = createScanner(results2);
+        given(table.getScanner(scan1)).willReturn(scanner1);
+        given(table.getScanner(scan2)).willReturn(scanner2);
+
+        final ParallelRegionScanner parallelScanner = new ParallelRegionScanner(store, Arrays.asList(scan1, scan2), 2, 2, executor, 10000L);
+
+        // When
+        final List<Result> results = new ArrayList<>();
+        try (final CloseableIterator<Result> itr = parallelScanner.iterator()) {
+            itr.forEachRemaining(results::add);
+        } finally {
+            release.countDown();
+        }
+
+        // Then
+        final List<Result> expected = new ArrayList<>(results1);
+        expected.addAll(results2);
+        assertThat(results).containsExactlyElementsOf(expected);
+        verify(scanner1).close();
+        verify(scanner2).close();
+    }
+
+    @Test
+    public void shouldCloseScannersAndStopWhenClosedEarly() throws Exception {
+        // Given
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        final ResultScanner scanner = createScanner(createResults(1000));
+        given(table.getScanner(any(Scan.class))).willReturn(scanner);
+
+        final ParallelRegionScanner parallelScanner = new ParallelRegionScanner(store, Collections.singletonList(new Scan()), 1, 1, executor, 10000L);
+        final CloseableIterator<Result> itr = parallelScanner.iterator();
+
+        // When
+        itr.next();
+        itr.close();
+
+        // Then
+        verify(scanner, timeout(5000L)).close();
+        assertThat(itr.hasNext()).isFalse();
+        waitForIdle();
+    }
+
+    @Test
+    public void shouldCloseScannersAndStopWhenAbandoned() throws Exception {
+        // Given
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        final ResultScanner scanner1 = createScanner(createResults(1000));
+        final ResultScanner scanner2 = createScanner(createResults(1000));
+        final Scan scan1 = new Scan();
+        final Scan scan2 = new Scan();
+        given(table.getScanner(scan1)).willReturn(scanner1);
+        given(table.getScanner(scan2)).willReturn(scanner2);
+
+        final ParallelRegionScanner parallelScanner = new ParallelRegionScanner(store, Arrays.asList(scan1, scan2), 2, 2, executor, 100L);
+        final CloseableIterator<Result> itr = parallelScanner.iterator();
+
+        // When
+        itr.next();
+
+        // Then
+        verify(scanner1, timeout(5000L)).close();
+        verify(scanner2, timeout(5000L)).close();
+        waitForIdle();
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(itr::hasNext)
+                .withMessageContaining("not read within 100ms");
+    }
+
+    private void waitForIdle() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertThat(executor.getActiveCount()).isZero();
+    }
+
+    private RowRange range(final String start, final boolean startInclusive, final String stop, final boolean stopInclusive) {
+        return new RowRange(start, startInclusive, stop, stopInclusive);
+    }
+
+    private List<String> describe(final List<RowRange> ranges) {
+        final List<String> descriptions = new ArrayList<>(ranges.size());
+        for (final RowRange range : ranges) {
+            descriptions.add((range.isStartRowInclusive() ? "[" : "(")
+                    + Bytes.toString(range.getStartRow()) + ", " + Bytes.toString(range.getStopRow())
+                    + (range.isStopRowInclusive() ? "]" : ")"));
+        }
+        return descriptions;
+    }
+
+    private List<Result> createResults(final int count) {
+        final List<Result> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(mock(Result.class));
+        }
+        return results;
+    }
+
+    private ResultScanner createScanner(final List<Result> results) throws IOException {
+        final Iterator<Result> iterator = results.iterator();
+        final ResultScanner scanner = mock(ResultScanner.class);
+        given(scanner.iterator()).willReturn(iterator);
+        given(scanner.next()).willAnswer(invocation -> iterator.hasNext() ? iterator.next() : null);
+        return scanner;
+    }
+}
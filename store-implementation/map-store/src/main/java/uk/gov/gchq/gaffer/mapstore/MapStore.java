@@ -28,7 +28,9 @@ import uk.gov.gchq.gaffer.mapstore.impl.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.impl.SaveSnapshotHandler;
 import uk.gov.gchq.gaffer.mapstore.operation.CountAllElementsDefaultView;
+import uk.gov.gchq.gaffer.mapstore.operation.SaveSnapshot;
 import uk.gov.gchq.gaffer.mapstore.optimiser.CountAllElementsOperationChainOptimiser;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
@@ -78,6 +80,9 @@ public class MapStore extends Store {
     private MapImpl mapImpl;
 
     public static void resetStaticMap() {
+        if (null != staticMapImpl) {
+            staticMapImpl.close();
+        }
         staticMapImpl = null;
     }
 
@@ -93,6 +98,18 @@ public class MapStore extends Store {
         mapImpl = createMapImpl();
     }
 
+    /**
+     * Closes the map of a non-static store. A static map is shared between
+     * stores, so is only closed by {@link #resetStaticMap()}.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != mapImpl && mapImpl != staticMapImpl) {
+            mapImpl.close();
+        }
+    }
+
     public MapImpl getMapImpl() {
         return mapImpl;
     }
@@ -113,11 +130,13 @@ public class MapStore extends Store {
         return MapStoreProperties.class;
     }
 
-    protected MapImpl createMapImpl() {
+    protected MapImpl createMapImpl() throws StoreException {
         if (getProperties().isStaticMap()) {
             LOGGER.debug("Using static map");
             if (null == staticMapImpl) {
-                staticMapImpl = new MapImpl(getSchema(), getProperties());
+                final MapImpl newMapImpl = new MapImpl(getSchema(), getProperties());
+                newMapImpl.loadSnapshot();
+                staticMapImpl = newMapImpl;
             }
 
             return staticMapImpl;
@@ -129,6 +148,7 @@ public class MapStore extends Store {
     @Override
     protected void addAdditionalOperationHandlers() {
         addOperationHandler(CountAllElementsDefaultView.class, new CountAllElementsDefaultViewHandler());
+        addOperationHandler(SaveSnapshot.class, new SaveSnapshotHandler());
         addOperationHandler(GetAllJobDetails.class, new GetAllJobDetailsHandler());
     }
 
@@ -31,6 +31,16 @@ public class MapStoreProperties extends StoreProperties {
     public static final String CREATE_INDEX = "gaffer.store.mapstore.createIndex";
     public static final String CREATE_INDEX_DEFAULT = "true";
 
+    /**
+     * Property name for using the {@link uk.gov.gchq.gaffer.mapstore.impl.MapImpl}
+     * compact index. The compact index interns vertices and stores each element
+     * once, rather than storing a copy of each edge for each vertex and for its
+     * edge id. This uses much less memory, at the cost of creating the matched
+     * vertex edges and scanning adjacent elements for edge id lookups at query time.
+     */
+    public static final String COMPACT_INDEX = "gaffer.store.mapstore.createIndex.compact";
+    public static final String COMPACT_INDEX_DEFAULT = "false";
+
     public static final String MAP_FACTORY = "gaffer.store.mapstore.map.factory";
     public static final Class<? extends MapFactory> MAP_FACTORY_DEFAULT = SimpleMapFactory.class;
 
@@ -49,6 +59,37 @@ public class MapStoreProperties extends StoreProperties {
     public static final String INGEST_BUFFER_SIZE = "gaffer.store.mapstore.map.ingest.buffer.size";
     public static final int INGEST_BUFFER_SIZE_DEFAULT = 0;
 
+    /**
+     * Property name for enabling the concurrent mode of the map store. When
+     * enabled the backing maps are thread safe, aggregated properties are
+     * updated using copy-on-write and elements can be added whilst the
+     * store is being queried.
+     */
+    public static final String CONCURRENT = "gaffer.store.mapstore.concurrent";
+    public static final String CONCURRENT_DEFAULT = "false";
+
+    /**
+     * Property name for the number of threads used to add batches of elements
+     * to the store. This is only used when the store is in concurrent mode.
+     */
+    public static final String INGEST_THREADS = "gaffer.store.mapstore.map.ingest.threads";
+    public static final int INGEST_THREADS_DEFAULT = 1;
+
+    /**
+     * Property name for the directory to save snapshots of a static map store
+     * in. If set, the static map is loaded from the latest snapshot when the
+     * store is first initialised rather than being empty.
+     */
+    public static final String SNAPSHOT_DIRECTORY = "gaffer.store.mapstore.snapshot.directory";
+
+    /**
+     * Property name for recording the elements added between snapshots in an
+     * append-only delta file, which is replayed on top of the snapshot when the
+     * static map is loaded.
+     */
+    public static final String SNAPSHOT_DELTAS = "gaffer.store.mapstore.snapshot.deltas";
+    public static final String SNAPSHOT_DELTAS_DEFAULT = "true";
+
     public MapStoreProperties() {
         super(MapStore.class);
     }
@@ -82,6 +123,14 @@ public class MapStoreProperties extends StoreProperties {
         return Boolean.parseBoolean(get(CREATE_INDEX, CREATE_INDEX_DEFAULT));
     }
 
+    public void setCompactIndex(final boolean compactIndex) {
+        set(COMPACT_INDEX, Boolean.toString(compactIndex));
+    }
+
+    public boolean isCompactIndex() {
+        return Boolean.parseBoolean(get(COMPACT_INDEX, COMPACT_INDEX_DEFAULT));
+    }
+
     public String getMapFactory() {
         return get(MAP_FACTORY, MAP_FACTORY_DEFAULT.getName());
     }
@@ -115,6 +164,27 @@ public class MapStoreProperties extends StoreProperties {
         set(INGEST_BUFFER_SIZE, String.valueOf(ingestBufferSize));
     }
 
+    public boolean isConcurrent() {
+        return Boolean.parseBoolean(get(CONCURRENT, CONCURRENT_DEFAULT));
+    }
+
+    public void setConcurrent(final boolean concurrent) {
+        set(CONCURRENT, Boolean.toString(concurrent));
+    }
+
+    public int getIngestThreads() {
+        final String threads = get(INGEST_THREADS, null);
+        if (null == threads) {
+            return INGEST_THREADS_DEFAULT;
+        }
+
+        return Integer.parseInt(threads);
+    }
+
+    public void setIngestThreads(final int ingestThreads) {
+        set(INGEST_THREADS, String.valueOf(ingestThreads));
+    }
+
     public boolean isStaticMap() {
         return Boolean.parseBoolean(get(STATIC_MAP, STATIC_MAP_DEFAULT));
     }
@@ -123,6 +193,22 @@ public class MapStoreProperties extends StoreProperties {
         set(STATIC_MAP, Boolean.toString(staticMap));
     }
 
+    public String getSnapshotDirectory() {
+        return get(SNAPSHOT_DIRECTORY);
+    }
+
+    public void setSnapshotDirectory(final String snapshotDirectory) {
+        set(SNAPSHOT_DIRECTORY, snapshotDirectory);
+    }
+
+    public boolean isSnapshotDeltas() {
+        return Boolean.parseBoolean(get(SNAPSHOT_DELTAS, SNAPSHOT_DELTAS_DEFAULT));
+    }
+
+    public void setSnapshotDeltas(final boolean snapshotDeltas) {
+        set(SNAPSHOT_DELTAS, Boolean.toString(snapshotDeltas));
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
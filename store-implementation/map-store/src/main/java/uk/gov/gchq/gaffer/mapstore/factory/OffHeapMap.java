@@ -0,0 +1,561 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+/**
+ * A {@link java.util.Map} that stores its keys and values as serialised bytes outside of
+ * the Java heap, either in direct {@link ByteBuffer}s or in memory-mapped files.
+ * <p>
+ * Records are appended to a list of chunks. Only an open-addressing table of
+ * record addresses and key hashes is held on heap. Keys are compared using their
+ * serialised bytes, so the key serialiser must be consistent. Keys and values are
+ * deserialised each time they are read, so the objects returned by this map are
+ * always copies and changes to them are not reflected in the map.
+ * <p>
+ * When a value is updated it is overwritten in place if the new value fits in the
+ * space of the old one, otherwise the record is appended again. The space used by
+ * replaced and removed records is only reclaimed when the map is cleared.
+ * <p>
+ * Any memory-mapped chunk files are deleted when the map is cleared or closed.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <K> the type of the map keys
+ * @param <V> the type of the map values
+ */
+public class OffHeapMap<K, V> extends AbstractMap<K, V> implements Closeable {
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapMap.class);
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int KEY_LENGTH_OFFSET = 0;
+    private static final int VALUE_CAPACITY_OFFSET = Integer.BYTES;
+    private static final int VALUE_LENGTH_OFFSET = 2 * Integer.BYTES;
+    private static final int INITIAL_TABLE_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private final ToBytesSerialiser<K> keySerialiser;
+    private final ToBytesSerialiser<V> valueSerialiser;
+    private final int maxChunkSize;
+    private final Path directory;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final List<Path> chunkFiles = new ArrayList<>();
+
+    /**
+     * addresses holds the address of each record plus one, so that zero can be
+     * used to mark an empty slot.
+     */
+    private long[] addresses = new long[INITIAL_TABLE_SIZE];
+    private int[] hashes = new int[INITIAL_TABLE_SIZE];
+    private int size;
+    private long usedBytes;
+    private long wastedBytes;
+
+    /**
+     * Create an off-heap map backed by direct {@link ByteBuffer}s.
+     *
+     * @param keySerialiser   the serialiser for the keys, this must be consistent
+     * @param valueSerialiser the serialiser for the values
+     * @param maxChunkSize    the maximum size in bytes of each chunk of memory
+     */
+    public OffHeapMap(final ToBytesSerialiser<K> keySerialiser, final ToBytesSerialiser<V> valueSerialiser, final int maxChunkSize) {
+        this(keySerialiser, valueSerialiser, maxChunkSize, null);
+    }
+
+    /**
+     * Create an off-heap map. If a directory is provided the chunks are files
+     * memory-mapped from that directory, otherwise they are direct
+     * {@link ByteBuffer}s.
+     *
+     * @param keySerialiser   the serialiser for the keys, this must be consistent
+     * @param valueSerialiser the serialiser for the values
+     * @param maxChunkSize    the maximum size in bytes of each chunk of memory
+     * @param directory       the directory to memory-map chunk files in, or null
+     */
+    public OffHeapMap(final ToBytesSerialiser<K> keySerialiser, final ToBytesSerialiser<V> valueSerialiser, final int maxChunkSize, final Path directory) {
+        if (null == keySerialiser || null == valueSerialiser) {
+            throw new IllegalArgumentException("Key and value serialisers are required");
+        }
+        if (maxChunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be at least " + MIN_CHUNK_SIZE + " bytes but was " + maxChunkSize);
+        }
+        this.keySerialiser = keySerialiser;
+        this.valueSerialiser = valueSerialiser;
+        this.maxChunkSize = maxChunkSize;
+        this.directory = directory;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final byte[] keyBytes = serialiseKey(key);
+        return null != keyBytes && findSlot(keyBytes, hash(keyBytes)) >= 0;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final byte[] keyBytes = serialiseKey(key);
+        if (null == keyBytes) {
+            return null;
+        }
+        final int slot = findSlot(keyBytes, hash(keyBytes));
+        return slot < 0 ? null : readValue(addresses[slot] - 1);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final byte[] keyBytes = serialiseKey(key);
+        if (null == keyBytes) {
+            throw new IllegalArgumentException("Unable to serialise key: " + key);
+        }
+        final int hash = hash(keyBytes);
+        final int slot = findSlot(keyBytes, hash);
+        if (slot >= 0) {
+            final V oldValue = readValue(addresses[slot] - 1);
+            writeValue(slot, keyBytes, serialise(valueSerialiser, value));
+            return oldValue;
+        }
+
+        insert(-slot - 1, keyBytes, hash, serialise(valueSerialiser, value));
+        return null;
+    }
+
+    /**
+     * Merges the value into the map by serialising the key only once.
+     * <p>
+     * The existing value is deserialised, passed to the remapping function and
+     * the result is written back to the map. The existing value is a copy, so the
+     * remapping function may modify it.
+     */
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (null == value || null == remappingFunction) {
+            throw new NullPointerException();
+        }
+        final byte[] keyBytes = serialiseKey(key);
+        if (null == keyBytes) {
+            throw new IllegalArgumentException("Unable to serialise key: " + key);
+        }
+        final int hash = hash(keyBytes);
+        final int slot = findSlot(keyBytes, hash);
+        if (slot < 0) {
+            insert(-slot - 1, keyBytes, hash, serialise(valueSerialiser, value));
+            return value;
+        }
+
+        final V newValue = remappingFunction.apply(readValue(addresses[slot] - 1), value);
+        if (null == newValue) {
+            removeSlot(slot);
+        } else {
+            writeValue(slot, keyBytes, serialise(valueSerialiser, newValue));
+        }
+        return newValue;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final byte[] keyBytes = serialiseKey(key);
+        if (null == keyBytes) {
+            return null;
+        }
+        final int slot = findSlot(keyBytes, hash(keyBytes));
+        if (slot < 0) {
+            return null;
+        }
+        final V oldValue = readValue(addresses[slot] - 1);
+        removeSlot(slot);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        chunks.clear();
+        for (final Path file : chunkFiles) {
+            deleteChunkFile(file);
+        }
+        chunkFiles.clear();
+        addresses = new long[INITIAL_TABLE_SIZE];
+        hashes = new int[INITIAL_TABLE_SIZE];
+        size = 0;
+        usedBytes = 0;
+        wastedBytes = 0;
+    }
+
+    /**
+     * Releases the off-heap memory and deletes any memory-mapped chunk files.
+     * The map is empty once it has been closed.
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new RecordIterator<>(address -> new SimpleImmutableEntry<>(readKey(address), readValue(address)));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new RecordIterator<>(OffHeapMap.this::readKey);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(final Object key) {
+                return containsKey(key);
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new RecordIterator<>(OffHeapMap.this::readValue);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes of off-heap storage allocated to this map
+     */
+    public long getAllocatedBytes() {
+        long allocated = 0;
+        for (final ByteBuffer chunk : chunks) {
+            allocated += chunk.capacity();
+        }
+        return allocated;
+    }
+
+    /**
+     * @return the number of bytes of off-heap storage used by replaced or removed records
+     */
+    public long getWastedBytes() {
+        return wastedBytes;
+    }
+
+    /**
+     * @return the number of bytes of off-heap storage used by all records
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void insert(final int slot, final byte[] keyBytes, final int hash, final byte[] valueBytes) {
+        addresses[slot] = append(keyBytes, valueBytes) + 1;
+        hashes[slot] = hash;
+        size++;
+        if (size > addresses.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    private void writeValue(final int slot, final byte[] keyBytes, final byte[] valueBytes) {
+        final long address = addresses[slot] - 1;
+        final ByteBuffer chunk = chunk(address);
+        final int offset = offset(address);
+        final int capacity = chunk.getInt(offset + VALUE_CAPACITY_OFFSET);
+        if (valueBytes.length <= capacity) {
+            chunk.putInt(offset + VALUE_LENGTH_OFFSET, valueBytes.length);
+            put(chunk, offset + HEADER_SIZE + keyBytes.length, valueBytes);
+        } else {
+            wastedBytes += HEADER_SIZE + keyBytes.length + capacity;
+            addresses[slot] = append(keyBytes, valueBytes) + 1;
+        }
+    }
+
+    private void removeSlot(final int slot) {
+        final long address = addresses[slot] - 1;
+        final ByteBuffer chunk = chunk(address);
+        final int offset = offset(address);
+        wastedBytes += HEADER_SIZE + chunk.getInt(offset + KEY_LENGTH_OFFSET) + chunk.getInt(offset + VALUE_CAPACITY_OFFSET);
+
+        // Shift back any following entries in the probe sequence to fill the gap
+        final int mask = addresses.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (0 != addresses[next]) {
+            final int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                addresses[gap] = addresses[next];
+                hashes[gap] = hashes[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        addresses[gap] = 0;
+        hashes[gap] = 0;
+        size--;
+    }
+
+    /**
+     * Finds the slot containing the provided key.
+     *
+     * @param keyBytes the serialised key
+     * @param hash     the hash of the serialised key
+     * @return the slot index if the key is found, otherwise -(insertion slot) - 1
+     */
+    private int findSlot(final byte[] keyBytes, final int hash) {
+        final int mask = addresses.length - 1;
+        int slot = hash & mask;
+        while (0 != addresses[slot]) {
+            if (hashes[slot] == hash && keyEquals(addresses[slot] - 1, keyBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void resize() {
+        final long[] oldAddresses = addresses;
+        final int[] oldHashes = hashes;
+        addresses = new long[oldAddresses.length * 2];
+        hashes = new int[oldHashes.length * 2];
+        final int mask = addresses.length - 1;
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (0 != oldAddresses[i]) {
+                int slot = oldHashes[i] & mask;
+                while (0 != addresses[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                addresses[slot] = oldAddresses[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private long append(final byte[] keyBytes, final byte[] valueBytes) {
+        final int recordSize = HEADER_SIZE + keyBytes.length + valueBytes.length;
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (null == chunk || chunk.remaining() < recordSize) {
+            chunk = allocateChunk(recordSize);
+        }
+
+        final int offset = chunk.position();
+        chunk.putInt(keyBytes.length);
+        chunk.putInt(valueBytes.length);
+        chunk.putInt(valueBytes.length);
+        chunk.put(keyBytes);
+        chunk.put(valueBytes);
+        usedBytes += recordSize;
+        return ((long) (chunks.size() - 1) << 32) | offset;
+    }
+
+    private ByteBuffer allocateChunk(final int minSize) {
+        // Chunks start small and double in size, so maps for small groups do not reserve large amounts of memory
+        final int previousSize = chunks.isEmpty() ? MIN_CHUNK_SIZE / 2 : chunks.get(chunks.size() - 1).capacity();
+        final int size = Math.max(minSize, (int) Math.min(maxChunkSize, 2L * previousSize));
+        final ByteBuffer chunk;
+        if (null == directory) {
+            chunk = ByteBuffer.allocateDirect(size);
+        } else {
+            try {
+                Files.createDirectories(directory);
+                final Path file = Files.createTempFile(directory, "mapstore-", ".chunk");
+                chunkFiles.add(file);
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    chunk = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                }
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to create memory-mapped chunk in directory: " + directory, e);
+            }
+        }
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    private static void deleteChunkFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to delete memory-mapped chunk file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean keyEquals(final long address, final byte[] keyBytes) {
+        final ByteBuffer chunk = chunk(address);
+        final int offset = offset(address);
+        if (chunk.getInt(offset + KEY_LENGTH_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        final int keyOffset = offset + HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (chunk.get(keyOffset + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private K readKey(final long address) {
+        final ByteBuffer chunk = chunk(address);
+        final int offset = offset(address);
+        final byte[] keyBytes = get(chunk, offset + HEADER_SIZE, chunk.getInt(offset + KEY_LENGTH_OFFSET));
+        return deserialise(keySerialiser, keyBytes);
+    }
+
+    private V readValue(final long address) {
+        final ByteBuffer chunk = chunk(address);
+        final int offset = offset(address);
+        final int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+        final byte[] valueBytes = get(chunk, offset + HEADER_SIZE + keyLength, chunk.getInt(offset + VALUE_LENGTH_OFFSET));
+        return deserialise(valueSerialiser, valueBytes);
+    }
+
+    private ByteBuffer chunk(final long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    private byte[] serialiseKey(final Object key) {
+        if (null == key) {
+            return null;
+        }
+        try {
+            return keySerialiser.serialise((K) key);
+        } catch (final ClassCastException | SerialisationException e) {
+            return null;
+        }
+    }
+
+    private static int offset(final long address) {
+        return (int) address;
+    }
+
+    private static int hash(final byte[] bytes) {
+        // Spread the bits so that similar keys do not cluster in the table
+        final int h = Arrays.hashCode(bytes);
+        return h ^ (h >>> 16);
+    }
+
+    private static byte[] get(final ByteBuffer chunk, final int offset, final int length) {
+        final ByteBuffer view = chunk.duplicate();
+        view.position(offset);
+        final byte[] bytes = new byte[length];
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static void put(final ByteBuffer chunk, final int offset, final byte[] bytes) {
+        final ByteBuffer view = chunk.duplicate();
+        view.position(offset);
+        view.put(bytes);
+    }
+
+    private static <T> byte[] serialise(final ToBytesSerialiser<T> serialiser, final T value) {
+        try {
+            return null == value ? serialiser.serialiseNull() : serialiser.serialise(value);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise value: " + value, e);
+        }
+    }
+
+    private static <T> T deserialise(final ToBytesSerialiser<T> serialiser, final byte[] bytes) {
+        try {
+            return 0 == bytes.length ? serialiser.deserialiseEmpty() : serialiser.deserialise(bytes);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise bytes", e);
+        }
+    }
+
+    private final class RecordIterator<T> implements Iterator<T> {
+        private final long[] table = addresses;
+        private final LongFunction<T> reader;
+        private int slot = -1;
+
+        private RecordIterator(final LongFunction<T> reader) {
+            this.reader = reader;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < table.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T next = reader.apply(table[slot] - 1);
+            advance();
+            return next;
+        }
+
+        private void advance() {
+            slot++;
+            while (slot < table.length && 0 == table[slot]) {
+                slot++;
+            }
+        }
+    }
+}
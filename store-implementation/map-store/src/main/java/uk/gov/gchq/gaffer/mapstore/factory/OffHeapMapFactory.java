@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
+import uk.gov.gchq.gaffer.mapstore.utils.SparseElementSerialiser;
+import uk.gov.gchq.gaffer.mapstore.utils.SparseGroupedPropertiesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link MapFactory} interface that stores elements outside
+ * of the Java heap, so the size of a {@link uk.gov.gchq.gaffer.mapstore.MapStore}
+ * is not limited by the heap and is not subject to garbage collection pauses.
+ * <p>
+ * The element maps are {@link OffHeapMap}s, which hold the elements and their
+ * properties serialised using the serialisers in the schema. Elements are only
+ * deserialised when they are read. Keys are compared using their serialised bytes,
+ * so the vertex serialiser and the serialisers of the properties that make up the
+ * keys (the group-by properties of aggregated groups and all properties of
+ * non-aggregated groups) must be consistent. All serialisers must be
+ * {@link ToBytesSerialiser}s.
+ * <p>
+ * By default the off-heap memory is allocated as direct buffers, which are limited
+ * by the JVM option {@code -XX:MaxDirectMemorySize}. If a directory is configured
+ * then the memory is instead memory-mapped from files in that directory and is
+ * limited only by the disk and the address space. The files are deleted when the
+ * factory is cleared, which happens when the store is closed.
+ * <p>
+ * The index multi maps are kept on heap. This factory cannot be used if the store
+ * is concurrent.
+ */
+public class OffHeapMapFactory implements MapFactory {
+    public static final String CHUNK_SIZE = "gaffer.store.mapstore.map.offheap.chunk.size";
+    public static final String CHUNK_SIZE_DEFAULT = String.valueOf(64 * 1024 * 1024);
+    public static final String DIRECTORY = "gaffer.store.mapstore.map.offheap.directory";
+
+    private final ElementCloner cloner = new ElementCloner();
+    private final Map<String, Map> maps = new HashMap<>();
+    private final Map<String, MultiMap> multiMaps = new HashMap<>();
+    private ToBytesSerialiser<Element> elementSerialiser;
+    private ToBytesSerialiser<GroupedProperties> propertiesSerialiser;
+    private ToBytesSerialiser<Long> countSerialiser;
+    private int chunkSize;
+    private Path directory;
+
+    @Override
+    public void initialise(final Schema schema, final MapStoreProperties properties) {
+        if (properties.isConcurrent()) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not support concurrent stores");
+        }
+
+        final String chunkSizeValue = properties.get(CHUNK_SIZE, CHUNK_SIZE_DEFAULT);
+        try {
+            chunkSize = Integer.parseInt(chunkSizeValue);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Chunk size is invalid: " + chunkSizeValue, e);
+        }
+        if (chunkSize < OffHeapMap.MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be at least " + OffHeapMap.MIN_CHUNK_SIZE + " bytes but was " + chunkSize);
+        }
+
+        final String directoryValue = properties.get(DIRECTORY);
+        directory = null != directoryValue ? Paths.get(directoryValue) : null;
+
+        validateSchema(schema);
+        elementSerialiser = new SparseElementSerialiser(schema);
+        propertiesSerialiser = new SparseGroupedPropertiesSerialiser(schema);
+        countSerialiser = new CompactRawLongSerialiser();
+    }
+
+    @Override
+    public <K, V> Map<K, V> getMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        return maps.computeIfAbsent(mapName, n -> {
+            if (Element.class.equals(keyClass) && GroupedProperties.class.equals(valueClass)) {
+                return new OffHeapMap<>(elementSerialiser, propertiesSerialiser, chunkSize, directory);
+            }
+            if (Element.class.equals(keyClass) && Long.class.equals(valueClass)) {
+                return new OffHeapMap<>(elementSerialiser, countSerialiser, chunkSize, directory);
+            }
+            return new HashMap<>();
+        });
+    }
+
+    @Override
+    public <K, V> MultiMap<K, V> getMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        return multiMaps.computeIfAbsent(mapName, n -> new MapOfSets<>(new HashMap<>()));
+    }
+
+    @Override
+    public void clear() {
+        for (final Map map : maps.values()) {
+            map.clear();
+        }
+        maps.clear();
+        multiMaps.clear();
+    }
+
+    @Override
+    public Element cloneElement(final Element element, final Schema schema) {
+        return cloner.cloneElement(element, schema);
+    }
+
+    private void validateSchema(final Schema schema) {
+        validateSerialiser("vertex", schema.getVertexSerialiser(), true);
+        for (final String group : schema.getGroups()) {
+            final SchemaElementDefinition elementDefinition = schema.getElement(group);
+            final Set<String> keyProperties = elementDefinition.isAggregate() ? elementDefinition.getGroupBy() : elementDefinition.getProperties();
+            for (final String propertyName : elementDefinition.getProperties()) {
+                final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+                validateSerialiser(group + "." + propertyName,
+                        null != typeDefinition ? typeDefinition.getSerialiser() : null,
+                        keyProperties.contains(propertyName));
+            }
+        }
+    }
+
+    private static void validateSerialiser(final String name, final Serialiser serialiser, final boolean consistent) {
+        if (!(serialiser instanceof ToBytesSerialiser)) {
+            throw new IllegalArgumentException("The " + name + " serialiser must be a " + ToBytesSerialiser.class.getSimpleName() + " to be stored off heap");
+        }
+        if (consistent && !serialiser.isConsistent()) {
+            throw new IllegalArgumentException("The " + name + " serialiser must be consistent to be used in a key off heap: " + serialiser.getClass().getName());
+        }
+    }
+}
@@ -17,6 +17,7 @@ package uk.gov.gchq.gaffer.mapstore.factory;
 
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.multimap.ConcurrentMapOfSets;
 import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
 import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
 import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
@@ -25,17 +26,24 @@ import uk.gov.gchq.koryphe.serialisation.json.SimpleClassNameIdResolver;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Default implementation of the {@link MapFactory} interface, used to create map
  * instances for the {@link uk.gov.gchq.gaffer.mapstore.MapStore}.
+ * <p>
+ * If the store is configured to be concurrent then the map class defaults to
+ * {@link ConcurrentHashMap} and must implement {@link ConcurrentMap}.
  */
 public class SimpleMapFactory implements MapFactory {
     public static final String MAP_CLASS = "gaffer.store.mapstore.map.class";
     public static final String MAP_CLASS_DEFAULT = HashMap.class.getName();
+    public static final String CONCURRENT_MAP_CLASS_DEFAULT = ConcurrentHashMap.class.getName();
 
     private final ElementCloner cloner;
     private Class<? extends Map> mapClass = HashMap.class;
+    private boolean concurrent;
 
     private Map<String, Map> maps = new HashMap<>();
     private Map<String, MultiMap> multiMaps = new HashMap<>();
@@ -50,12 +58,17 @@ public class SimpleMapFactory implements MapFactory {
 
     @Override
     public void initialise(final Schema schema, final MapStoreProperties properties) {
-        final String mapClassName = properties.get(MAP_CLASS, MAP_CLASS_DEFAULT);
+        concurrent = properties.isConcurrent();
+        final String mapClassName = properties.get(MAP_CLASS, concurrent ? CONCURRENT_MAP_CLASS_DEFAULT : MAP_CLASS_DEFAULT);
         try {
             mapClass = Class.forName(SimpleClassNameIdResolver.getClassName(mapClassName)).asSubclass(Map.class);
         } catch (final ClassNotFoundException | ClassCastException e) {
             throw new IllegalArgumentException("Map Class is invalid: " + mapClassName, e);
         }
+
+        if (concurrent && !ConcurrentMap.class.isAssignableFrom(mapClass)) {
+            throw new IllegalArgumentException("Map Class must be a " + ConcurrentMap.class.getName() + " when the store is concurrent: " + mapClassName);
+        }
     }
 
     @Override
@@ -74,7 +87,10 @@ public class SimpleMapFactory implements MapFactory {
 
     @Override
     public <K, V> MultiMap<K, V> getMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
-        return multiMaps.computeIfAbsent(mapName, n -> new MapOfSets(getMap(n, keyClass, valueClass)));
+        return multiMaps.computeIfAbsent(mapName, n -> {
+            final Map map = getMap(n, keyClass, valueClass);
+            return concurrent ? new ConcurrentMapOfSets((ConcurrentMap) map) : new MapOfSets(map);
+        });
     }
 
     @Override
@@ -91,4 +107,8 @@ public class SimpleMapFactory implements MapFactory {
     protected Class<? extends Map> getMapClass() {
         return mapClass;
     }
+
+    protected boolean isConcurrent() {
+        return concurrent;
+    }
 }
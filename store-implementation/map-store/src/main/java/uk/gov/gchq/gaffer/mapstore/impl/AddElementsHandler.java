@@ -37,9 +37,16 @@ import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An {@link OperationHandler} for the {@link AddElements} operation on the {@link MapStore}.
+ * <p>
+ * If the store is concurrent and configured with more than one ingest thread then
+ * the buffered batches are aggregated and added to the store in parallel, using
+ * the store's {@link Store#getParallelExecutorService()}.
  */
 public class AddElementsHandler implements OperationHandler<AddElements> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AddElementsHandler.class);
@@ -51,17 +58,28 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             elements = new ValidatedElements(elements, store.getSchema(), addElements.isSkipInvalidElements());
         }
 
-        addElements(elements, (MapStore) store);
+        final MapStore mapStore = (MapStore) store;
+        final MapSnapshot snapshot = mapStore.getMapImpl().getSnapshot();
+        try {
+            addElements(elements, mapStore);
+        } finally {
+            if (null != snapshot) {
+                snapshot.flushDeltas();
+            }
+        }
         return null;
     }
 
-    private void addElements(final Iterable<? extends Element> elements, final MapStore mapStore) {
+    private void addElements(final Iterable<? extends Element> elements, final MapStore mapStore) throws OperationException {
         final MapImpl mapImpl = mapStore.getMapImpl();
         final Schema schema = mapStore.getSchema();
 
         final int bufferSize = mapStore.getProperties().getIngestBufferSize();
+        final int ingestThreads = mapImpl.isConcurrent() ? mapStore.getProperties().getIngestThreads() : 1;
 
-        if (bufferSize < 1) {
+        if (ingestThreads > 1 && bufferSize > 0) {
+            addElementsInParallel(elements, mapStore, schema, bufferSize, ingestThreads);
+        } else if (bufferSize < 1) {
             // Add all elements directly
             addBatch(mapImpl, schema, elements);
         } else {
@@ -86,27 +104,106 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
         }
     }
 
+    private void addElementsInParallel(final Iterable<? extends Element> elements, final MapStore mapStore, final Schema schema,
+                                       final int bufferSize, final int ingestThreads) throws OperationException {
+        LOGGER.info("Adding elements in batches using up to {} threads, batch size = {}", ingestThreads, bufferSize);
+        final MapImpl mapImpl = mapStore.getMapImpl();
+        final ExecutorService executor = mapStore.getParallelExecutorService();
+        // Limit the number of batches being added at once, so the input is not
+        // read into memory faster than it can be added
+        final Semaphore permits = new Semaphore(ingestThreads);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try {
+            List<Element> batch = new ArrayList<>(bufferSize);
+            for (final Element element : elements) {
+                if (null != failure.get()) {
+                    break;
+                }
+                if (null != element) {
+                    batch.add(mapImpl.cloneElement(element, schema));
+                    if (batch.size() >= bufferSize) {
+                        submitBatch(batch, mapImpl, schema, executor, permits, failure);
+                        batch = new ArrayList<>(bufferSize);
+                    }
+                }
+            }
+
+            if (!batch.isEmpty() && null == failure.get()) {
+                submitBatch(batch, mapImpl, schema, executor, permits, failure);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst adding elements", e);
+        } finally {
+            // Wait for the submitted batches to be added
+            permits.acquireUninterruptibly(ingestThreads);
+        }
+
+        if (null != failure.get()) {
+            throw new OperationException("Failed to add elements: " + failure.get().getMessage(), failure.get());
+        }
+    }
+
+    private void submitBatch(final List<Element> batch, final MapImpl mapImpl, final Schema schema, final ExecutorService executor,
+                             final Semaphore permits, final AtomicReference<RuntimeException> failure) throws InterruptedException {
+        permits.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    addBatch(mapImpl, schema, AggregatorUtil.ingestAggregate(batch, schema));
+                } catch (final RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (final RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
     private void addBatch(final MapImpl mapImpl, final Schema schema, final Iterable<? extends Element> elements) {
+        final MapSnapshot snapshot = mapImpl.getSnapshot();
         for (final Element element : elements) {
             if (null != element) {
-                final Element elementForIndexing = addElement(element, schema, mapImpl);
-
-                // Update entityIdToElements and edgeIdToElements if index required
-                if (mapImpl.isMaintainIndex()) {
-                    updateElementIndex(elementForIndexing, mapImpl);
+                if (null != snapshot) {
+                    // Add the element and record it in the delta atomically with respect to saving a snapshot
+                    snapshot.getAddLock().lock();
+                    try {
+                        addElement(element, 1L, schema, mapImpl);
+                        snapshot.appendDelta(element);
+                    } finally {
+                        snapshot.getAddLock().unlock();
+                    }
+                } else {
+                    addElement(element, 1L, schema, mapImpl);
                 }
             }
         }
     }
 
-    private Element addElement(final Element element, final Schema schema, final MapImpl mapImpl) {
+    /**
+     * Adds an element to the map, aggregating it with any existing element and
+     * updating the index if required.
+     *
+     * @param element the element to add
+     * @param count   the number of times to add the element if it is not aggregated
+     * @param schema  the schema
+     * @param mapImpl the map to add the element to
+     */
+    void addElement(final Element element, final long count, final Schema schema, final MapImpl mapImpl) {
         final Element elementForIndexing;
         if (!mapImpl.isAggregationEnabled(element)) {
-            elementForIndexing = addNonAggElement(element, schema, mapImpl);
+            elementForIndexing = addNonAggElement(element, count, schema, mapImpl);
         } else {
             elementForIndexing = addAggElement(element, mapImpl);
         }
-        return elementForIndexing;
+
+        // Update entityIdToElements and edgeIdToElements if index required
+        if (mapImpl.isMaintainIndex()) {
+            updateElementIndex(elementForIndexing, mapImpl);
+        }
     }
 
     private Element addAggElement(final Element element, final MapImpl mapImpl) {
@@ -128,7 +225,7 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
         return elementWithGroupByProperties;
     }
 
-    private Element addNonAggElement(final Element element, final Schema schema, final MapImpl mapImpl) {
+    private Element addNonAggElement(final Element element, final long count, final Schema schema, final MapImpl mapImpl) {
         final Element elementClone = element.emptyClone();
 
         // Copy properties that exist in the schema
@@ -137,12 +234,15 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             elementClone.putProperty(property, element.getProperty(property));
         }
 
-        mapImpl.addNonAggElement(elementClone);
+        mapImpl.addNonAggElement(elementClone, count);
         return elementClone;
     }
 
     private void updateElementIndex(final Element element, final MapImpl mapImpl) {
-        if (element instanceof Entity) {
+        if (mapImpl.isCompactIndex()) {
+            // The compact index creates the matched vertex edges and edge seeds when they are looked up
+            mapImpl.addToCompactIndex(element);
+        } else if (element instanceof Entity) {
             final Entity entity = (Entity) element;
             final EntitySeed entitySeed = new EntitySeed(entity.getVertex());
             mapImpl.addIndex(entitySeed, element);
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A memory efficient alternative to the {@link uk.gov.gchq.gaffer.mapstore.multimap.MultiMap}
+ * indexes in {@link MapImpl}.
+ * <p>
+ * Each vertex is interned to an int id and each indexed element is stored once
+ * in an element slot. The vertex ids, element slots and edge slots are found using
+ * open addressing tables of primitive ints keyed by hash, so no boxed keys or map
+ * entries are created. Edges are also indexed by their (source, destination) vertex
+ * ids, so an {@link EdgeId} lookup only reads the edges between those vertices.
+ * <p>
+ * The adjacency list for a vertex is a primitive int array of element slots, with
+ * the lowest bit of each entry recording whether the vertex is the destination of
+ * an edge. The matched vertex {@link Edge} views are derived from the stored elements
+ * at query time rather than being stored in the index.
+ * <p>
+ * Updates take a write lock and lookups take a read lock, so the index can be used
+ * when the store is concurrent.
+ */
+class CompactElementIndex {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ADJACENCY_SIZE = 2;
+    private static final int DESTINATION_FLAG = 1;
+    private static final int EMPTY = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Object[] vertices;
+    private int vertexCount;
+    private int[] vertexTable;
+    private int[][] adjacency;
+    private int[] adjacencySizes;
+
+    private Element[] elements;
+    private int elementCount;
+    private int[] elementTable;
+
+    /**
+     * The source and destination vertex ids of each element slot, or EMPTY for entities.
+     */
+    private int[] edgeSources;
+    private int[] edgeDestinations;
+    private int edgeCount;
+    private int[] edgeTable;
+
+    CompactElementIndex() {
+        reset();
+    }
+
+    void add(final Element element) {
+        lock.writeLock().lock();
+        try {
+            if (EMPTY != findElement(element)) {
+                return;
+            }
+
+            final int slot = elementCount;
+            if (slot == elements.length) {
+                elements = Arrays.copyOf(elements, slot * 2);
+                edgeSources = Arrays.copyOf(edgeSources, slot * 2);
+                edgeDestinations = Arrays.copyOf(edgeDestinations, slot * 2);
+            }
+            elements[slot] = element;
+            elementCount++;
+            if (isFull(elementTable, elementCount)) {
+                elementTable = newTable(elementTable.length * 2);
+                for (int i = 0; i < elementCount; i++) {
+                    insert(elementTable, hash(elements[i].hashCode()), i);
+                }
+            } else {
+                insert(elementTable, hash(element.hashCode()), slot);
+            }
+
+            if (element instanceof Entity) {
+                edgeSources[slot] = EMPTY;
+                edgeDestinations[slot] = EMPTY;
+                addAdjacency(getOrAddVertex(((Entity) element).getVertex()), slot << 1);
+            } else {
+                final Edge edge = (Edge) element;
+                final int sourceId = getOrAddVertex(edge.getSource());
+                final int destinationId = getOrAddVertex(edge.getDestination());
+                edgeSources[slot] = sourceId;
+                edgeDestinations[slot] = destinationId;
+                addEdge(slot);
+                addAdjacency(sourceId, slot << 1);
+                if (sourceId != destinationId) {
+                    addAdjacency(destinationId, (slot << 1) | DESTINATION_FLAG);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the elements containing the vertex. Edges are returned with the
+     * matched vertex set to the side of the edge that matched the vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the entities and edges containing the vertex
+     */
+    Collection<Element> lookupVertex(final Object vertex) {
+        lock.readLock().lock();
+        try {
+            final int id = findVertex(vertex);
+            if (EMPTY == id) {
+                return Collections.emptySet();
+            }
+
+            final int[] entries = adjacency[id];
+            final int size = adjacencySizes[id];
+            final List<Element> results = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final Element element = elements[entries[i] >>> 1];
+                if (element instanceof Entity) {
+                    results.add(element);
+                } else {
+                    final MatchedVertex matchedVertex = (entries[i] & DESTINATION_FLAG) == DESTINATION_FLAG
+                            ? MatchedVertex.DESTINATION : MatchedVertex.SOURCE;
+                    results.add(createEdgeView((Edge) element, matchedVertex));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the edges matching the edge id, using the index of edges by
+     * their source and destination vertex ids.
+     *
+     * @param edgeId the edge id to look up
+     * @return the matching edges, with the matched vertex set to the source
+     */
+    Collection<Element> lookupEdge(final EdgeId edgeId) {
+        lock.readLock().lock();
+        try {
+            final int sourceId = findVertex(edgeId.getSource());
+            final int destinationId = findVertex(edgeId.getDestination());
+            if (EMPTY == sourceId || EMPTY == destinationId) {
+                return Collections.emptySet();
+            }
+
+            final List<Element> results = new ArrayList<>(1);
+            final int mask = edgeTable.length - 1;
+            for (int i = edgeHash(sourceId, destinationId) & mask; EMPTY != edgeTable[i]; i = (i + 1) & mask) {
+                final int slot = edgeTable[i];
+                if (sourceId == edgeSources[slot] && destinationId == edgeDestinations[slot]) {
+                    final Edge edge = (Edge) elements[slot];
+                    if (edgeId.isEqual(new EdgeSeed(edge.getSource(), edge.getDestination(), edge.isDirected()))) {
+                        results.add(createEdgeView(edge, MatchedVertex.SOURCE));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getVertexCount() {
+        lock.readLock().lock();
+        try {
+            return vertexCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getElementCount() {
+        lock.readLock().lock();
+        try {
+            return elementCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reset() {
+        vertices = new Object[INITIAL_CAPACITY];
+        vertexCount = 0;
+        vertexTable = newTable(INITIAL_CAPACITY);
+        adjacency = new int[INITIAL_CAPACITY][];
+        adjacencySizes = new int[INITIAL_CAPACITY];
+        elements = new Element[INITIAL_CAPACITY];
+        elementCount = 0;
+        elementTable = newTable(INITIAL_CAPACITY);
+        edgeSources = new int[INITIAL_CAPACITY];
+        edgeDestinations = new int[INITIAL_CAPACITY];
+        edgeCount = 0;
+        edgeTable = newTable(INITIAL_CAPACITY);
+    }
+
+    private int findVertex(final Object vertex) {
+        if (null == vertex) {
+            return EMPTY;
+        }
+        final int mask = vertexTable.length - 1;
+        for (int i = hash(vertex.hashCode()) & mask; EMPTY != vertexTable[i]; i = (i + 1) & mask) {
+            if (vertex.equals(vertices[vertexTable[i]])) {
+                return vertexTable[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    private int findElement(final Element element) {
+        final int mask = elementTable.length - 1;
+        for (int i = hash(element.hashCode()) & mask; EMPTY != elementTable[i]; i = (i + 1) & mask) {
+            if (element.equals(elements[elementTable[i]])) {
+                return elementTable[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    private int getOrAddVertex(final Object vertex) {
+        final int existingId = findVertex(vertex);
+        if (EMPTY != existingId) {
+            return existingId;
+        }
+
+        final int id = vertexCount;
+        if (id == vertices.length) {
+            vertices = Arrays.copyOf(vertices, id * 2);
+            adjacency = Arrays.copyOf(adjacency, id * 2);
+            adjacencySizes = Arrays.copyOf(adjacencySizes, id * 2);
+        }
+        vertices[id] = vertex;
+        adjacency[id] = new int[INITIAL_ADJACENCY_SIZE];
+        vertexCount++;
+        if (isFull(vertexTable, vertexCount)) {
+            vertexTable = newTable(vertexTable.length * 2);
+            for (int i = 0; i < vertexCount; i++) {
+                insert(vertexTable, hash(vertices[i].hashCode()), i);
+            }
+        } else {
+            insert(vertexTable, hash(vertex.hashCode()), id);
+        }
+        return id;
+    }
+
+    private void addEdge(final int slot) {
+        edgeCount++;
+        if (isFull(edgeTable, edgeCount)) {
+            edgeTable = newTable(edgeTable.length * 2);
+            for (int i = 0; i <= slot; i++) {
+                if (EMPTY != edgeSources[i]) {
+                    insert(edgeTable, edgeHash(edgeSources[i], edgeDestinations[i]), i);
+                }
+            }
+        } else {
+            insert(edgeTable, edgeHash(edgeSources[slot], edgeDestinations[slot]), slot);
+        }
+    }
+
+    private void addAdjacency(final int id, final int entry) {
+        int[] entries = adjacency[id];
+        final int size = adjacencySizes[id];
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+            adjacency[id] = entries;
+        }
+        entries[size] = entry;
+        adjacencySizes[id] = size + 1;
+    }
+
+    private static int[] newTable(final int capacity) {
+        final int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    // Keeps the tables at most half full, so the linear probe sequences stay short
+    private static boolean isFull(final int[] table, final int size) {
+        return size * 2 > table.length;
+    }
+
+    private static void insert(final int[] table, final int hash, final int value) {
+        final int mask = table.length - 1;
+        int i = hash & mask;
+        while (EMPTY != table[i]) {
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+    }
+
+    private static int hash(final int hashCode) {
+        final int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int edgeHash(final int sourceId, final int destinationId) {
+        return hash(31 * sourceId + destinationId);
+    }
+
+    private static Edge createEdgeView(final Edge edge, final MatchedVertex matchedVertex) {
+        return new Edge(edge.getGroup(), edge.getSource(), edge.getDestination(), edge.isDirected(), matchedVertex, edge.getProperties());
+    }
+}
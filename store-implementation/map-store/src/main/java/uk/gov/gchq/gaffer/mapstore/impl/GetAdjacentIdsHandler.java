@@ -21,8 +21,8 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.StreamIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
@@ -115,7 +115,7 @@ public class GetAdjacentIdsHandler implements
                         return new EntitySeed(nextVertex);
                     });
 
-            return new WrappedCloseableIterator<>(adjacentIdsStream.iterator());
+            return new StreamIterator<>(adjacentIdsStream);
         }
     }
 }
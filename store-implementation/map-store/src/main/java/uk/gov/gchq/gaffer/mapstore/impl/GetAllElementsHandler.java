@@ -17,8 +17,8 @@ package uk.gov.gchq.gaffer.mapstore.impl;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.StreamIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
@@ -77,7 +77,7 @@ public class GetAllElementsHandler implements OutputOperationHandler<GetAllEleme
                 ViewUtil.removeProperties(getAllElements.getView(), element);
                 return element;
             });
-            return new WrappedCloseableIterator<>(elements.iterator());
+            return new StreamIterator<>(elements);
         }
     }
 }
@@ -18,8 +18,8 @@ package uk.gov.gchq.gaffer.mapstore.impl;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.StreamIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
@@ -94,7 +94,7 @@ public class GetElementsHandler
                 ViewUtil.removeProperties(getElements.getView(), element);
                 return element;
             });
-            return new WrappedCloseableIterator<>(elements.iterator());
+            return new StreamIterator<>(elements);
         }
     }
 }
@@ -20,8 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.Authorisations;
-import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.ElementVisibility;
-import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.VisibilityEvaluator;
+import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.CachingVisibilityEvaluator;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.exception.VisibilityParseException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Edge;
@@ -138,13 +137,13 @@ public final class GetElementsUtil {
     public static Stream<Element> applyVisibilityFilter(final Stream<Element> elements, final Schema schema, final User user) {
         final Set<String> dataAuths = user.getDataAuths();
         final Authorisations authorisations = new Authorisations(dataAuths.toArray(new String[dataAuths.size()]));
-        return elements.filter(e -> isVisible(e, schema.getVisibilityProperty(), authorisations));
+        final CachingVisibilityEvaluator visibilityEvaluator = new CachingVisibilityEvaluator(authorisations);
+        return elements.filter(e -> isVisible(e, schema.getVisibilityProperty(), visibilityEvaluator));
     }
 
-    private static boolean isVisible(final Element e, final String visibilityProperty, final Authorisations authorisations) {
+    private static boolean isVisible(final Element e, final String visibilityProperty, final CachingVisibilityEvaluator visibilityEvaluator) {
         if (e.getProperty(visibilityProperty) != null) {
-            final VisibilityEvaluator visibilityEvaluator = new VisibilityEvaluator(authorisations);
-            final ElementVisibility elementVisibility = new ElementVisibility((String) e.getProperty(visibilityProperty));
+            final String elementVisibility = (String) e.getProperty(visibilityProperty);
             try {
                 return visibilityEvaluator.evaluate(elementVisibility);
             } catch (final VisibilityParseException visibilityParseException) {
@@ -198,8 +197,9 @@ public final class GetElementsUtil {
         });
 
         // Apply aggregation
+        // The aggregated elements may have been spilled to disk, so are deleted when the stream is closed
         final CloseableIterable<Element> iterable = AggregatorUtil.queryAggregate(stream.collect(Collectors.toList()), schema, view, includeMatchedVertex);
-        stream = StreamSupport.stream(iterable.spliterator(), false);
+        stream = StreamSupport.stream(iterable.spliterator(), false).onClose(iterable::close);
 
         // Apply post-aggregation filter
         stream = stream.filter(e -> {
@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.mapstore.impl;
 import uk.gov.gchq.gaffer.commonutil.iterable.RepeatItemIterable;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.GroupedProperties;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
@@ -27,6 +28,7 @@ import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
 import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
@@ -55,6 +57,12 @@ import java.util.stream.Stream;
  * handlers for the {@link uk.gov.gchq.gaffer.mapstore.MapStore} to be placed in the
  * same package and get access to the maps, without exposing the internal state of
  * the MapStore to classes outside of this package.
+ * <p>
+ * If the {@link MapStoreProperties} request a concurrent store then the backing
+ * maps are {@link java.util.concurrent.ConcurrentMap}s, which lock per key on update
+ * and never lock on read. Aggregated properties are then updated using copy-on-write,
+ * so a reader will always see either the old or the new aggregate for a key and
+ * never a partially aggregated one.
  */
 public class MapImpl {
     public static final String AGG_ELEMENTS = "aggElements";
@@ -84,6 +92,16 @@ public class MapImpl {
      */
     private final MultiMap<EdgeId, Element> edgeIdToElements;
 
+    /**
+     * compactIndex replaces entityIdToElements and edgeIdToElements if a compact index is requested
+     */
+    private final CompactElementIndex compactIndex;
+
+    /**
+     * snapshot saves and loads the contents of a static map, if a snapshot directory is configured
+     */
+    private final MapSnapshot snapshot;
+
     private final MapFactory mapFactory;
     private final Map<String, Set<String>> groupToGroupByProperties = new HashMap<>();
     private final Map<String, Set<String>> groupToNonGroupByProperties = new HashMap<>();
@@ -91,6 +109,7 @@ public class MapImpl {
     private final List<String> aggregatedGroups;
     private final Schema schema;
     private final boolean maintainIndex;
+    private final boolean concurrent;
     private final AggregatorUtil.IngestPropertiesBinaryOperator propertyAggregator;
 
     public MapImpl(final Schema schema, final MapStoreProperties mapStoreProperties) {
@@ -98,20 +117,33 @@ public class MapImpl {
         propertyAggregator = new AggregatorUtil.IngestPropertiesBinaryOperator(schema);
         mapFactory = createMapFactory(schema, mapStoreProperties);
         maintainIndex = mapStoreProperties.getCreateIndex();
+        concurrent = mapStoreProperties.isConcurrent();
 
         for (final String group : schema.getGroups()) {
             aggElements.put(group, mapFactory.getMap(group + "|" + AGG_ELEMENTS, Element.class, GroupedProperties.class));
             nonAggElements.put(group, mapFactory.getMap(group + "|" + NON_AGG_ELEMENTS, Element.class, Long.class));
         }
 
-        if (maintainIndex) {
+        if (maintainIndex && mapStoreProperties.isCompactIndex()) {
+            compactIndex = new CompactElementIndex();
+            entityIdToElements = null;
+            edgeIdToElements = null;
+        } else if (maintainIndex) {
+            compactIndex = null;
             entityIdToElements = mapFactory.getMultiMap(ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class);
             edgeIdToElements = mapFactory.getMultiMap(EDGE_ID_TO_ELEMENTS, EdgeId.class, Element.class);
         } else {
+            compactIndex = null;
             entityIdToElements = null;
             edgeIdToElements = null;
         }
 
+        if (mapStoreProperties.isStaticMap() && null != mapStoreProperties.getSnapshotDirectory()) {
+            snapshot = new MapSnapshot(schema, mapStoreProperties);
+        } else {
+            snapshot = null;
+        }
+
         this.aggregatedGroups = schema.getAggregatedGroups();
         schema.getEntityGroups().forEach(this::addToGroupByMap);
         schema.getEdgeGroups().forEach(this::addToGroupByMap);
@@ -120,24 +152,62 @@ public class MapImpl {
     public void clear() {
         aggElements.clear();
         nonAggElements.clear();
-        if (maintainIndex) {
+        if (null != compactIndex) {
+            compactIndex.clear();
+        } else if (maintainIndex) {
             entityIdToElements.clear();
             edgeIdToElements.clear();
         }
     }
 
+    /**
+     * Loads the latest snapshot and any elements added since it was saved into
+     * this map. This does nothing if snapshots are not configured.
+     *
+     * @throws StoreException if the snapshot cannot be loaded
+     */
+    public void loadSnapshot() throws StoreException {
+        if (null != snapshot) {
+            snapshot.load(this);
+        }
+    }
+
+    /**
+     * Closes the delta of any elements added since the last snapshot, if
+     * snapshots are configured, and releases the backing maps, deleting any
+     * files they hold. The map cannot be used once it has been closed.
+     */
+    public void close() {
+        if (null != snapshot) {
+            snapshot.close();
+        }
+        mapFactory.clear();
+    }
+
     void addNonAggElement(final Element element) {
-        nonAggElements.get(element.getGroup()).merge(element, 1L, (a, b) -> a + b);
+        addNonAggElement(element, 1L);
+    }
+
+    void addNonAggElement(final Element element, final long count) {
+        nonAggElements.get(element.getGroup()).merge(element, count, (a, b) -> a + b);
     }
 
     void addAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
-        if (null != aggElements.get(elementWithGroupByProperties.getGroup())) {
-            aggElements.get(elementWithGroupByProperties.getGroup())
-                    .merge(elementWithGroupByProperties, properties, propertyAggregator);
+        final Map<Element, GroupedProperties> map = aggElements.get(elementWithGroupByProperties.getGroup());
+        if (null != map) {
+            if (concurrent) {
+                map.merge(elementWithGroupByProperties, properties, (existing, update) -> propertyAggregator.apply(cloneProperties(existing), update));
+            } else {
+                map.merge(elementWithGroupByProperties, properties, propertyAggregator);
+            }
         }
     }
 
     Collection<Element> lookup(final EntityId entitId) {
+        if (null != compactIndex) {
+            return compactIndex.lookupVertex(entitId.getVertex());
+        }
+
         Collection<Element> results = entityIdToElements.get(entitId);
         if (null == results) {
             results = Collections.emptySet();
@@ -147,6 +217,10 @@ public class MapImpl {
     }
 
     Collection<Element> lookup(final EdgeId edgeId) {
+        if (null != compactIndex) {
+            return compactIndex.lookupEdge(edgeId);
+        }
+
         Collection<Element> results = edgeIdToElements.get(edgeId);
         if (null == results) {
             results = Collections.emptySet();
@@ -212,14 +286,55 @@ public class MapImpl {
         edgeIdToElements.put(edgeSeed, element);
     }
 
+    void addToCompactIndex(final Element element) {
+        compactIndex.add(element);
+    }
+
+    Map<Element, GroupedProperties> getAggElementMap(final String group) {
+        return aggElements.get(group);
+    }
+
+    Map<Element, Long> getNonAggElementMap(final String group) {
+        return nonAggElements.get(group);
+    }
+
+    MapSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    boolean isCompactIndex() {
+        return null != compactIndex;
+    }
+
     boolean isMaintainIndex() {
         return maintainIndex;
     }
 
+    boolean isConcurrent() {
+        return concurrent;
+    }
+
     Element cloneElement(final Element element, final Schema schema) {
         return mapFactory.cloneElement(element, schema);
     }
 
+    /**
+     * Deep clones the provided properties so they can be aggregated without
+     * modifying the instance that concurrent readers may be holding. Aggregation
+     * functions are allowed to update their first argument in place, so a shallow
+     * copy is not sufficient.
+     *
+     * @param properties the properties to clone
+     * @return the cloned properties
+     */
+    private GroupedProperties cloneProperties(final GroupedProperties properties) {
+        final Entity holder = new Entity(properties.getGroup());
+        holder.copyProperties(properties);
+        final GroupedProperties clone = new GroupedProperties(properties.getGroup());
+        clone.putAll(cloneElement(holder, schema).getProperties());
+        return clone;
+    }
+
     Set<String> getGroupByProperties(final String group) {
         return groupToGroupByProperties.get(group);
     }
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.utils.SparseElementSerialiser;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Saves and loads the contents of a static {@link MapImpl} to and from a
+ * snapshot directory.
+ * <p>
+ * A snapshot is a single file containing every element in the map, serialised
+ * with the schema serialisers, along with the count of each non-aggregated
+ * element. Loading a snapshot puts the elements directly into the empty maps and
+ * builds the index in a single sequential pass, so no ingest aggregation or
+ * validation is required.
+ * <p>
+ * If deltas are enabled then every element added after the snapshot is appended
+ * to a delta file, which is replayed on top of the snapshot when it is loaded.
+ * Each snapshot has a generation number and only the delta for the generation of
+ * the latest snapshot is replayed, so a failure part way through saving a
+ * snapshot never causes elements to be added twice.
+ * <p>
+ * Adding an element to the map and appending it to the delta is done whilst
+ * holding the {@link #getAddLock() add lock}. Saving a snapshot holds the
+ * exclusive lock, so adds wait whilst the map is written and the delta is
+ * rolled, and every element is either in the new snapshot or in the new delta,
+ * never both.
+ */
+class MapSnapshot {
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    static final String DELTA_FILE_PREFIX = "delta-";
+    static final String DELTA_FILE_SUFFIX = ".bin";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapSnapshot.class);
+    private static final int MAGIC = 0x47534e50;
+    private static final int VERSION = 1;
+    private static final byte END = 0;
+    private static final byte AGG_ELEMENT = 1;
+    private static final byte NON_AGG_ELEMENT = 2;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final Schema schema;
+    private final Path directory;
+    private final boolean deltas;
+    private final SparseElementSerialiser serialiser;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation;
+    private DataOutputStream deltaOut;
+
+    MapSnapshot(final Schema schema, final MapStoreProperties properties) {
+        this.schema = schema;
+        this.directory = Paths.get(properties.getSnapshotDirectory());
+        this.deltas = properties.isSnapshotDeltas();
+        this.serialiser = new SparseElementSerialiser(schema);
+    }
+
+    /**
+     * Loads the latest snapshot and its delta into the provided empty map, then
+     * starts recording a new delta.
+     *
+     * @param mapImpl the map to load the elements into
+     * @throws StoreException if the snapshot or delta cannot be read
+     */
+    void load(final MapImpl mapImpl) throws StoreException {
+        lock.writeLock().lock();
+        try {
+            doLoad(mapImpl);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves all of the elements in the map to a new snapshot, then starts
+     * recording a new delta and deletes the old one. Elements cannot be added
+     * whilst the snapshot is saved.
+     *
+     * @param mapImpl the map to save
+     * @return the number of elements saved
+     * @throws StoreException if the snapshot cannot be written
+     */
+    long save(final MapImpl mapImpl) throws StoreException {
+        lock.writeLock().lock();
+        try {
+            return doSave(mapImpl);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the lock to hold whilst adding an element to the map and appending
+     * it to the delta. Many elements can be added at once, but not whilst a
+     * snapshot is being saved or loaded.
+     *
+     * @return the add lock
+     */
+    Lock getAddLock() {
+        return lock.readLock();
+    }
+
+    private synchronized void doLoad(final MapImpl mapImpl) throws StoreException {
+        final AddElementsHandler addElementsHandler = new AddElementsHandler();
+        final Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        generation = 0;
+        if (Files.exists(snapshotFile)) {
+            try (final DataInputStream in = openInput(snapshotFile)) {
+                if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+                    throw new StoreException("Snapshot file is not a valid map store snapshot: " + snapshotFile);
+                }
+                generation = in.readLong();
+                long count = 0;
+                for (byte type = in.readByte(); END != type; type = in.readByte()) {
+                    final Element element = readElement(in);
+                    final long elementCount = NON_AGG_ELEMENT == type ? in.readLong() : 1L;
+                    addElementsHandler.addElement(element, elementCount, schema, mapImpl);
+                    count++;
+                }
+                LOGGER.info("Loaded {} elements from snapshot {} generation {}", count, snapshotFile, generation);
+            } catch (final IOException e) {
+                throw new StoreException("Unable to load snapshot: " + snapshotFile, e);
+            }
+        }
+
+        final Path deltaFile = getDeltaFile(generation);
+        if (Files.exists(deltaFile)) {
+            replayDelta(deltaFile, mapImpl, addElementsHandler);
+        }
+        deleteOldDeltas();
+
+        if (deltas) {
+            try {
+                deltaOut = openDelta(deltaFile);
+            } catch (final IOException e) {
+                throw new StoreException("Unable to open delta file: " + deltaFile, e);
+            }
+        }
+    }
+
+    private synchronized long doSave(final MapImpl mapImpl) throws StoreException {
+        final long newGeneration = generation + 1;
+        final Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        final Path tmpFile = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        long count = 0;
+        try {
+            Files.createDirectories(directory);
+            try (final FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(newGeneration);
+                for (final String group : schema.getGroups()) {
+                    count += writeAggElements(mapImpl.getAggElementMap(group), out);
+                    count += writeNonAggElements(mapImpl.getNonAggElementMap(group), out);
+                }
+                out.writeByte(END);
+                out.flush();
+
+                // Make sure the snapshot is on disk before it replaces the old one
+                channel.force(true);
+            }
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new StoreException("Unable to save snapshot: " + snapshotFile, e);
+        }
+
+        final Path oldDeltaFile = getDeltaFile(generation);
+        generation = newGeneration;
+        try {
+            if (null != deltaOut) {
+                deltaOut.close();
+                deltaOut = openDelta(getDeltaFile(generation));
+            }
+            Files.deleteIfExists(oldDeltaFile);
+        } catch (final IOException e) {
+            throw new StoreException("Unable to start new delta file: " + getDeltaFile(generation), e);
+        }
+
+        LOGGER.info("Saved {} elements to snapshot {} generation {}", count, snapshotFile, generation);
+        return count;
+    }
+
+    /**
+     * Appends an element to the current delta, if deltas are enabled.
+     *
+     * @param element the element that has been added to the map
+     */
+    synchronized void appendDelta(final Element element) {
+        if (null != deltaOut) {
+            try {
+                writeElement(element, deltaOut);
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to append element to delta file", e);
+            }
+        }
+    }
+
+    /**
+     * Flushes any buffered delta elements to disk.
+     */
+    synchronized void flushDeltas() {
+        if (null != deltaOut) {
+            try {
+                deltaOut.flush();
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to flush delta file", e);
+            }
+        }
+    }
+
+    /**
+     * Closes the current delta, if deltas are enabled. No more elements are
+     * recorded after the delta is closed.
+     */
+    synchronized void close() {
+        if (null != deltaOut) {
+            try {
+                deltaOut.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to close delta file: {}", getDeltaFile(generation), e);
+            }
+            deltaOut = null;
+        }
+    }
+
+    private Path getDeltaFile(final long deltaGeneration) {
+        return directory.resolve(DELTA_FILE_PREFIX + deltaGeneration + DELTA_FILE_SUFFIX);
+    }
+
+    private long writeAggElements(final Map<Element, GroupedProperties> map, final DataOutputStream out) throws IOException {
+        long count = 0;
+        if (null != map) {
+            for (final Map.Entry<Element, GroupedProperties> entry : map.entrySet()) {
+                final Element element = entry.getKey().emptyClone();
+                element.copyProperties(entry.getKey().getProperties());
+                element.copyProperties(entry.getValue());
+                out.writeByte(AGG_ELEMENT);
+                writeElement(element, out);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeNonAggElements(final Map<Element, Long> map, final DataOutputStream out) throws IOException {
+        long count = 0;
+        if (null != map) {
+            for (final Map.Entry<Element, Long> entry : map.entrySet()) {
+                if (null != entry.getValue() && entry.getValue() > 0) {
+                    out.writeByte(NON_AGG_ELEMENT);
+                    writeElement(entry.getKey(), out);
+                    out.writeLong(entry.getValue());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void replayDelta(final Path deltaFile, final MapImpl mapImpl, final AddElementsHandler addElementsHandler) throws StoreException {
+        long count = 0;
+        long completeBytes = 0;
+        try {
+            try (final DataInputStream in = openInput(deltaFile)) {
+                while (true) {
+                    final byte[] bytes;
+                    try {
+                        bytes = new byte[in.readInt()];
+                        in.readFully(bytes);
+                    } catch (final EOFException e) {
+                        // The end of the file, or an element that was only partly written before the store stopped
+                        break;
+                    }
+                    addElementsHandler.addElement(serialiser.deserialise(bytes), 1L, schema, mapImpl);
+                    completeBytes += Integer.BYTES + bytes.length;
+                    count++;
+                }
+            }
+
+            // Remove any partly written element so new elements can be appended after the complete ones
+            if (Files.size(deltaFile) > completeBytes) {
+                LOGGER.warn("Truncating partly written element from the end of delta {}", deltaFile);
+                try (final FileChannel channel = FileChannel.open(deltaFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(completeBytes);
+                }
+            }
+        } catch (final IOException e) {
+            throw new StoreException("Unable to replay delta file: " + deltaFile, e);
+        }
+        LOGGER.info("Replayed {} elements from delta {}", count, deltaFile);
+    }
+
+    private void deleteOldDeltas() throws StoreException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final Path currentDelta = getDeltaFile(generation);
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, DELTA_FILE_PREFIX + "*" + DELTA_FILE_SUFFIX)) {
+            for (final Path file : files) {
+                if (!file.equals(currentDelta)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (final IOException e) {
+            throw new StoreException("Unable to delete old delta files in: " + directory, e);
+        }
+    }
+
+    private void writeElement(final Element element, final DataOutputStream out) throws IOException {
+        final byte[] bytes = serialiser.serialise(element);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private Element readElement(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return serialiser.deserialise(bytes);
+    }
+
+    private DataOutputStream openDelta(final Path deltaFile) throws IOException {
+        Files.createDirectories(directory);
+        final OutputStream out = Files.newOutputStream(deltaFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    }
+
+    private static DataInputStream openInput(final Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.operation.SaveSnapshot;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+
+/**
+ * An {@link uk.gov.gchq.gaffer.store.operation.handler.OperationHandler} for the
+ * {@link SaveSnapshot} operation on the {@link MapStore}.
+ */
+public class SaveSnapshotHandler implements OutputOperationHandler<SaveSnapshot, Long> {
+    @Override
+    public Long doOperation(final SaveSnapshot operation, final Context context, final Store store) throws OperationException {
+        final MapImpl mapImpl = ((MapStore) store).getMapImpl();
+        final MapSnapshot snapshot = mapImpl.getSnapshot();
+        if (null == snapshot) {
+            throw new OperationException("Snapshots require a static map store with " + MapStoreProperties.SNAPSHOT_DIRECTORY + " set");
+        }
+
+        try {
+            return snapshot.save(mapImpl);
+        } catch (final StoreException e) {
+            throw new OperationException(e.getMessage(), e);
+        }
+    }
+}
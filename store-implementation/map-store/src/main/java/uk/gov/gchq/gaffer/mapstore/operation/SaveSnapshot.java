@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.operation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.util.Map;
+
+/**
+ * A {@code SaveSnapshot} operation saves all of the elements in a static
+ * {@link uk.gov.gchq.gaffer.mapstore.MapStore} to the configured snapshot
+ * directory, so they can be loaded when the store is restarted. It returns the
+ * number of elements saved.
+ */
+@JsonPropertyOrder(value = {"class"}, alphabetic = true)
+@Since("1.22.1")
+@Summary("Saves a snapshot of a static map store")
+public class SaveSnapshot implements Output<Long> {
+    private Map<String, String> options;
+
+    @Override
+    public TypeReference<Long> getOutputTypeReference() {
+        return new TypeReferenceImpl.Long();
+    }
+
+    @Override
+    public SaveSnapshot shallowClone() {
+        return new SaveSnapshot.Builder()
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static class Builder extends Operation.BaseBuilder<SaveSnapshot, Builder>
+            implements Output.Builder<SaveSnapshot, Long, Builder> {
+        public Builder() {
+            super(new SaveSnapshot());
+        }
+    }
+}
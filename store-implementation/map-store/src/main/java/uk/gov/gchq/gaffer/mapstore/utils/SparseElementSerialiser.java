@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.utils;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.util.LengthValueBytesSerialiserUtil;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Serialiser for {@link Entity} and {@link Edge} objects, used for the keys of an
+ * {@link uk.gov.gchq.gaffer.mapstore.factory.OffHeapMap} and for map store
+ * snapshots. The matched vertex of an edge is not serialised, as it is not part
+ * of the identity of the edge.
+ */
+public class SparseElementSerialiser extends SparsePropertiesSerialiser<Element> {
+    private static final long serialVersionUID = 1792377093373838531L;
+    private static final byte ENTITY = 0;
+    private static final byte UNDIRECTED_EDGE = 1;
+    private static final byte DIRECTED_EDGE = 2;
+
+    private final ToBytesSerialiser<Object> vertexSerialiser;
+
+    public SparseElementSerialiser(final Schema schema) {
+        super(schema);
+        if (!(schema.getVertexSerialiser() instanceof ToBytesSerialiser)) {
+            throw new IllegalArgumentException("Vertex serialiser must be a " + ToBytesSerialiser.class.getSimpleName());
+        }
+        vertexSerialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+    }
+
+    @Override
+    public boolean canHandle(final Class clazz) {
+        return Entity.class.isAssignableFrom(clazz) || Edge.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public byte[] serialise(final Element element) throws SerialisationException {
+        final SchemaElementDefinition elementDefinition = getElementDefinition(element.getGroup());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (element instanceof Entity) {
+            out.write(ENTITY);
+            LengthValueBytesSerialiserUtil.serialise(stringSerialiser, element.getGroup(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, ((Entity) element).getVertex(), out);
+        } else if (element instanceof Edge) {
+            final Edge edge = (Edge) element;
+            out.write(edge.isDirected() ? DIRECTED_EDGE : UNDIRECTED_EDGE);
+            LengthValueBytesSerialiserUtil.serialise(stringSerialiser, edge.getGroup(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, edge.getSource(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, edge.getDestination(), out);
+        } else {
+            throw new SerialisationException("Unable to serialise element of type " + element.getClass().getName());
+        }
+        serialiseProperties(element.getProperties(), elementDefinition, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Element deserialise(final byte[] bytes) throws SerialisationException {
+        final byte type = bytes[0];
+        final int[] delimiter = {1};
+        final String group = LengthValueBytesSerialiserUtil.deserialise(stringSerialiser, bytes, delimiter);
+        final Element element;
+        if (ENTITY == type) {
+            element = new Entity(group, LengthValueBytesSerialiserUtil.deserialise(vertexSerialiser, bytes, delimiter));
+        } else {
+            final Object source = LengthValueBytesSerialiserUtil.deserialise(vertexSerialiser, bytes, delimiter);
+            final Object destination = LengthValueBytesSerialiserUtil.deserialise(vertexSerialiser, bytes, delimiter);
+            element = new Edge(group, source, destination, DIRECTED_EDGE == type);
+        }
+        deserialiseProperties(bytes, element.getProperties(), getElementDefinition(group), delimiter);
+        return element;
+    }
+
+    @Override
+    public Element deserialiseEmpty() {
+        return null;
+    }
+}
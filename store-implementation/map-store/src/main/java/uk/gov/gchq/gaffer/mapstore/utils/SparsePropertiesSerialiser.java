@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.utils;
+
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.util.LengthValueBytesSerialiserUtil;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.store.serialiser.PropertiesSerialiser;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Serialiser for objects containing {@link Properties} that writes a presence
+ * flag before each property in the schema. Unlike the
+ * {@link PropertiesSerialiser}, missing properties are deserialised as missing
+ * rather than as the empty value of their serialiser, so a deserialised object
+ * is equal to the object that was serialised.
+ *
+ * @param <T> the type of object to serialise
+ */
+public abstract class SparsePropertiesSerialiser<T> extends PropertiesSerialiser<T> {
+    private static final long serialVersionUID = -4043637386412574823L;
+    private static final byte ABSENT = 0;
+    private static final byte PRESENT = 1;
+
+    protected final StringSerialiser stringSerialiser = new StringSerialiser();
+
+    protected SparsePropertiesSerialiser(final Schema schema) {
+        super(schema);
+    }
+
+    /**
+     * The serialised form is consistent if the vertex and property serialisers
+     * are consistent, which is checked by the
+     * {@link uk.gov.gchq.gaffer.mapstore.factory.OffHeapMapFactory}.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isConsistent() {
+        return true;
+    }
+
+    protected SchemaElementDefinition getElementDefinition(final String group) throws SerialisationException {
+        final SchemaElementDefinition elementDefinition = schema.getElement(group);
+        if (null == elementDefinition) {
+            throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema?");
+        }
+        return elementDefinition;
+    }
+
+    @Override
+    protected void serialiseProperties(final Properties properties, final SchemaElementDefinition elementDefinition, final ByteArrayOutputStream out) throws SerialisationException {
+        for (final String propertyName : elementDefinition.getProperties()) {
+            final Object property = properties.get(propertyName);
+            if (null == property) {
+                out.write(ABSENT);
+            } else {
+                out.write(PRESENT);
+                LengthValueBytesSerialiserUtil.serialise(getSerialiser(elementDefinition, propertyName), property, out);
+            }
+        }
+    }
+
+    @Override
+    protected void deserialiseProperties(final byte[] bytes, final Properties properties, final SchemaElementDefinition elementDefinition, final int[] delimiter) throws SerialisationException {
+        for (final String propertyName : elementDefinition.getProperties()) {
+            if (delimiter[0] >= bytes.length) {
+                break;
+            }
+            final byte flag = bytes[delimiter[0]++];
+            if (PRESENT == flag) {
+                properties.put(propertyName, LengthValueBytesSerialiserUtil.deserialise(getSerialiser(elementDefinition, propertyName), bytes, delimiter));
+            }
+        }
+    }
+
+    private static ToBytesSerialiser<Object> getSerialiser(final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
+        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+        if (null == typeDefinition || !(typeDefinition.getSerialiser() instanceof ToBytesSerialiser)) {
+            throw new SerialisationException("No " + ToBytesSerialiser.class.getSimpleName() + " found for property " + propertyName);
+        }
+        return (ToBytesSerialiser) typeDefinition.getSerialiser();
+    }
+}
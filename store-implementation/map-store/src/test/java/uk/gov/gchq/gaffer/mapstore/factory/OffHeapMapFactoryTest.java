@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class OffHeapMapFactoryTest {
+
+    @Test
+    public void shouldCreateOffHeapMapsForElementsAndHashMapsForOtherMaps() {
+        // Given
+        final OffHeapMapFactory factory = new OffHeapMapFactory();
+        factory.initialise(getSchema(new StringSerialiser()), new MapStoreProperties());
+
+        // When
+        final Map<Element, GroupedProperties> aggMap = factory.getMap("agg", Element.class, GroupedProperties.class);
+        final Map<Element, Long> nonAggMap = factory.getMap("nonAgg", Element.class, Long.class);
+        final Map<Object, Object> otherMap = factory.getMap("other", Object.class, Object.class);
+
+        // Then
+        assertThat(aggMap).isInstanceOf(OffHeapMap.class);
+        assertThat(nonAggMap).isInstanceOf(OffHeapMap.class);
+        assertThat(otherMap).isInstanceOf(HashMap.class);
+        assertNotSame(aggMap, nonAggMap);
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveElementsWithMissingProperties() {
+        // Given
+        final OffHeapMapFactory factory = new OffHeapMapFactory();
+        factory.initialise(getSchema(new StringSerialiser()), new MapStoreProperties());
+        final Map<Element, GroupedProperties> map = factory.getMap("agg", Element.class, GroupedProperties.class);
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("source")
+                .dest("dest")
+                .directed(true)
+                .property(TestPropertyNames.PROP_1, "groupBy")
+                .build();
+        final GroupedProperties properties = new GroupedProperties(TestGroups.ENTITY);
+        properties.put(TestPropertyNames.COUNT, 1);
+
+        // When
+        map.put(entity, properties);
+        map.put(edge, new GroupedProperties(TestGroups.EDGE));
+
+        // Then
+        assertEquals(properties, map.get(new Entity(TestGroups.ENTITY, "vertex")));
+        assertEquals(new GroupedProperties(TestGroups.EDGE), map.get(edge));
+        assertThat(map.keySet()).containsExactlyInAnyOrder(entity, edge);
+        for (final Element key : map.keySet()) {
+            assertEquals(key.getProperties(), key.equals(edge) ? edge.getProperties() : entity.getProperties());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConcurrent() {
+        // Given
+        final OffHeapMapFactory factory = new OffHeapMapFactory();
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setConcurrent(true);
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.initialise(getSchema(new StringSerialiser()), properties))
+                .withMessageContaining("concurrent");
+    }
+
+    @Test
+    public void shouldThrowExceptionIfGroupBySerialiserIsNotConsistent() {
+        // Given
+        final OffHeapMapFactory factory = new OffHeapMapFactory();
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.initialise(getSchema(new JavaSerialiser()), new MapStoreProperties()))
+                .withMessageContaining(TestPropertyNames.PROP_1);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfChunkSizeIsInvalid() {
+        // Given
+        final OffHeapMapFactory factory = new OffHeapMapFactory();
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.set(OffHeapMapFactory.CHUNK_SIZE, "1");
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.initialise(getSchema(new StringSerialiser()), properties))
+                .withMessageContaining("Chunk size");
+    }
+
+    @Test
+    public void shouldDeleteChunkFilesWhenGraphIsClosed(@TempDir final Path tempDir) throws Exception {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setMapFactory(OffHeapMapFactory.class);
+        storeProperties.set(OffHeapMapFactory.DIRECTORY, tempDir.toString());
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("offHeapGraph")
+                        .build())
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+        graph.execute(new AddElements.Builder()
+                .input(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count()).isPositive();
+        }
+
+        // When
+        graph.close();
+
+        // Then
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldAddAndAggregateElementsInMapStore() throws OperationException {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setMapFactory(OffHeapMapFactory.class);
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("offHeapGraph")
+                        .build())
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+
+        // When
+        graph.execute(new AddElements.Builder()
+                .input(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+        graph.execute(new AddElements.Builder()
+                .input(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+
+        // Then
+        final List<Element> results = Streams.toStream(graph.execute(new GetAllElements(), new User()))
+                .collect(Collectors.toList());
+        final List<Element> expected = GetAllElementsHandlerTest.getElements().stream()
+                .map(element -> {
+                    final Element clone = element.shallowClone();
+                    clone.putProperty(TestPropertyNames.COUNT, 2 * (int) element.getProperty(TestPropertyNames.COUNT));
+                    return clone;
+                })
+                .collect(Collectors.toList());
+        assertThat(results).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private Schema getSchema(final ToBytesSerialiser groupBySerialiser) {
+        return new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "groupBy")
+                        .property(TestPropertyNames.COUNT, "int")
+                        .groupBy(TestPropertyNames.PROP_1)
+                        .build())
+                .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(TestPropertyNames.PROP_1, "groupBy")
+                        .property(TestPropertyNames.COUNT, "int")
+                        .groupBy(TestPropertyNames.PROP_1)
+                        .build())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .aggregateFunction(new StringConcat())
+                        .build())
+                .type("groupBy", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(groupBySerialiser)
+                        .aggregateFunction(new StringConcat())
+                        .build())
+                .type("int", new TypeDefinition.Builder()
+                        .clazz(Integer.class)
+                        .serialiser(new CompactRawIntegerSerialiser())
+                        .aggregateFunction(new Sum())
+                        .build())
+                .type("true", Boolean.class)
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+    }
+}
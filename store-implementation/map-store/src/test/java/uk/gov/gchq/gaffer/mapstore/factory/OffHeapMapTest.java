@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapMapTest {
+
+    @Test
+    public void shouldPutGetAndRemoveValues() {
+        // Given
+        final OffHeapMap<String, Long> map = createMap(null);
+
+        // When
+        map.put("a", 1L);
+        map.put("b", 2L);
+        final Long previous = map.put("a", 3L);
+        final Long removed = map.remove("b");
+
+        // Then
+        assertEquals(1L, (long) previous);
+        assertEquals(2L, (long) removed);
+        assertEquals(3L, (long) map.get("a"));
+        assertNull(map.get("b"));
+        assertNull(map.get(1));
+        assertTrue(map.containsKey("a"));
+        assertFalse(map.containsKey("b"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldBehaveLikeHashMapWhenAddingAndRemovingManyKeys() {
+        // Given
+        final OffHeapMap<String, Long> map = createMap(null);
+        final Map<String, Long> expected = new HashMap<>();
+
+        // When
+        for (long i = 0; i < 10000; i++) {
+            map.merge("key" + (i % 3000), i, Long::sum);
+            expected.merge("key" + (i % 3000), i, Long::sum);
+        }
+        for (int i = 0; i < 3000; i += 3) {
+            map.remove("key" + i);
+            expected.remove("key" + i);
+        }
+
+        // Then
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+        assertThat(map.values()).containsExactlyInAnyOrderElementsOf(expected.values());
+    }
+
+    @Test
+    public void shouldOverwriteValuesInPlaceWhenTheyFit() {
+        // Given
+        final OffHeapMap<String, String> map = new OffHeapMap<>(new StringSerialiser(), new StringSerialiser(), OffHeapMap.MIN_CHUNK_SIZE);
+        map.put("key", "a long value");
+        final long usedBytes = map.getUsedBytes();
+
+        // When
+        map.put("key", "short");
+
+        // Then
+        assertEquals("short", map.get("key"));
+        assertEquals(usedBytes, map.getUsedBytes());
+        assertEquals(0, map.getWastedBytes());
+
+        // When
+        map.put("key", "a value longer than the original value");
+
+        // Then
+        assertEquals("a value longer than the original value", map.get("key"));
+        assertTrue(map.getWastedBytes() > 0);
+    }
+
+    @Test
+    public void shouldStoreRecordsLargerThanTheChunkSize() {
+        // Given
+        final OffHeapMap<String, String> map = new OffHeapMap<>(new StringSerialiser(), new StringSerialiser(), OffHeapMap.MIN_CHUNK_SIZE);
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < OffHeapMap.MIN_CHUNK_SIZE; i++) {
+            value.append('x');
+        }
+
+        // When
+        map.put("small", "value");
+        map.put("large", value.toString());
+
+        // Then
+        assertEquals("value", map.get("small"));
+        assertEquals(value.toString(), map.get("large"));
+    }
+
+    @Test
+    public void shouldMemoryMapChunksInDirectoryAndDeleteThemWhenCleared(@TempDir final Path tempDir) throws IOException {
+        // Given
+        final OffHeapMap<String, Long> map = createMap(tempDir);
+
+        // When
+        map.put("a", 1L);
+
+        // Then
+        assertEquals(1L, (long) map.get("a"));
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+
+        // When
+        map.clear();
+
+        // Then
+        assertTrue(map.isEmpty());
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionIfChunkSizeIsTooSmall() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new OffHeapMap<>(new StringSerialiser(), new CompactRawLongSerialiser(), 1024))
+                .withMessageContaining("Chunk size");
+    }
+
+    private OffHeapMap<String, Long> createMap(final Path directory) {
+        return new OffHeapMap<>(new StringSerialiser(), new CompactRawLongSerialiser(), OffHeapMap.MIN_CHUNK_SIZE, directory);
+    }
+}
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.multimap.ConcurrentMapOfSets;
 import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
 import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
 import uk.gov.gchq.gaffer.store.StoreException;
@@ -26,6 +27,7 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -139,6 +141,45 @@ public class SimpleMapFactoryTest {
         assertNotSame(map1, map2);
     }
 
+    @Test
+    public void shouldCreateConcurrentMapsWhenConcurrent() throws StoreException {
+        // Given
+        final Schema schema = mock(Schema.class);
+        final MapStoreProperties properties = mock(MapStoreProperties.class);
+        final SimpleMapFactory factory = new SimpleMapFactory();
+
+        given(properties.isConcurrent()).willReturn(true);
+        given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.CONCURRENT_MAP_CLASS_DEFAULT)).willReturn(SimpleMapFactory.CONCURRENT_MAP_CLASS_DEFAULT);
+
+        factory.initialise(schema, properties);
+
+        // When
+        final Map<Object, Object> map = factory.getMap("mapName1", Object.class, Object.class);
+        final MapOfSets<Object, Object> multiMap = (MapOfSets) factory.getMultiMap("mapName2", Object.class, Object.class);
+
+        // Then
+        assertThat(map).isInstanceOf(ConcurrentHashMap.class);
+        assertThat(multiMap).isInstanceOf(ConcurrentMapOfSets.class);
+        assertThat(multiMap.getWrappedMap()).isInstanceOf(ConcurrentHashMap.class);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConcurrentAndMapClassIsNotConcurrent() throws StoreException {
+        // Given
+        final Schema schema = mock(Schema.class);
+        final MapStoreProperties properties = mock(MapStoreProperties.class);
+        final SimpleMapFactory factory = new SimpleMapFactory();
+
+        given(properties.isConcurrent()).willReturn(true);
+        given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.CONCURRENT_MAP_CLASS_DEFAULT)).willReturn(LinkedHashMap.class.getName());
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> factory.initialise(schema, properties))
+                .extracting("message")
+                .isNotNull();
+    }
+
     @Test
     public void shouldCloneElementUsingCloner() throws StoreException {
         // Given
@@ -17,18 +17,36 @@ package uk.gov.gchq.gaffer.mapstore.impl;
 
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.SingleUseMapStore;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -47,4 +65,92 @@ public class AddElementsHandlerTest {
         // When / Then - should not throw NPE
         handler.doOperation(addElements, context, store);
     }
+
+    @Test
+    public void shouldAggregateElementsAddedUsingMultipleIngestThreads() throws OperationException {
+        // Given
+        final Graph graph = getConcurrentGraph();
+        final int numElements = 1000;
+        final List<Element> elements = new ArrayList<>();
+        IntStream.range(0, numElements)
+                .forEach(i -> elements.add(new Entity.Builder()
+                        .group(GetAllElementsHandlerTest.BASIC_ENTITY)
+                        .vertex("vertex" + (i % 10))
+                        .property(GetAllElementsHandlerTest.PROPERTY1, "p")
+                        .property(GetAllElementsHandlerTest.COUNT, 1)
+                        .build()));
+
+        // When
+        graph.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new User());
+
+        // Then
+        final CloseableIterable<? extends Element> results = graph.execute(new GetAllElements(), new User());
+        final List<Element> resultsList = Streams.toStream(results).collect(Collectors.toList());
+        assertEquals(10, resultsList.size());
+        for (final Element result : resultsList) {
+            assertEquals(numElements / 10, result.getProperty(GetAllElementsHandlerTest.COUNT));
+        }
+    }
+
+    @Test
+    public void shouldNotSeePartiallyAggregatedElementsWhenQueryingDuringIngest() throws Exception {
+        // Given
+        final Graph graph = getConcurrentGraph();
+        final int numBatches = 50;
+        final int batchSize = 20;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Callable<Void> ingestTask = () -> {
+            for (int i = 0; i < numBatches; i++) {
+                final List<Element> elements = new ArrayList<>();
+                IntStream.range(0, batchSize)
+                        .forEach(j -> elements.add(new Edge.Builder()
+                                .group(GetAllElementsHandlerTest.BASIC_EDGE1)
+                                .source("A")
+                                .dest("B")
+                                .directed(true)
+                                .property(GetAllElementsHandlerTest.PROPERTY1, "q")
+                                .property(GetAllElementsHandlerTest.COUNT, 1)
+                                .build()));
+                graph.execute(new AddElements.Builder()
+                        .input(elements)
+                        .build(), new User());
+            }
+            return null;
+        };
+
+        // When
+        final Future<Void> ingest = executor.submit(ingestTask);
+        executor.shutdown();
+        int previousCount = 0;
+        while (!ingest.isDone()) {
+            for (final Element result : graph.execute(new GetAllElements(), new User())) {
+                final int count = (int) result.getProperty(GetAllElementsHandlerTest.COUNT);
+
+                // Then
+                assertTrue(count >= previousCount);
+                previousCount = count;
+            }
+        }
+        // Fails the test if the ingest failed
+        ingest.get();
+
+        final Element result = graph.execute(new GetAllElements(), new User()).iterator().next();
+        assertEquals(numBatches * batchSize, result.getProperty(GetAllElementsHandlerTest.COUNT));
+    }
+
+    private Graph getConcurrentGraph() {
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setConcurrent(true);
+        storeProperties.setIngestThreads(4);
+        storeProperties.setIngestBufferSize(5);
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("concurrentGraph")
+                        .build())
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId.MatchedVertex;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactElementIndexTest {
+    @Test
+    public void shouldLookupEntitiesAndEdgesByVertexWithMatchedVertex() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        final Edge edge = new Edge(TestGroups.EDGE, "A", "B", true);
+        index.add(entity);
+        index.add(edge);
+
+        // When
+        final Collection<Element> sourceResults = index.lookupVertex("A");
+        final Collection<Element> destinationResults = index.lookupVertex("B");
+
+        // Then
+        assertEquals(Sets.newHashSet(entity, edge), new HashSet<>(sourceResults));
+        for (final Element element : sourceResults) {
+            if (element instanceof Edge) {
+                assertEquals(MatchedVertex.SOURCE, ((Edge) element).getMatchedVertex());
+            }
+        }
+        assertEquals(1, destinationResults.size());
+        final Edge destinationEdge = (Edge) destinationResults.iterator().next();
+        assertEquals(edge, destinationEdge);
+        assertEquals(MatchedVertex.DESTINATION, destinationEdge.getMatchedVertex());
+    }
+
+    @Test
+    public void shouldOnlyStoreEachElementOnce() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+
+        // When
+        index.add(new Edge(TestGroups.EDGE, "A", "B", true));
+        index.add(new Edge(TestGroups.EDGE, "A", "B", true));
+        index.add(new Edge(TestGroups.EDGE, "A", "A", true));
+
+        // Then
+        assertEquals(2, index.getElementCount());
+        assertEquals(2, index.getVertexCount());
+        assertEquals(2, index.lookupVertex("A").size());
+        assertEquals(1, index.lookupVertex("B").size());
+    }
+
+    @Test
+    public void shouldLookupEdgesByEdgeId() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+        final Edge directed = new Edge(TestGroups.EDGE, "A", "B", true);
+        final Edge undirected = new Edge(TestGroups.EDGE, "B", "A", false);
+        index.add(new Entity(TestGroups.ENTITY, "A"));
+        index.add(directed);
+        index.add(undirected);
+        index.add(new Edge(TestGroups.EDGE, "A", "C", true));
+
+        // When / Then
+        assertEquals(Sets.newHashSet(directed), new HashSet<>(index.lookupEdge(new EdgeSeed("A", "B", true))));
+        assertEquals(Sets.newHashSet(undirected), new HashSet<>(index.lookupEdge(new EdgeSeed("A", "B", false))));
+        assertEquals(Sets.newHashSet(undirected), new HashSet<>(index.lookupEdge(new EdgeSeed("B", "A", false))));
+        assertTrue(index.lookupEdge(new EdgeSeed("B", "A", true)).isEmpty());
+        assertTrue(index.lookupEdge(new EdgeSeed("X", "Y", true)).isEmpty());
+    }
+
+    @Test
+    public void shouldGrowAdjacencyListsForHighDegreeVertices() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            index.add(new Edge(TestGroups.EDGE, "hub", "vertex" + i, true));
+        }
+
+        // Then
+        assertEquals(1000, index.lookupVertex("hub").size());
+        assertEquals(1001, index.getVertexCount());
+        assertEquals(1, index.lookupVertex("vertex999").size());
+    }
+
+    @Test
+    public void shouldLookupEdgesBetweenVerticesOfHighDegreeVertex() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.add(new Edge(TestGroups.EDGE, "hub", "vertex" + i, true));
+        }
+        final Edge otherGroup = new Edge(TestGroups.EDGE_2, "hub", "vertex500", true);
+        final Edge undirected = new Edge(TestGroups.EDGE, "hub", "vertex500", false);
+        index.add(otherGroup);
+        index.add(undirected);
+
+        // When
+        final Collection<Element> directedResults = index.lookupEdge(new EdgeSeed("hub", "vertex500", true));
+        final Collection<Element> undirectedResults = index.lookupEdge(new EdgeSeed("vertex500", "hub", false));
+
+        // Then
+        assertEquals(Sets.newHashSet(new Edge(TestGroups.EDGE, "hub", "vertex500", true), otherGroup), new HashSet<>(directedResults));
+        assertEquals(Sets.newHashSet(undirected), new HashSet<>(undirectedResults));
+        assertTrue(index.lookupEdge(new EdgeSeed("vertex500", "hub", true)).isEmpty());
+    }
+
+    @Test
+    public void shouldLookupEveryElementAfterTheIndexHasGrown() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            index.add(new Entity(TestGroups.ENTITY, i));
+            index.add(new Edge(TestGroups.EDGE, i, i + 1, true));
+        }
+
+        // Then
+        assertEquals(10000, index.getElementCount());
+        assertEquals(5001, index.getVertexCount());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(0 == i ? 2 : 3, index.lookupVertex(i).size());
+            assertEquals(Sets.newHashSet(new Edge(TestGroups.EDGE, i, i + 1, true)),
+                    new HashSet<>(index.lookupEdge(new EdgeSeed(i, i + 1, true))));
+        }
+    }
+
+    @Test
+    public void shouldClearIndex() {
+        // Given
+        final CompactElementIndex index = new CompactElementIndex();
+        index.add(new Edge(TestGroups.EDGE, "A", "B", true));
+
+        // When
+        index.clear();
+
+        // Then
+        assertTrue(index.lookupVertex("A").isEmpty());
+        assertEquals(0, index.getElementCount());
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.operation.SaveSnapshot;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MapSnapshotTest {
+
+    @BeforeEach
+    @AfterEach
+    public void resetStaticMap() {
+        MapStore.resetStaticMap();
+    }
+
+    @Test
+    public void shouldLoadSnapshotAndDeltaWhenStaticMapIsRecreated(@TempDir final Path tempDir) throws OperationException {
+        // Given
+        Graph graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        final Long saved = graph.execute(new SaveSnapshot(), new User());
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        final List<Element> expected = getAllElements(graph);
+
+        // When
+        MapStore.resetStaticMap();
+        graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+
+        // Then
+        assertEquals(GetAllElementsHandlerTest.getElements().size(), (long) saved);
+        assertThat(getAllElements(graph)).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(Streams.toStream(graph.execute(new GetElements.Builder()
+                .input(new EntitySeed("A"))
+                .build(), new User())).collect(Collectors.toList()))
+                .isNotEmpty();
+    }
+
+    @Test
+    public void shouldLoadNonAggregatedElementCountsFromSnapshot(@TempDir final Path tempDir) throws OperationException {
+        // Given
+        Graph graph = getGraph(GetAllElementsHandlerTest.getSchemaNoAggregation(), tempDir, false);
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        graph.execute(new SaveSnapshot(), new User());
+        final List<Element> expected = getAllElements(graph);
+
+        // When
+        MapStore.resetStaticMap();
+        graph = getGraph(GetAllElementsHandlerTest.getSchemaNoAggregation(), tempDir, false);
+
+        // Then
+        assertEquals(2 * GetAllElementsHandlerTest.getElements().size(), expected.size());
+        assertThat(getAllElements(graph)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldNotReplayDeltaFromPreviousSnapshot(@TempDir final Path tempDir) throws OperationException, IOException {
+        // Given
+        final Graph graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        final Path oldDelta = getDeltaFile(tempDir, 0);
+        final byte[] oldDeltaBytes = Files.readAllBytes(oldDelta);
+        graph.execute(new SaveSnapshot(), new User());
+        final List<Element> expected = getAllElements(graph);
+
+        // When
+        // Simulate the store stopping after the snapshot was saved but before the old delta was deleted
+        Files.write(oldDelta, oldDeltaBytes);
+        MapStore.resetStaticMap();
+        final Graph restartedGraph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+
+        // Then
+        assertThat(getAllElements(restartedGraph)).containsExactlyInAnyOrderElementsOf(expected);
+        assertFalse(Files.exists(oldDelta));
+    }
+
+    @Test
+    public void shouldIgnorePartlyWrittenElementAtEndOfDelta(@TempDir final Path tempDir) throws OperationException, IOException {
+        // Given
+        Graph graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+        final List<Element> expected = getAllElements(graph);
+        final Path delta = getDeltaFile(tempDir, 0);
+        Files.write(delta, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+
+        // When
+        MapStore.resetStaticMap();
+        graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+        final Element newEntity = new Entity.Builder()
+                .group(GetAllElementsHandlerTest.BASIC_ENTITY)
+                .vertex("new")
+                .property(GetAllElementsHandlerTest.PROPERTY1, "p")
+                .property(GetAllElementsHandlerTest.COUNT, 1)
+                .build();
+        addElements(graph, Collections.singletonList(newEntity));
+        MapStore.resetStaticMap();
+        graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+
+        // Then
+        expected.add(newEntity);
+        assertThat(getAllElements(graph)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldNotAggregateElementsTwiceWhenSnapshotIsSavedDuringIngest(@TempDir final Path tempDir) throws Exception {
+        // Given
+        final Graph graph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+        final int numAdds = 200;
+        final Element entity = new Entity.Builder()
+                .group(GetAllElementsHandlerTest.BASIC_ENTITY)
+                .vertex("A")
+                .property(GetAllElementsHandlerTest.PROPERTY1, "p")
+                .property(GetAllElementsHandlerTest.COUNT, 1)
+                .build();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Callable<Void> ingestTask = () -> {
+            for (int i = 0; i < numAdds; i++) {
+                addElements(graph, Collections.singletonList(entity));
+            }
+            return null;
+        };
+
+        // When
+        final Future<Void> ingest = executor.submit(ingestTask);
+        executor.shutdown();
+        while (!ingest.isDone()) {
+            graph.execute(new SaveSnapshot(), new User());
+        }
+        ingest.get();
+        MapStore.resetStaticMap();
+        final Graph restartedGraph = getGraph(GetAllElementsHandlerTest.getSchema(), tempDir, true);
+
+        // Then
+        final List<Element> results = getAllElements(restartedGraph);
+        assertThat(results).hasSize(1);
+        assertEquals(numAdds, results.get(0).getProperty(GetAllElementsHandlerTest.COUNT));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSavingSnapshotWithoutDirectory() {
+        // Given
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("graphWithoutSnapshots")
+                        .build())
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(new MapStoreProperties())
+                .build();
+
+        // When / Then
+        assertThatExceptionOfType(OperationException.class)
+                .isThrownBy(() -> graph.execute(new SaveSnapshot(), new User()))
+                .withMessageContaining(MapStoreProperties.SNAPSHOT_DIRECTORY);
+    }
+
+    @Test
+    public void shouldNotWriteDeltaWhenDeltasAreDisabled(@TempDir final Path tempDir) throws OperationException {
+        // Given
+        final MapStoreProperties storeProperties = getStoreProperties(tempDir);
+        storeProperties.setSnapshotDeltas(false);
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("graphWithoutDeltas")
+                        .build())
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+
+        // When
+        addElements(graph, GetAllElementsHandlerTest.getElements());
+
+        // Then
+        assertFalse(Files.exists(getDeltaFile(tempDir, 0)));
+        graph.execute(new SaveSnapshot(), new User());
+        assertTrue(Files.exists(tempDir.resolve(MapSnapshot.SNAPSHOT_FILE)));
+    }
+
+    private static Graph getGraph(final Schema schema, final Path snapshotDirectory, final boolean aggregated) {
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(aggregated ? "snapshotGraph" : "snapshotGraphNoAggregation")
+                        .build())
+                .addSchema(schema)
+                .storeProperties(getStoreProperties(snapshotDirectory))
+                .build();
+    }
+
+    private static MapStoreProperties getStoreProperties(final Path snapshotDirectory) {
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setStaticMap(true);
+        storeProperties.setSnapshotDirectory(snapshotDirectory.toString());
+        return storeProperties;
+    }
+
+    private static void addElements(final Graph graph, final List<Element> elements) throws OperationException {
+        graph.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new User());
+    }
+
+    private static List<Element> getAllElements(final Graph graph) throws OperationException {
+        return Streams.toStream(graph.execute(new GetAllElements(), new User()))
+                .collect(Collectors.toList());
+    }
+
+    private static Path getDeltaFile(final Path snapshotDirectory, final long generation) {
+        return snapshotDirectory.resolve(MapSnapshot.DELTA_FILE_PREFIX + generation + MapSnapshot.DELTA_FILE_SUFFIX);
+    }
+}
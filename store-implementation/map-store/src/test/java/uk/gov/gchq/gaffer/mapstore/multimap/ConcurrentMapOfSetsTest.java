@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.multimap;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentMapOfSetsTest {
+    @Test
+    public void shouldPutValuesIntoConcurrentSets() {
+        // Given
+        final ConcurrentMapOfSets<String, String> mapOfSets = new ConcurrentMapOfSets<>(new ConcurrentHashMap<>());
+
+        // When
+        mapOfSets.put("key1", "value1");
+        mapOfSets.put("key1", Arrays.asList("value2", "value3"));
+        mapOfSets.put("key2", Arrays.asList("value4"));
+
+        // Then
+        assertEquals(Sets.newHashSet("value1", "value2", "value3"), mapOfSets.get("key1"));
+        assertEquals(Sets.newHashSet("value4"), mapOfSets.get("key2"));
+        assertTrue(mapOfSets.get("key1") instanceof ConcurrentHashMap.KeySetView);
+    }
+
+    @Test
+    public void shouldNotLoseValuesWhenPutConcurrently() {
+        // Given
+        final ConcurrentMapOfSets<String, Integer> mapOfSets = new ConcurrentMapOfSets<>(new ConcurrentHashMap<>());
+
+        // When
+        IntStream.range(0, 10000)
+                .parallel()
+                .forEach(i -> mapOfSets.put("key" + (i % 10), i));
+
+        // Then
+        int total = 0;
+        for (final String key : mapOfSets.keySet()) {
+            final Set<Integer> values = (Set<Integer>) mapOfSets.get(key);
+            total += values.size();
+        }
+        assertEquals(10000, total);
+    }
+}
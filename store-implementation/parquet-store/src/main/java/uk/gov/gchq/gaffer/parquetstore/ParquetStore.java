@@ -33,6 +33,8 @@ import uk.gov.gchq.gaffer.data.element.IdentifierType;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.CountElementGroupsHandler;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.CountElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.GetElementsHandler;
@@ -71,10 +73,13 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.StoreTrait;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.optimiser.CountElementsOperationChainOptimiser;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
 import uk.gov.gchq.koryphe.ValidationResult;
 
@@ -85,6 +90,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static uk.gov.gchq.gaffer.store.StoreTrait.INGEST_AGGREGATION;
@@ -148,6 +156,7 @@ public class ParquetStore extends Store {
     private long currentSnapshot;
     private SchemaUtils schemaUtils;
     private FileSystem fs;
+    private ExecutorService queryExecutorService;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
@@ -165,6 +174,7 @@ public class ParquetStore extends Store {
         }
         LOGGER.info("Initialising ParquetStore for graph id {}", graphId);
         super.initialise(graphId, schema, parquetStoreProperties);
+        addOperationChainOptimisers(Collections.singletonList(new CountElementsOperationChainOptimiser()));
         try {
             fs = FileSystem.get(new Configuration());
             schemaUtils = new SchemaUtils(getSchema());
@@ -409,6 +419,8 @@ public class ParquetStore extends Store {
 
     @Override
     protected void addAdditionalOperationHandlers() {
+        addOperationHandler(CountElements.class, new CountElementsHandler());
+        addOperationHandler(CountElementGroups.class, new CountElementGroupsHandler());
         addOperationHandler(GetDataFrameOfElements.class, new GetDataFrameOfElementsHandler());
         addOperationHandler(ImportJavaRDDOfElements.class, new ImportJavaRDDOfElementsHandler());
         addOperationHandler(ImportRDDOfElements.class, new ImportRDDOfElementsHandler());
@@ -474,4 +486,32 @@ public class ParquetStore extends Store {
     public GraphPartitioner getGraphPartitioner() {
         return graphPartitioner;
     }
+
+    /**
+     * Gets the thread pool used to read Parquet files for queries. The pool is shared by all queries against this
+     * store and has the number of threads given by {@link ParquetStoreProperties#getThreadsAvailable()}. It is shut
+     * down when the store is closed.
+     *
+     * @return the thread pool for reading Parquet files
+     */
+    public synchronized ExecutorService getQueryExecutorService() {
+        if (null == queryExecutorService) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            queryExecutorService = Executors.newFixedThreadPool(getProperties().getThreadsAvailable(), runnable -> {
+                final Thread thread = new Thread(runnable, "gaffer-parquet-query-" + getGraphId() + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return queryExecutorService;
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != queryExecutorService) {
+            queryExecutorService.shutdownNow();
+            queryExecutorService = null;
+        }
+    }
 }
@@ -45,6 +45,9 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     public static final String SPARK_MASTER = "spark.master";
     public static final String PARQUET_SKIP_VALIDATION = "parquet.skip_validation";
     public static final String COMPRESSION_CODEC = "parquet.compression.codec";
+    public static final String PARQUET_QUERY_BATCH_SIZE = "parquet.query.batch_size";
+    public static final String PARQUET_QUERY_FILES_READ_AHEAD = "parquet.query.files_read_ahead";
+    public static final String PARQUET_QUERY_BATCH_TIMEOUT = "parquet.query.batch_timeout";
 
     // Default values - NB No default values for DATA_DIR or TEMP_FILES_DIR to
     // avoid the inadvertent storage of data in unexpected folders.
@@ -58,6 +61,8 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     private static final String SPARK_MASTER_DEFAULT = "local[*]";
     private static final String PARQUET_SKIP_VALIDATION_DEFAULT = "false";
     private static final String COMPRESSION_CODEC_DEFAULT = "GZIP";
+    private static final String PARQUET_QUERY_BATCH_SIZE_DEFAULT = "1000";
+    private static final String PARQUET_QUERY_BATCH_TIMEOUT_DEFAULT = "300";
     private static final long serialVersionUID = 7695540336792378185L;
 
     public ParquetStoreProperties() {
@@ -104,6 +109,49 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
         set(PARQUET_THREADS_AVAILABLE, threadsAvailable.toString());
     }
 
+    /**
+     * Gets the maximum number of elements read from a Parquet file at a time by a query. Elements are only read
+     * from a file once the previous batch from that file has been consumed.
+     *
+     * @return the number of elements in each batch
+     */
+    public Integer getQueryBatchSize() {
+        return Integer.parseInt(get(PARQUET_QUERY_BATCH_SIZE, PARQUET_QUERY_BATCH_SIZE_DEFAULT));
+    }
+
+    public void setQueryBatchSize(final Integer queryBatchSize) {
+        set(PARQUET_QUERY_BATCH_SIZE, queryBatchSize.toString());
+    }
+
+    /**
+     * Gets the number of Parquet files that a query reads from at the same time. Defaults to the number of threads
+     * available.
+     *
+     * @return the number of files to read ahead
+     */
+    public Integer getQueryFilesReadAhead() {
+        final String filesReadAhead = get(PARQUET_QUERY_FILES_READ_AHEAD);
+        return null != filesReadAhead ? Integer.parseInt(filesReadAhead) : getThreadsAvailable();
+    }
+
+    public void setQueryFilesReadAhead(final Integer queryFilesReadAhead) {
+        set(PARQUET_QUERY_FILES_READ_AHEAD, queryFilesReadAhead.toString());
+    }
+
+    /**
+     * Gets the number of seconds that a query waits for a batch of elements to be read from a Parquet file before
+     * failing.
+     *
+     * @return the batch timeout in seconds
+     */
+    public Long getQueryBatchTimeout() {
+        return Long.parseLong(get(PARQUET_QUERY_BATCH_TIMEOUT, PARQUET_QUERY_BATCH_TIMEOUT_DEFAULT));
+    }
+
+    public void setQueryBatchTimeout(final Long queryBatchTimeout) {
+        set(PARQUET_QUERY_BATCH_TIMEOUT, queryBatchTimeout.toString());
+    }
+
     public Integer getRowGroupSize() {
         return Integer.parseInt(get(PARQUET_ROW_GROUP_SIZE_IN_BYTES, PARQUET_ROW_GROUP_SIZE_IN_BYTES_DEFAULT));
     }
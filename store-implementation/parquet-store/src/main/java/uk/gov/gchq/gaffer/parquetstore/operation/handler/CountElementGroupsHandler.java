@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler;
+
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.CountElementGroups;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@code CountElementGroupsHandler} handles {@link CountElementGroups}
+ * operations on the {@link ParquetStore}, using the row group metadata of the
+ * files where possible, see {@link CountElementsHandler}. As with
+ * {@link uk.gov.gchq.gaffer.operation.impl.CountGroups}, if a limit is set
+ * only the elements up to the limit are counted, in the order they are
+ * returned, and the limit is marked as hit if there are more.
+ */
+public class CountElementGroupsHandler implements OutputOperationHandler<CountElementGroups, GroupCounts> {
+    @Override
+    public GroupCounts doOperation(final CountElementGroups operation, final Context context, final Store store)
+            throws OperationException {
+        final ParquetStore parquetStore = (ParquetStore) store;
+        final Map<String, Long> counts = new HashMap<>();
+        final boolean limitHit = CountElementsHandler.countGroups(operation.getOperation(), operation.getLimit(),
+                counts, context.getUser(), parquetStore);
+
+        final GroupCounts groupCounts = new GroupCounts();
+        groupCounts.setLimitHit(limitHit);
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            final int count = (int) Math.min(entry.getValue(), Integer.MAX_VALUE);
+            if (parquetStore.getSchema().getEntityGroups().contains(entry.getKey())) {
+                groupCounts.getEntityGroups().put(entry.getKey(), count);
+            } else {
+                groupCounts.getEdgeGroups().put(entry.getKey(), count);
+            }
+        }
+        return groupCounts;
+    }
+}
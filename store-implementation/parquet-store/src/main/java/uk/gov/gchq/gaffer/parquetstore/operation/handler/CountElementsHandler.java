@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.RetrieveElementsFromFile;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileQuery;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetQuery;
+import uk.gov.gchq.gaffer.parquetstore.query.QueryGenerator;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.CountElements;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code CountElementsHandler} handles {@link CountElements} operations on the {@link ParquetStore}. If every
+ * element in a file would be returned, because the file needs no filtering, validation or visibility checks, the
+ * number of elements is taken from the row counts in the file's row group metadata, so the file is not read. The
+ * other files are read and their elements counted without being returned.
+ */
+public class CountElementsHandler implements OutputOperationHandler<CountElements, Long> {
+    @Override
+    public Long doOperation(final CountElements operation, final Context context, final Store store)
+            throws OperationException {
+        final Map<String, Long> counts = new HashMap<>();
+        countGroups(operation.getOperation(), null, counts, context.getUser(), (ParquetStore) store);
+        long count = 0;
+        for (final Long groupCount : counts.values()) {
+            count += groupCount;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the elements in each group that a {@link GetElements} or
+     * {@link GetAllElements} operation would return.
+     * If a limit is given, only the first elements up to the limit are
+     * counted, in the order they are returned.
+     *
+     * @param operation the operation to count the elements of
+     * @param limit     the number of elements to count, or null to count all elements
+     * @param counts    the map to add the number of elements in each group to
+     * @param user      the user executing the operation
+     * @param store     the parquet store
+     * @return true if there were more elements than the limit
+     * @throws OperationException if the elements could not be counted
+     */
+    static boolean countGroups(final Output<?> operation, final Integer limit, final Map<String, Long> counts,
+                               final User user, final ParquetStore store) throws OperationException {
+        if (operation instanceof GetElements) {
+            if (null == ((GetElements) operation).getInput()) {
+                throw new OperationException("Operation input is null - please specify an input.");
+            }
+        } else if (!(operation instanceof GetAllElements)) {
+            throw new OperationException("Unable to count the elements returned by operation: "
+                    + (null != operation ? operation.getClass().getName() : null));
+        }
+
+        final ParquetQuery parquetQuery;
+        try {
+            parquetQuery = new QueryGenerator(store).getParquetQuery(operation);
+        } catch (final IOException e) {
+            throw new OperationException("Exception creating the Parquet query", e);
+        }
+
+        // The files are counted in the same order that ParquetElementRetriever returns them
+        final View view = ((GraphFilters) operation).getView();
+        long remaining = null != limit ? limit : Long.MAX_VALUE;
+        for (final Map.Entry<String, List<ParquetFileQuery>> entry : parquetQuery.getGroupToQueries().entrySet()) {
+            for (final ParquetFileQuery fileQuery : entry.getValue()) {
+                final long count = canUseMetadata(fileQuery, store)
+                        ? getRowCount(fileQuery.getFile(), store)
+                        : countElementsInFile(fileQuery, remaining, view, user, store);
+                final long counted = Math.min(count, remaining);
+                if (counted > 0) {
+                    counts.merge(entry.getKey(), counted, Long::sum);
+                }
+                if (count > remaining) {
+                    return true;
+                }
+                remaining -= counted;
+            }
+        }
+        return false;
+    }
+
+    private static boolean canUseMetadata(final ParquetFileQuery fileQuery, final ParquetStore store) {
+        return null == fileQuery.getFilter()
+                && fileQuery.isFullyApplied()
+                && null == store.getSchema().getVisibilityProperty();
+    }
+
+    private static long getRowCount(final Path path, final ParquetStore store) throws OperationException {
+        try {
+            if (!store.getFS().exists(path)) {
+                return 0;
+            }
+            final ParquetMetadata metadata = ParquetFileReader
+                    .readFooter(store.getFS().getConf(), path, ParquetMetadataConverter.NO_FILTER);
+            long rowCount = 0;
+            for (final BlockMetaData rowGroup : metadata.getBlocks()) {
+                rowCount += rowGroup.getRowCount();
+            }
+            return rowCount;
+        } catch (final IOException e) {
+            throw new OperationException("Exception reading the metadata of file " + path, e);
+        }
+    }
+
+    // Reads the file until more than the maximum number of elements have been counted
+    private static long countElementsInFile(final ParquetFileQuery fileQuery, final long max, final View view,
+                                            final User user, final ParquetStore store) throws OperationException {
+        final RetrieveElementsFromFile task = new RetrieveElementsFromFile(fileQuery.getFile(), fileQuery.getFilter(),
+                store.getSchema(), store.getProperties().getQueryBatchSize(), !fileQuery.isFullyApplied(),
+                store.getProperties().getSkipValidation(), view, user);
+        long count = 0;
+        try {
+            while (!task.isFinished() && count <= max) {
+                count += task.call().size();
+            }
+        } catch (final Exception e) {
+            throw new OperationException("Exception counting the elements in file " + fileQuery.getFile(), e);
+        } finally {
+            task.close();
+        }
+        return count;
+    }
+}
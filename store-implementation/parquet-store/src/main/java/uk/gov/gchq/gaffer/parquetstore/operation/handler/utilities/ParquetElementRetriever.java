@@ -33,19 +33,30 @@ import uk.gov.gchq.gaffer.parquetstore.query.QueryGenerator;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * Converts the inputs for get element operations to a mapping of files to Parquet filters which is
  * then looped over to retrieve the filtered Elements.
+ * <p>
+ * The elements are streamed: each file is read in batches on the store's shared query thread pool, and the next
+ * batch from a file is only read once the previous batch has been consumed. A limited number of files are read
+ * ahead at the same time, so the memory used by a query is bounded however many elements it returns. The files are
+ * returned one after another in the order of the query, so the elements within each partition are returned in order.
+ * Closing the iterator, for example once a {@link uk.gov.gchq.gaffer.operation.impl.Limit} has been reached, cancels
+ * the reads in progress. The iterator fails if a batch is not read within the query batch timeout.
  */
 public class ParquetElementRetriever implements CloseableIterable<Element> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ParquetElementRetriever.class);
@@ -77,9 +88,12 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
     }
 
     protected static class ParquetIterator implements CloseableIterator<Element> {
-        private ConcurrentLinkedQueue<Element> queue;
-        private List<Future<OperationException>> runningTasks;
-        private ExecutorService executorServicePool;
+        private final Deque<FileRetrieval> activeRetrievals = new ArrayDeque<>();
+        private Iterator<RetrieveElementsFromFile> remainingFiles = Collections.emptyIterator();
+        private Iterator<Element> currentBatch = Collections.emptyIterator();
+        private ExecutorService executorService;
+        private int filesReadAhead;
+        private long batchTimeout;
 
         protected ParquetIterator(final ParquetStore store, final Operation operation, final User user) throws OperationException {
             final QueryGenerator queryGenerator = new QueryGenerator(store);
@@ -93,90 +107,118 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
                 final ParquetQuery parquetQuery = queryGenerator.getParquetQuery(operation);
                 LOGGER.debug("Created ParquetQuery {}", parquetQuery);
                 if (!parquetQuery.isEmpty()) {
-                    queue = new ConcurrentLinkedQueue<>();
-                    executorServicePool = Executors.newFixedThreadPool(store.getProperties().getThreadsAvailable());
-                    final List<RetrieveElementsFromFile> tasks = new ArrayList<>();
-                    tasks.addAll(parquetQuery.getAllParquetFileQueries()
+                    final int batchSize = store.getProperties().getQueryBatchSize();
+                    final List<RetrieveElementsFromFile> tasks = parquetQuery.getAllParquetFileQueries()
                             .stream()
                             .map(entry -> new RetrieveElementsFromFile(entry.getFile(), entry.getFilter(),
-                                    store.getSchema(), queue, !entry.isFullyApplied(),
+                                    store.getSchema(), batchSize, !entry.isFullyApplied(),
                                     store.getProperties().getSkipValidation(), view, user))
-                            .collect(Collectors.toList()));
-                    LOGGER.info("Invoking {} RetrieveElementsFromFile tasks", tasks.size());
-                    runningTasks = executorServicePool.invokeAll(tasks);
+                            .collect(Collectors.toList());
+                    LOGGER.info("Streaming elements from {} RetrieveElementsFromFile tasks", tasks.size());
+                    executorService = store.getQueryExecutorService();
+                    filesReadAhead = Math.max(1, store.getProperties().getQueryFilesReadAhead());
+                    batchTimeout = store.getProperties().getQueryBatchTimeout();
+                    remainingFiles = tasks.iterator();
+                    startRetrievals();
                 } else {
                     LOGGER.warn("No paths found - there will be no results from this query");
                 }
             } catch (final IOException | OperationException e) {
                 LOGGER.error("Exception while creating the mapping of file paths to Parquet filters: {}", e.getMessage());
                 throw new OperationException("Exception creating ParquetIterator", e);
-            } catch (final InterruptedException e) {
-                LOGGER.error("InterruptedException in ParquetIterator {}", e.getMessage());
-                throw new OperationException("InterruptedException in ParquetIterator", e);
             }
         }
 
         @Override
         public boolean hasNext() {
-            if (null != queue) {
-                if (queue.isEmpty()) {
-                    boolean finishedAllTasks = runningTasks.isEmpty();
-                    while (!finishedAllTasks && queue.isEmpty()) {
-                        try {
-                            finishedAllTasks = hasFinishedAllTasks();
-                            if (!finishedAllTasks) {
-                                wait(100L);
-                            }
-                        } catch (final Exception e) {
-                            LOGGER.error(e.getMessage(), e);
-                            finishedAllTasks = true;
-                        }
-                    }
-                    return !queue.isEmpty();
-                } else {
-                    return true;
+            while (!currentBatch.hasNext()) {
+                final FileRetrieval retrieval = activeRetrievals.peekFirst();
+                if (null == retrieval) {
+                    return false;
                 }
-            } else {
-                return false;
-            }
-        }
 
-        private boolean hasFinishedAllTasks() throws ExecutionException, InterruptedException, OperationException {
-            final List<Future<OperationException>> completedTasks = new ArrayList<>();
-            for (final Future<OperationException> task : runningTasks) {
-                if (task.isDone()) {
-                    final OperationException taskResult = task.get();
-                    if (null != taskResult) {
-                        throw taskResult;
-                    } else {
-                        completedTasks.add(task);
-                    }
+                final List<Element> batch = retrieval.getBatch();
+                if (retrieval.task.isFinished()) {
+                    activeRetrievals.removeFirst();
+                    startRetrievals();
+                } else {
+                    // Read the next batch while this one is consumed
+                    retrieval.submit();
                 }
+                currentBatch = batch.iterator();
             }
-            runningTasks.removeAll(completedTasks);
-            return runningTasks.isEmpty();
+            return true;
         }
 
         @Override
         public Element next() throws NoSuchElementException {
-            Element e;
-            while (hasNext()) {
-                e = queue.poll();
-                if (null != e) {
-                    return e;
-                }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            throw new NoSuchElementException();
+            return currentBatch.next();
         }
 
         @Override
         public void close() {
-            if (null != executorServicePool) {
-                executorServicePool.shutdown();
-                executorServicePool = null;
+            for (final FileRetrieval retrieval : activeRetrievals) {
+                retrieval.cancel();
+            }
+            activeRetrievals.clear();
+            remainingFiles = Collections.emptyIterator();
+            currentBatch = Collections.emptyIterator();
+            executorService = null;
+        }
+
+        private void startRetrievals() {
+            while (activeRetrievals.size() < filesReadAhead && remainingFiles.hasNext()) {
+                final FileRetrieval retrieval = new FileRetrieval(remainingFiles.next());
+                retrieval.submit();
+                activeRetrievals.addLast(retrieval);
+            }
+        }
+
+        private final class FileRetrieval {
+            private final RetrieveElementsFromFile task;
+            private Future<List<Element>> nextBatch;
+
+            private FileRetrieval(final RetrieveElementsFromFile task) {
+                this.task = task;
+            }
+
+            private void submit() {
+                try {
+                    nextBatch = executorService.submit(task);
+                } catch (final RejectedExecutionException e) {
+                    close();
+                    throw new RuntimeException("Unable to retrieve elements from Parquet files as the store has been closed", e);
+                }
+            }
+
+            private List<Element> getBatch() {
+                try {
+                    return nextBatch.get(batchTimeout, TimeUnit.SECONDS);
+                } catch (final TimeoutException e) {
+                    close();
+                    throw new RuntimeException("Timed out after " + batchTimeout
+                            + " seconds waiting for elements from Parquet file " + task.getFilePath(), e);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new RuntimeException("Interrupted while retrieving elements from Parquet files", e);
+                } catch (final ExecutionException e) {
+                    LOGGER.error("Exception retrieving elements from Parquet files", e.getCause());
+                    close();
+                    throw new RuntimeException("Exception retrieving elements from Parquet files", e.getCause());
+                }
+            }
+
+            private void cancel() {
+                if (null != nextBatch) {
+                    // Interrupt the read in case it is blocked on the file
+                    nextBatch.cancel(true);
+                }
+                task.close();
             }
-            queue = null;
-            runningTasks = null;
         }
     }
 }
@@ -24,15 +24,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.Authorisations;
-import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.ElementVisibility;
-import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.VisibilityEvaluator;
+import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.CachingVisibilityEvaluator;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.exception.VisibilityParseException;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
-import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.parquetstore.io.reader.ParquetElementReader;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
 import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
@@ -40,22 +38,26 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Used to retrieve the elements from a single file and put the elements into a shared
- * {@link java.util.concurrent.ConcurrentLinkedQueue}.
+ * Used to retrieve the elements from a single file. Each call returns the next batch of elements from the file, so
+ * the file is only read as quickly as the elements are consumed. A batch smaller than the batch size means that the
+ * whole file has been read.
  */
-public class RetrieveElementsFromFile implements Callable<OperationException> {
+public class RetrieveElementsFromFile implements Callable<List<Element>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(RetrieveElementsFromFile.class);
 
     private final Path filePath;
     private final FilterPredicate filter;
     private final byte[] jsonGafferSchema;
     private transient SchemaUtils schemaUtils;
-    private final ConcurrentLinkedQueue<Element> queue;
+    private final int batchSize;
     private transient ElementFilter elementFilter;
     private final byte[] elementDefinitionJson;
     private final boolean needsValidatorsAndFiltersApplying;
@@ -63,13 +65,17 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
     private final String group;
     private final View view;
     private final Schema gafferSchema;
-    private final Authorisations auths;
+    private final CachingVisibilityEvaluator visibilityEvaluator;
     private final String visibility;
+    private final Lock readLock = new ReentrantLock();
+    private ParquetReader<Element> fileReader;
+    private volatile boolean finished;
+    private volatile boolean closed;
 
     public RetrieveElementsFromFile(final Path filePath,
                                     final FilterPredicate filter,
                                     final Schema gafferSchema,
-                                    final ConcurrentLinkedQueue<Element> queue,
+                                    final int batchSize,
                                     final boolean needsValidatorsAndFiltersApplying,
                                     final boolean skipValidation,
                                     final View view,
@@ -88,12 +94,12 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
 
         if (user != null && user.getDataAuths() != null) {
             final Set<String> dataAuths = user.getDataAuths();
-            this.auths = new Authorisations(dataAuths.toArray(new String[dataAuths.size()]));
+            this.visibilityEvaluator = new CachingVisibilityEvaluator(new Authorisations(dataAuths.toArray(new String[dataAuths.size()])));
         } else {
-            this.auths = new Authorisations();
+            this.visibilityEvaluator = new CachingVisibilityEvaluator(new Authorisations());
         }
 
-        this.queue = queue;
+        this.batchSize = batchSize;
         this.view = view;
         this.needsValidatorsAndFiltersApplying = needsValidatorsAndFiltersApplying;
         this.skipValidation = skipValidation;
@@ -106,7 +112,24 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
     }
 
     @Override
-    public OperationException call() throws Exception {
+    public List<Element> call() throws Exception {
+        final List<Element> batch = new ArrayList<>();
+        readLock.lock();
+        try {
+            if (!finished) {
+                readBatch(batch);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        if (closed) {
+            // The file may have been closed while this batch was being read
+            close();
+        }
+        return batch;
+    }
+
+    private void readBatch(final List<Element> batch) throws Exception {
         if (null == elementFilter) {
             elementFilter = new ViewElementDefinition.Builder().json(elementDefinitionJson).build().getPreAggregationFilter();
         }
@@ -114,46 +137,76 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
             schemaUtils = new SchemaUtils(Schema.fromJson(jsonGafferSchema));
         }
         try {
-            final ParquetReader<Element> fileReader = openParquetReader();
-            Element e = fileReader.read();
-            while (null != e) {
-                if (!visibility.isEmpty()) {
-                    if (isVisible(e)) {
-                        if (needsValidatorsAndFiltersApplying) {
-                            final String group = e.getGroup();
-                            final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
-                            if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
-                                if (elementFilter == null || elementFilter.test(e)) {
-                                    ViewUtil.removeProperties(view, e);
-                                    queue.add(e);
-                                }
-                            }
-                        } else {
-                            ViewUtil.removeProperties(view, e);
-                            queue.add(e);
-                        }
-                    }
-                } else if (needsValidatorsAndFiltersApplying) {
-                    final String group = e.getGroup();
-                    final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
-                    if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
-                        if (elementFilter == null || elementFilter.test(e)) {
-                            ViewUtil.removeProperties(view, e);
-                            queue.add(e);
-                        }
-                    }
-                } else {
+            if (null == fileReader) {
+                fileReader = openParquetReader();
+            }
+            while (batch.size() < batchSize && !closed) {
+                final Element e = fileReader.read();
+                if (null == e) {
+                    close();
+                    break;
+                }
+                if (isRequired(e)) {
                     ViewUtil.removeProperties(view, e);
-                    queue.add(e);
+                    batch.add(e);
                 }
-                e = fileReader.read();
             }
-            fileReader.close();
         } catch (final IOException ignore) {
             LOGGER.error("IOException reading file", ignore);
             // ignore as this file does not exist
+            close();
+        }
+    }
+
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Returns true once all of the elements have been read from the file, or
+     * the file has been closed.
+     *
+     * @return true if there are no more elements to read from the file
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Stops reading the file and closes it. This does not wait for a batch
+     * that is being read: that batch ends early and closes the file itself.
+     */
+    public void close() {
+        closed = true;
+        if (readLock.tryLock()) {
+            try {
+                finished = true;
+                if (null != fileReader) {
+                    try {
+                        fileReader.close();
+                    } catch (final IOException e) {
+                        LOGGER.warn("IOException closing file {}", filePath, e);
+                    }
+                    fileReader = null;
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+
+    private boolean isRequired(final Element e) throws VisibilityParseException {
+        if (!visibility.isEmpty() && !isVisible(e)) {
+            return false;
+        }
+        if (needsValidatorsAndFiltersApplying) {
+            final ElementFilter validatorFilter = gafferSchema.getElement(e.getGroup()).getValidator(false);
+            if (!skipValidation && null != validatorFilter && !validatorFilter.test(e)) {
+                return false;
+            }
+            return null == elementFilter || elementFilter.test(e);
         }
-        return null;
+        return true;
     }
 
     private ParquetReader<Element> openParquetReader() throws IOException {
@@ -176,9 +229,7 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
 
     private Boolean isVisible(final Element e) throws VisibilityParseException {
         if (e.getProperty(visibility) != null) {
-            final VisibilityEvaluator visibilityEvaluator = new VisibilityEvaluator(auths);
-            final ElementVisibility elementVisibility = new ElementVisibility((String) e.getProperty(visibility));
-            return visibilityEvaluator.evaluate(elementVisibility);
+            return visibilityEvaluator.evaluate((String) e.getProperty(visibility));
         } else {
             e.putProperty(visibility, new String());
             return true;
@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.parquetstore.query;
 import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,16 @@ public class ParquetQuery {
         return groupToQueries.isEmpty();
     }
 
+    /**
+     * Gets the file queries for each group. The groups and files are in the same order as
+     * {@link #getAllParquetFileQueries()}.
+     *
+     * @return the file queries for each group
+     */
+    public Map<String, List<ParquetFileQuery>> getGroupToQueries() {
+        return Collections.unmodifiableMap(groupToQueries);
+    }
+
     public List<ParquetFileQuery> getAllParquetFileQueries() {
         final List<ParquetFileQuery> all = new ArrayList<>();
         groupToQueries
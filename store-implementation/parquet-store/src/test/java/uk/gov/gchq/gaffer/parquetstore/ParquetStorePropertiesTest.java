@@ -45,6 +45,27 @@ public class ParquetStorePropertiesTest {
         assertEquals((Integer) 9, props.getThreadsAvailable());
     }
 
+    @Test
+    public void queryBatchSizeTest() {
+        assertEquals((Integer) 1000, props.getQueryBatchSize());
+        props.setQueryBatchSize(10);
+        assertEquals((Integer) 10, props.getQueryBatchSize());
+    }
+
+    @Test
+    public void queryFilesReadAheadTest() {
+        assertEquals(props.getThreadsAvailable(), props.getQueryFilesReadAhead());
+        props.setQueryFilesReadAhead(5);
+        assertEquals((Integer) 5, props.getQueryFilesReadAhead());
+    }
+
+    @Test
+    public void queryBatchTimeoutTest() {
+        assertEquals((Long) 300L, props.getQueryBatchTimeout());
+        props.setQueryBatchTimeout(30L);
+        assertEquals((Long) 30L, props.getQueryBatchTimeout());
+    }
+
     @Test
     public void dataDirTest() {
         assertThat(props.getDataDir()).isNull();
@@ -21,7 +21,9 @@ import org.junit.jupiter.api.io.TempDir;
 
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.data.GroupCounts;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
@@ -32,23 +34,30 @@ import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.util.ElementUtil;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.integration.StandaloneIT;
+import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.SeedMatching;
 import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
 import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
+import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
 import uk.gov.gchq.gaffer.user.User;
 import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -121,6 +130,42 @@ public abstract class AbstractOperationsTest extends StandaloneIT {
         ElementUtil.assertElementEquals(getResultsForGetAllElementsTest(), results);
     }
 
+    @Test
+    public void shouldGetAllElementsWhenReadInSmallBatches() throws OperationException {
+        // Given
+        final ParquetStoreProperties properties = (ParquetStoreProperties) createStoreProperties();
+        properties.setQueryBatchSize(3);
+        properties.setQueryFilesReadAhead(1);
+        final Graph graph = createGraph(properties);
+        graph.execute(new AddElements.Builder().input(getInputDataForGetAllElementsTest()).build(), user);
+
+        // When
+        final CloseableIterable<? extends Element> results = graph.execute(
+                new GetAllElements.Builder().build(), user);
+
+        // Then
+        ElementUtil.assertElementEquals(getResultsForGetAllElementsTest(), results);
+    }
+
+    @Test
+    public void shouldStopRetrievingElementsWhenResultsAreClosed() throws OperationException {
+        // Given
+        final ParquetStoreProperties properties = (ParquetStoreProperties) createStoreProperties();
+        properties.setQueryBatchSize(1);
+        final Graph graph = createGraph(properties);
+        graph.execute(new AddElements.Builder().input(getInputDataForGetAllElementsTest()).build(), user);
+        final CloseableIterable<? extends Element> results = graph.execute(
+                new GetAllElements.Builder().build(), user);
+        final CloseableIterator<? extends Element> iterator = results.iterator();
+        iterator.next();
+
+        // When
+        iterator.close();
+
+        // Then
+        assertFalse(iterator.hasNext());
+    }
+
     @Test
     public void shouldGetNoResultsFromGetAllElementsOnEmptyGraph() throws OperationException {
         // Given (test on a graph on which add has been called with an empty list and
@@ -428,4 +473,61 @@ public abstract class AbstractOperationsTest extends StandaloneIT {
         assertThat(resultsIterator).isExhausted();
         results.close();
     }
+
+    @Test
+    public void shouldCountElementsTheSameAsCountingTheRetrievedElements() throws OperationException {
+        // Given
+        final Graph graph = createGraph();
+        graph.execute(new AddElements.Builder().input(getInputDataForGetAllElementsTest()).build(), user);
+
+        for (final View view : Arrays.asList(null, getView())) {
+            for (final boolean seeded : new boolean[]{false, true}) {
+                final List<Element> retrieved = new ArrayList<>();
+                graph.execute(createGetOperation(view, seeded), user).forEach(retrieved::add);
+
+                // When
+                final Long count = graph.execute(new OperationChain.Builder()
+                        .first(createGetOperation(view, seeded))
+                        .then(new Count<>())
+                        .build(), user);
+
+                // Then
+                assertThat(count).isEqualTo((long) retrieved.size());
+            }
+        }
+    }
+
+    @Test
+    public void shouldCountGroupsTheSameAsCountingTheRetrievedElements() throws OperationException {
+        // Given
+        final Graph graph = createGraph();
+        graph.execute(new AddElements.Builder().input(getInputDataForGetAllElementsTest()).build(), user);
+
+        for (final View view : Arrays.asList(null, getView())) {
+            for (final Integer limit : Arrays.asList(null, 0, 7, 1000)) {
+                final GroupCounts expected = new CountGroupsHandler().doOperation(new CountGroups.Builder()
+                        .input(graph.execute(createGetOperation(view, false), user))
+                        .limit(limit)
+                        .build(), new Context(user), null);
+
+                // When
+                final GroupCounts groupCounts = graph.execute(new OperationChain.Builder()
+                        .first(createGetOperation(view, false))
+                        .then(new CountGroups(limit))
+                        .build(), user);
+
+                // Then
+                assertThat(groupCounts.getEntityGroups()).isEqualTo(expected.getEntityGroups());
+                assertThat(groupCounts.getEdgeGroups()).isEqualTo(expected.getEdgeGroups());
+                assertThat(groupCounts.isLimitHit()).isEqualTo(expected.isLimitHit());
+            }
+        }
+    }
+
+    private Output<CloseableIterable<? extends Element>> createGetOperation(final View view, final boolean seeded) {
+        if (seeded) {
+            return new GetElements.Builder().input(getSeeds()).view(view).build();
+        }
+        return new GetAllElements.Builder().view(view).build();
+    }
 }